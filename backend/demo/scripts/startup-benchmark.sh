@@ -0,0 +1,83 @@
+#!/usr/bin/env bash
+# Startup and first-request latency of the plain jar against the "startup" build
+# (AOT + AppCDS, see the startup profile in pom.xml).
+#
+#   mvn -DskipTests package && mvn -Pstartup -DskipTests package
+#   scripts/startup-benchmark.sh [runs]
+#
+# BASELINE_JAR points the baseline at another jar, e.g. one built from an older commit. Each run
+# starts with empty data directories on a fixed port and reports, in milliseconds:
+#   jvm      JVM uptime when Spring Boot logged "Started" (process running for ...)
+#   ready    launch until /actuator/health first answered 200, as seen from outside
+#   get      the first GET /questions/by-role/SWE
+#   submit   the first graded POST /questions/6 (a Python worker run)
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+RUNS=${1:-5}
+PORT=${PORT:-18090}
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+BASELINE_JAR=${BASELINE_JAR:-target/demo-0.0.1-SNAPSHOT.jar}
+STARTUP_DIR=target/startup
+WORK=$(mktemp -d)
+trap 'kill "$PID" 2>/dev/null || true; rm -rf "$WORK"' EXIT
+PID=
+
+SOLUTION='def solution(coins, amount):\n    best = [0] + [amount + 1] * amount\n    for a in range(1, amount + 1):\n        for c in coins:\n            if c <= a:\n                best[a] = min(best[a], best[a - c] + 1)\n    return best[amount] if best[amount] <= amount else -1\n'
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+# run <label> <dir> <java args...>: one cold start, prints "jvm ready get submit"
+run() {
+    local dir=$1
+    shift
+    rm -rf "$WORK/data" && mkdir -p "$WORK/data"
+    local start
+    start=$(now_ms)
+    (cd "$dir" && exec "$JAVA" "$@" --server.port="$PORT" --attempts.log.dir="$WORK/data/attempts" \
+        --questions.pack.compiled-dir="$WORK/data/questions" --admission.enabled=false) > "$WORK/app.log" 2>&1 &
+    PID=$!
+    until curl -sf "localhost:$PORT/actuator/health" > /dev/null; do
+        if ! kill -0 "$PID" 2>/dev/null; then
+            cat "$WORK/app.log" >&2
+            exit 1
+        fi
+        sleep 0.01
+    done
+    local ready=$(( $(now_ms) - start ))
+    local get submit jvm
+    get=$(curl -sf -o /dev/null -w '%{time_total}' "localhost:$PORT/questions/by-role/SWE")
+    submit=$(curl -sf -o /dev/null -w '%{time_total}' -H 'Content-Type: application/json' \
+        -H 'X-User-Id: bench' -H 'X-Session-Id: bench' \
+        -d "{\"id\":\"6\",\"time\":\"60\",\"solution\":\"$SOLUTION\"}" "localhost:$PORT/questions/6")
+    jvm=$(sed -n 's/.*process running for \([0-9.]*\).*/\1/p' "$WORK/app.log")
+    kill "$PID" && wait "$PID" 2>/dev/null || true
+    awk -v j="$jvm" -v r="$ready" -v g="$get" -v s="$submit" \
+        'BEGIN { printf "%d %d %.1f %.1f\n", j * 1000, r, g * 1000, s * 1000 }'
+}
+
+# measure <label> <dir> <java args...>: RUNS cold starts, prints the median of each column
+measure() {
+    local label=$1
+    shift
+    for _ in $(seq "$RUNS"); do
+        run "$@"
+    done > "$WORK/runs"
+    printf '%-10s' "$label"
+    for column in 1 2 3 4; do
+        sort -n -k"$column","$column" "$WORK/runs" | awk -v c="$column" -v n="$RUNS" \
+            'NR == int((n + 1) / 2) { printf " %10s", $c }'
+    done
+    echo
+}
+
+printf '%-10s %10s %10s %10s %10s   (median of %d, ms)\n' "build" "jvm" "ready" "get" "submit" "$RUNS"
+measure baseline . -jar "$BASELINE_JAR"
+if [[ -f $STARTUP_DIR/application.jsa ]]; then
+    measure startup "$STARTUP_DIR" -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true \
+        -jar demo-0.0.1-SNAPSHOT.jar
+else
+    echo "No $STARTUP_DIR/application.jsa; build it with mvn -Pstartup -DskipTests package" >&2
+fi
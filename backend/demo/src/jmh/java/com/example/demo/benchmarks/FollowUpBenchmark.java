@@ -0,0 +1,93 @@
+package com.example.demo.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.demo.enums.Concepts;
+import com.example.demo.enums.Difficulty;
+import com.example.demo.enums.RoleType;
+import com.example.demo.model.QuestionModel;
+import com.example.demo.model.ReportModel;
+import com.example.demo.model.SolutionModel;
+import com.example.demo.services.QuestionFilterService;
+import com.example.demo.services.QuestionIndex;
+import com.example.demo.services.QuestionRegistry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Follow-up selection over synthetic banks of 10^2 to 10^5 questions. Reports cycle through a
+ * fixed set of random weak-concept combinations so the branch pattern is not a single case.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FollowUpBenchmark {
+
+    private static final int REPORTS = 64;
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int bankSize;
+
+    private QuestionFilterService filterService;
+    private QuestionIndex index;
+    private ReportModel[] reports;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        filterService = new QuestionFilterService(new QuestionRegistry(), new SimpleMeterRegistry());
+        index = new QuestionIndex(SyntheticBank.questions(random, bankSize));
+        reports = new ReportModel[REPORTS];
+        for (int i = 0; i < REPORTS; i++) {
+            reports[i] = randomReport(random);
+        }
+    }
+
+    @Benchmark
+    public List<QuestionModel> followUp() {
+        ReportModel report = reports[next++ & (REPORTS - 1)];
+        return filterService.getFollowUpQuestions(index, report);
+    }
+
+    private ReportModel randomReport(Random random) {
+        Concepts[] concepts = Concepts.values();
+        List<Concepts> weak = new ArrayList<>();
+        for (int i = 1 + random.nextInt(3); i > 0; i--) {
+            Concepts c = concepts[random.nextInt(concepts.length)];
+            if (!weak.contains(c)) {
+                weak.add(c);
+            }
+        }
+        List<SolutionModel> solutions = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            SolutionModel s = new SolutionModel();
+            s.setId(String.valueOf(random.nextInt(bankSize)));
+            solutions.add(s);
+        }
+        ReportModel report = new ReportModel();
+        report.setRole(RoleType.SWE);
+        report.setWeakConcepts(weak);
+        report.setSuggestedDifficulty(Difficulty.values()[random.nextInt(Difficulty.values().length)]);
+        report.setSolutions(solutions);
+        return report;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.demo.benchmarks;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.demo.model.QuestionModel;
+
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Serializing question lists the way the controller responses do: a page of five and a full
+ * role bank.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"5", "100", "1000"})
+    public int listSize;
+
+    private ObjectMapper objectMapper;
+    private List<QuestionModel> questions;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JsonMapper.builder().build();
+        questions = SyntheticBank.questions(new Random(42), listSize);
+    }
+
+    @Benchmark
+    public byte[] serializeQuestions() {
+        return objectMapper.writeValueAsBytes(questions);
+    }
+}
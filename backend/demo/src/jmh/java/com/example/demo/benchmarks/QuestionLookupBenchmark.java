@@ -0,0 +1,69 @@
+package com.example.demo.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+
+import com.example.demo.enums.RoleType;
+import com.example.demo.content.QuestionPack;
+import com.example.demo.content.QuestionPackCompiler;
+import com.example.demo.content.QuestionPackLoader;
+import com.example.demo.model.QuestionModel;
+import com.example.demo.services.QuestionRegistry;
+
+/**
+ * Role question lookup through the registry, and opening the compiled question pack (the
+ * startup cost, which only decodes summaries).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuestionLookupBenchmark {
+
+    @Param({"SWE", "CLOUD", "ML"})
+    public RoleType role;
+
+    private QuestionRegistry registry;
+    private byte[] compiledPack;
+
+    @Setup
+    public void setUp() throws IOException {
+        registry = new QuestionRegistry();
+        try (InputStream in = new ClassPathResource(QuestionPackLoader.BUNDLED_PACK).getInputStream()) {
+            compiledPack = QuestionPackCompiler.compile(in.readAllBytes());
+        }
+    }
+
+    @Benchmark
+    public List<QuestionModel> registryQuestions() {
+        return registry.getQuestions(role);
+    }
+
+    @Benchmark
+    public QuestionModel registryQuestionById() {
+        return registry.getQuestion(role, "3");
+    }
+
+    @Benchmark
+    public List<QuestionModel> openPack() {
+        return QuestionPack.open(ByteBuffer.wrap(compiledPack)).getQuestions(role);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.demo.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.demo.content.QuestionPack;
+import com.example.demo.content.QuestionPackCompiler;
+import com.example.demo.enums.Concepts;
+import com.example.demo.enums.Difficulty;
+import com.example.demo.enums.RoleType;
+import com.example.demo.model.SearchHitModel;
+import com.example.demo.search.QuestionSearch;
+import com.example.demo.services.QuestionRegistry;
+
+/**
+ * Search-as-you-type over 10^3 to 10^5 synthetic questions. Words are drawn by Zipf's law over a
+ * vocabulary of topic words ranked among generated filler words, so the top filler words are in
+ * nearly every question, like real common words, and topic words in a few percent. Each query is
+ * one keystroke of a user typing a two-word query, some with a typo, cycled in order.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchBenchmark {
+
+    private static final String[] WORDS = {
+            "array", "string", "tree", "graph", "binary", "search", "sort", "merge", "interval", "window",
+            "substring", "palindrome", "matrix", "path", "shortest", "minimum", "maximum", "subarray", "sum",
+            "product", "stack", "queue", "heap", "linked", "list", "node", "cycle", "island", "bracket",
+            "partition", "permutation", "combination", "dynamic", "programming", "greedy", "backtracking",
+            "prefix", "suffix", "anagram", "frequency", "count", "distinct", "duplicate", "rotate", "reverse",
+            "cache", "schedule", "course", "network", "delay", "flight", "ticket", "word", "ladder", "gradient",
+            "descent", "regression", "cluster", "neuron", "layer", "attention", "token", "balancer", "replica",
+            "shard", "latency", "throughput", "container", "pod", "bucket", "storage", "message"};
+    private static final int VOCABULARY = 5000;
+    // Rank of the first topic word; the ones before it are the commonest filler words
+    private static final int FIRST_TOPIC_RANK = 40;
+    private static final String[] QUERIES = {"b", "bi", "bin", "bina", "binar", "binary", "binary s", "binary se",
+            "binary sea", "binary searc", "binary search", "sh", "sho", "shortest p", "shortest pa", "shortest path",
+            "dyn", "dynamc", "dynamc prog", "dynamc programming", "subarr", "subarray sum", "graident descent"};
+
+    @Param({"1000", "10000", "100000"})
+    public int bankSize;
+
+    private QuestionSearch search;
+    private String[] vocabulary;
+    private double[] cumulative;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        vocabulary = vocabulary(random);
+        cumulative = new double[VOCABULARY];
+        double total = 0;
+        for (int rank = 0; rank < VOCABULARY; rank++) {
+            total += 1.0 / (rank + 1);
+            cumulative[rank] = total;
+        }
+        List<QuestionPackCompiler.Entry> entries = new ArrayList<>(bankSize);
+        RoleType[] roles = RoleType.values();
+        Difficulty[] difficulties = Difficulty.values();
+        Concepts[] concepts = Concepts.values();
+        for (int i = 0; i < bankSize; i++) {
+            entries.add(new QuestionPackCompiler.Entry(roles[i % roles.length], String.valueOf(i),
+                    words(random, 4), difficulties[random.nextInt(difficulties.length)],
+                    List.of(concepts[random.nextInt(concepts.length)]), words(random, 40),
+                    List.of(words(random, 10), words(random, 10), words(random, 10)), "O(n)"));
+        }
+        QuestionPack pack = QuestionPack.open(ByteBuffer.wrap(QuestionPackCompiler.compile(entries)));
+        search = new QuestionSearch(new QuestionRegistry(pack));
+    }
+
+    @Benchmark
+    public List<SearchHitModel> typeAhead() {
+        String query = QUERIES[next++ % QUERIES.length];
+        return search.search(query, null, null, null, 10);
+    }
+
+    @Benchmark
+    public List<SearchHitModel> typeAheadFiltered() {
+        String query = QUERIES[next++ % QUERIES.length];
+        return search.search(query, List.of(RoleType.SWE), List.of(Difficulty.MEDIUM), null, 10);
+    }
+
+    private String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble() * cumulative[VOCABULARY - 1]);
+            text.append(i == 0 ? "" : " ").append(vocabulary[rank < 0 ? -rank - 1 : rank]);
+        }
+        return text.toString();
+    }
+
+    private static String[] vocabulary(Random random) {
+        String[] vocabulary = new String[VOCABULARY];
+        for (int rank = 0; rank < VOCABULARY; rank++) {
+            int topic = rank - FIRST_TOPIC_RANK;
+            if (topic >= 0 && topic < WORDS.length) {
+                vocabulary[rank] = WORDS[topic];
+                continue;
+            }
+            char[] word = new char[4 + random.nextInt(6)];
+            for (int i = 0; i < word.length; i++) {
+                word[i] = (char) ('a' + random.nextInt(26));
+            }
+            vocabulary[rank] = new String(word);
+        }
+        return vocabulary;
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.demo.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.unit.DataSize;
+
+import com.example.demo.cluster.LocalStateLayer;
+import com.example.demo.enums.RoleType;
+import com.example.demo.execution.ExecutionService;
+import com.example.demo.execution.VerdictCache;
+import com.example.demo.model.ReportModel;
+import com.example.demo.model.SessionKey;
+import com.example.demo.model.SolutionModel;
+import com.example.demo.persistence.AttemptLog;
+import com.example.demo.services.ComplexityGrader;
+import com.example.demo.services.GradingService;
+import com.example.demo.services.HintTracker;
+import com.example.demo.services.MasteryRecommender;
+import com.example.demo.services.QuestionRegistry;
+import com.example.demo.services.QuestionService;
+import com.example.demo.services.ReportEngine;
+import com.example.demo.services.SessionManager;
+import com.example.demo.services.SolutionStore;
+import com.example.demo.similarity.SimilarityIndex;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Submissions from eight threads into a shared service, either all into one session (worst-case
+ * contention) or spread over many, with and without the attempt log; plus building a report.
+ * The submitted question has no test cases, so no Python worker is involved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class SubmissionBenchmark {
+
+    private static final String UNGRADED_QUESTION = "2";
+
+    @Param({"1", "1024"})
+    public int sessions;
+
+    @Param({"false", "true"})
+    public boolean logged;
+
+    private QuestionService questionService;
+    private SessionManager sessionManager;
+    private ExecutionService executionService;
+    private AttemptLog attemptLog;
+    private Path logDir;
+    private SessionKey[] keys;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        QuestionRegistry registry = new QuestionRegistry();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        executionService = new ExecutionService(false, "python3", 1, 0, Duration.ofSeconds(1),
+                DataSize.ofMegabytes(64), 16, JsonMapper.builder().build(), meterRegistry);
+        GradingService gradingService = new GradingService(registry, executionService, new VerdictCache(1, meterRegistry));
+        if (logged) {
+            logDir = Files.createTempDirectory("attempt-log-bench");
+            attemptLog = new AttemptLog(logDir, 16 << 20, 50, (key, solution) -> { });
+        }
+        SolutionStore solutionStore = new SolutionStore(200);
+        ReportEngine reportEngine = new ReportEngine(registry);
+        HintTracker hintTracker = new HintTracker();
+        MasteryRecommender recommender = new MasteryRecommender(registry);
+        sessionManager = new SessionManager(registry, solutionStore, reportEngine, hintTracker, recommender,
+                new LocalStateLayer(), Duration.ofMinutes(30), Duration.ofSeconds(1));
+        ComplexityGrader complexityGrader = new ComplexityGrader(registry, executionService, false,
+                Duration.ofSeconds(1), 1);
+        questionService = new QuestionService(registry, solutionStore, reportEngine, gradingService, complexityGrader,
+                hintTracker, recommender, sessionManager, new SimilarityIndex(100_000, 64), Optional.ofNullable(attemptLog),
+                new LocalStateLayer(), meterRegistry);
+
+        keys = new SessionKey[sessions];
+        for (int i = 0; i < sessions; i++) {
+            keys[i] = SessionKey.of("user-" + i, "session-" + i);
+            questionService.submitAnswer(keys[i], RoleType.SWE, UNGRADED_QUESTION, solution());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        executionService.close();
+        sessionManager.close();
+        if (attemptLog != null) {
+            attemptLog.close();
+            try (Stream<Path> files = Files.walk(logDir)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    public void submit(Cursor cursor) {
+        SessionKey key = keys[cursor.next++ % keys.length];
+        questionService.submitAnswer(key, RoleType.SWE, UNGRADED_QUESTION, solution());
+    }
+
+    @Benchmark
+    public ReportModel report(Cursor cursor) {
+        return questionService.getReport(keys[cursor.next++ % keys.length], RoleType.SWE);
+    }
+
+    private static SolutionModel solution() {
+        SolutionModel s = new SolutionModel();
+        s.setId(UNGRADED_QUESTION);
+        s.setSolution("def solution(intervals):\n    return len(intervals)\n");
+        s.setTime("95");
+        s.setCorrect(true);
+        s.setHint1used(false);
+        return s;
+    }
+}
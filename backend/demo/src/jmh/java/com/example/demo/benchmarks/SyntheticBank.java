@@ -0,0 +1,43 @@
+package com.example.demo.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.example.demo.enums.Concepts;
+import com.example.demo.enums.Difficulty;
+import com.example.demo.model.QuestionModel;
+
+/**
+ * Generates question pools with one to three random concepts per question.
+ */
+final class SyntheticBank {
+
+    private SyntheticBank() {
+    }
+
+    static List<QuestionModel> questions(Random random, int size) {
+        Concepts[] concepts = Concepts.values();
+        Difficulty[] difficulties = Difficulty.values();
+        List<QuestionModel> pool = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            List<Concepts> tags = new ArrayList<>();
+            for (int c = 1 + random.nextInt(3); c > 0; c--) {
+                Concepts concept = concepts[random.nextInt(concepts.length)];
+                if (!tags.contains(concept)) {
+                    tags.add(concept);
+                }
+            }
+            pool.add(QuestionModel.builder()
+                    .id(String.valueOf(i))
+                    .question("Synthetic question " + i)
+                    .difficulty(difficulties[random.nextInt(difficulties.length)])
+                    .concepts(tags)
+                    .hint1("First hint for question " + i)
+                    .hint2("Second hint for question " + i)
+                    .hint3("Third hint for question " + i)
+                    .build());
+        }
+        return pool;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.demo.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Global in-flight limit that adapts to latency with AIMD, using a Vegas-style delay signal.
+ * A short and a long exponential average of request latency are kept; while the short one is
+ * more than twice the long one, queueing is building up and every completion cuts the limit by
+ * 10%. Otherwise a completion that found the limit at least half used raises it by one.
+ * The short average smooths out the mix of cached and executed submissions, and admission
+ * itself is a CAS on the in-flight count.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double BACKOFF = 0.9;
+    private static final double TOLERANCE = 2.0;
+    // Weight of each sample in the short and long averages
+    private static final double SHORT_SMOOTHING = 0.1;
+    private static final double LONG_SMOOTHING = 0.01;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+    private double shortNanos;
+    private double longNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Expected 1 <= min <= initial <= max limit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Admits a request if fewer than the current limit are in flight. Every admitted request
+     * must be {@link #release released}.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases an admitted request and feeds its latency into the limit.
+     */
+    public void release(long latencyNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        synchronized (this) {
+            if (longNanos == 0) {
+                shortNanos = latencyNanos;
+                longNanos = latencyNanos;
+                return;
+            }
+            shortNanos += SHORT_SMOOTHING * (latencyNanos - shortNanos);
+            longNanos += LONG_SMOOTHING * (latencyNanos - longNanos);
+            if (shortNanos > TOLERANCE * longNanos) {
+                limit = Math.max(minLimit, (int) (limit * BACKOFF));
+            } else if (inFlightBefore * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1);
+            }
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
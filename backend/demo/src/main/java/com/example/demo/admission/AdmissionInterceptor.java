@@ -0,0 +1,94 @@
+package com.example.demo.admission;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Admission control for the write endpoints (every POST it is mapped to): the client's token
+ * bucket first, then the global adaptive concurrency limit. Rejected requests get 429 with a
+ * Retry-After in seconds. Runs as an MVC interceptor, after CORS processing, so browsers can
+ * read the rejection. An async request holds its slot until its result is dispatched.
+ */
+public class AdmissionInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String ADMISSION = AdmissionInterceptor.class.getName() + ".admission";
+
+    private final TokenBucketLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final Counter admitted;
+    private final Counter rateLimited;
+    private final Counter overloaded;
+
+    public AdmissionInterceptor(TokenBucketLimiter rateLimiter, AdaptiveConcurrencyLimiter concurrencyLimiter,
+                                MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.admitted = meterRegistry.counter("admission.admitted");
+        this.rateLimited = meterRegistry.counter("admission.rejected", "reason", "rate-limit");
+        this.overloaded = meterRegistry.counter("admission.rejected", "reason", "concurrency");
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // The async result dispatch of an admitted request, or a read
+        if (request.getDispatcherType() != DispatcherType.REQUEST || !"POST".equals(request.getMethod())) {
+            return true;
+        }
+        long waitNanos = rateLimiter.tryAcquire(clientOf(request));
+        if (waitNanos > 0) {
+            rateLimited.increment();
+            reject(response, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999)));
+            return false;
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            overloaded.increment();
+            reject(response, 1);
+            return false;
+        }
+        admitted.increment();
+        request.setAttribute(ADMISSION, new Admission(System.nanoTime()));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        // Not called when async handling starts; it is called again after the async dispatch
+        if (request.getAttribute(ADMISSION) instanceof Admission admission
+                && admission.released.compareAndSet(false, true)) {
+            concurrencyLimiter.release(System.nanoTime() - admission.start);
+        }
+    }
+
+    /**
+     * The client address. Tomcat's remote IP valve has already replaced the peer address with the
+     * forwarded one when the peer is a trusted proxy ({@code server.tomcat.remoteip.internal-proxies}),
+     * so clients behind a load balancer get buckets of their own. X-User-Id is not used: it is
+     * whatever the client sends, so a client could take a fresh bucket with every request and
+     * push the real clients' buckets out.
+     */
+    static String clientOf(HttpServletRequest request) {
+        return request.getRemoteAddr();
+    }
+
+    private static void reject(HttpServletResponse response, long retryAfterSeconds) {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+    }
+
+    private record Admission(long start, AtomicBoolean released) {
+        Admission(long start) {
+            this(start, new AtomicBoolean());
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.demo.admission;
+
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Per-item charge for the batch endpoints. The interceptor admits a batch like any other POST,
+ * with one token and one concurrency slot; the endpoint then takes one token per item from the
+ * client's bucket here, which has its own rate and a burst the size of a full batch.
+ */
+public class BatchAdmission {
+
+    private final TokenBucketLimiter itemLimiter;
+    private final Counter rejected;
+
+    public BatchAdmission(TokenBucketLimiter itemLimiter, MeterRegistry meterRegistry) {
+        this.itemLimiter = itemLimiter;
+        this.rejected = meterRegistry.counter("admission.rejected", "reason", "batch-items");
+    }
+
+    /**
+     * Charges the batch's items to the client. Returns 0 if admitted, otherwise the seconds to
+     * send as Retry-After.
+     */
+    public long tryAdmit(HttpServletRequest request, int items) {
+        if (items == 0) {
+            return 0;
+        }
+        long waitNanos = itemLimiter.tryAcquire(AdmissionInterceptor.clientOf(request), items);
+        if (waitNanos <= 0) {
+            return 0;
+        }
+        rejected.increment();
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999));
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.demo.admission;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-client token buckets. Each bucket is a single {@link AtomicLong} holding its theoretical
+ * arrival time (the GCRA form of a token bucket): a request is admitted when the bucket would
+ * not run past {@code burst} tokens, and admitting it is one CAS that pushes the time one
+ * emission interval forward. No locks are taken on the request path.
+ *
+ * <p>The map is bounded at {@code maxClients}. When it fills up, buckets that have refilled
+ * completely are dropped first, since a full bucket behaves exactly like a missing one; if
+ * that is not enough, arbitrary buckets are dropped down to 90% of the bound.
+ */
+public class TokenBucketLimiter {
+
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private final int maxClients;
+    private final LongSupplier nanoClock;
+    private final ConcurrentMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    public TokenBucketLimiter(double ratePerSecond, int burst, int maxClients) {
+        this(ratePerSecond, burst, maxClients, System::nanoTime);
+    }
+
+    TokenBucketLimiter(double ratePerSecond, int burst, int maxClients, LongSupplier nanoClock) {
+        if (ratePerSecond <= 0 || burst < 1 || maxClients < 1) {
+            throw new IllegalArgumentException("rate, burst and max clients must be positive");
+        }
+        this.intervalNanos = (long) (1e9 / ratePerSecond);
+        this.capacityNanos = intervalNanos * burst;
+        this.maxClients = maxClients;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Takes a token from the client's bucket. Returns 0 if one was available, otherwise the
+     * nanoseconds until one will be.
+     */
+    public long tryAcquire(String client) {
+        return tryAcquire(client, 1);
+    }
+
+    /**
+     * Takes {@code permits} tokens at once from the client's bucket. Returns 0 if they were
+     * available, otherwise the nanoseconds until they will be; more than {@code burst} permits
+     * are never available.
+     */
+    public long tryAcquire(String client, int permits) {
+        long now = nanoClock.getAsLong();
+        AtomicLong bucket = buckets.get(client);
+        if (bucket == null) {
+            if (buckets.size() >= maxClients) {
+                evict(now);
+            }
+            bucket = buckets.computeIfAbsent(client, k -> new AtomicLong(now));
+        }
+        while (true) {
+            long arrival = bucket.get();
+            long next = Math.max(arrival, now) + intervalNanos * permits;
+            long wait = next - now - capacityNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public int clientCount() {
+        return buckets.size();
+    }
+
+    private synchronized void evict(long now) {
+        if (buckets.size() < maxClients) {
+            return;
+        }
+        buckets.values().removeIf(bucket -> bucket.get() <= now);
+        int target = maxClients - maxClients / 10;
+        Iterator<String> it = buckets.keySet().iterator();
+        while (buckets.size() > target && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+}
@@ -0,0 +1,511 @@
+package com.example.demo.cluster;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.example.demo.model.SessionKey;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * State layer of one node in a cluster of JVMs connected over TCP. Members are {@code host:port}
+ * addresses, the same list on every node. Every node keeps a full copy of the session state;
+ * what differs per session is its owner, picked on a {@link ConsistentHashRing} among the
+ * members this node can reach.
+ *
+ * <p>A change made on the owner is sent from it to every other member. A change made anywhere
+ * else is sent to the owner only, which applies it and relays it to the rest. Each link is one
+ * TCP connection carrying length-prefixed JSON frames in order, so every node sees a session's
+ * changes in the order its owner did; the node that made a change already applied it, so it
+ * reads its own writes. Cluster-wide events go straight to everyone.
+ *
+ * <p>Only members may connect: the listener drops connections from addresses that are not a
+ * member's host. Then both ends send a random challenge and prove with an HMAC-SHA256 over both
+ * challenges under the shared {@code secret} that they know it, so neither talks to an impostor.
+ * Every frame carries an HMAC under a key derived from the two challenges and the frame's
+ * sequence number on the connection, so a frame that was altered, replayed, reordered or dropped
+ * ends the connection. Frames are not encrypted: events must not need to stay confidential on
+ * the network between the members.
+ *
+ * <p>Delivery is best effort. Each peer has a bounded send queue that fills while the peer is
+ * unreachable and drains when it comes back; past that, changes for it are dropped and counted.
+ * A node that was down keeps what its attempt log replays but misses what it was not sent.
+ */
+public class ClusterStateLayer implements StateLayer, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterStateLayer.class);
+    private static final int MAX_FRAME_BYTES = 16 * 1024 * 1024;
+    private static final int CONNECT_TIMEOUT_MILLIS = 1_000;
+    private static final int CHALLENGE_BYTES = 32;
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final int MAC_BYTES = 32;
+    private static final int ACCEPTED = 1;
+    // What a MAC proves, signed first so one is never valid as another
+    static final String CONNECT = "connect";
+    static final String ACCEPT = "accept";
+    static final String FRAMES = "frames";
+
+    private final String self;
+    private final ConsistentHashRing ring;
+    private final Map<String, PeerLink> links = new LinkedHashMap<>();
+    private final ObjectMapper objectMapper;
+    private final SecretKeySpec secret;
+    private final SecureRandom random = new SecureRandom();
+    private final long reconnectMillis;
+    private final Counter sent;
+    private final Counter received;
+    private final Counter dropped;
+    private volatile Consumer<StateEvent> applier;
+    private volatile boolean closed;
+    private ServerSocket server;
+
+    /**
+     * @param self    this node's address as the other members list it
+     * @param members every member's address, this node's included or not
+     * @param secret  shared by every member; proves a connecting node is one
+     */
+    public ClusterStateLayer(String self, Collection<String> members, String secret, int virtualNodes,
+                             int queueSize, Duration reconnectInterval, ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalArgumentException("A cluster needs a shared secret");
+        }
+        this.secret = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), MAC_ALGORITHM);
+        List<String> all = new ArrayList<>(members);
+        all.add(self);
+        this.self = self;
+        this.ring = new ConsistentHashRing(all, virtualNodes);
+        this.objectMapper = objectMapper;
+        this.reconnectMillis = reconnectInterval.toMillis();
+        for (String member : ring.members()) {
+            if (!member.equals(self)) {
+                links.put(member, new PeerLink(member, queueSize));
+            }
+        }
+        this.sent = Counter.builder("cluster.events.sent")
+                .description("State events sent to other nodes")
+                .register(meterRegistry);
+        this.received = Counter.builder("cluster.events.received")
+                .description("State events received from other nodes")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("cluster.events.dropped")
+                .description("State events dropped because a node's send queue was full")
+                .register(meterRegistry);
+        Gauge.builder("cluster.peers.connected", this, ClusterStateLayer::connectedPeers)
+                .description("Other nodes this node currently has a connection to")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A frame on the wire: the event, the node it was made on, and whether it was already
+     * relayed by the owner (and so must not be relayed again).
+     */
+    record Envelope(String origin, boolean relayed, StateEvent event) {
+    }
+
+    @Override
+    public void publish(StateEvent event) {
+        SessionKey session = event.session();
+        String owner = session == null ? self : ownerOf(session);
+        if (owner == null || owner.equals(self)) {
+            broadcast(new Envelope(self, true, event), null);
+        } else {
+            send(owner, new Envelope(self, false, event));
+        }
+    }
+
+    /**
+     * Starts accepting connections from the other nodes and sending to them.
+     */
+    @Override
+    public synchronized void onRemoteEvent(Consumer<StateEvent> applier) {
+        this.applier = applier;
+        if (server != null) {
+            return;
+        }
+        try {
+            server = new ServerSocket();
+            server.setReuseAddress(true);
+            server.bind(address(self));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not listen for cluster connections on " + self, e);
+        }
+        Thread.ofVirtual().name("cluster-accept").start(this::accept);
+        for (PeerLink link : links.values()) {
+            Thread.ofVirtual().name("cluster-send-" + link.address).start(link::run);
+        }
+        log.info("Cluster node {} listening; members {}", self, ring.members());
+    }
+
+    /**
+     * Returns the member that orders the session's changes: its ring owner, or the next member
+     * clockwise when this node cannot reach the owner.
+     */
+    public String ownerOf(SessionKey session) {
+        return ring.owner(session.userId() + '\n' + session.sessionId(),
+                member -> member.equals(self) || links.get(member).up);
+    }
+
+    public String getSelf() {
+        return self;
+    }
+
+    public int connectedPeers() {
+        int connected = 0;
+        for (PeerLink link : links.values()) {
+            if (link.connected) {
+                connected++;
+            }
+        }
+        return connected;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        synchronized (this) {
+            if (server != null) {
+                try {
+                    server.close();
+                } catch (IOException e) {
+                    log.debug("Closing the cluster listener failed: {}", e.toString());
+                }
+            }
+        }
+        for (PeerLink link : links.values()) {
+            link.close();
+        }
+    }
+
+    private void send(String member, Envelope envelope) {
+        links.get(member).offer(encode(envelope));
+    }
+
+    private void broadcast(Envelope envelope, String except) {
+        if (links.isEmpty()) {
+            return;
+        }
+        byte[] frame = encode(envelope);
+        for (PeerLink link : links.values()) {
+            if (!link.address.equals(except)) {
+                link.offer(frame);
+            }
+        }
+    }
+
+    private byte[] encode(Envelope envelope) {
+        return objectMapper.writeValueAsBytes(envelope);
+    }
+
+    private void accept() {
+        while (!closed) {
+            try {
+                Socket socket = server.accept();
+                Thread.ofVirtual().name("cluster-receive").start(() -> receive(socket));
+            } catch (IOException e) {
+                if (!closed) {
+                    log.warn("Accepting a cluster connection failed", e);
+                }
+            }
+        }
+    }
+
+    private void receive(Socket socket) {
+        try (socket; DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+            Mac frameMac = admit(socket, in);
+            if (frameMac == null) {
+                return;
+            }
+            byte[] tag = new byte[MAC_BYTES];
+            for (long sequence = 0; !closed; sequence++) {
+                int length = in.readInt();
+                if (length <= 0 || length > MAX_FRAME_BYTES) {
+                    throw new IOException("Bad frame length " + length);
+                }
+                byte[] frame = new byte[length];
+                in.readFully(frame);
+                in.readFully(tag);
+                if (!MessageDigest.isEqual(tag, tag(frameMac, sequence, frame))) {
+                    throw new IOException("Bad MAC on frame " + sequence);
+                }
+                deliver(objectMapper.readValue(frame, Envelope.class));
+            }
+        } catch (EOFException e) {
+            // The other node closed the connection
+        } catch (IOException | RuntimeException e) {
+            if (!closed) {
+                log.warn("Cluster connection from {} failed: {}", socket.getRemoteSocketAddress(), e.toString());
+            }
+        }
+    }
+
+    /**
+     * Checks that the connection comes from a member's host and that the node on the other end
+     * knows the secret, then proves to it that this node does too. Returns the MAC for the
+     * connection's frames, or null if the connection was refused.
+     */
+    private Mac admit(Socket socket, DataInputStream in) throws IOException {
+        InetAddress remote = socket.getInetAddress();
+        if (!isMemberHost(remote)) {
+            log.warn("Refused cluster connection from {}, which is not a member's host", remote);
+            return null;
+        }
+        byte[] challenge = new byte[CHALLENGE_BYTES];
+        random.nextBytes(challenge);
+        DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+        out.write(challenge);
+        out.flush();
+        // An unauthenticated peer must not hold the connection open
+        socket.setSoTimeout(CONNECT_TIMEOUT_MILLIS);
+        String member = in.readUTF();
+        byte[] peerChallenge = new byte[CHALLENGE_BYTES];
+        in.readFully(peerChallenge);
+        byte[] response = new byte[MAC_BYTES];
+        in.readFully(response);
+        if (!links.containsKey(member)
+                || !MessageDigest.isEqual(response, sign(CONNECT, challenge, peerChallenge, member))) {
+            log.warn("Refused cluster connection from {}: bad credentials for {}", remote, member);
+            return null;
+        }
+        socket.setSoTimeout(0);
+        out.write(ACCEPTED);
+        out.write(sign(ACCEPT, challenge, peerChallenge, self));
+        out.flush();
+        return frameMac(challenge, peerChallenge);
+    }
+
+    private boolean isMemberHost(InetAddress remote) {
+        for (String member : ring.members()) {
+            try {
+                for (InetAddress address : InetAddress.getAllByName(address(member).getHostString())) {
+                    if (address.equals(remote)) {
+                        return true;
+                    }
+                }
+            } catch (UnknownHostException e) {
+                log.debug("Could not resolve cluster member {}: {}", member, e.toString());
+            }
+        }
+        return false;
+    }
+
+    /**
+     * HMAC under the shared secret of what it proves, the listener's and the connecting node's
+     * challenges, and the name of the member proving it.
+     */
+    private byte[] sign(String purpose, byte[] challenge, byte[] peerChallenge, String member) {
+        return sign(secret, purpose, challenge, peerChallenge, member);
+    }
+
+    /**
+     * MAC for one connection's frames, keyed by both of its challenges, so a frame is valid on
+     * no other connection.
+     */
+    private Mac frameMac(byte[] challenge, byte[] peerChallenge) {
+        return mac(new SecretKeySpec(sign(FRAMES, challenge, peerChallenge, ""), MAC_ALGORITHM));
+    }
+
+    static byte[] sign(SecretKeySpec key, String purpose, byte[] challenge, byte[] peerChallenge, String member) {
+        Mac mac = mac(key);
+        mac.update(purpose.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        mac.update(challenge);
+        mac.update(peerChallenge);
+        return mac.doFinal(member.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * MAC of the frame at position {@code sequence} on its connection.
+     */
+    static byte[] tag(Mac frameMac, long sequence, byte[] frame) {
+        frameMac.update(ByteBuffer.allocate(Long.BYTES).putLong(sequence).array());
+        return frameMac.doFinal(frame);
+    }
+
+    static Mac mac(SecretKeySpec key) {
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(MAC_ALGORITHM + " is not available", e);
+        }
+    }
+
+    private void deliver(Envelope envelope) {
+        received.increment();
+        try {
+            applier.accept(envelope.event());
+        } catch (RuntimeException e) {
+            // One bad event must not stop the ones after it
+            log.error("Applying {} from {} failed", envelope.event().getClass().getSimpleName(),
+                    envelope.origin(), e);
+        }
+        if (!envelope.relayed()) {
+            // We own the session in the origin's view: pass it on to everyone else
+            broadcast(new Envelope(envelope.origin(), true, envelope.event()), envelope.origin());
+        }
+    }
+
+    private static InetSocketAddress address(String member) {
+        int colon = member.lastIndexOf(':');
+        if (colon <= 0) {
+            throw new IllegalArgumentException("Cluster members are host:port, got " + member);
+        }
+        return new InetSocketAddress(member.substring(0, colon), Integer.parseInt(member.substring(colon + 1)));
+    }
+
+    /**
+     * Outgoing connection to one peer, written by its own thread from a bounded queue. The
+     * thread reconnects every {@code reconnectInterval} while the peer is unreachable.
+     */
+    private final class PeerLink {
+        private final String address;
+        private final BlockingQueue<byte[]> queue;
+        // Whether the peer takes part in ownership; optimistic until a connection attempt fails
+        private volatile boolean up = true;
+        private volatile boolean connected;
+        private volatile Socket socket;
+
+        PeerLink(String address, int queueSize) {
+            this.address = address;
+            this.queue = new ArrayBlockingQueue<>(queueSize);
+        }
+
+        void offer(byte[] frame) {
+            if (!queue.offer(frame)) {
+                dropped.increment();
+            }
+        }
+
+        void run() {
+            byte[] frame = null;
+            while (!closed) {
+                try (Socket s = new Socket()) {
+                    s.connect(address(address), CONNECT_TIMEOUT_MILLIS);
+                    s.setTcpNoDelay(true);
+                    socket = s;
+                    Mac frameMac = authenticate(s);
+                    long sequence = 0;
+                    up = true;
+                    connected = true;
+                    log.info("Connected to cluster node {}", address);
+                    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()));
+                    while (!closed) {
+                        if (frame == null) {
+                            frame = queue.poll();
+                            if (frame == null) {
+                                // Flush only once caught up, so bursts share packets
+                                out.flush();
+                                frame = queue.take();
+                            }
+                        }
+                        if (closed) {
+                            return;
+                        }
+                        out.writeInt(frame.length);
+                        out.write(frame);
+                        out.write(tag(frameMac, sequence++, frame));
+                        sent.increment();
+                        frame = null;
+                    }
+                } catch (IOException e) {
+                    if (connected || up) {
+                        log.warn("Cluster node {} unreachable: {}", address, e.toString());
+                    }
+                    connected = false;
+                    up = false;
+                    if (!sleep(reconnectMillis)) {
+                        return;
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Answers the listener's challenge with one of its own, waits for it to accept this node
+         * and checks its proof that it knows the secret. Returns the MAC for the frames to send.
+         */
+        private Mac authenticate(Socket s) throws IOException {
+            s.setSoTimeout(CONNECT_TIMEOUT_MILLIS);
+            DataInputStream in = new DataInputStream(s.getInputStream());
+            byte[] challenge = new byte[CHALLENGE_BYTES];
+            in.readFully(challenge);
+            byte[] ownChallenge = new byte[CHALLENGE_BYTES];
+            random.nextBytes(ownChallenge);
+            DataOutputStream out = new DataOutputStream(s.getOutputStream());
+            out.writeUTF(self);
+            out.write(ownChallenge);
+            out.write(sign(CONNECT, challenge, ownChallenge, self));
+            out.flush();
+            if (in.read() != ACCEPTED) {
+                throw new IOException("Not accepted; check that both nodes have the same members and secret");
+            }
+            byte[] proof = new byte[MAC_BYTES];
+            in.readFully(proof);
+            if (!MessageDigest.isEqual(proof, sign(ACCEPT, challenge, ownChallenge, address))) {
+                throw new IOException("Node does not know the cluster secret");
+            }
+            s.setSoTimeout(0);
+            return frameMac(challenge, ownChallenge);
+        }
+
+        void close() {
+            Socket s = socket;
+            if (s != null) {
+                try {
+                    s.close();
+                } catch (IOException e) {
+                    log.debug("Closing the link to {} failed: {}", address, e.toString());
+                }
+            }
+            // Wakes the thread if it is waiting for a frame
+            queue.offer(new byte[0]);
+        }
+    }
+
+    private boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return !closed;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.demo.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+/**
+ * Consistent-hash ring over the cluster's members. Each member is placed at
+ * {@code virtualNodes} points and a key belongs to the first member clockwise from the key's
+ * hash, so adding or removing a member only moves the keys next to its points. The hash is
+ * fixed (FNV-1a with a 64-bit finalizer), so every JVM computes the same owners.
+ */
+public final class ConsistentHashRing {
+
+    private final List<String> members;
+    private final long[] points;
+    private final String[] owners;
+
+    public ConsistentHashRing(Collection<String> members, int virtualNodes) {
+        if (members.isEmpty() || virtualNodes <= 0) {
+            throw new IllegalArgumentException("A ring needs members and a positive number of virtual nodes");
+        }
+        this.members = List.copyOf(new TreeSet<>(members));
+        Point[] ring = new Point[this.members.size() * virtualNodes];
+        int i = 0;
+        for (String member : this.members) {
+            for (int v = 0; v < virtualNodes; v++) {
+                ring[i++] = new Point(hash(member + '#' + v), member);
+            }
+        }
+        Arrays.sort(ring, Comparator.comparingLong(Point::hash));
+        this.points = new long[ring.length];
+        this.owners = new String[ring.length];
+        for (i = 0; i < ring.length; i++) {
+            points[i] = ring[i].hash();
+            owners[i] = ring[i].member();
+        }
+    }
+
+    public List<String> members() {
+        return members;
+    }
+
+    /**
+     * Returns the member that owns the key.
+     */
+    public String owner(String key) {
+        return owners[firstPointAtOrAfter(hash(key))];
+    }
+
+    /**
+     * Returns the first member clockwise from the key that {@code alive} accepts, or null if it
+     * accepts none.
+     */
+    public String owner(String key, Predicate<String> alive) {
+        int start = firstPointAtOrAfter(hash(key));
+        for (int i = 0; i < points.length; i++) {
+            String member = owners[(start + i) % points.length];
+            if (alive.test(member)) {
+                return member;
+            }
+        }
+        return null;
+    }
+
+    private int firstPointAtOrAfter(long hash) {
+        int i = Arrays.binarySearch(points, hash);
+        if (i < 0) {
+            i = -i - 1;
+        }
+        // Past the last point wraps around to the first
+        return i == points.length ? 0 : i;
+    }
+
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        // FNV alone clusters similar keys; the finalizer spreads them over the ring
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private record Point(long hash, String member) {
+    }
+}
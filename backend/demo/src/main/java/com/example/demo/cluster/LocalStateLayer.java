@@ -0,0 +1,17 @@
+package com.example.demo.cluster;
+
+import java.util.function.Consumer;
+
+/**
+ * State layer of a single node: every change is already applied everywhere it needs to be.
+ */
+public class LocalStateLayer implements StateLayer {
+
+    @Override
+    public void publish(StateEvent event) {
+    }
+
+    @Override
+    public void onRemoteEvent(Consumer<StateEvent> applier) {
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.demo.cluster;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.example.demo.content.QuestionPack;
+import com.example.demo.content.QuestionPackLoader;
+import com.example.demo.services.QuestionRegistry;
+import com.example.demo.services.QuestionService;
+import com.example.demo.services.SessionManager;
+
+/**
+ * Applies changes made on other nodes to this node's services. Registers itself with the state
+ * layer on creation, which is what makes a clustered node start taking part.
+ */
+public class StateApplier {
+
+    private static final Logger log = LoggerFactory.getLogger(StateApplier.class);
+
+    private final QuestionService questionService;
+    private final SessionManager sessionManager;
+    private final QuestionPackLoader packLoader;
+    private final QuestionRegistry registry;
+
+    public StateApplier(StateLayer stateLayer, QuestionService questionService, SessionManager sessionManager,
+                        QuestionPackLoader packLoader, QuestionRegistry registry) {
+        this.questionService = questionService;
+        this.sessionManager = sessionManager;
+        this.packLoader = packLoader;
+        this.registry = registry;
+        stateLayer.onRemoteEvent(this::apply);
+    }
+
+    void apply(StateEvent event) {
+        switch (event) {
+            case StateEvent.AttemptRecorded e -> questionService.applyAttempt(e.session(), e.solution());
+            case StateEvent.HintUsed e -> questionService.applyHint(e.session(), e.role(), e.questionId(), e.number());
+            case StateEvent.SessionCreated e ->
+                    sessionManager.applyCreated(e.session(), e.role(), e.questionIds(), e.createdAt());
+            case StateEvent.QuestionStarted e ->
+                    sessionManager.applyStarted(e.session(), e.questionId(), e.startedAt());
+            case StateEvent.SessionEnded e -> sessionManager.applyEnded(e.session());
+            case StateEvent.QuestionsChanged e -> reloadQuestions(e.pack());
+        }
+    }
+
+    /**
+     * Reloads the question pack when another node reloaded a different one than this node
+     * serves. A new registry version drops every cache built from the old questions.
+     */
+    private void reloadQuestions(String pack) {
+        if (pack == null || pack.equals(packLoader.currentPack())) {
+            return;
+        }
+        try {
+            QuestionPack loaded = packLoader.load();
+            registry.reload(loaded);
+            packLoader.deleteStale();
+            log.info("Reloaded question pack ({} questions) after another node changed it", loaded.size());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Question pack reload failed; keeping the current questions", e);
+        }
+        if (!pack.equals(packLoader.currentPack())) {
+            log.warn("Another node serves question pack {} but this node's source is {}", pack,
+                    packLoader.currentPack());
+        }
+    }
+}
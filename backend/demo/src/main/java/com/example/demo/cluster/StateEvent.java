@@ -0,0 +1,56 @@
+package com.example.demo.cluster;
+
+import java.util.List;
+
+import com.example.demo.enums.RoleType;
+import com.example.demo.model.SessionKey;
+import com.example.demo.model.SolutionModel;
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+/**
+ * A change to shared state, made on one node and applied on the others. Session events carry
+ * their session, whose owner on the hash ring orders them for the rest of the cluster.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = StateEvent.AttemptRecorded.class, name = "attempt"),
+        @JsonSubTypes.Type(value = StateEvent.HintUsed.class, name = "hint"),
+        @JsonSubTypes.Type(value = StateEvent.SessionCreated.class, name = "session-created"),
+        @JsonSubTypes.Type(value = StateEvent.QuestionStarted.class, name = "question-started"),
+        @JsonSubTypes.Type(value = StateEvent.SessionEnded.class, name = "session-ended"),
+        @JsonSubTypes.Type(value = StateEvent.QuestionsChanged.class, name = "questions-changed")})
+public sealed interface StateEvent {
+
+    /**
+     * The session the event belongs to, or null for cluster-wide events.
+     */
+    SessionKey session();
+
+    record AttemptRecorded(SessionKey session, SolutionModel solution) implements StateEvent {
+    }
+
+    record HintUsed(SessionKey session, RoleType role, String questionId, int number) implements StateEvent {
+    }
+
+    record SessionCreated(SessionKey session, RoleType role, List<String> questionIds, long createdAt)
+            implements StateEvent {
+    }
+
+    record QuestionStarted(SessionKey session, String questionId, long startedAt) implements StateEvent {
+    }
+
+    record SessionEnded(SessionKey session) implements StateEvent {
+    }
+
+    /**
+     * A node reloaded its question pack; {@code pack} names the compiled pack it now serves.
+     */
+    record QuestionsChanged(String pack) implements StateEvent {
+
+        @Override
+        public SessionKey session() {
+            return null;
+        }
+    }
+}
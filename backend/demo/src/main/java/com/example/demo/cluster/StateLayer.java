@@ -0,0 +1,22 @@
+package com.example.demo.cluster;
+
+import java.util.function.Consumer;
+
+/**
+ * Where state changes go so that every node serving the API sees them. Services apply a change
+ * on their own node first and then publish it; changes made on other nodes arrive through the
+ * applier registered with {@link #onRemoteEvent}.
+ */
+public interface StateLayer {
+
+    /**
+     * Shares a change already applied on this node. Never blocks on other nodes.
+     */
+    void publish(StateEvent event);
+
+    /**
+     * Sets where changes made on other nodes are applied. Events are handed over one at a time
+     * per sending node, in the order that node sent them.
+     */
+    void onRemoteEvent(Consumer<StateEvent> applier);
+}
@@ -0,0 +1,76 @@
+package com.example.demo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.example.demo.admission.AdaptiveConcurrencyLimiter;
+import com.example.demo.admission.AdmissionInterceptor;
+import com.example.demo.admission.BatchAdmission;
+import com.example.demo.admission.TokenBucketLimiter;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+@Configuration
+@ConditionalOnProperty(name = "admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionConfig {
+
+    @Bean
+    public TokenBucketLimiter submissionRateLimiter(@Value("${admission.rate-per-second:2}") double ratePerSecond,
+                                                    @Value("${admission.burst:10}") int burst,
+                                                    @Value("${admission.max-clients:100000}") int maxClients) {
+        return new TokenBucketLimiter(ratePerSecond, burst, maxClients);
+    }
+
+    @Bean
+    public BatchAdmission batchAdmission(@Value("${admission.batch.items-per-second:10}") double itemsPerSecond,
+                                         @Value("${admission.batch.item-burst:2000}") int itemBurst,
+                                         @Value("${admission.max-clients:100000}") int maxClients,
+                                         MeterRegistry meterRegistry) {
+        return new BatchAdmission(new TokenBucketLimiter(itemsPerSecond, itemBurst, maxClients), meterRegistry);
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimiter submissionConcurrencyLimiter(
+            @Value("${admission.concurrency.initial-limit:32}") int initialLimit,
+            @Value("${admission.concurrency.min-limit:4}") int minLimit,
+            @Value("${admission.concurrency.max-limit:256}") int maxLimit) {
+        return new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit);
+    }
+
+    /**
+     * Admission control on the POST endpoints: submissions, runs, follow-ups and session creation.
+     */
+    @Bean
+    public WebMvcConfigurer admissionConfigurer(TokenBucketLimiter rateLimiter,
+                                                AdaptiveConcurrencyLimiter concurrencyLimiter,
+                                                MeterRegistry meterRegistry) {
+        AdmissionInterceptor interceptor = new AdmissionInterceptor(rateLimiter, concurrencyLimiter, meterRegistry);
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(interceptor).addPathPatterns("/questions/**", "/sessions");
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder admissionMetrics(TokenBucketLimiter rateLimiter, AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        return registry -> {
+            Gauge.builder("admission.limit", concurrencyLimiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .description("Current adaptive concurrency limit")
+                    .register(registry);
+            Gauge.builder("admission.in-flight", concurrencyLimiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .description("Admitted requests still in progress")
+                    .register(registry);
+            Gauge.builder("admission.clients", rateLimiter, TokenBucketLimiter::clientCount)
+                    .description("Clients with a token bucket")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.demo.config;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class AsyncConfig {
+
+    /**
+     * Executor for the async controller variants. Follows {@code spring.threads.virtual.enabled}:
+     * a virtual thread per task in virtual mode, otherwise a fixed pool of platform threads.
+     */
+    @Bean(destroyMethod = "close")
+    public ExecutorService requestExecutor(@Value("${spring.threads.virtual.enabled:false}") boolean virtual,
+                                           @Value("${requests.async.pool-size:64}") int poolSize) {
+        if (virtual) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("request-async-", 0).factory());
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(poolSize, r -> {
+            Thread t = new Thread(r, "request-async-" + counter.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @Bean
+    public WebMvcConfigurer asyncSupportConfigurer(@Qualifier("requestExecutor") ExecutorService requestExecutor,
+                                                   @Value("${requests.async.timeout:30s}") Duration timeout) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                configurer.setTaskExecutor(new TaskExecutorAdapter(requestExecutor));
+                configurer.setDefaultTimeout(timeout.toMillis());
+            }
+        };
+    }
+}
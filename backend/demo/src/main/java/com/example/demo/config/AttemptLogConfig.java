@@ -0,0 +1,47 @@
+package com.example.demo.config;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import com.example.demo.model.Attempt;
+import com.example.demo.persistence.AttemptLog;
+import com.example.demo.services.MasteryRecommender;
+import com.example.demo.services.ReportEngine;
+import com.example.demo.services.SessionManager;
+import com.example.demo.services.SolutionStore;
+import com.example.demo.similarity.SimilarityIndex;
+
+@Configuration
+public class AttemptLogConfig {
+
+    /**
+     * Durable attempt log; replays previously stored attempts into the solution store, the
+     * report engine, the mastery model and the similarity index on startup. Replayed sessions
+     * start their idle timeout afresh.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "attempts.log.enabled", havingValue = "true", matchIfMissing = true)
+    public AttemptLog attemptLog(@Value("${attempts.log.dir:data/attempts}") String dir,
+                                 @Value("${attempts.log.segment-size:16MB}") DataSize segmentSize,
+                                 @Value("${attempts.log.flush-interval:50ms}") Duration flushInterval,
+                                 SolutionStore solutionStore, ReportEngine reportEngine,
+                                 MasteryRecommender recommender, SessionManager sessionManager,
+                                 SimilarityIndex similarityIndex) throws IOException {
+        return new AttemptLog(Path.of(dir), (int) segmentSize.toBytes(), flushInterval.toMillis(),
+                (key, solution) -> {
+                    Attempt attempt = Attempt.of(solution);
+                    sessionManager.touch(key);
+                    solutionStore.append(key, attempt);
+                    reportEngine.record(key, attempt);
+                    recommender.record(key, attempt);
+                    similarityIndex.add(key, attempt);
+                });
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.demo.config;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.demo.cluster.ClusterStateLayer;
+import com.example.demo.cluster.LocalStateLayer;
+import com.example.demo.cluster.StateApplier;
+import com.example.demo.cluster.StateLayer;
+import com.example.demo.content.QuestionPackLoader;
+import com.example.demo.services.QuestionRegistry;
+import com.example.demo.services.QuestionService;
+import com.example.demo.services.SessionManager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import tools.jackson.databind.ObjectMapper;
+
+@Configuration
+public class ClusterConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "cluster.enabled", havingValue = "false", matchIfMissing = true)
+    public StateLayer localStateLayer() {
+        return new LocalStateLayer();
+    }
+
+    /**
+     * This node's end of the cluster: it listens on {@code cluster.host:cluster.port}, which is
+     * also its name in the other nodes' {@code cluster.members}.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "cluster.enabled", havingValue = "true")
+    public ClusterStateLayer clusterStateLayer(@Value("${cluster.host:127.0.0.1}") String host,
+                                               @Value("${cluster.port:7400}") int port,
+                                               @Value("${cluster.members:}") List<String> members,
+                                               @Value("${cluster.secret:}") String secret,
+                                               @Value("${cluster.virtual-nodes:128}") int virtualNodes,
+                                               @Value("${cluster.send-queue-size:10000}") int sendQueueSize,
+                                               @Value("${cluster.reconnect-interval:1s}") Duration reconnectInterval,
+                                               ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        return new ClusterStateLayer(host + ":" + port, members.stream().map(String::trim).toList(), secret, virtualNodes,
+                sendQueueSize, reconnectInterval, objectMapper, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "cluster.enabled", havingValue = "true")
+    public StateApplier stateApplier(StateLayer stateLayer, QuestionService questionService,
+                                     SessionManager sessionManager, QuestionPackLoader packLoader,
+                                     QuestionRegistry registry) {
+        return new StateApplier(stateLayer, questionService, sessionManager, packLoader, registry);
+    }
+}
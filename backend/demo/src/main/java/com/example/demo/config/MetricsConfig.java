@@ -0,0 +1,56 @@
+package com.example.demo.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.demo.services.MasteryRecommender;
+import com.example.demo.services.SessionManager;
+import com.example.demo.services.SolutionStore;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Size of the in-memory solution store.
+     */
+    @Bean
+    public MeterBinder solutionStoreMetrics(SolutionStore solutionStore) {
+        return registry -> {
+            Gauge.builder("solutions.store.sessions", solutionStore, SolutionStore::sessionCount)
+                    .description("Sessions held in the solution store")
+                    .register(registry);
+            Gauge.builder("solutions.store.attempts", solutionStore, SolutionStore::attemptCount)
+                    .description("Attempts held in the solution store across all sessions")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Tracked sessions and idle evictions.
+     */
+    @Bean
+    public MeterBinder sessionMetrics(SessionManager sessionManager) {
+        return registry -> {
+            Gauge.builder("sessions.active", sessionManager, SessionManager::sessionCount)
+                    .description("Sessions tracked for idle expiry")
+                    .register(registry);
+            FunctionCounter.builder("sessions.evicted", sessionManager, SessionManager::evictedCount)
+                    .description("Sessions dropped after their idle timeout or an explicit end")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Mastery models held in memory, one per signed-in user or anonymous session with a live session.
+     */
+    @Bean
+    public MeterBinder masteryMetrics(MasteryRecommender recommender) {
+        return registry -> Gauge.builder("mastery.models", recommender, MasteryRecommender::modelCount)
+                .description("Mastery models held for users and anonymous sessions with a live session")
+                .register(registry);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.demo.config;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+
+import com.example.demo.cluster.StateEvent;
+import com.example.demo.cluster.StateLayer;
+import com.example.demo.content.QuestionPack;
+import com.example.demo.content.QuestionPackLoader;
+import com.example.demo.content.QuestionPackWatcher;
+import com.example.demo.services.QuestionRegistry;
+
+@Configuration
+public class QuestionPackConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(QuestionPackConfig.class);
+
+    @Bean
+    public QuestionPackLoader questionPackLoader(
+            @Value("${questions.pack.location:classpath:" + QuestionPackLoader.BUNDLED_PACK + "}") Resource location,
+            @Value("${questions.pack.compiled-dir:data/questions}") String compiledDir) {
+        return new QuestionPackLoader(location, Path.of(compiledDir));
+    }
+
+    @Bean
+    public QuestionRegistry questionRegistry(QuestionPackLoader loader) throws IOException {
+        QuestionRegistry registry = new QuestionRegistry(loader.load());
+        loader.deleteStale();
+        return registry;
+    }
+
+    /**
+     * Reloads the registry when the pack source changes on disk, and tells the other nodes so
+     * they reload theirs. Packs served from inside the jar are not watched.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "questions.pack.watch", havingValue = "true", matchIfMissing = true)
+    public QuestionPackWatcher questionPackWatcher(QuestionPackLoader loader, QuestionRegistry registry,
+                                                   StateLayer stateLayer,
+                                                   @Value("${questions.pack.watch-debounce:250ms}") Duration debounce)
+            throws IOException {
+        return new QuestionPackWatcher(loader.getSourceFile(), debounce, () -> {
+            QuestionPack pack;
+            try {
+                pack = loader.load();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            registry.reload(pack);
+            loader.deleteStale();
+            log.info("Reloaded question pack ({} questions)", pack.size());
+            stateLayer.publish(new StateEvent.QuestionsChanged(loader.currentPack()));
+        });
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.demo.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.demo.cluster.StateApplier;
+import com.example.demo.content.QuestionPackWatcher;
+import com.example.demo.execution.ExecutionService;
+import com.example.demo.metrics.AllocationSampler;
+import com.example.demo.persistence.AttemptLog;
+import com.example.demo.search.QuestionSearch;
+import com.example.demo.services.QuestionRegistry;
+import com.example.demo.services.SessionManager;
+
+@Configuration
+public class StartupConfig {
+
+    /**
+     * Beans created at startup even with {@code spring.main.lazy-initialization}: ones that do
+     * their work in the background (workers, replay, expiry, watching, sampling), ones that
+     * should fail the start rather than the first request (the question pack), the search index,
+     * which is too slow to build for the first query to pay for, and the cluster state applier,
+     * whose creation joins the node to the cluster. Everything else is created on first use.
+     * Static because the filter is read before regular beans exist.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter eagerBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(ExecutionService.class, AttemptLog.class,
+                SessionManager.class, QuestionRegistry.class, QuestionPackWatcher.class, AllocationSampler.class,
+                QuestionSearch.class, StateApplier.class);
+    }
+}
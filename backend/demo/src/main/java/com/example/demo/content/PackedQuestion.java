@@ -0,0 +1,103 @@
+package com.example.demo.content;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.demo.enums.Concepts;
+import com.example.demo.enums.Difficulty;
+import com.example.demo.enums.RoleType;
+import com.example.demo.model.InputGenerator;
+import com.example.demo.model.QuestionModel;
+import com.example.demo.model.TestCaseModel;
+
+/**
+ * Question backed by a compiled pack. Id, title, difficulty and concepts are read when the pack is
+ * opened; the statement, hints, expected complexity, test cases and generator are decoded on
+ * first access.
+ */
+class PackedQuestion extends QuestionModel {
+
+    private final ByteBuffer buffer;
+    private final int detailOffset;
+    final RoleType role;
+
+    // Racing first reads decode the same immutable values, so publication needs no lock
+    private volatile Details details;
+
+    PackedQuestion(String id, String title, Difficulty difficulty, List<Concepts> concepts,
+                   ByteBuffer buffer, int detailOffset, RoleType role) {
+        super(id, title, null, difficulty, concepts, null, null, null, null);
+        this.buffer = buffer;
+        this.detailOffset = detailOffset;
+        this.role = role;
+    }
+
+    private record Details(String question, String hint1, String hint2, String hint3, String expectedComplexity,
+                           List<TestCaseModel> testCases, InputGenerator generator) {
+    }
+
+    private Details details() {
+        Details d = details;
+        if (d == null) {
+            int[] cursor = {detailOffset};
+            String statement = QuestionPack.readString(buffer, cursor);
+            String hint1 = QuestionPack.readString(buffer, cursor);
+            String hint2 = QuestionPack.readString(buffer, cursor);
+            String hint3 = QuestionPack.readString(buffer, cursor);
+            String complexity = QuestionPack.readString(buffer, cursor);
+            int caseCount = QuestionPack.readInt(buffer, cursor);
+            List<TestCaseModel> testCases = new ArrayList<>(caseCount);
+            for (int i = 0; i < caseCount; i++) {
+                TestCaseModel testCase = new TestCaseModel();
+                testCase.setInput(QuestionPack.readString(buffer, cursor));
+                testCase.setExpected(QuestionPack.readString(buffer, cursor));
+                testCase.setUnordered(buffer.get(cursor[0]++) != 0);
+                testCases.add(testCase);
+            }
+            String generatorSource = QuestionPack.readString(buffer, cursor);
+            int firstSize = QuestionPack.readInt(buffer, cursor);
+            int steps = QuestionPack.readInt(buffer, cursor);
+            InputGenerator generator = generatorSource == null ? null
+                    : new InputGenerator(generatorSource, firstSize, steps);
+            String question = statement == null ? getTitle() : getTitle() + ": " + statement;
+            d = new Details(question, hint1, hint2, hint3, complexity, List.copyOf(testCases), generator);
+            details = d;
+        }
+        return d;
+    }
+
+    @Override
+    public String getQuestion() {
+        return details().question();
+    }
+
+    @Override
+    public String getHint1() {
+        return details().hint1();
+    }
+
+    @Override
+    public String getHint2() {
+        return details().hint2();
+    }
+
+    @Override
+    public String getHint3() {
+        return details().hint3();
+    }
+
+    @Override
+    public String getExpectedComplexity() {
+        return details().expectedComplexity();
+    }
+
+    // Not bean getters, so the expected answers never end up in a question payload
+    List<TestCaseModel> testCases() {
+        return details().testCases();
+    }
+
+    InputGenerator inputGenerator() {
+        return details().generator();
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.demo.content;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.demo.enums.Concepts;
+import com.example.demo.enums.Difficulty;
+import com.example.demo.enums.RoleType;
+import com.example.demo.model.InputGenerator;
+import com.example.demo.model.QuestionModel;
+import com.example.demo.model.TestCaseModel;
+
+/**
+ * Read-only view over a compiled question pack, usually a memory-mapped file.
+ *
+ * <p>Layout: {@code [int magic][int version][int count]}, then {@code count} index entries of
+ * {@code [int summaryOffset][int detailOffset]}, then the summaries, then the details. A summary
+ * is {@code [byte role][byte difficulty][byte conceptCount][conceptCount ordinals][id][title]};
+ * a detail is {@code [statement][hint1][hint2][hint3][expectedComplexity][int caseCount]}, then
+ * {@code caseCount} test cases of {@code [input][expected][byte unordered]}, then
+ * {@code [generatorSource][int firstSize][int steps]}. Strings are length-prefixed UTF-8 (-1 for
+ * null; a null generator source means the question has no generator). Summaries are decoded
+ * when the pack is opened; details only when a question's statement, hints, test cases or
+ * generator are first read.
+ */
+public final class QuestionPack {
+
+    static final int MAGIC = 0x51504B31; // "QPK1"
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 3 * Integer.BYTES;
+    static final int ENTRY_BYTES = 2 * Integer.BYTES;
+    static final int HINTS = 3;
+
+    private static final RoleType[] ROLES = RoleType.values();
+    private static final Difficulty[] DIFFICULTIES = Difficulty.values();
+    private static final Concepts[] CONCEPTS = Concepts.values();
+
+    private final Map<RoleType, List<QuestionModel>> questionsByRole = new EnumMap<>(RoleType.class);
+    private final Map<RoleType, Map<String, PackedQuestion>> questionsById = new EnumMap<>(RoleType.class);
+    private final int size;
+
+    private QuestionPack(ByteBuffer buffer) {
+        if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a question pack");
+        }
+        if (buffer.getInt(Integer.BYTES) != VERSION) {
+            throw new IllegalArgumentException("Unsupported question pack version " + buffer.getInt(Integer.BYTES));
+        }
+        size = buffer.getInt(2 * Integer.BYTES);
+        Map<RoleType, List<QuestionModel>> byRole = new EnumMap<>(RoleType.class);
+        try {
+            for (int i = 0; i < size; i++) {
+                int entry = HEADER_BYTES + i * ENTRY_BYTES;
+                PackedQuestion question = readSummary(buffer, buffer.getInt(entry), buffer.getInt(entry + Integer.BYTES));
+                byRole.computeIfAbsent(question.role, r -> new ArrayList<>()).add(question);
+                questionsById.computeIfAbsent(question.role, r -> new HashMap<>()).put(question.getId(), question);
+            }
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated question pack", e);
+        }
+        byRole.forEach((role, questions) -> questionsByRole.put(role, List.copyOf(questions)));
+    }
+
+    /**
+     * Opens a compiled pack. The buffer must not change afterwards: details are read from it lazily.
+     *
+     * @throws IllegalArgumentException if the buffer does not hold a valid pack
+     */
+    public static QuestionPack open(ByteBuffer buffer) {
+        return new QuestionPack(buffer);
+    }
+
+    /**
+     * Returns the role's questions in pack order, or an empty list if the pack has none.
+     */
+    public List<QuestionModel> getQuestions(RoleType role) {
+        return questionsByRole.getOrDefault(role, List.of());
+    }
+
+    /**
+     * Returns the test cases of the role's question, or an empty list if it has none or there is
+     * no such question.
+     */
+    public List<TestCaseModel> getTestCases(RoleType role, String id) {
+        PackedQuestion question = questionsById.getOrDefault(role, Map.of()).get(id);
+        return question == null ? List.of() : question.testCases();
+    }
+
+    /**
+     * Returns the input generator of the role's question, or null if it has none or there is no
+     * such question.
+     */
+    public InputGenerator getInputGenerator(RoleType role, String id) {
+        PackedQuestion question = questionsById.getOrDefault(role, Map.of()).get(id);
+        return question == null ? null : question.inputGenerator();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static PackedQuestion readSummary(ByteBuffer buffer, int offset, int detailOffset) {
+        RoleType role = ROLES[buffer.get(offset)];
+        Difficulty difficulty = DIFFICULTIES[buffer.get(offset + 1)];
+        int conceptCount = buffer.get(offset + 2);
+        Concepts[] concepts = new Concepts[conceptCount];
+        int position = offset + 3;
+        for (int c = 0; c < conceptCount; c++) {
+            concepts[c] = CONCEPTS[buffer.get(position++)];
+        }
+        int[] cursor = {position};
+        String id = readString(buffer, cursor);
+        String title = readString(buffer, cursor);
+
+        return new PackedQuestion(id, title, difficulty, List.of(concepts), buffer, detailOffset, role);
+    }
+
+    /**
+     * Reads the int at {@code cursor[0]} and advances the cursor past it.
+     */
+    static int readInt(ByteBuffer buffer, int[] cursor) {
+        int value = buffer.getInt(cursor[0]);
+        cursor[0] += Integer.BYTES;
+        return value;
+    }
+
+    /**
+     * Reads the string at {@code cursor[0]} and advances the cursor past it. Only absolute reads
+     * are used, so the shared buffer is safe to read from any thread.
+     */
+    static String readString(ByteBuffer buffer, int[] cursor) {
+        int length = buffer.getInt(cursor[0]);
+        cursor[0] += Integer.BYTES;
+        if (length < 0) {
+            return null;
+        }
+        byte[] utf8 = new byte[length];
+        buffer.get(cursor[0], utf8);
+        cursor[0] += length;
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
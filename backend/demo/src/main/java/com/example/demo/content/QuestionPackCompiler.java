@@ -0,0 +1,197 @@
+package com.example.demo.content;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.example.demo.enums.Concepts;
+import com.example.demo.enums.Difficulty;
+import com.example.demo.enums.RoleType;
+import com.example.demo.model.InputGenerator;
+import com.example.demo.model.TestCaseModel;
+
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Compiles the JSON authoring format of a question pack into the binary format read by
+ * {@link QuestionPack}.
+ *
+ * <p>JSON: {@code {"questions": [{"role", "id", "title", "difficulty", "concepts": [...],
+ * "statement", "hints": [h1, h2, h3], "expectedComplexity", "testCases": [{"input", "expected",
+ * "unordered"}, ...], "generator": {"source", "firstSize", "steps"}}, ...]}}. Questions keep
+ * their order within each role. Test cases and the generator are optional: a question without
+ * cases is not graded, one without a generator is not profiled.
+ */
+public final class QuestionPackCompiler {
+
+    private static final ObjectMapper JSON = JsonMapper.builder().build();
+
+    private QuestionPackCompiler() {
+    }
+
+    /**
+     * One question as authored.
+     */
+    public record Entry(RoleType role, String id, String title, Difficulty difficulty, List<Concepts> concepts,
+                        String statement, List<String> hints, String expectedComplexity,
+                        List<TestCaseModel> testCases, InputGenerator generator) {
+
+        /**
+         * A question that is neither graded nor profiled.
+         */
+        public Entry(RoleType role, String id, String title, Difficulty difficulty, List<Concepts> concepts,
+                     String statement, List<String> hints, String expectedComplexity) {
+            this(role, id, title, difficulty, concepts, statement, hints, expectedComplexity, null, null);
+        }
+    }
+
+    record Source(List<Entry> questions) {
+    }
+
+    /**
+     * Parses and validates the JSON pack, then encodes it.
+     *
+     * @throws IllegalArgumentException if the pack is malformed
+     */
+    public static byte[] compile(byte[] json) {
+        Source source;
+        try {
+            source = JSON.readValue(json, Source.class);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed question pack: " + e.getMessage(), e);
+        }
+        if (source == null || source.questions() == null) {
+            throw new IllegalArgumentException("Question pack has no \"questions\" array");
+        }
+        return compile(source.questions());
+    }
+
+    /**
+     * Compiles a JSON pack into {@code <output-dir>/questions-<hash>.qpack}, the name the loader
+     * looks for. The build runs this on the bundled pack.
+     *
+     * <p>Usage: {@code QuestionPackCompiler <pack.json> <output-dir>}
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: QuestionPackCompiler <pack.json> <output-dir>");
+        }
+        byte[] json = Files.readAllBytes(Path.of(args[0]));
+        Path outputDir = Files.createDirectories(Path.of(args[1]));
+        Files.write(outputDir.resolve(QuestionPackLoader.compiledName(json)), compile(json));
+    }
+
+    public static byte[] compile(List<Entry> entries) {
+        Set<String> seen = new HashSet<>();
+        for (Entry e : entries) {
+            if (e.role() == null || e.id() == null || e.title() == null || e.difficulty() == null) {
+                throw new IllegalArgumentException("Question is missing role, id, title or difficulty: " + e);
+            }
+            if (e.concepts() == null || e.concepts().isEmpty() || e.concepts().size() > Byte.MAX_VALUE) {
+                throw new IllegalArgumentException("Question " + e.role() + "/" + e.id() + " needs 1-127 concepts");
+            }
+            if (e.hints() != null && e.hints().size() > QuestionPack.HINTS) {
+                throw new IllegalArgumentException("Question " + e.role() + "/" + e.id() + " has more than 3 hints");
+            }
+            if (e.testCases() != null && e.testCases().stream()
+                    .anyMatch(c -> c == null || c.getInput() == null || c.getExpected() == null)) {
+                throw new IllegalArgumentException("Question " + e.role() + "/" + e.id()
+                        + " has a test case without input or expected");
+            }
+            InputGenerator g = e.generator();
+            if (g != null && (g.source() == null || g.firstSize() < 1 || g.steps() < 1)) {
+                throw new IllegalArgumentException("Question " + e.role() + "/" + e.id()
+                        + " needs a generator source, firstSize and steps");
+            }
+            if (!seen.add(e.role() + "/" + e.id())) {
+                throw new IllegalArgumentException("Duplicate question id " + e.role() + "/" + e.id());
+            }
+        }
+
+        // Summaries first, so the eager decode at open reads one contiguous region
+        List<byte[]> summaries = new ArrayList<>(entries.size());
+        List<byte[]> details = new ArrayList<>(entries.size());
+        for (Entry e : entries) {
+            summaries.add(encode(out -> {
+                out.writeByte(e.role().ordinal());
+                out.writeByte(e.difficulty().ordinal());
+                out.writeByte(e.concepts().size());
+                for (Concepts c : e.concepts()) {
+                    out.writeByte(c.ordinal());
+                }
+                writeString(out, e.id());
+                writeString(out, e.title());
+            }));
+            details.add(encode(out -> {
+                writeString(out, e.statement());
+                for (int h = 0; h < QuestionPack.HINTS; h++) {
+                    writeString(out, e.hints() != null && h < e.hints().size() ? e.hints().get(h) : null);
+                }
+                writeString(out, e.expectedComplexity());
+                List<TestCaseModel> cases = e.testCases() == null ? List.of() : e.testCases();
+                out.writeInt(cases.size());
+                for (TestCaseModel c : cases) {
+                    writeString(out, c.getInput());
+                    writeString(out, c.getExpected());
+                    out.writeBoolean(c.isUnordered());
+                }
+                writeString(out, e.generator() == null ? null : e.generator().source());
+                out.writeInt(e.generator() == null ? 0 : e.generator().firstSize());
+                out.writeInt(e.generator() == null ? 0 : e.generator().steps());
+            }));
+        }
+
+        return encode(out -> {
+            out.writeInt(QuestionPack.MAGIC);
+            out.writeInt(QuestionPack.VERSION);
+            out.writeInt(entries.size());
+            int offset = QuestionPack.HEADER_BYTES + entries.size() * QuestionPack.ENTRY_BYTES;
+            int detailOffset = offset + summaries.stream().mapToInt(b -> b.length).sum();
+            for (int i = 0; i < entries.size(); i++) {
+                out.writeInt(offset);
+                out.writeInt(detailOffset);
+                offset += summaries.get(i).length;
+                detailOffset += details.get(i).length;
+            }
+            for (byte[] summary : summaries) {
+                out.write(summary);
+            }
+            for (byte[] detail : details) {
+                out.write(detail);
+            }
+        });
+    }
+
+    private interface Writer {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static byte[] encode(Writer writer) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writer.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.demo.content;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+
+/**
+ * Loads a JSON question pack through its compiled form. Compiled packs are named after the hash
+ * of their JSON source and never rewritten, so an unchanged pack is mapped without parsing any
+ * JSON, and a pack that is still mapped by an older registry snapshot is never modified.
+ *
+ * <p>The build compiles the bundled pack into the jar under the same name, so a fresh instance
+ * serving the bundled pack copies it out instead of compiling it on startup.
+ */
+public class QuestionPackLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(QuestionPackLoader.class);
+
+    public static final String BUNDLED_PACK = "questions/pack.json";
+    static final String PREBUILT_DIR = "questions/";
+    private static final String COMPILED_PREFIX = "questions-";
+    private static final String COMPILED_SUFFIX = ".qpack";
+
+    private final Resource source;
+    private final Path compiledDir;
+    private volatile Path current;
+
+    public QuestionPackLoader(Resource source, Path compiledDir) {
+        this.source = source;
+        this.compiledDir = compiledDir;
+    }
+
+    /**
+     * Compiles the source if needed and memory-maps the compiled pack.
+     *
+     * @throws IllegalArgumentException if the source is not a valid pack
+     */
+    public QuestionPack load() throws IOException {
+        byte[] json;
+        try (InputStream in = source.getInputStream()) {
+            json = in.readAllBytes();
+        }
+        Files.createDirectories(compiledDir);
+        String name = compiledName(json);
+        Path compiled = compiledDir.resolve(name);
+        if (!Files.exists(compiled)) {
+            byte[] pack = prebuilt(name);
+            if (pack == null) {
+                pack = QuestionPackCompiler.compile(json);
+                log.info("Compiled question pack {} to {}", source.getDescription(), compiled);
+            }
+            Path tmp = Files.createTempFile(compiledDir, COMPILED_PREFIX, ".tmp");
+            Files.write(tmp, pack);
+            Files.move(tmp, compiled, StandardCopyOption.ATOMIC_MOVE);
+        }
+        QuestionPack pack;
+        // The mapping stays valid after the channel is closed
+        try (FileChannel channel = FileChannel.open(compiled, StandardOpenOption.READ)) {
+            pack = QuestionPack.open(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+        current = compiled;
+        return pack;
+    }
+
+    /**
+     * Deletes compiled packs other than the one loaded last.
+     */
+    public void deleteStale() {
+        try (Stream<Path> listing = Files.list(compiledDir)) {
+            for (Path file : listing.toList()) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(COMPILED_PREFIX) && name.endsWith(COMPILED_SUFFIX) && !file.equals(current)) {
+                    // Still mapped by a previous snapshot on some platforms; it goes next time then
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            log.debug("Could not delete stale question packs: {}", e.toString());
+        }
+    }
+
+    /**
+     * Returns the name of the compiled pack loaded last, which is derived from its source's
+     * hash, or null if nothing was loaded yet.
+     */
+    public String currentPack() {
+        Path loaded = current;
+        return loaded == null ? null : loaded.getFileName().toString();
+    }
+
+    /**
+     * Returns the source as a file on disk, or null if it is not one (e.g. inside the jar).
+     */
+    public Path getSourceFile() {
+        try {
+            return source.isFile() ? source.getFile().toPath() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Compiles the pack bundled with the application into a heap buffer.
+     */
+    public static QuestionPack loadBundled() {
+        try (InputStream in = new ClassPathResource(BUNDLED_PACK).getInputStream()) {
+            byte[] json = in.readAllBytes();
+            byte[] pack = prebuilt(compiledName(json));
+            return QuestionPack.open(ByteBuffer.wrap(pack != null ? pack : QuestionPackCompiler.compile(json)));
+        } catch (IOException e) {
+            throw new IllegalStateException("Bundled question pack is missing", e);
+        }
+    }
+
+    /**
+     * Returns the file name of the compiled form of the JSON source.
+     */
+    static String compiledName(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return COMPILED_PREFIX + HexFormat.of().formatHex(digest, 0, 8) + COMPILED_SUFFIX;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the compiled pack of that name if the build put one on the classpath, else null.
+     * The name is the source hash, so a pack edited after the build never matches a stale one.
+     */
+    private static byte[] prebuilt(String name) throws IOException {
+        ClassPathResource resource = new ClassPathResource(PREBUILT_DIR + name);
+        if (!resource.exists()) {
+            return null;
+        }
+        try (InputStream in = resource.getInputStream()) {
+            return in.readAllBytes();
+        }
+    }
+}
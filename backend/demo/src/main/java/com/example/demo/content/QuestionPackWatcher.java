@@ -0,0 +1,97 @@
+package com.example.demo.content;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Watches a question pack source file and runs the reload callback once writes to it have been
+ * quiet for the debounce interval (editors and copies usually produce several events).
+ */
+public class QuestionPackWatcher implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(QuestionPackWatcher.class);
+
+    private final Path file;
+    private final long debounceMillis;
+    private final Runnable onChange;
+    private final WatchService watchService;
+    private final Thread thread;
+
+    /**
+     * Starts watching {@code file}; does nothing if it is null.
+     */
+    public QuestionPackWatcher(Path file, Duration debounce, Runnable onChange) throws IOException {
+        this.file = file == null ? null : file.toAbsolutePath();
+        this.debounceMillis = debounce.toMillis();
+        this.onChange = onChange;
+        if (this.file == null) {
+            watchService = null;
+            thread = null;
+            return;
+        }
+        watchService = FileSystems.getDefault().newWatchService();
+        this.file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        thread = Thread.ofPlatform().name("question-pack-watcher").daemon().start(this::run);
+        log.info("Watching {} for question pack changes", this.file);
+    }
+
+    public boolean isWatching() {
+        return thread != null;
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                if (!touchesFile(watchService.take())) {
+                    continue;
+                }
+                // Wait for the writes to settle before reloading
+                WatchKey key;
+                while ((key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+                    touchesFile(key);
+                }
+                try {
+                    onChange.run();
+                } catch (RuntimeException e) {
+                    log.warn("Question pack reload failed; keeping the current questions", e);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Closed
+        }
+    }
+
+    /**
+     * Drains the key's events and returns whether any of them touched the watched file.
+     */
+    private boolean touchesFile(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || file.getFileName().equals(event.context())) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+            thread.interrupt();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.demo.controller;
+
+import java.util.List;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.example.demo.enums.RoleType;
+import com.example.demo.model.CohortStatsModel;
+import com.example.demo.model.SessionKey;
+import com.example.demo.model.SimilarSubmissionModel;
+import com.example.demo.services.CohortAnalytics;
+import com.example.demo.similarity.SimilarityIndex;
+
+/**
+ * Cohort-wide endpoints for instructors, across every user and session.
+ */
+@RestController
+@RequestMapping("/analytics")
+public class AnalyticsController {
+    static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    static final int MAX_SIMILAR = 100;
+
+    private final CohortAnalytics cohortAnalytics;
+    private final SimilarityIndex similarityIndex;
+
+    public AnalyticsController(CohortAnalytics cohortAnalytics, SimilarityIndex similarityIndex) {
+        this.cohortAnalytics = cohortAnalytics;
+        this.similarityIndex = similarityIndex;
+    }
+
+    /**
+     * Streams every stored attempt as newline-delimited JSON (chunked; nothing is buffered
+     * beyond one session or log segment). Optionally limited to one role.
+     */
+    @GetMapping("/attempts")
+    public ResponseEntity<StreamingResponseBody> exportAttempts(@RequestParam(required = false) String role) {
+        RoleType roleType = null;
+        if (role != null) {
+            roleType = QuestionController.parseRole(role);
+            if (roleType == null) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        RoleType filter = roleType;
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .body(out -> cohortAnalytics.export(filter, out));
+    }
+
+    /**
+     * Returns accuracy, time and hint usage per concept plus the hardest questions of a role.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<CohortStatsModel> getStats(@RequestParam(defaultValue = "SWE") String role) {
+        RoleType roleType = QuestionController.parseRole(role);
+        if (roleType == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(cohortAnalytics.stats(roleType));
+    }
+
+    /**
+     * Returns other users' submissions to the question that look like a copy of (or the source
+     * of) the given session's latest submission.
+     */
+    @GetMapping("/similar")
+    public ResponseEntity<List<SimilarSubmissionModel>> getSimilar(@RequestParam(defaultValue = "SWE") String role,
+                                                                   @RequestParam String question,
+                                                                   @RequestParam String user,
+                                                                   @RequestParam(required = false) String session,
+                                                                   @RequestParam(defaultValue = "0.6") double threshold,
+                                                                   @RequestParam(defaultValue = "20") int limit) {
+        RoleType roleType = QuestionController.parseRole(role);
+        if (roleType == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<SimilarSubmissionModel> similar = similarityIndex.similarTo(SessionKey.of(user, session), roleType,
+                question, threshold, Math.clamp(limit, 1, MAX_SIMILAR));
+        return similar == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(similar);
+    }
+}
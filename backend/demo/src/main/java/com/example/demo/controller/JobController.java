@@ -0,0 +1,85 @@
+package com.example.demo.controller;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.demo.jobs.EventHub;
+import com.example.demo.jobs.SubmissionJobService;
+import com.example.demo.model.SubmissionJobModel;
+
+/**
+ * Submission jobs started with {@code POST /questions/{id}/jobs}.
+ */
+@RestController
+@RequestMapping("/jobs")
+public class JobController {
+    static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+
+    private final SubmissionJobService jobService;
+    private final long eventsTimeoutMillis;
+
+    public JobController(SubmissionJobService jobService,
+                         @Value("${jobs.events.timeout:5m}") Duration eventsTimeout) {
+        this.jobService = jobService;
+        this.eventsTimeoutMillis = eventsTimeout.toMillis();
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<SubmissionJobModel> getJob(@PathVariable String jobId) {
+        SubmissionJobModel job = jobService.get(jobId);
+        return job == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(job);
+    }
+
+    /**
+     * Streams the job's events ({@code status}, {@code case}, {@code done}) as server-sent
+     * events; the stream ends after {@code done}. A reconnecting client sends the id of the last
+     * event it got in Last-Event-ID and is sent only the ones after it.
+     */
+    @GetMapping(value = "/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamEvents(@PathVariable String jobId,
+                                                   @RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) String lastEventId) {
+        SseEmitter emitter = new SseEmitter(eventsTimeoutMillis);
+        EventHub.Subscription subscription = jobService.subscribe(jobId, parseEventId(lastEventId), new EventHub.Sink() {
+            @Override
+            public void send(EventHub.Event event) throws IOException {
+                emitter.send(SseEmitter.event()
+                        .id(Long.toString(event.id()))
+                        .name(event.name())
+                        .data(event.data(), MediaType.APPLICATION_JSON));
+            }
+
+            @Override
+            public void complete() {
+                emitter.complete();
+            }
+        });
+        if (subscription == null) {
+            return ResponseEntity.notFound().build();
+        }
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(e -> subscription.cancel());
+        return ResponseEntity.ok(emitter);
+    }
+
+    static long parseEventId(String lastEventId) {
+        if (lastEventId == null) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Long.parseLong(lastEventId.trim()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
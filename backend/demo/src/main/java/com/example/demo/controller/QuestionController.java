@@ -1,79 +1,458 @@
 package com.example.demo.controller;
 
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
 
+import com.example.demo.admission.BatchAdmission;
+import com.example.demo.enums.Concepts;
+import com.example.demo.enums.Difficulty;
 import com.example.demo.enums.RoleType;
+import com.example.demo.execution.ExecutionRejectedException;
+import com.example.demo.jobs.SubmissionJobService;
+import com.example.demo.model.ExecutionResultModel;
+import com.example.demo.model.HintModel;
+import com.example.demo.model.QuestionPageModel;
+import com.example.demo.model.QuestionSummaryModel;
+import com.example.demo.model.SearchHitModel;
+import com.example.demo.model.SessionKey;
 import com.example.demo.model.SolutionModel;
+import com.example.demo.model.SubmissionJobModel;
+import com.example.demo.search.QuestionSearch;
+import com.example.demo.services.BatchService;
 import com.example.demo.services.QuestionService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import jakarta.servlet.http.HttpServletRequest;
 
 import com.example.demo.model.QuestionModel;
 import com.example.demo.model.ReportModel;
+import com.example.demo.services.GradingService;
 import com.example.demo.services.QuestionFilterService;
+import com.example.demo.services.QuestionResponseCache;
 
 
 
 @RestController
 @RequestMapping("/questions")
 public class QuestionController {
+    static final String USER_HEADER = "X-User-Id";
+    static final String SESSION_HEADER = "X-Session-Id";
+    static final int MAX_PAGE_SIZE = 100;
+    static final int MAX_RECOMMENDATIONS = 20;
+    static final int MAX_SEARCH_RESULTS = 50;
+    static final int MAX_BATCH_SIZE = 2000;
+
     private final QuestionService questionService;
     private final QuestionFilterService filterService;
+    private final GradingService gradingService;
+    private final QuestionResponseCache responseCache;
+    private final QuestionSearch questionSearch;
+    private final SubmissionJobService jobService;
+    private final BatchService batchService;
+    private final ExecutorService requestExecutor;
+    private final long batchTimeoutMillis;
+    private final Optional<BatchAdmission> batchAdmission;
 
-    public QuestionController(QuestionService questionService, QuestionFilterService filterService) {
+    public QuestionController(QuestionService questionService, QuestionFilterService filterService,
+                              GradingService gradingService, QuestionResponseCache responseCache,
+                              QuestionSearch questionSearch, SubmissionJobService jobService,
+                              BatchService batchService,
+                              @Qualifier("requestExecutor") ExecutorService requestExecutor,
+                              @Value("${batch.timeout:5m}") Duration batchTimeout,
+                              Optional<BatchAdmission> batchAdmission) {
         this.questionService = questionService;
         this.filterService = filterService;
+        this.gradingService = gradingService;
+        this.responseCache = responseCache;
+        this.questionSearch = questionSearch;
+        this.jobService = jobService;
+        this.batchService = batchService;
+        this.requestExecutor = requestExecutor;
+        this.batchTimeoutMillis = batchTimeout.toMillis();
+        this.batchAdmission = batchAdmission;
     }
     /**
      * Returns all questions for the given role (SWE, CLOUD, ML).
      */
     @GetMapping("/by-role/{role}")
-    public ResponseEntity<List<QuestionModel>> getQuestionsByRole(@PathVariable String role) {
-        RoleType roleType;
+    public ResponseEntity<byte[]> getQuestionsByRole(@PathVariable String role,
+                                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                     @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        RoleType roleType = parseRole(role);
+        if (roleType == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return cachedResponse(responseCache.byRole(roleType), ifNoneMatch, acceptEncoding);
+    }
+
+    /**
+     * Returns a single question by id, scoped to the given role (defaults to SWE).
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<byte[]> getQuestionById(@PathVariable String id,
+                                                  @RequestParam(defaultValue = "SWE") String role,
+                                                  @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                  @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        RoleType roleType = parseRole(role);
+        if (roleType == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        QuestionResponseCache.CachedResponse cached = responseCache.question(roleType, id);
+        if (cached == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return cachedResponse(cached, ifNoneMatch, acceptEncoding);
+    }
+
+    /**
+     * Returns one page of question summaries (no statements or hints), optionally filtered to any
+     * of the given difficulties and any of the given concepts.
+     */
+    @GetMapping("/summaries")
+    public ResponseEntity<QuestionPageModel> getSummaries(@RequestParam(defaultValue = "SWE") String role,
+                                                          @RequestParam(name = "difficulty", required = false) List<Difficulty> difficulties,
+                                                          @RequestParam(name = "concept", required = false) List<Concepts> concepts,
+                                                          @RequestParam(required = false) String cursor,
+                                                          @RequestParam(defaultValue = "20") int limit) {
+        RoleType roleType = parseRole(role);
+        if (roleType == null) {
+            return ResponseEntity.badRequest().build();
+        }
         try {
-            roleType = RoleType.valueOf(role.toUpperCase().trim());
+            return ResponseEntity.ok(questionService.getSummaries(roleType, difficulties, concepts, cursor,
+                    Math.clamp(limit, 1, MAX_PAGE_SIZE)));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
         }
-        return ResponseEntity.ok(questionService.getQuestionsByRole(roleType));
     }
 
-    //TODO: Get questions with request id /{request_ID}
-    @GetMapping("/{id}")
-    public ResponseEntity<QuestionModel> getQuestionById(@PathVariable String id) {
-        return ResponseEntity.ok(questionService.getQuestionById(id));
+    /**
+     * Full-text search over titles, statements and hints across roles, best match first. The last
+     * word also matches as a prefix unless the query ends in a space, so it can back a
+     * search-as-you-type box. Filters keep any of the given roles, difficulties and concepts.
+     */
+    @GetMapping("/search")
+    public List<SearchHitModel> search(@RequestParam(name = "q", defaultValue = "") String query,
+                                       @RequestParam(name = "role", required = false) List<RoleType> roles,
+                                       @RequestParam(name = "difficulty", required = false) List<Difficulty> difficulties,
+                                       @RequestParam(name = "concept", required = false) List<Concepts> concepts,
+                                       @RequestParam(defaultValue = "10") int limit) {
+        return questionSearch.search(query, roles, difficulties, concepts, Math.clamp(limit, 1, MAX_SEARCH_RESULTS));
     }
 
-    //TODO: POST question with answer /{ID}
-    @PostMapping("/{id}")
-    public ResponseEntity<SolutionModel> submitAnswer(@PathVariable String id, @RequestBody SolutionModel solution) {
+    /**
+     * Returns the caller's next questions, picked from their per-concept mastery so far.
+     */
+    @GetMapping("/recommendations")
+    public ResponseEntity<List<QuestionSummaryModel>> getRecommendations(@RequestParam(defaultValue = "SWE") String role,
+                                                                         @RequestParam(defaultValue = "5") int limit,
+                                                                         @RequestHeader(value = USER_HEADER, required = false) String userId,
+                                                                         @RequestHeader(value = SESSION_HEADER, required = false) String sessionId) {
+        RoleType roleType = parseRole(role);
+        if (roleType == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(questionService.getRecommendations(SessionKey.of(userId, sessionId), roleType,
+                Math.clamp(limit, 1, MAX_RECOMMENDATIONS)));
+    }
+
+    /**
+     * Returns one hint (1-3) of a question and records that the caller's session used it.
+     */
+    @GetMapping("/{id}/hints/{number}")
+    public ResponseEntity<HintModel> getHint(@PathVariable String id, @PathVariable int number,
+                                             @RequestParam(defaultValue = "SWE") String role,
+                                             @RequestHeader(value = USER_HEADER, required = false) String userId,
+                                             @RequestHeader(value = SESSION_HEADER, required = false) String sessionId) {
+        RoleType roleType = parseRole(role);
+        if (roleType == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        HintModel hint = questionService.getHint(SessionKey.of(userId, sessionId), roleType, id, number);
+        if (hint == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(hint);
+    }
 
-        questionService.submitAnswer(id, solution);
+    /**
+     * Records an attempt at question {@code id} in the caller's session (X-User-Id / X-Session-Id
+     * headers); an id in the body is overwritten. 404 if the question does not exist.
+     */
+    @PostMapping("/{id}")
+    public ResponseEntity<SolutionModel> submitAnswer(@PathVariable String id, @RequestBody SolutionModel solution,
+                                                      @RequestParam(defaultValue = "SWE") String role,
+                                                      @RequestHeader(value = USER_HEADER, required = false) String userId,
+                                                      @RequestHeader(value = SESSION_HEADER, required = false) String sessionId) {
+        RoleType roleType = parseRole(role);
+        if (roleType == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (questionService.getSubmittedQuestion(roleType, id, solution) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            questionService.submitAnswer(SessionKey.of(userId, sessionId), roleType, id, solution);
+        } catch (ExecutionRejectedException e) {
+            return serviceUnavailable();
+        }
         return ResponseEntity.ok(solution);
     }
 
-    @GetMapping("/report")
-    public ResponseEntity<ReportModel> getReport(@RequestParam(defaultValue = "SWE") String role) {
-        RoleType roleType;
+    /**
+     * Async variant of {@link #submitAnswer}: grading and persistence run on the request executor
+     * and the servlet thread is released while they do.
+     */
+    @PostMapping("/{id}/async")
+    public CompletableFuture<ResponseEntity<SolutionModel>> submitAnswerAsync(@PathVariable String id,
+                                                                              @RequestBody SolutionModel solution,
+                                                                              @RequestParam(defaultValue = "SWE") String role,
+                                                                              @RequestHeader(value = USER_HEADER, required = false) String userId,
+                                                                              @RequestHeader(value = SESSION_HEADER, required = false) String sessionId) {
+        RoleType roleType = parseRole(role);
+        if (roleType == null) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        if (questionService.getSubmittedQuestion(roleType, id, solution) == null) {
+            return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
+        }
+        SessionKey key = SessionKey.of(userId, sessionId);
+        return CompletableFuture
+                .supplyAsync(() -> {
+                    questionService.submitAnswer(key, roleType, id, solution);
+                    return ResponseEntity.ok(solution);
+                }, requestExecutor)
+                .exceptionally(e -> {
+                    // Failures inside supplyAsync arrive wrapped in a CompletionException
+                    if (e.getCause() instanceof ExecutionRejectedException) {
+                        return serviceUnavailable();
+                    }
+                    throw e instanceof CompletionException ce ? ce : new CompletionException(e);
+                });
+    }
+
+    /**
+     * Job variant of {@link #submitAnswer}: answers 202 at once with the job, whose progress
+     * streams from {@code /jobs/{jobId}/events} case by case as it is graded.
+     */
+    @PostMapping("/{id}/jobs")
+    public ResponseEntity<SubmissionJobModel> submitAnswerJob(@PathVariable String id,
+                                                              @RequestBody SolutionModel solution,
+                                                              @RequestParam(defaultValue = "SWE") String role,
+                                                              @RequestHeader(value = USER_HEADER, required = false) String userId,
+                                                              @RequestHeader(value = SESSION_HEADER, required = false) String sessionId) {
+        RoleType roleType = parseRole(role);
+        if (roleType == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (questionService.getSubmittedQuestion(roleType, id, solution) == null) {
+            return ResponseEntity.notFound().build();
+        }
         try {
-            roleType = RoleType.valueOf(role.toUpperCase().trim());
-        } catch (IllegalArgumentException e) {
+            SubmissionJobModel job = jobService.submit(SessionKey.of(userId, sessionId), roleType, id, solution);
+            return ResponseEntity.accepted().location(URI.create("/jobs/" + job.getJobId())).body(job);
+        } catch (ExecutionRejectedException e) {
+            return serviceUnavailable();
+        }
+    }
+
+    /**
+     * Batch variant of {@link #submitAnswer}: each solution names its question in {@code id}. The
+     * response is a JSON array with one result per solution in request order, streamed as the
+     * solutions are graded; each result carries the status the single submit would have had.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<ResponseBodyEmitter> submitAnswers(@RequestBody List<SolutionModel> solutions,
+                                                             @RequestParam(defaultValue = "SWE") String role,
+                                                             @RequestHeader(value = USER_HEADER, required = false) String userId,
+                                                             @RequestHeader(value = SESSION_HEADER, required = false) String sessionId,
+                                                             HttpServletRequest request) {
+        RoleType roleType = parseRole(role);
+        if (roleType == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (solutions.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.status(HttpStatus.CONTENT_TOO_LARGE).build();
+        }
+        long retryAfter = admitBatch(request, solutions.size());
+        if (retryAfter > 0) {
+            return tooManyRequests(retryAfter);
+        }
+        SessionKey key = SessionKey.of(userId, sessionId);
+        return streamBatch(sink -> batchService.submissions(key, roleType, solutions, sink));
+    }
+
+    /**
+     * Runs the code against the question's test cases without recording an attempt.
+     */
+    @PostMapping("/{id}/run")
+    public ResponseEntity<ExecutionResultModel> runCode(@PathVariable String id, @RequestBody SolutionModel solution,
+                                                        @RequestParam(defaultValue = "SWE") String role) {
+        RoleType roleType = parseRole(role);
+        if (roleType == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (questionService.getQuestionById(roleType, id) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            ExecutionResultModel result = gradingService.grade(roleType, id, solution.getSolution(), false);
+            if (result == null) {
+                return ResponseEntity.unprocessableContent().build();
+            }
+            return ResponseEntity.ok(result);
+        } catch (ExecutionRejectedException e) {
+            return serviceUnavailable();
+        }
+    }
+
+    @GetMapping("/report")
+    public ResponseEntity<ReportModel> getReport(@RequestParam(defaultValue = "SWE") String role,
+                                                 @RequestHeader(value = USER_HEADER, required = false) String userId,
+                                                 @RequestHeader(value = SESSION_HEADER, required = false) String sessionId) {
+        RoleType roleType = parseRole(role);
+        if (roleType == null) {
             roleType = RoleType.SWE;
         }
-        ReportModel report = new ReportModel();
-        report.setRole(roleType);
-        report.setSolutions(questionService.getSolutions());
-        return ResponseEntity.ok(report);
+        return ResponseEntity.ok(questionService.getReport(SessionKey.of(userId, sessionId), roleType));
     }
 
     @PostMapping("/follow-up")
     public List<QuestionModel> getFollowUpQuestions(@RequestBody ReportModel report) {
         return filterService.getFollowUpQuestions(report);
     }
+
+    @PostMapping("/follow-up/async")
+    public CompletableFuture<List<QuestionModel>> getFollowUpQuestionsAsync(@RequestBody ReportModel report) {
+        return CompletableFuture.supplyAsync(() -> filterService.getFollowUpQuestions(report), requestExecutor);
+    }
+
+    /**
+     * Batch variant of {@link #getFollowUpQuestions}: a JSON array with each report's follow-up
+     * questions in request order, streamed as they are picked.
+     */
+    @PostMapping("/follow-up/batch")
+    public ResponseEntity<ResponseBodyEmitter> getFollowUpQuestionsBatch(@RequestBody List<ReportModel> reports,
+                                                                         HttpServletRequest request) {
+        if (reports.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.status(HttpStatus.CONTENT_TOO_LARGE).build();
+        }
+        long retryAfter = admitBatch(request, reports.size());
+        if (retryAfter > 0) {
+            return tooManyRequests(retryAfter);
+        }
+        return streamBatch(sink -> batchService.followUps(reports, sink));
+    }
+
+    /**
+     * Runs the batch on the request executor, sending its output to the client as it is written.
+     */
+    private ResponseEntity<ResponseBodyEmitter> streamBatch(BatchRun run) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(batchTimeoutMillis);
+        requestExecutor.execute(() -> {
+            try {
+                run.run(bytes -> emitter.send(bytes, MediaType.APPLICATION_JSON));
+                emitter.complete();
+            } catch (IOException e) {
+                // The client has gone; the container completes the response
+            } catch (RuntimeException e) {
+                emitter.completeWithError(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(emitter);
+    }
+
+    /**
+     * Charges one admission token per batch item; returns 0 if admitted, otherwise the seconds
+     * until the client's bucket holds enough tokens.
+     */
+    private long admitBatch(HttpServletRequest request, int items) {
+        return batchAdmission.map(admission -> admission.tryAdmit(request, items)).orElse(0L);
+    }
+
+    private interface BatchRun {
+
+        void run(BatchService.Sink sink) throws IOException;
+    }
+
+    /**
+     * Parses a role name case-insensitively, returning null if it is not a known role.
+     */
+    static RoleType parseRole(String role) {
+        try {
+            return RoleType.valueOf(role.toUpperCase().trim());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Serves pre-serialized bytes: 304 when the client's copy is current, otherwise the gzip
+     * variant when the client accepts it. Clients must revalidate, since a pack reload changes
+     * the content.
+     */
+    private static ResponseEntity<byte[]> cachedResponse(QuestionResponseCache.CachedResponse cached,
+                                                         String ifNoneMatch, String acceptEncoding) {
+        boolean gzip = cached.gzip() != null && acceptsGzip(acceptEncoding);
+        boolean notModified = cached.matches(ifNoneMatch);
+        ResponseEntity.BodyBuilder builder = ResponseEntity
+                .status(notModified ? HttpStatus.NOT_MODIFIED : HttpStatus.OK)
+                .eTag(gzip ? cached.gzipEtag() : cached.etag())
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (notModified) {
+            return builder.build();
+        }
+        builder.contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(cached.gzip());
+        }
+        return builder.body(cached.body());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static <T> ResponseEntity<T> serviceUnavailable() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .build();
+    }
+
+    private static <T> ResponseEntity<T> tooManyRequests(long retryAfterSeconds) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .build();
+    }
 }
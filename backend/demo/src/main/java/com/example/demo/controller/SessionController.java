@@ -0,0 +1,78 @@
+package com.example.demo.controller;
+
+import static com.example.demo.controller.QuestionController.USER_HEADER;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.demo.enums.RoleType;
+import com.example.demo.model.SessionKey;
+import com.example.demo.model.SessionModel;
+import com.example.demo.services.SessionManager;
+
+/**
+ * Practice sessions. The returned {@code sessionId} goes in the X-Session-Id header of the
+ * question endpoints; submissions to a started question are timed by the server.
+ */
+@RestController
+@RequestMapping("/sessions")
+public class SessionController {
+    static final int MAX_SESSION_QUESTIONS = 20;
+
+    private final SessionManager sessionManager;
+
+    public SessionController(SessionManager sessionManager) {
+        this.sessionManager = sessionManager;
+    }
+
+    /**
+     * Starts a session with the role's question set.
+     */
+    @PostMapping
+    public ResponseEntity<SessionModel> createSession(@RequestParam(defaultValue = "SWE") String role,
+                                                      @RequestParam(defaultValue = "5") int count,
+                                                      @RequestHeader(value = USER_HEADER, required = false) String userId) {
+        RoleType roleType = QuestionController.parseRole(role);
+        if (roleType == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        SessionModel session = sessionManager.create(userId, roleType, Math.clamp(count, 1, MAX_SESSION_QUESTIONS));
+        return ResponseEntity.status(HttpStatus.CREATED).body(session);
+    }
+
+    @GetMapping("/{sessionId}")
+    public ResponseEntity<SessionModel> getSession(@PathVariable String sessionId,
+                                                   @RequestHeader(value = USER_HEADER, required = false) String userId) {
+        SessionModel session = sessionManager.get(SessionKey.of(userId, sessionId));
+        return session == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(session);
+    }
+
+    /**
+     * Records the server-side start time of one of the session's questions (the first call wins).
+     */
+    @PostMapping("/{sessionId}/questions/{id}/start")
+    public ResponseEntity<SessionModel> startQuestion(@PathVariable String sessionId, @PathVariable String id,
+                                                      @RequestHeader(value = USER_HEADER, required = false) String userId) {
+        SessionModel session = sessionManager.start(SessionKey.of(userId, sessionId), id);
+        return session == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(session);
+    }
+
+    /**
+     * Ends the session and drops its attempts, report and hint usage.
+     */
+    @DeleteMapping("/{sessionId}")
+    public ResponseEntity<Void> endSession(@PathVariable String sessionId,
+                                           @RequestHeader(value = USER_HEADER, required = false) String userId) {
+        return sessionManager.end(SessionKey.of(userId, sessionId))
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+}
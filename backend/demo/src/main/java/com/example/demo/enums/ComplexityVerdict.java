@@ -0,0 +1,9 @@
+package com.example.demo.enums;
+
+public enum ComplexityVerdict {
+    // Grows no faster than the question's expected complexity
+    WITHIN_EXPECTED,
+    SLOWER_THAN_EXPECTED,
+    // Too few sizes finished to tell
+    INCONCLUSIVE
+}
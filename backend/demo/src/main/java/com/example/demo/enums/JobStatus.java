@@ -0,0 +1,9 @@
+package com.example.demo.enums;
+
+public enum JobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    // Not graded: the execution queue was full or grading failed
+    FAILED
+}
@@ -0,0 +1,10 @@
+package com.example.demo.enums;
+
+public enum Verdict {
+    ACCEPTED,
+    WRONG_ANSWER,
+    COMPILE_ERROR,
+    RUNTIME_ERROR,
+    TIME_LIMIT_EXCEEDED,
+    MEMORY_LIMIT_EXCEEDED
+}
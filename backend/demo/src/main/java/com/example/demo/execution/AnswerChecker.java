@@ -0,0 +1,105 @@
+package com.example.demo.execution;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.demo.model.TestCaseModel;
+
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.node.StringNode;
+
+/**
+ * Compares a solution's answer with a test case's expected one. Both are JSON; numbers compare
+ * by value, so {@code 1} matches {@code 1.0}. An unordered case compares lists as multisets.
+ * The runner only reports answers, so this is the one place a case is judged.
+ */
+final class AnswerChecker {
+
+    private final ObjectMapper objectMapper;
+
+    AnswerChecker(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    boolean matches(String actualJson, TestCaseModel testCase) {
+        JsonNode actual;
+        JsonNode expected;
+        try {
+            actual = objectMapper.readTree(actualJson);
+            expected = objectMapper.readTree(testCase.getExpected());
+        } catch (JacksonException e) {
+            return false;
+        }
+        if (testCase.isUnordered() && actual.isArray() && expected.isArray()) {
+            return sortedCanonical(actual).equals(sortedCanonical(expected));
+        }
+        return same(actual, expected);
+    }
+
+    private static boolean same(JsonNode a, JsonNode b) {
+        if (a.isNumber() && b.isNumber()) {
+            return a.decimalValue().compareTo(b.decimalValue()) == 0;
+        }
+        if (a.isArray() && b.isArray()) {
+            if (a.size() != b.size()) {
+                return false;
+            }
+            for (int i = 0; i < a.size(); i++) {
+                if (!same(a.get(i), b.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (a.isObject() && b.isObject()) {
+            if (a.size() != b.size()) {
+                return false;
+            }
+            for (String name : a.propertyNames()) {
+                if (!b.has(name) || !same(a.get(name), b.get(name))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return a.equals(b);
+    }
+
+    private static List<String> sortedCanonical(JsonNode array) {
+        List<String> elements = new ArrayList<>(array.size());
+        for (JsonNode element : array) {
+            StringBuilder out = new StringBuilder();
+            canonical(element, out);
+            elements.add(out.toString());
+        }
+        elements.sort(null);
+        return elements;
+    }
+
+    // Sorted keys and plain numbers, so equal values always print the same
+    private static void canonical(JsonNode node, StringBuilder out) {
+        if (node.isNumber()) {
+            out.append(node.decimalValue().stripTrailingZeros().toPlainString());
+        } else if (node.isArray()) {
+            out.append('[');
+            for (int i = 0; i < node.size(); i++) {
+                out.append(i == 0 ? "" : ",");
+                canonical(node.get(i), out);
+            }
+            out.append(']');
+        } else if (node.isObject()) {
+            out.append('{');
+            List<String> names = new ArrayList<>(node.propertyNames());
+            names.sort(null);
+            for (int i = 0; i < names.size(); i++) {
+                out.append(i == 0 ? "" : ",").append(StringNode.valueOf(names.get(i))).append(':');
+                canonical(node.get(names.get(i)), out);
+            }
+            out.append('}');
+        } else {
+            out.append(node);
+        }
+    }
+}
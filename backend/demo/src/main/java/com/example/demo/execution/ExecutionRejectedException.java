@@ -0,0 +1,11 @@
+package com.example.demo.execution;
+
+/**
+ * Thrown when the execution queue is full, or execution is unavailable, and a run cannot be admitted.
+ */
+public class ExecutionRejectedException extends RuntimeException {
+
+    public ExecutionRejectedException(String message) {
+        super(message);
+    }
+}
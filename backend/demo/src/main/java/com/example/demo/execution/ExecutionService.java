@@ -0,0 +1,522 @@
+package com.example.demo.execution;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import com.example.demo.enums.Verdict;
+import com.example.demo.model.CaseResultModel;
+import com.example.demo.model.ExecutionResultModel;
+import com.example.demo.model.TestCaseModel;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Runs submitted Python solutions against test cases on a pool of warm {@code runner.py}
+ * interpreters. Each job is forked off a warm interpreter with CPU, memory, process, file-size
+ * and open-file limits, so starting a run costs a fork rather than an interpreter boot. The
+ * runner only gets each case's input and reports what the solution returned; the verdict is
+ * decided here, so expected answers never share a process with user code.
+ *
+ * <p>All of a question's cases go to a worker as one batch. Suites larger than
+ * {@code shard-size} are split with fork/join into up to one shard per worker and run in
+ * parallel. In stop-on-failure mode (Submit) no new shard starts once any case has failed.
+ *
+ * <p>At most {@code workers} runs execute at once and at most {@code queue-capacity} more may
+ * wait for a worker; anything beyond that is rejected immediately so callers can shed load.
+ * These are resource limits, not a security boundary: run the backend as an unprivileged user,
+ * which the per-solution process limit also needs to take effect.
+ */
+@Service
+public class ExecutionService implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ExecutionService.class);
+
+    // Extra time the runner gets to answer before the whole worker is killed
+    private static final long WATCHDOG_GRACE_MILLIS = 2_000;
+    // Answers are reported in full for judging but shown only this far
+    private static final int MAX_OUTPUT_CHARS = 2_000;
+
+    private final String python;
+    private final long timeLimitMillis;
+    private final long memoryLimitMb;
+    private final int workerCount;
+    private final int shardSize;
+    private final ObjectMapper objectMapper;
+    private final AnswerChecker answerChecker;
+
+    private final BlockingQueue<PythonWorker> idleWorkers;
+    private final Semaphore admission;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger busy = new AtomicInteger();
+    private final ScheduledExecutorService watchdog;
+    private final ForkJoinPool shardPool;
+    private final Timer runTimer;
+    private final Timer profileTimer;
+    private final Counter rejected;
+
+    private Path runner;
+    private volatile boolean available;
+
+    public ExecutionService(@Value("${execution.enabled:true}") boolean enabled,
+                            @Value("${execution.python:python3}") String python,
+                            @Value("${execution.workers:2}") int workers,
+                            @Value("${execution.queue-capacity:32}") int queueCapacity,
+                            @Value("${execution.time-limit:2s}") Duration timeLimit,
+                            @Value("${execution.memory-limit:256MB}") DataSize memoryLimit,
+                            @Value("${execution.shard-size:16}") int shardSize,
+                            ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.python = python;
+        this.timeLimitMillis = timeLimit.toMillis();
+        this.memoryLimitMb = memoryLimit.toMegabytes();
+        this.workerCount = Math.max(1, workers);
+        this.shardSize = Math.max(1, shardSize);
+        this.objectMapper = objectMapper;
+        this.answerChecker = new AnswerChecker(objectMapper);
+        this.idleWorkers = new ArrayBlockingQueue<>(workerCount);
+        this.admission = new Semaphore(workerCount + Math.max(0, queueCapacity));
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "execution-watchdog");
+            t.setDaemon(true);
+            return t;
+        });
+        // Shard tasks block on worker I/O, so one pool thread per worker is enough; waiting for a
+        // worker is a managed block, so queued shards do not starve the pool
+        this.shardPool = new ForkJoinPool(workerCount);
+
+        this.runTimer = Timer.builder("execution.run")
+                .description("Wall time of one Run/Submit, including queueing")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.profileTimer = Timer.builder("execution.profile")
+                .description("Wall time of one complexity profiling sweep, including queueing")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("execution.rejected")
+                .description("Runs rejected because the execution queue was full")
+                .register(meterRegistry);
+        Gauge.builder("execution.queue.depth", queued, AtomicInteger::get)
+                .description("Runs waiting for a free worker")
+                .register(meterRegistry);
+        Gauge.builder("execution.workers.busy", busy, AtomicInteger::get)
+                .description("Workers currently executing a run")
+                .register(meterRegistry);
+
+        if (enabled) {
+            start(workerCount);
+        }
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * Runs the source against the cases. With {@code stopOnFailure} the result ends at the first
+     * failing case; otherwise every case is reported.
+     *
+     * @throws ExecutionRejectedException if execution is unavailable or the queue is full
+     */
+    public ExecutionResultModel execute(String questionId, String source, List<TestCaseModel> cases,
+                                        boolean stopOnFailure) {
+        return execute(questionId, source, cases, stopOnFailure, null);
+    }
+
+    /**
+     * Like {@link #execute(String, String, List, boolean)}, also handing each case's result to
+     * {@code progress} as soon as the case finishes. Shards report concurrently, so calls may
+     * come from several threads and out of case order, and in stop-on-failure mode may include
+     * cases past the first failure that the returned result leaves out.
+     *
+     * @throws ExecutionRejectedException if execution is unavailable or the queue is full
+     */
+    public ExecutionResultModel execute(String questionId, String source, List<TestCaseModel> cases,
+                                        boolean stopOnFailure, Consumer<CaseResultModel> progress) {
+        if (!available) {
+            throw new ExecutionRejectedException("Code execution is not available");
+        }
+        if (!admission.tryAcquire()) {
+            rejected.increment();
+            throw new ExecutionRejectedException("Execution queue is full");
+        }
+        long start = System.nanoTime();
+        AtomicBoolean waiting = startWaiting();
+        try {
+            int shards = Math.min(workerCount, (cases.size() + shardSize - 1) / shardSize);
+            int leafSize = Math.max(shardSize, (cases.size() + shards - 1) / Math.max(1, shards));
+            ShardTask task = new ShardTask(source, cases, 0, cases.size(), leafSize, stopOnFailure, progress,
+                    new AtomicBoolean(), waiting);
+            List<CaseResultModel> results = cases.isEmpty() ? List.of() : shardPool.invoke(task);
+            return summarize(questionId, cases.size(), results, stopOnFailure, System.nanoTime() - start);
+        } finally {
+            stopWaiting(waiting);
+            admission.release();
+            runTimer.record(Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Times the source on generated inputs of each size, smallest first, on one worker.
+     * {@code generator} is Python defining {@code generate(n, rng)}, which returns the argument
+     * list for size {@code n}. Each size gets {@code sizeTimeLimit} for all its repeats; the
+     * sweep ends at the first size that runs out of time or fails, which is the last timing
+     * returned. Nothing is returned if the worker stops answering.
+     *
+     * @throws ExecutionRejectedException if execution is unavailable or the queue is full
+     */
+    public List<SizeTiming> profile(String source, String generator, int[] sizes, int repeats,
+                                    Duration sizeTimeLimit) {
+        if (!available) {
+            throw new ExecutionRejectedException("Code execution is not available");
+        }
+        if (!admission.tryAcquire()) {
+            rejected.increment();
+            throw new ExecutionRejectedException("Execution queue is full");
+        }
+        long start = System.nanoTime();
+        AtomicBoolean waiting = startWaiting();
+        try {
+            List<Map<String, Integer>> cases = new ArrayList<>(sizes.length);
+            for (int size : sizes) {
+                cases.add(Map.of("size", size));
+            }
+            Map<String, Object> job = new LinkedHashMap<>();
+            job.put("source", source);
+            job.put("generator", generator);
+            job.put("cases", cases);
+            job.put("repeats", repeats);
+            job.put("stopOnFailure", true);
+            job.put("timeLimitMs", sizeTimeLimit.toMillis());
+            job.put("memoryLimitMb", memoryLimitMb);
+            String jobJson = objectMapper.writeValueAsString(job);
+
+            PythonWorker worker = acquireWorker(waiting);
+            busy.incrementAndGet();
+            List<SizeTiming> timings = new ArrayList<>(sizes.length);
+            try {
+                String line = worker.call(jobJson, (sizeTimeLimit.toMillis() + WATCHDOG_GRACE_MILLIS) * sizes.length,
+                        watchdog);
+                for (WorkerResult answer : objectMapper.readValue(line, WorkerAnswer.class).results()) {
+                    Verdict verdict = "OK".equals(answer.status()) ? Verdict.ACCEPTED : Verdict.valueOf(answer.status());
+                    long nanos = verdict == Verdict.ACCEPTED && answer.timeNs() != null ? answer.timeNs() : 0;
+                    timings.add(new SizeTiming(sizes[timings.size()], verdict, nanos));
+                }
+            } catch (IOException | RuntimeException e) {
+                log.warn("Python worker failed while profiling, restarting it: {}", e.toString());
+                worker.close();
+                worker = respawn();
+                timings.clear();
+            } finally {
+                busy.decrementAndGet();
+                if (worker.isAlive()) {
+                    idleWorkers.offer(worker);
+                }
+            }
+            return timings;
+        } finally {
+            stopWaiting(waiting);
+            admission.release();
+            profileTimer.record(Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    @Override
+    public void close() {
+        available = false;
+        watchdog.shutdownNow();
+        shardPool.shutdownNow();
+        PythonWorker worker;
+        while ((worker = idleWorkers.poll()) != null) {
+            worker.close();
+        }
+    }
+
+    private void start(int workers) {
+        try {
+            runner = Files.createTempFile("runner", ".py");
+            runner.toFile().deleteOnExit();
+            try (InputStream in = new ClassPathResource("execution/runner.py").getInputStream()) {
+                Files.copy(in, runner, StandardCopyOption.REPLACE_EXISTING);
+            }
+            boolean networkIsolated = true;
+            for (int i = 0; i < workers; i++) {
+                PythonWorker worker = new PythonWorker(python, runner, objectMapper);
+                networkIsolated &= worker.isNetworkIsolated();
+                idleWorkers.add(worker);
+            }
+            available = true;
+            log.info("Started {} Python execution workers", workers);
+            if (!networkIsolated) {
+                log.warn("Python workers could not leave the host network; submitted code can open connections");
+            }
+        } catch (IOException e) {
+            log.warn("Code execution disabled: could not start '{}' workers ({})", python, e.getMessage());
+            close();
+        }
+    }
+
+    /**
+     * Counts an admitted run as queued until {@link #stopWaiting} is called with the returned
+     * flag, which happens once any of its shards gets a worker or the run ends.
+     */
+    private AtomicBoolean startWaiting() {
+        queued.incrementAndGet();
+        return new AtomicBoolean(true);
+    }
+
+    private void stopWaiting(AtomicBoolean waiting) {
+        if (waiting.compareAndSet(true, false)) {
+            queued.decrementAndGet();
+        }
+    }
+
+    /**
+     * Takes an idle worker, waiting as long as it takes. Shards call this on the fork/join pool,
+     * so the wait is a managed block that lets the pool keep other tasks moving.
+     */
+    private PythonWorker acquireWorker(AtomicBoolean waiting) {
+        WorkerWait wait = new WorkerWait();
+        try {
+            ForkJoinPool.managedBlock(wait);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExecutionRejectedException("Interrupted while waiting for a worker");
+        }
+        stopWaiting(waiting);
+        return wait.worker;
+    }
+
+    /**
+     * Sends one batch of cases to a worker. Returns the results of the cases that ran, in order.
+     */
+    private List<CaseResultModel> runBatch(String source, List<TestCaseModel> cases, int firstIndex,
+                                           boolean stopOnFailure, Consumer<CaseResultModel> progress,
+                                           AtomicBoolean waiting) {
+        Map<String, Object> job = new LinkedHashMap<>();
+        job.put("source", source);
+        job.put("cases", cases.stream().map(c -> Map.of("input", c.getInput())).toList());
+        job.put("stopOnFailure", stopOnFailure);
+        job.put("timeLimitMs", timeLimitMillis);
+        job.put("memoryLimitMb", memoryLimitMb);
+        job.put("progress", progress != null);
+        String jobJson = objectMapper.writeValueAsString(job);
+
+        PythonWorker worker = acquireWorker(waiting);
+        busy.incrementAndGet();
+        List<CaseResultModel> results = new ArrayList<>(cases.size());
+        try {
+            // Streamed results land in the list as they come, so a dying worker keeps the finished cases
+            String line = worker.call(jobJson, (timeLimitMillis + WATCHDOG_GRACE_MILLIS) * cases.size(), watchdog,
+                    progress == null ? null : progressLine -> {
+                        WorkerResult answer = objectMapper.readValue(progressLine, WorkerProgress.class).progress();
+                        CaseResultModel result = caseResult(firstIndex + results.size(), cases.get(results.size()), answer);
+                        results.add(result);
+                        progress.accept(result);
+                    });
+            List<WorkerResult> answers = objectMapper.readValue(line, WorkerAnswer.class).results();
+            int streamed = results.size();
+            results.clear();
+            for (int i = 0; i < answers.size(); i++) {
+                CaseResultModel result = caseResult(firstIndex + i, cases.get(i), answers.get(i));
+                results.add(result);
+                // Verdicts the runner added itself (time limit, crash) were not streamed
+                if (progress != null && i >= streamed) {
+                    progress.accept(result);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // The worker stopped answering (or was killed by the watchdog); replace it
+            log.warn("Python worker failed, restarting it: {}", e.toString());
+            worker.close();
+            worker = respawn();
+            int failedCase = Math.min(results.size(), cases.size() - 1);
+            results.subList(failedCase, results.size()).clear();
+            CaseResultModel result = caseResult(firstIndex + failedCase, cases.get(failedCase));
+            result.setVerdict(Verdict.TIME_LIMIT_EXCEEDED);
+            result.setTimeMs(timeLimitMillis);
+            results.add(result);
+            if (progress != null) {
+                progress.accept(result);
+            }
+        } finally {
+            busy.decrementAndGet();
+            if (worker.isAlive()) {
+                idleWorkers.offer(worker);
+            }
+        }
+        return results;
+    }
+
+    private CaseResultModel caseResult(int index, TestCaseModel testCase, WorkerResult answer) {
+        CaseResultModel result = caseResult(index, testCase);
+        // The runner reports OK for any answer it got back and never decides a case passed
+        if ("OK".equals(answer.status())) {
+            result.setVerdict(answerChecker.matches(answer.actual(), testCase) ? Verdict.ACCEPTED : Verdict.WRONG_ANSWER);
+        } else {
+            Verdict verdict = Verdict.valueOf(answer.status());
+            result.setVerdict(verdict == Verdict.ACCEPTED ? Verdict.RUNTIME_ERROR : verdict);
+        }
+        result.setActual(truncate(answer.actual()));
+        result.setError(answer.error());
+        result.setTimeMs(answer.timeMs() == null ? 0 : answer.timeMs());
+        return result;
+    }
+
+    private static String truncate(String text) {
+        return text == null || text.length() <= MAX_OUTPUT_CHARS ? text : text.substring(0, MAX_OUTPUT_CHARS) + "...";
+    }
+
+    private static CaseResultModel caseResult(int index, TestCaseModel testCase) {
+        CaseResultModel result = new CaseResultModel();
+        result.setIndex(index);
+        result.setInput(testCase.getInput());
+        result.setExpected(testCase.getExpected());
+        return result;
+    }
+
+    private PythonWorker respawn() {
+        try {
+            return new PythonWorker(python, runner, objectMapper);
+        } catch (IOException e) {
+            available = false;
+            throw new ExecutionRejectedException("Could not restart a Python worker: " + e.getMessage());
+        }
+    }
+
+    private static ExecutionResultModel summarize(String questionId, int total, List<CaseResultModel> results,
+                                                  boolean stopOnFailure, long elapsedNanos) {
+        // Shards run concurrently, so cut the report at the first failure (or compile error)
+        List<CaseResultModel> reported = new ArrayList<>(results.size());
+        Verdict verdict = Verdict.ACCEPTED;
+        for (CaseResultModel result : results) {
+            reported.add(result);
+            if (result.getVerdict() != Verdict.ACCEPTED && verdict == Verdict.ACCEPTED) {
+                verdict = result.getVerdict();
+            }
+            if (result.getVerdict() == Verdict.COMPILE_ERROR
+                    || (stopOnFailure && result.getVerdict() != Verdict.ACCEPTED)) {
+                break;
+            }
+        }
+        if (verdict == Verdict.ACCEPTED && reported.size() < total) {
+            // Only possible if a shard was skipped after another one failed
+            verdict = Verdict.WRONG_ANSWER;
+        }
+
+        ExecutionResultModel model = new ExecutionResultModel();
+        model.setQuestionId(questionId);
+        model.setCases(reported);
+        model.setTotal(total);
+        model.setPassed((int) reported.stream().filter(r -> r.getVerdict() == Verdict.ACCEPTED).count());
+        model.setVerdict(verdict);
+        model.setTimeMs(Duration.ofNanos(elapsedNanos).toMillis());
+        return model;
+    }
+
+    /**
+     * Splits a suite in halves until each piece fits in one batch, then runs the pieces in parallel.
+     */
+    private final class ShardTask extends RecursiveTask<List<CaseResultModel>> {
+        private final String source;
+        private final List<TestCaseModel> cases;
+        private final int from;
+        private final int to;
+        private final int leafSize;
+        private final boolean stopOnFailure;
+        private final Consumer<CaseResultModel> progress;
+        private final AtomicBoolean failed;
+        private final AtomicBoolean waiting;
+
+        ShardTask(String source, List<TestCaseModel> cases, int from, int to, int leafSize,
+                  boolean stopOnFailure, Consumer<CaseResultModel> progress, AtomicBoolean failed,
+                  AtomicBoolean waiting) {
+            this.source = source;
+            this.cases = cases;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+            this.stopOnFailure = stopOnFailure;
+            this.progress = progress;
+            this.failed = failed;
+            this.waiting = waiting;
+        }
+
+        @Override
+        protected List<CaseResultModel> compute() {
+            if (to - from <= leafSize) {
+                if (stopOnFailure && failed.get()) {
+                    return List.of();
+                }
+                List<CaseResultModel> results = runBatch(source, cases.subList(from, to), from, stopOnFailure, progress,
+                        waiting);
+                if (results.stream().anyMatch(r -> r.getVerdict() != Verdict.ACCEPTED)) {
+                    failed.set(true);
+                }
+                return results;
+            }
+            int mid = (from + to) >>> 1;
+            ShardTask left = new ShardTask(source, cases, from, mid, leafSize, stopOnFailure, progress, failed,
+                    waiting);
+            ShardTask right = new ShardTask(source, cases, mid, to, leafSize, stopOnFailure, progress, failed,
+                    waiting);
+            left.fork();
+            List<CaseResultModel> rightResults = right.compute();
+            List<CaseResultModel> results = new ArrayList<>(left.join());
+            results.addAll(rightResults);
+            return results;
+        }
+    }
+
+    private final class WorkerWait implements ForkJoinPool.ManagedBlocker {
+        private PythonWorker worker;
+
+        @Override
+        public boolean block() throws InterruptedException {
+            if (worker == null) {
+                worker = idleWorkers.take();
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            return worker != null || (worker = idleWorkers.poll()) != null;
+        }
+    }
+
+    private record WorkerAnswer(List<WorkerResult> results) {
+    }
+
+    private record WorkerProgress(WorkerResult progress) {
+    }
+
+    private record WorkerResult(String status, String actual, String error, Long timeMs, Long timeNs) {
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.demo.execution;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * One warm {@code runner.py} interpreter. Jobs and results are exchanged as single JSON lines
+ * over the process's stdin/stdout; a worker handles one job at a time. A job may ask for
+ * progress lines, which come before its result line. Before any job the runner sends one
+ * ready line saying whether it could leave the host network.
+ */
+class PythonWorker implements AutoCloseable {
+
+    // json.dumps keeps key order, so progress lines always start with this
+    private static final String PROGRESS_PREFIX = "{\"progress\"";
+
+    private final Process process;
+    private final BufferedWriter stdin;
+    private final BufferedReader stdout;
+    private final boolean networkIsolated;
+
+    PythonWorker(String python, Path runner, ObjectMapper objectMapper) throws IOException {
+        this.process = new ProcessBuilder(python, "-I", "-u", runner.toString())
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        this.stdin = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+        this.stdout = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        String ready = stdout.readLine();
+        if (ready == null) {
+            process.destroyForcibly();
+            throw new IOException("Python worker exited on startup");
+        }
+        this.networkIsolated = objectMapper.readTree(ready).path("networkIsolated").asBoolean(false);
+    }
+
+    boolean isNetworkIsolated() {
+        return networkIsolated;
+    }
+
+    /**
+     * Sends one job and waits for its result line. The runner enforces the job's own time limit;
+     * {@code watchdogMillis} is a backstop that kills the whole worker if it stops answering.
+     */
+    String call(String jobJson, long watchdogMillis, ScheduledExecutorService watchdog) throws IOException {
+        return call(jobJson, watchdogMillis, watchdog, null);
+    }
+
+    /**
+     * Like {@link #call(String, long, ScheduledExecutorService)}, handing every progress line
+     * the runner writes before the result to {@code progress}.
+     */
+    String call(String jobJson, long watchdogMillis, ScheduledExecutorService watchdog,
+                Consumer<String> progress) throws IOException {
+        ScheduledFuture<?> kill = watchdog.schedule(process::destroyForcibly, watchdogMillis, TimeUnit.MILLISECONDS);
+        try {
+            stdin.write(jobJson);
+            stdin.newLine();
+            stdin.flush();
+            while (true) {
+                String line = stdout.readLine();
+                if (line == null) {
+                    throw new IOException("Python worker exited");
+                }
+                if (progress == null || !line.startsWith(PROGRESS_PREFIX)) {
+                    return line;
+                }
+                progress.accept(line);
+            }
+        } finally {
+            kill.cancel(false);
+        }
+    }
+
+    boolean isAlive() {
+        return process.isAlive();
+    }
+
+    @Override
+    public void close() {
+        process.destroyForcibly();
+    }
+}
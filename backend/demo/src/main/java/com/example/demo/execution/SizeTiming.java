@@ -0,0 +1,10 @@
+package com.example.demo.execution;
+
+import com.example.demo.enums.Verdict;
+
+/**
+ * One input size of a profiling sweep: the best time of the solution on it, or the verdict
+ * that ended the sweep there ({@code nanos} is 0 then).
+ */
+public record SizeTiming(int size, Verdict verdict, long nanos) {
+}
@@ -0,0 +1,76 @@
+package com.example.demo.execution;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.enums.RoleType;
+import com.example.demo.model.ExecutionResultModel;
+import com.example.demo.model.TestCaseModel;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Bounded LRU cache of execution results, keyed by a SHA-256 of the question, its test cases,
+ * the run mode and the normalized source. Identical resubmissions are answered without running.
+ */
+@Component
+public class VerdictCache {
+
+    private final Map<String, ExecutionResultModel> entries;
+    private final Counter hits;
+    private final Counter misses;
+
+    public VerdictCache(@Value("${execution.cache.max-entries:10000}") int maxEntries, MeterRegistry meterRegistry) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ExecutionResultModel> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.hits = Counter.builder("execution.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("execution.cache").tag("result", "miss").register(meterRegistry);
+    }
+
+    public synchronized ExecutionResultModel get(String key) {
+        ExecutionResultModel result = entries.get(key);
+        (result == null ? misses : hits).increment();
+        return result;
+    }
+
+    public synchronized void put(String key, ExecutionResultModel result) {
+        entries.put(key, result);
+    }
+
+    public static String key(RoleType role, String questionId, List<TestCaseModel> cases,
+                             boolean stopOnFailure, String source) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((role + "\0" + questionId + "\0" + cases.hashCode() + "\0" + stopOnFailure + "\0")
+                    .getBytes(StandardCharsets.UTF_8));
+            digest.update(normalize(source).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Normalizes line endings and trailing whitespace, the usual differences between pasted copies.
+     */
+    static String normalize(String source) {
+        StringBuilder normalized = new StringBuilder(source.length());
+        for (String line : source.replace("\r\n", "\n").replace('\r', '\n').split("\n")) {
+            normalized.append(line.stripTrailing()).append('\n');
+        }
+        return normalized.toString().strip();
+    }
+}
@@ -0,0 +1,268 @@
+package com.example.demo.jobs;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans events out from publishers to stream subscribers by topic without ever blocking the
+ * publisher. Publishing appends to the topic's history and offers the event to each
+ * subscriber's bounded buffer. A subscriber whose buffer was empty gets a drain task on the
+ * sender executor, which writes buffered events to its {@link Sink} in order, so at most one
+ * thread writes to a subscriber at a time and an idle subscriber holds no thread.
+ *
+ * <p>A subscriber that falls {@code bufferSize} events behind is completed early instead of
+ * slowing the others down. Events carry per-topic ids, and a subscriber that comes back with
+ * the last id it saw (SSE {@code Last-Event-ID}) is replayed the rest from the topic's history.
+ * The history keeps a topic's newest {@code historySize} events.
+ */
+public class EventHub {
+
+    private final int bufferSize;
+    private final int historySize;
+    private final Executor sender;
+    private final ConcurrentMap<String, Topic> topics = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final AtomicLong overflows = new AtomicLong();
+
+    public EventHub(int bufferSize, int historySize, Executor sender) {
+        if (bufferSize <= 0 || historySize <= 0) {
+            throw new IllegalArgumentException("Event buffer and history sizes must be positive");
+        }
+        this.bufferSize = bufferSize;
+        this.historySize = historySize;
+        this.sender = sender;
+    }
+
+    /**
+     * One published event. Ids start at 1 in each topic.
+     */
+    public record Event(long id, String name, Object data) {
+    }
+
+    /**
+     * Where a subscriber's events are written, e.g. an SSE response. Called from one thread at
+     * a time; {@link #send} may block.
+     */
+    public interface Sink {
+
+        void send(Event event) throws IOException;
+
+        void complete();
+    }
+
+    /**
+     * Handle for ending a subscription early, e.g. when the client disconnects.
+     */
+    public interface Subscription {
+
+        void cancel();
+    }
+
+    /**
+     * Creates the topic if it does not exist yet.
+     */
+    public void open(String topic) {
+        topics.computeIfAbsent(topic, k -> new Topic());
+    }
+
+    /**
+     * Publishes an event to the topic. Returns false if the topic does not exist or is closed.
+     */
+    public boolean publish(String topic, String name, Object data) {
+        Topic t = topics.get(topic);
+        return t != null && t.publish(name, data);
+    }
+
+    /**
+     * Subscribes to the topic's events after {@code lastEventId} (0 for all it still has), then
+     * to new ones until it closes. Returns null if the topic does not exist.
+     */
+    public Subscription subscribe(String topic, long lastEventId, Sink sink) {
+        Topic t = topics.get(topic);
+        return t == null ? null : t.subscribe(lastEventId, sink);
+    }
+
+    /**
+     * Ends the topic: no more events are accepted, and every subscriber is completed once it
+     * has been sent what it has buffered. Late subscribers still get the history.
+     */
+    public void close(String topic) {
+        Topic t = topics.get(topic);
+        if (t != null) {
+            t.close();
+        }
+    }
+
+    /**
+     * Closes the topic and forgets it, history included.
+     */
+    public void remove(String topic) {
+        Topic t = topics.remove(topic);
+        if (t != null) {
+            t.close();
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers.get();
+    }
+
+    /**
+     * Subscribers completed early because they fell a full buffer behind.
+     */
+    public long overflowCount() {
+        return overflows.get();
+    }
+
+    /**
+     * One topic's history and subscribers. Guarded by its own monitor; publishing under it only
+     * enqueues, so it is never held while writing to a client.
+     */
+    private final class Topic {
+        private final Queue<Event> history = new ArrayDeque<>();
+        // Copied on write, so a subscriber can detach while an event is being offered to all
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        private long lastId;
+        private boolean closed;
+
+        synchronized boolean publish(String name, Object data) {
+            if (closed) {
+                return false;
+            }
+            Event event = new Event(++lastId, name, data);
+            if (history.size() == historySize) {
+                history.poll();
+            }
+            history.add(event);
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(event);
+            }
+            return true;
+        }
+
+        synchronized Subscription subscribe(long lastEventId, Sink sink) {
+            long missed = history.stream().filter(event -> event.id() > lastEventId).count();
+            // Room for the replay on top of the live buffer, so catching up never overflows
+            Subscriber subscriber = new Subscriber(this, sink, bufferSize + (int) missed);
+            EventHub.this.subscribers.incrementAndGet();
+            // Replayed under the monitor, so nothing published meanwhile can overtake it
+            for (Event event : history) {
+                if (event.id() > lastEventId) {
+                    subscriber.offer(event);
+                }
+            }
+            if (closed) {
+                subscriber.complete();
+            } else {
+                subscribers.add(subscriber);
+            }
+            return subscriber;
+        }
+
+        synchronized void close() {
+            closed = true;
+            for (Subscriber subscriber : subscribers) {
+                subscriber.complete();
+            }
+        }
+
+        void detach(Subscriber subscriber) {
+            subscribers.remove(subscriber);
+        }
+    }
+
+    /**
+     * One subscriber's buffer and drain state. Anyone may offer, complete or cancel; only the
+     * drain task, of which at most one runs at a time, touches the sink.
+     */
+    private final class Subscriber implements Subscription {
+        private final Topic topic;
+        private final Sink sink;
+        private final ArrayBlockingQueue<Event> buffer;
+        // Requests for a drain; whoever moves it off zero schedules one
+        private final AtomicInteger pending = new AtomicInteger();
+        private volatile boolean completing;
+        private volatile boolean cancelled;
+        private boolean finished;
+
+        Subscriber(Topic topic, Sink sink, int capacity) {
+            this.topic = topic;
+            this.sink = sink;
+            this.buffer = new ArrayBlockingQueue<>(capacity);
+        }
+
+        void offer(Event event) {
+            if (!buffer.offer(event)) {
+                if (!cancelled) {
+                    overflows.incrementAndGet();
+                }
+                // The client reconnects with its last event id and catches up from the history
+                cancel();
+                return;
+            }
+            schedule();
+        }
+
+        void complete() {
+            completing = true;
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (pending.getAndIncrement() == 0) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            while (true) {
+                if (!finished) {
+                    Event event;
+                    while (!cancelled && (event = buffer.poll()) != null) {
+                        try {
+                            sink.send(event);
+                        } catch (IOException | RuntimeException e) {
+                            // The client has gone
+                            cancelled = true;
+                        }
+                    }
+                    if (cancelled || (completing && buffer.isEmpty())) {
+                        finish();
+                    }
+                }
+                missed = pending.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        private void finish() {
+            finished = true;
+            buffer.clear();
+            topic.detach(this);
+            subscribers.decrementAndGet();
+            try {
+                sink.complete();
+            } catch (RuntimeException e) {
+                // Already completed by the container
+            }
+        }
+    }
+}
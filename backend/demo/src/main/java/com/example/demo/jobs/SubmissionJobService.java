@@ -0,0 +1,247 @@
+package com.example.demo.jobs;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.enums.JobStatus;
+import com.example.demo.enums.RoleType;
+import com.example.demo.execution.ExecutionRejectedException;
+import com.example.demo.model.CaseResultModel;
+import com.example.demo.model.ExecutionResultModel;
+import com.example.demo.model.SessionKey;
+import com.example.demo.model.SolutionModel;
+import com.example.demo.model.SubmissionJobModel;
+import com.example.demo.services.QuestionService;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Submissions graded in the background. Submitting returns a job id at once; the job records
+ * the attempt exactly like a blocking submit, and its progress goes out on the {@link EventHub}
+ * topic named by the job id as SSE events:
+ * <ul>
+ *   <li>{@code status}: the job summary, when it starts running;</li>
+ *   <li>{@code case}: one {@link CaseResultModel} per finished test case;</li>
+ *   <li>{@code done}: the final job, after which the stream ends.</li>
+ * </ul>
+ * Finished jobs and their event history are kept for {@code retention}, so a client can read
+ * the result or replay the stream after the fact.
+ */
+@Service
+public class SubmissionJobService implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(SubmissionJobService.class);
+
+    private final QuestionService questionService;
+    private final ExecutorService executor;
+    private final EventHub hub;
+    private final int maxJobs;
+    private final long retentionMillis;
+    private final ConcurrentMap<String, Job> jobs = new ConcurrentHashMap<>();
+    private final AtomicInteger active = new AtomicInteger();
+    private final ExecutorService sender;
+    private final ScheduledExecutorService reaper;
+
+    public SubmissionJobService(QuestionService questionService,
+                                @Qualifier("requestExecutor") ExecutorService executor,
+                                @Value("${jobs.max-jobs:10000}") int maxJobs,
+                                @Value("${jobs.retention:5m}") Duration retention,
+                                @Value("${jobs.events.buffer-size:64}") int bufferSize,
+                                @Value("${jobs.events.history-size:256}") int historySize,
+                                MeterRegistry meterRegistry) {
+        this.questionService = questionService;
+        this.executor = executor;
+        this.maxJobs = maxJobs;
+        this.retentionMillis = retention.toMillis();
+        // Writes to clients block on the socket, so each drain gets a cheap virtual thread
+        this.sender = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("job-events-", 0).factory());
+        this.hub = new EventHub(bufferSize, historySize, sender);
+        this.reaper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "job-expiry");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1_000, retentionMillis / 4);
+        reaper.scheduleWithFixedDelay(this::expireFinished, period, period, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("jobs.active", active, AtomicInteger::get)
+                .description("Submission jobs queued or running")
+                .register(meterRegistry);
+        Gauge.builder("jobs.events.subscribers", hub, EventHub::subscriberCount)
+                .description("Open job event streams")
+                .register(meterRegistry);
+        FunctionCounter.builder("jobs.events.overflows", hub, EventHub::overflowCount)
+                .description("Event streams ended early because the client fell a full buffer behind")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues the submission for grading and returns the job.
+     *
+     * @throws ExecutionRejectedException if too many jobs are already held
+     */
+    public SubmissionJobModel submit(SessionKey session, RoleType role, String id, SolutionModel solution) {
+        if (jobs.size() >= maxJobs) {
+            throw new ExecutionRejectedException("Too many submission jobs");
+        }
+        Job job = new Job(UUID.randomUUID().toString(), role, id, System.currentTimeMillis());
+        jobs.put(job.id, job);
+        hub.open(job.id);
+        active.incrementAndGet();
+        executor.execute(() -> run(job, session, solution));
+        return job.toModel();
+    }
+
+    /**
+     * Returns the job, or null if it is unknown or expired.
+     */
+    public SubmissionJobModel get(String jobId) {
+        Job job = jobs.get(jobId);
+        return job == null ? null : job.toModel();
+    }
+
+    /**
+     * Streams the job's events after {@code lastEventId} to the sink. Returns null if the job is
+     * unknown or expired.
+     */
+    public EventHub.Subscription subscribe(String jobId, long lastEventId, EventHub.Sink sink) {
+        return hub.subscribe(jobId, lastEventId, sink);
+    }
+
+    @Override
+    public void close() {
+        reaper.shutdownNow();
+        sender.shutdownNow();
+    }
+
+    private void run(Job job, SessionKey session, SolutionModel solution) {
+        try {
+            job.start();
+            hub.publish(job.id, "status", job.toModel());
+            ExecutionResultModel result = questionService.submitAnswer(session, job.role, job.questionId, solution,
+                    c -> {
+                        job.addCase(c);
+                        hub.publish(job.id, "case", c);
+                    });
+            job.complete(solution, result);
+        } catch (ExecutionRejectedException e) {
+            job.fail(e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Submission job {} failed", job.id, e);
+            job.fail("Grading failed");
+        } finally {
+            active.decrementAndGet();
+            hub.publish(job.id, "done", job.toModel());
+            hub.close(job.id);
+        }
+    }
+
+    void expireFinished() {
+        try {
+            long cutoff = System.currentTimeMillis() - retentionMillis;
+            for (Iterator<Job> it = jobs.values().iterator(); it.hasNext(); ) {
+                Job job = it.next();
+                if (job.finishedBefore(cutoff)) {
+                    it.remove();
+                    hub.remove(job.id);
+                }
+            }
+        } catch (RuntimeException e) {
+            // Keep the reaper alive; the next run retries
+            log.error("Job expiry failed", e);
+        }
+    }
+
+    /**
+     * One job's state. Guarded by its own monitor.
+     */
+    private static final class Job {
+        private final String id;
+        private final RoleType role;
+        private final String questionId;
+        private final long createdAt;
+        private final List<CaseResultModel> cases = new ArrayList<>();
+        private JobStatus status = JobStatus.QUEUED;
+        private ExecutionResultModel result;
+        private SolutionModel solution;
+        private String error;
+        private long finishedAt;
+
+        private Job(String id, RoleType role, String questionId, long createdAt) {
+            this.id = id;
+            this.role = role;
+            this.questionId = questionId;
+            this.createdAt = createdAt;
+        }
+
+        synchronized void start() {
+            status = JobStatus.RUNNING;
+        }
+
+        synchronized void addCase(CaseResultModel result) {
+            cases.add(result);
+        }
+
+        synchronized void complete(SolutionModel solution, ExecutionResultModel result) {
+            this.solution = solution;
+            this.result = result;
+            if (result != null) {
+                // The final result is authoritative: shards may have reported cases past the first failure
+                cases.clear();
+                cases.addAll(result.getCases());
+            }
+            finish(JobStatus.COMPLETED);
+        }
+
+        synchronized void fail(String error) {
+            this.error = error;
+            finish(JobStatus.FAILED);
+        }
+
+        synchronized boolean finishedBefore(long cutoff) {
+            return finishedAt != 0 && finishedAt < cutoff;
+        }
+
+        private void finish(JobStatus status) {
+            this.status = status;
+            this.finishedAt = System.currentTimeMillis();
+        }
+
+        synchronized SubmissionJobModel toModel() {
+            SubmissionJobModel model = new SubmissionJobModel();
+            model.setJobId(id);
+            model.setRole(role);
+            model.setQuestionId(questionId);
+            model.setStatus(status);
+            model.setCases(List.copyOf(cases));
+            model.setSolution(solution);
+            model.setError(error);
+            model.setCreatedAt(createdAt);
+            model.setFinishedAt(finishedAt == 0 ? null : finishedAt);
+            if (result != null) {
+                model.setVerdict(result.getVerdict());
+                model.setPassed(result.getPassed());
+                model.setTotal(result.getTotal());
+            }
+            return model;
+        }
+    }
+}
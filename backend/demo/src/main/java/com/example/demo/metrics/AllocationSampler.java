@@ -0,0 +1,102 @@
+package com.example.demo.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.services.QuestionFilterService;
+import com.example.demo.services.QuestionService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Attributes sampled heap allocations to the hot paths, using JFR's throttled
+ * {@code jdk.ObjectAllocationSample} events. Each sample carries the estimated bytes allocated
+ * since the previous one, and is charged to the innermost hot-path method on its stack, so the
+ * rate of {@code hotpath.allocated} approximates each path's allocation rate.
+ *
+ * <p>JFR is used instead of per-thread allocation counters because those are not available on
+ * virtual threads, which serve requests here.
+ */
+@Component
+@ConditionalOnProperty(name = "metrics.allocation.enabled", havingValue = "true", matchIfMissing = true)
+public class AllocationSampler implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(AllocationSampler.class);
+    private static final String EVENT = "jdk.ObjectAllocationSample";
+
+    // "declaring class#method" -> operation tag
+    static final Map<String, String> HOT_PATHS = Map.of(
+            QuestionService.class.getName() + "#getQuestionsByRole", "by-role",
+            QuestionService.class.getName() + "#submitAnswer", "submit",
+            QuestionService.class.getName() + "#getReport", "report",
+            QuestionFilterService.class.getName() + "#getFollowUpQuestions", "follow-up");
+
+    private final Map<String, Counter> counters = new HashMap<>();
+    private final String throttle;
+    private RecordingStream stream;
+    private boolean closed;
+
+    @Autowired
+    public AllocationSampler(MeterRegistry meterRegistry,
+                             @Value("${metrics.allocation.throttle:100/s}") String throttle) {
+        this(meterRegistry, throttle, HOT_PATHS);
+    }
+
+    AllocationSampler(MeterRegistry meterRegistry, String throttle, Map<String, String> hotPaths) {
+        hotPaths.forEach((method, operation) -> counters.put(method, Counter.builder("hotpath.allocated")
+                .description("Sampled estimate of bytes allocated on the hot path")
+                .baseUnit("bytes")
+                .tag("operation", operation)
+                .register(meterRegistry)));
+        this.throttle = throttle;
+        // Starting JFR takes about a second and nothing waits for samples, so it stays off startup
+        Thread.ofPlatform().daemon().name("allocation-sampler-start").start(this::start);
+    }
+
+    private synchronized void start() {
+        if (closed) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(EVENT).with("throttle", throttle).withStackTrace();
+        stream.onEvent(EVENT, this::onSample);
+        stream.startAsync();
+        log.info("Sampling allocations on {} hot paths ({})", counters.size(), throttle);
+    }
+
+    private void onSample(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null) {
+            return;
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            RecordedMethod method = frame.getMethod();
+            Counter counter = counters.get(method.getType().getName() + "#" + method.getName());
+            if (counter != null) {
+                counter.increment(event.getLong("weight"));
+                return;
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (stream != null) {
+            stream.close();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.demo.model;
+
+import com.example.demo.enums.RoleType;
+
+/**
+ * Compact in-memory form of a {@link SolutionModel}, used by the stores and engines that keep
+ * attempts around. The four nullable booleans are packed two bits each (present, value) into
+ * {@code flags}, and the time string is parsed once into {@code time}, the number the client
+ * sent (NaN when it was missing or not a number). {@link #of} and {@link #toModel} convert at
+ * the API boundary. {@code complexity} is null unless the attempt was profiled.
+ */
+public record Attempt(String id, RoleType role, String solution, float time, byte flags,
+                      ComplexityReportModel complexity) {
+
+    private static final int CORRECT = 0;
+    private static final int HINT1 = 1;
+
+    public static Attempt of(SolutionModel s) {
+        byte flags = (byte) (flag(s.getCorrect())
+                | flag(s.getHint1used()) << 2
+                | flag(s.getHint2used()) << 4
+                | flag(s.getHint3used()) << 6);
+        return new Attempt(s.getId(), s.getRole(), s.getSolution(), parseTime(s.getTime()), flags, s.getComplexity());
+    }
+
+    public SolutionModel toModel() {
+        SolutionModel s = new SolutionModel();
+        s.setId(id);
+        s.setRole(role);
+        s.setSolution(solution);
+        s.setTime(formatTime(time));
+        s.setCorrect(unflag(flags, CORRECT));
+        s.setHint1used(unflag(flags, HINT1));
+        s.setHint2used(unflag(flags, HINT1 + 1));
+        s.setHint3used(unflag(flags, HINT1 + 2));
+        s.setComplexity(complexity);
+        return s;
+    }
+
+    /**
+     * The attempt's role, defaulting to SWE like the rest of the API.
+     */
+    public RoleType roleOrDefault() {
+        return role != null ? role : RoleType.SWE;
+    }
+
+    /**
+     * Null when the correctness is unknown (not graded and not claimed by the client).
+     */
+    public Boolean correct() {
+        return unflag(flags, CORRECT);
+    }
+
+    public boolean isCorrect() {
+        return (flags & 0b11) == 0b11;
+    }
+
+    /**
+     * Bit {@code n - 1} is set when hint {@code n} was used.
+     */
+    public int hintMask() {
+        int mask = 0;
+        for (int h = 0; h < 3; h++) {
+            if ((flags >> 2 * (HINT1 + h) & 0b11) == 0b11) {
+                mask |= 1 << h;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Time spent in seconds, read like normalizeAttempt: values above 1000 are milliseconds.
+     */
+    public double timeSec() {
+        if (Float.isNaN(time)) {
+            return 0;
+        }
+        return Math.max(0, time > 1000 ? time / 1000.0 : time);
+    }
+
+    static float parseTime(String time) {
+        if (time == null) {
+            return Float.NaN;
+        }
+        try {
+            return Float.parseFloat(time.trim());
+        } catch (NumberFormatException e) {
+            return Float.NaN;
+        }
+    }
+
+    static String formatTime(float time) {
+        if (Float.isNaN(time)) {
+            return null;
+        }
+        // Whole numbers, which is what the client sends, round-trip without a trailing ".0"
+        if (time == Math.rint(time) && Math.abs(time) < Long.MAX_VALUE) {
+            return Long.toString((long) time);
+        }
+        return Float.toString(time);
+    }
+
+    private static int flag(Boolean value) {
+        return value == null ? 0 : value ? 0b11 : 0b01;
+    }
+
+    private static Boolean unflag(byte flags, int slot) {
+        int bits = flags >> 2 * slot & 0b11;
+        return (bits & 0b01) == 0 ? null : (bits & 0b10) != 0;
+    }
+}
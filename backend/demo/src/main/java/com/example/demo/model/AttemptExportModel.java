@@ -0,0 +1,23 @@
+package com.example.demo.model;
+
+import com.example.demo.enums.RoleType;
+
+import lombok.Data;
+
+/**
+ * One line of the attempt export: a stored attempt and the session it belongs to.
+ */
+@Data
+public class AttemptExportModel {
+
+    private String userId;
+    private String sessionId;
+    private String id;
+    private RoleType role;
+    private String time;
+    private Boolean correct;
+    private Boolean hint1used;
+    private Boolean hint2used;
+    private Boolean hint3used;
+    private String solution;
+}
@@ -0,0 +1,17 @@
+package com.example.demo.model;
+
+import com.example.demo.enums.Verdict;
+
+import lombok.Data;
+
+@Data
+public class CaseResultModel {
+
+    private int index;
+    private Verdict verdict;
+    private String input;
+    private String expected;
+    private String actual;
+    private String error;
+    private long timeMs;
+}
@@ -0,0 +1,21 @@
+package com.example.demo.model;
+
+import java.util.List;
+import java.util.Map;
+
+import com.example.demo.enums.RoleType;
+
+import lombok.Data;
+
+@Data
+public class CohortStatsModel {
+
+    private RoleType role;
+    private long attempts;
+    private int accuracyPct;
+    private double avgTimeSec;
+    // Share of attempts that used hint1, hint2, hint3 and any hint
+    private Map<String, Integer> hintUsagePct;
+    private List<ConceptStatsModel> byConcept;
+    private List<QuestionStatsModel> hardestQuestions;
+}
@@ -0,0 +1,24 @@
+package com.example.demo.model;
+
+import java.util.List;
+
+import com.example.demo.enums.ComplexityVerdict;
+import com.example.demo.enums.Verdict;
+
+import lombok.Data;
+
+@Data
+public class ComplexityReportModel {
+
+    // The question's expected complexity as authored, e.g. "O(m * n)"
+    private String expected;
+    // Closest growth class to the measured curve, e.g. "O(n^2)"; null when inconclusive
+    private String measured;
+    // Slope of log(time) over log(size) across the largest sizes
+    private Double exponent;
+    private ComplexityVerdict verdict;
+    private List<TimingPointModel> points;
+    // Size at which the sweep stopped early, and why (time limit, error)
+    private Integer stoppedAtSize;
+    private Verdict stoppedBy;
+}
@@ -0,0 +1,16 @@
+package com.example.demo.model;
+
+import com.example.demo.enums.Concepts;
+
+import lombok.Data;
+
+@Data
+public class ConceptStatsModel {
+
+    private Concepts concept;
+    private long attempts;
+    private int accuracyPct;
+    private double avgTimeSec;
+    // Attempts that used at least one hint
+    private int hintUsagePct;
+}
@@ -0,0 +1,21 @@
+package com.example.demo.model;
+
+import java.util.List;
+
+import com.example.demo.enums.Verdict;
+
+import lombok.Data;
+
+@Data
+public class ExecutionResultModel {
+
+    private String questionId;
+    private Verdict verdict;
+    private int passed;
+    private int total;
+    private long timeMs;
+    // True when the result was served from the verdict cache without running the code
+    private boolean cached;
+
+    private List<CaseResultModel> cases;
+}
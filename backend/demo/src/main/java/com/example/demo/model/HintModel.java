@@ -0,0 +1,11 @@
+package com.example.demo.model;
+
+import lombok.Data;
+
+@Data
+public class HintModel {
+
+    private String id;
+    private int number;
+    private String hint;
+}
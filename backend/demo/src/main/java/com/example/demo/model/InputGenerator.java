@@ -0,0 +1,21 @@
+package com.example.demo.model;
+
+/**
+ * Builds inputs of a given size for timing a question's solutions. {@code source} is Python
+ * defining {@code generate(n, rng)}, which returns the argument list for {@code solution(...)}
+ * and takes its randomness from {@code rng}. Sizes run from {@code firstSize}, doubling
+ * {@code steps - 1} times.
+ *
+ * <p>Every size variable in the question's expected complexity grows at most linearly with
+ * {@code n}, so the expected bound, read as a function of {@code n}, is an upper bound.
+ */
+public record InputGenerator(String source, int firstSize, int steps) {
+
+    public int[] sizes() {
+        int[] sizes = new int[steps];
+        for (int i = 0; i < steps; i++) {
+            sizes[i] = firstSize << i;
+        }
+        return sizes;
+    }
+}
@@ -14,14 +14,11 @@ public class QuestionList {
     public QuestionList() {
         // construct a list of Leetcode Questions
         for (int i = 0; i < 5; i++){
-            QuestionModel question = new QuestionModel();
-            question.setId("question" + i);
-            question.setQuestion("This is question " + i);
-            question.setDifficulty(null);
-            question.setConcepts(null);
-            question.setHint1("This is your first hint");
-            question.setHint2(null);
-            question.setHint3(null);
+            QuestionModel question = QuestionModel.builder()
+                    .id("question" + i)
+                    .question("This is question " + i)
+                    .hint1("This is your first hint")
+                    .build();
             questionList.add(question);
         }
     }
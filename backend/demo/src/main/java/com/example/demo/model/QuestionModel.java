@@ -3,21 +3,49 @@ import java.util.List;
 
 import com.example.demo.enums.Concepts;
 import com.example.demo.enums.Difficulty;
-import com.example.demo.enums.RoleType;
+import com.fasterxml.jackson.annotation.JsonCreator;
 
-import lombok.Data;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
 
-@Data
+/**
+ * A question as served to clients. The registry hands the same instances to every request, so
+ * they are immutable; new ones are made with {@link #builder()}.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
 public class QuestionModel {
 
-    private String id;
-    private String question;
+    private final String id;
+    private final String title;
+    private final String question;
 
-    private Difficulty difficulty;
+    private final Difficulty difficulty;
 
-    private List<Concepts> concepts;
-    private String hint1;
-    private String hint2;
-    private String hint3;
+    private final List<Concepts> concepts;
+    private final String hint1;
+    private final String hint2;
+    private final String hint3;
+
+    // Time complexity of the reference solution, e.g. "O(n log n)"
+    private final String expectedComplexity;
+
+    @Builder
+    @JsonCreator
+    protected QuestionModel(String id, String title, String question, Difficulty difficulty, List<Concepts> concepts,
+                            String hint1, String hint2, String hint3, String expectedComplexity) {
+        this.id = id;
+        this.title = title;
+        this.question = question;
+        this.difficulty = difficulty;
+        this.concepts = concepts == null ? null : List.copyOf(concepts);
+        this.hint1 = hint1;
+        this.hint2 = hint2;
+        this.hint3 = hint3;
+        this.expectedComplexity = expectedComplexity;
+    }
 
 }
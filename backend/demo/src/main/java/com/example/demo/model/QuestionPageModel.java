@@ -0,0 +1,14 @@
+package com.example.demo.model;
+
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class QuestionPageModel {
+
+    private List<QuestionSummaryModel> items;
+
+    // Pass back as ?cursor= for the next page; null on the last page
+    private String nextCursor;
+}
@@ -0,0 +1,16 @@
+package com.example.demo.model;
+
+import com.example.demo.enums.Difficulty;
+
+import lombok.Data;
+
+@Data
+public class QuestionStatsModel {
+
+    private String id;
+    private String title;
+    private Difficulty difficulty;
+    private long attempts;
+    private int accuracyPct;
+    private double avgTimeSec;
+}
@@ -0,0 +1,20 @@
+package com.example.demo.model;
+
+import java.util.List;
+
+import com.example.demo.enums.Concepts;
+import com.example.demo.enums.Difficulty;
+
+import lombok.Data;
+
+/**
+ * List view of a question: no statement or hints.
+ */
+@Data
+public class QuestionSummaryModel {
+
+    private String id;
+    private String title;
+    private Difficulty difficulty;
+    private List<Concepts> concepts;
+}
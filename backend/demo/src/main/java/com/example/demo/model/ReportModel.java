@@ -16,4 +16,9 @@ public class ReportModel {
     private Difficulty suggestedDifficulty;
 
     private List<SolutionModel> solutions;
+
+    // Filled in by the server-side report engine
+    private ReportSummaryModel summary;
+    private List<TopicScoreModel> byTopic;
+    private List<String> weakestTopics;
 }
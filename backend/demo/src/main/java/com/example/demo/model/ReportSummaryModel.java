@@ -0,0 +1,16 @@
+package com.example.demo.model;
+
+import java.util.Map;
+
+import lombok.Data;
+
+@Data
+public class ReportSummaryModel {
+
+    private int n;
+    private int accuracyPct;
+    private double avgTimeSec;
+    private Map<String, Integer> difficultyMix;
+    private int weightedScore;
+    private String tier;
+}
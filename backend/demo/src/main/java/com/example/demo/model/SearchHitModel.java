@@ -0,0 +1,23 @@
+package com.example.demo.model;
+
+import java.util.List;
+
+import com.example.demo.enums.Concepts;
+import com.example.demo.enums.Difficulty;
+import com.example.demo.enums.RoleType;
+
+import lombok.Data;
+
+/**
+ * One search result: the question's summary fields and its relevance score (higher is better).
+ */
+@Data
+public class SearchHitModel {
+
+    private RoleType role;
+    private String id;
+    private String title;
+    private Difficulty difficulty;
+    private List<Concepts> concepts;
+    private double score;
+}
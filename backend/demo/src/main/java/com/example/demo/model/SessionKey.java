@@ -0,0 +1,16 @@
+package com.example.demo.model;
+
+/**
+ * Identifies one practice session of one user. Attempts are stored and reported per key.
+ */
+public record SessionKey(String userId, String sessionId) {
+
+    public static final String DEFAULT_USER = "anonymous";
+    public static final String DEFAULT_SESSION = "default";
+
+    public static SessionKey of(String userId, String sessionId) {
+        return new SessionKey(
+                userId == null || userId.isBlank() ? DEFAULT_USER : userId.trim(),
+                sessionId == null || sessionId.isBlank() ? DEFAULT_SESSION : sessionId.trim());
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.demo.model;
+
+import java.util.List;
+
+import com.example.demo.enums.RoleType;
+
+import lombok.Data;
+
+@Data
+public class SessionModel {
+
+    private String userId;
+    private String sessionId;
+    private RoleType role;
+    private long createdAt;
+    private long lastActiveAt;
+    private List<SessionQuestionModel> questions;
+}
@@ -0,0 +1,21 @@
+package com.example.demo.model;
+
+import java.util.List;
+
+import com.example.demo.enums.Concepts;
+import com.example.demo.enums.Difficulty;
+
+import lombok.Data;
+
+@Data
+public class SessionQuestionModel {
+
+    private String id;
+    private String title;
+    private Difficulty difficulty;
+    private List<Concepts> concepts;
+
+    // Server timestamps (epoch millis); null until the question is started / submitted
+    private Long startedAt;
+    private Long submittedAt;
+}
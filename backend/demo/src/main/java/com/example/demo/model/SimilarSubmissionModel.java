@@ -0,0 +1,17 @@
+package com.example.demo.model;
+
+import com.example.demo.enums.RoleType;
+
+import lombok.Data;
+
+@Data
+public class SimilarSubmissionModel {
+
+    private String userId;
+    private String sessionId;
+    private RoleType role;
+    private String id;
+    // Estimated Jaccard similarity of the two submissions' fingerprints, 0-1
+    private double similarity;
+    private long submittedAt;
+}
@@ -1,11 +1,14 @@
 package com.example.demo.model;
 
+import com.example.demo.enums.RoleType;
+
 import lombok.Data;
 
 @Data  
 public class SolutionModel {
 
     private String id;
+    private RoleType role;
     private String solution;
     private String time;
 
@@ -14,4 +17,7 @@ public class SolutionModel {
     private Boolean hint1used;
     private Boolean hint2used;
     private Boolean hint3used;
+
+    // Set by the server when an accepted submission was profiled; never read from the client
+    private ComplexityReportModel complexity;
 }
@@ -0,0 +1,30 @@
+package com.example.demo.model;
+
+import java.util.List;
+
+import com.example.demo.enums.JobStatus;
+import com.example.demo.enums.RoleType;
+import com.example.demo.enums.Verdict;
+
+import lombok.Data;
+
+/**
+ * A submission graded in the background. {@code cases} fills in as test cases finish; the
+ * verdict, counts and recorded solution are set once the job completes.
+ */
+@Data
+public class SubmissionJobModel {
+
+    private String jobId;
+    private RoleType role;
+    private String questionId;
+    private JobStatus status;
+    private Verdict verdict;
+    private int passed;
+    private int total;
+    private List<CaseResultModel> cases;
+    private SolutionModel solution;
+    private String error;
+    private long createdAt;
+    private Long finishedAt;
+}
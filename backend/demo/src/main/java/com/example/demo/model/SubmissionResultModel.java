@@ -0,0 +1,16 @@
+package com.example.demo.model;
+
+import lombok.Data;
+
+/**
+ * Outcome of one submission in a batch: {@code status} is the HTTP status the single submit
+ * endpoint would have answered, and {@code solution} the recorded attempt when it is 200.
+ */
+@Data
+public class SubmissionResultModel {
+
+    private int index;
+    private int status;
+    private String error;
+    private SolutionModel solution;
+}
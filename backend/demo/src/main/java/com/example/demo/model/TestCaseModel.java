@@ -0,0 +1,14 @@
+package com.example.demo.model;
+
+import lombok.Data;
+
+@Data
+public class TestCaseModel {
+
+    // JSON array of the arguments passed to solution(...)
+    private String input;
+    // JSON of the expected return value
+    private String expected;
+    // Compare as a multiset when the answer may come back in any order
+    private boolean unordered;
+}
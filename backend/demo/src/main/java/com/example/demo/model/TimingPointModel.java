@@ -0,0 +1,11 @@
+package com.example.demo.model;
+
+import lombok.Data;
+
+@Data
+public class TimingPointModel {
+
+    private int size;
+    // Best of the repeats, in microseconds
+    private double timeUs;
+}
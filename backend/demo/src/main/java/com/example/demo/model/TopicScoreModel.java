@@ -0,0 +1,14 @@
+package com.example.demo.model;
+
+import lombok.Data;
+
+@Data
+public class TopicScoreModel {
+
+    private String topic;
+    private int attempts;
+    private int accuracyPct;
+    private double avgTimeSec;
+    private int weightedScore;
+    private int radarScore;
+}
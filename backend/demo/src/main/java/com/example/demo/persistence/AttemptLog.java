@@ -0,0 +1,318 @@
+package com.example.demo.persistence;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.example.demo.enums.RoleType;
+import com.example.demo.model.SessionKey;
+import com.example.demo.model.SolutionModel;
+
+/**
+ * Append-only attempt log made of fixed-size, memory-mapped segment files.
+ *
+ * <p>Each record is {@code [int payloadLength][int crc32c][payload]}; a zero length marks the end
+ * of the written part of a segment. Appends only copy the record into the mapped segment, and a
+ * background flusher forces dirty segments to disk every flush interval (group commit), so a
+ * crash loses at most one interval of attempts. On open, every segment is scanned and each
+ * intact record is handed to the replay callback; a torn or corrupt tail is ignored and
+ * overwritten by the next append.
+ */
+public class AttemptLog implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(AttemptLog.class);
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final List<Segment> segments = new ArrayList<>();
+    private final ScheduledExecutorService flusher;
+
+    private Segment active;
+
+    /**
+     * Opens (or creates) the log in {@code directory}, replaying every stored attempt into
+     * {@code replay} before returning.
+     */
+    public AttemptLog(Path directory, int segmentSize, long flushIntervalMillis,
+                      BiConsumer<SessionKey, SolutionModel> replay) throws IOException {
+        if (segmentSize <= HEADER_BYTES) {
+            throw new IllegalArgumentException("Segment size too small: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing
+                    .filter(p -> p.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .filter(p -> p.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+        int replayed = 0;
+        for (Path file : files) {
+            Segment segment = Segment.open(file, segmentIdOf(file), segmentSize);
+            replayed += recover(segment, replay);
+            segments.add(segment);
+        }
+        active = segments.isEmpty() ? newSegment(0) : segments.get(segments.size() - 1);
+        log.info("Attempt log opened at {} ({} segments, {} attempts replayed)", directory, segments.size(), replayed);
+
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "attempt-log-flusher");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Appends an attempt. The record becomes durable at the next group commit.
+     */
+    public void append(SessionKey key, SolutionModel solution) {
+        byte[] payload = AttemptRecord.encode(key, solution);
+        int recordSize = HEADER_BYTES + payload.length;
+        if (recordSize + Integer.BYTES > segmentSize) {
+            throw new IllegalArgumentException("Attempt of " + payload.length + " bytes exceeds the log segment size");
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+
+        synchronized (this) {
+            // Always leave room for the zero terminator after the last record
+            if (active.position + recordSize + Integer.BYTES > segmentSize) {
+                active = newSegment(active.id + 1);
+            }
+            MappedByteBuffer buffer = active.buffer;
+            int position = active.position;
+            buffer.put(position + HEADER_BYTES, payload);
+            buffer.putInt(position + Integer.BYTES, (int) crc.getValue());
+            // Length last, so a torn write never looks like a complete record
+            buffer.putInt(position, payload.length);
+            active.position = position + recordSize;
+            active.dirty = true;
+        }
+    }
+
+    /**
+     * Forces every segment written since the last flush to disk.
+     */
+    public void flush() {
+        List<Segment> dirty = new ArrayList<>();
+        synchronized (this) {
+            for (Segment segment : segments) {
+                if (segment.dirty) {
+                    segment.dirty = false;
+                    dirty.add(segment);
+                }
+            }
+        }
+        for (Segment segment : dirty) {
+            try {
+                segment.buffer.force();
+            } catch (UncheckedIOException e) {
+                log.error("Failed to flush attempt log segment {}", segment.id, e);
+                segment.dirty = true;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        flusher.shutdown();
+        flush();
+    }
+
+    public synchronized int segmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Hands every record written to segment {@code index} (0 is the oldest) to the consumer, in
+     * order. Appends may continue meanwhile; records added after the scan starts are not seen.
+     */
+    public void scanSegment(int index, BiConsumer<SessionKey, SolutionModel> consumer) {
+        Segment segment;
+        int end;
+        synchronized (this) {
+            segment = segments.get(index);
+            end = segment.position;
+        }
+        int position = 0;
+        while (position < end) {
+            int length = segment.buffer.getInt(position);
+            byte[] payload = new byte[length];
+            segment.buffer.get(position + HEADER_BYTES, payload);
+            AttemptRecord record = AttemptRecord.decode(payload);
+            consumer.accept(record.key(), record.solution());
+            position += HEADER_BYTES + length;
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    private int recover(Segment segment, BiConsumer<SessionKey, SolutionModel> replay) {
+        MappedByteBuffer buffer = segment.buffer;
+        int position = 0;
+        int count = 0;
+        CRC32C crc = new CRC32C();
+        while (position + HEADER_BYTES <= segmentSize) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + HEADER_BYTES + length > segmentSize) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(position + HEADER_BYTES, payload);
+            crc.reset();
+            crc.update(payload);
+            if ((int) crc.getValue() != buffer.getInt(position + Integer.BYTES)) {
+                log.warn("Corrupt attempt record in segment {} at {}; truncating", segment.id, position);
+                break;
+            }
+            AttemptRecord record = AttemptRecord.decode(payload);
+            replay.accept(record.key(), record.solution());
+            position += HEADER_BYTES + length;
+            count++;
+        }
+        // Clear a torn tail so the terminator is back in place for the next append
+        if (position + Integer.BYTES <= segmentSize && buffer.getInt(position) != 0) {
+            buffer.putInt(position, 0);
+            segment.dirty = true;
+        }
+        segment.position = position;
+        return count;
+    }
+
+    private Segment newSegment(int id) {
+        try {
+            Path file = directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+            Segment segment = Segment.open(file, id, segmentSize);
+            segments.add(segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create attempt log segment " + id, e);
+        }
+    }
+
+    private static int segmentIdOf(Path file) {
+        String name = file.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static final class Segment {
+        final int id;
+        final MappedByteBuffer buffer;
+        int position;
+        volatile boolean dirty;
+
+        private Segment(int id, MappedByteBuffer buffer) {
+            this.id = id;
+            this.buffer = buffer;
+        }
+
+        static Segment open(Path file, int id, int size) throws IOException {
+            // The mapping stays valid after the file is closed
+            try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+                if (raf.length() < size) {
+                    raf.setLength(size);
+                }
+                return new Segment(id, raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size));
+            }
+        }
+    }
+
+    /**
+     * Compact binary encoding of one attempt. Strings are length-prefixed UTF-8 (-1 for null);
+     * the four nullable booleans are packed two bits each (present, value) into one byte, followed
+     * by the role ordinal (-1 for null). Records written before the role byte existed end at the flags.
+     */
+    record AttemptRecord(SessionKey key, SolutionModel solution) {
+
+        static byte[] encode(SessionKey key, SolutionModel s) {
+            byte[][] strings = {
+                    utf8(key.userId()), utf8(key.sessionId()),
+                    utf8(s.getId()), utf8(s.getSolution()), utf8(s.getTime())
+            };
+            int size = 2;
+            for (byte[] str : strings) {
+                size += Integer.BYTES + (str == null ? 0 : str.length);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(size);
+            for (byte[] str : strings) {
+                buffer.putInt(str == null ? -1 : str.length);
+                if (str != null) {
+                    buffer.put(str);
+                }
+            }
+            buffer.put((byte) (flag(s.getCorrect()) | flag(s.getHint1used()) << 2
+                    | flag(s.getHint2used()) << 4 | flag(s.getHint3used()) << 6));
+            buffer.put(s.getRole() == null ? -1 : (byte) s.getRole().ordinal());
+            return buffer.array();
+        }
+
+        static AttemptRecord decode(byte[] payload) {
+            ByteBuffer buffer = ByteBuffer.wrap(payload);
+            SessionKey key = new SessionKey(readString(buffer), readString(buffer));
+            SolutionModel s = new SolutionModel();
+            s.setId(readString(buffer));
+            s.setSolution(readString(buffer));
+            s.setTime(readString(buffer));
+            int flags = buffer.get();
+            s.setCorrect(unflag(flags));
+            s.setHint1used(unflag(flags >> 2));
+            s.setHint2used(unflag(flags >> 4));
+            s.setHint3used(unflag(flags >> 6));
+            if (buffer.hasRemaining()) {
+                byte role = buffer.get();
+                s.setRole(role < 0 ? null : RoleType.values()[role]);
+            }
+            return new AttemptRecord(key, s);
+        }
+
+        private static byte[] utf8(String value) {
+            return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        private static String readString(ByteBuffer buffer) {
+            int length = buffer.getInt();
+            if (length < 0) {
+                return null;
+            }
+            String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return value;
+        }
+
+        private static int flag(Boolean value) {
+            return value == null ? 0 : value ? 0b11 : 0b01;
+        }
+
+        private static Boolean unflag(int bits) {
+            return (bits & 0b01) == 0 ? null : (bits & 0b10) != 0;
+        }
+    }
+}
@@ -0,0 +1,596 @@
+package com.example.demo.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.stereotype.Service;
+
+import com.example.demo.enums.Concepts;
+import com.example.demo.enums.Difficulty;
+import com.example.demo.enums.RoleType;
+import com.example.demo.model.QuestionModel;
+import com.example.demo.model.SearchHitModel;
+import com.example.demo.services.QuestionIndex;
+import com.example.demo.services.QuestionRegistry;
+
+/**
+ * Full-text search over every role's question titles, statements and hints, ranked by BM25.
+ * The last query word is also matched as a prefix while the user is still typing it, and a word
+ * with no exact match falls back to dictionary words one edit away. Filters restrict results to
+ * any of the given roles, difficulties and concepts.
+ *
+ * <p>The index is a large base {@link SearchSegment} plus a small delta segment. When the
+ * registry reloads, only questions whose content fingerprint changed are re-analyzed: their old
+ * base documents are marked deleted and the new versions go into a rebuilt delta. Once deleted
+ * and delta documents pass {@link #MERGE_RATIO} of the base, everything is rebuilt into a fresh
+ * base. As in Lucene, document frequencies still count deleted documents until that merge.
+ *
+ * <p>Queries are scored a document at a time with MaxScore pruning: each term's score is bounded
+ * by its highest frequency and shortest document, and terms whose bounds together cannot lift a
+ * document into the current top {@code limit} are only looked up for documents the other terms
+ * found, instead of having their whole postings walked. Common words in a long query therefore
+ * cost little once a few good matches are known.
+ */
+@Service
+public class QuestionSearch {
+
+    static final double K1 = 1.2;
+    static final double B = 0.75;
+    static final float PREFIX_WEIGHT = 0.8f;
+    static final float FUZZY_WEIGHT = 0.6f;
+    // Most dictionary words a prefix or typo expands to, keeping the most common ones
+    static final int MAX_EXPANSIONS = 16;
+    static final int MIN_PREFIX_LENGTH = 2;
+    static final double MERGE_RATIO = 0.2;
+    private static final int MIN_MERGE = 64;
+
+    private final QuestionRegistry registry;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private volatile State state;
+
+    public QuestionSearch(QuestionRegistry registry) {
+        this.registry = registry;
+        this.state = build(registry.getVersion());
+    }
+
+    /**
+     * Returns up to {@code limit} questions matching the query, best first. Null or empty
+     * filter lists do not filter.
+     */
+    public List<SearchHitModel> search(String query, Collection<RoleType> roles, Collection<Difficulty> difficulties,
+                                       Collection<Concepts> concepts, int limit) {
+        List<String> tokens = query == null ? List.of() : SearchTokenizer.query(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        // A query ending mid-word is still being typed
+        boolean typing = Character.isLetterOrDigit(query.charAt(query.length() - 1));
+        State s = current();
+        Filter filter = Filter.of(roles, difficulties, concepts);
+
+        Map<String, Float> terms = new HashMap<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            expand(s, tokens.get(i), typing && i == tokens.size() - 1).forEach((term, weight) ->
+                    terms.merge(term, weight, Float::sum));
+        }
+        TopK top = new TopK(limit);
+        collect(s, s.base, 0, s.deleted, terms, filter, top);
+        collect(s, s.delta, s.base.size(), null, terms, filter, top);
+        return hits(s, top);
+    }
+
+    /**
+     * Number of questions indexed in the delta segment, waiting to be merged into the base.
+     */
+    int pendingCount() {
+        return current().delta.size();
+    }
+
+    /**
+     * Dictionary words the query token stands for, with the weight of a match on each.
+     */
+    private static Map<String, Float> expand(State s, String token, boolean prefix) {
+        Map<String, Float> terms = new LinkedHashMap<>();
+        if (docFreq(s, token) > 0) {
+            terms.put(token, 1f);
+        }
+        if (prefix && token.length() >= MIN_PREFIX_LENGTH) {
+            addPrefixed(s.base, token, terms);
+            addPrefixed(s.delta, token, terms);
+        }
+        if (terms.isEmpty() && token.length() >= SearchSegment.FUZZY_MIN_LENGTH) {
+            addOneEditAway(s.base, token, terms);
+            addOneEditAway(s.delta, token, terms);
+        }
+        return terms;
+    }
+
+    private static void addPrefixed(SearchSegment segment, String prefix, Map<String, Float> terms) {
+        int from = segment.prefixStart(prefix);
+        int to = segment.prefixEnd(prefix);
+        if (to - from <= MAX_EXPANSIONS) {
+            for (int ord = from; ord < to; ord++) {
+                terms.putIfAbsent(segment.term(ord), PREFIX_WEIGHT);
+            }
+            return;
+        }
+        // Most common completions first: doc frequency in the high bits, ordinal in the low
+        TopK top = new TopK(MAX_EXPANSIONS);
+        for (int ord = from; ord < to; ord++) {
+            top.offer((long) (Integer.MAX_VALUE - segment.docFreq(ord)) << 32 | ord);
+        }
+        for (long key : top.sorted()) {
+            terms.putIfAbsent(segment.term((int) key), PREFIX_WEIGHT);
+        }
+    }
+
+    /**
+     * Adds dictionary words one insertion, deletion, substitution or adjacent swap away.
+     */
+    private static void addOneEditAway(SearchSegment segment, String token, Map<String, Float> terms) {
+        // The token with a character missing
+        for (int ord : segment.deletionsOf(token)) {
+            addFuzzy(segment.term(ord), terms);
+        }
+        for (int i = 0; i < token.length(); i++) {
+            String variant = SearchSegment.deletion(token, i);
+            // The token with an extra character
+            if (segment.ordinal(variant) >= 0) {
+                addFuzzy(variant, terms);
+            }
+            // Same length: both lose a character to the same variant
+            for (int ord : segment.deletionsOf(variant)) {
+                if (sameLengthOneEdit(token, segment.term(ord))) {
+                    addFuzzy(segment.term(ord), terms);
+                }
+            }
+        }
+    }
+
+    private static void addFuzzy(String term, Map<String, Float> terms) {
+        if (terms.size() < MAX_EXPANSIONS) {
+            terms.putIfAbsent(term, FUZZY_WEIGHT);
+        }
+    }
+
+    static boolean sameLengthOneEdit(String a, String b) {
+        int first = -1;
+        int mismatches = 0;
+        for (int i = 0; i < a.length(); i++) {
+            if (a.charAt(i) != b.charAt(i)) {
+                if (++mismatches > 2) {
+                    return false;
+                }
+                if (first < 0) {
+                    first = i;
+                }
+            }
+        }
+        if (mismatches <= 1) {
+            return true;
+        }
+        // Two mismatches are one edit only as a swap of neighbours
+        return first + 1 < a.length() && a.charAt(first) == b.charAt(first + 1) && a.charAt(first + 1) == b.charAt(first);
+    }
+
+    /**
+     * Offers every live, unfiltered document of the segment that has any of the terms to the
+     * top-k, numbered from {@code offset}. Documents are visited in ascending order, so a tie
+     * with the current k-th best never displaces it and pruning at the threshold is exact.
+     */
+    private static void collect(State s, SearchSegment segment, int offset, BitSet deleted, Map<String, Float> terms,
+                                Filter filter, TopK top) {
+        double averageLength = Math.max(1.0, (double) s.liveLength / Math.max(1, s.live));
+        List<TermScorer> list = new ArrayList<>(terms.size());
+        terms.forEach((term, weight) -> {
+            int ord = segment.ordinal(term);
+            if (ord >= 0) {
+                int docFreq = docFreq(s, term);
+                double idf = Math.log(1 + Math.max(0, s.live - docFreq + 0.5) / (docFreq + 0.5));
+                list.add(new TermScorer(segment, ord, weight * idf * (K1 + 1), averageLength));
+            }
+        });
+        if (list.isEmpty()) {
+            return;
+        }
+        // Ascending bounds: bounds[i] is the most terms 0..i can add together
+        list.sort((a, b) -> Double.compare(a.upperBound, b.upperBound));
+        TermScorer[] scorers = list.toArray(TermScorer[]::new);
+        float[] bounds = new float[scorers.length];
+        double sum = 0;
+        for (int i = 0; i < scorers.length; i++) {
+            sum += scorers[i].upperBound;
+            // Slack for float rounding of the summed scores
+            bounds[i] = (float) (sum * 1.0001);
+        }
+
+        int essential = firstEssential(bounds, top.threshold());
+        while (essential < scorers.length) {
+            int doc = TermScorer.NO_MORE_DOCS;
+            for (int i = essential; i < scorers.length; i++) {
+                doc = Math.min(doc, scorers[i].doc());
+            }
+            if (doc == TermScorer.NO_MORE_DOCS) {
+                return;
+            }
+            boolean live = (deleted == null || !deleted.get(doc)) && filter.accepts(segment, doc);
+            float score = 0f;
+            for (int i = essential; i < scorers.length; i++) {
+                if (scorers[i].doc() == doc) {
+                    if (live) {
+                        score += scorers[i].score();
+                    }
+                    scorers[i].next();
+                }
+            }
+            if (!live) {
+                continue;
+            }
+            float threshold = top.threshold();
+            for (int i = essential - 1; i >= 0 && score + bounds[i] > threshold; i--) {
+                if (scorers[i].advance(doc) == doc) {
+                    score += scorers[i].score();
+                }
+            }
+            if (score > threshold && top.offer(keyOf(score, offset + doc))) {
+                essential = firstEssential(bounds, top.threshold());
+            }
+        }
+    }
+
+    /**
+     * Index of the first term that must be walked: the ones before it cannot beat the threshold
+     * even together.
+     */
+    private static int firstEssential(float[] bounds, float threshold) {
+        int i = 0;
+        while (i < bounds.length && bounds[i] <= threshold) {
+            i++;
+        }
+        return i;
+    }
+
+    // Highest score first, then lowest document
+    private static long keyOf(float score, int doc) {
+        return (long) (Integer.MAX_VALUE - Float.floatToIntBits(score)) << 32 | doc;
+    }
+
+    private static float scoreOf(long key) {
+        return Float.intBitsToFloat(Integer.MAX_VALUE - (int) (key >>> 32));
+    }
+
+    private List<SearchHitModel> hits(State s, TopK top) {
+        long[] keys = top.sorted();
+        List<SearchHitModel> hits = new ArrayList<>(keys.length);
+        for (long key : keys) {
+            int doc = (int) key;
+            SearchSegment segment = doc < s.base.size() ? s.base : s.delta;
+            int local = doc < s.base.size() ? doc : doc - s.base.size();
+            QuestionModel question = registry.getQuestion(segment.role(local), segment.id(local));
+            // Gone if the registry reloaded since this state was built
+            if (question == null) {
+                continue;
+            }
+            SearchHitModel hit = new SearchHitModel();
+            hit.setRole(segment.role(local));
+            hit.setId(question.getId());
+            hit.setTitle(question.getTitle());
+            hit.setDifficulty(question.getDifficulty());
+            hit.setConcepts(question.getConcepts());
+            hit.setScore(Math.round(scoreOf(key) * 1000) / 1000.0);
+            hits.add(hit);
+        }
+        return hits;
+    }
+
+    private static int docFreq(State s, String term) {
+        int base = s.base.ordinal(term);
+        int delta = s.delta.ordinal(term);
+        return (base < 0 ? 0 : s.base.docFreq(base)) + (delta < 0 ? 0 : s.delta.docFreq(delta));
+    }
+
+    /**
+     * Returns the index for the registry's current questions, catching up with a reload first.
+     * A query arriving while another thread catches up uses the previous index.
+     */
+    private State current() {
+        State s = state;
+        if (s.version != registry.getVersion() && refreshLock.tryLock()) {
+            try {
+                s = state;
+                if (s.version != registry.getVersion()) {
+                    s = refresh(s);
+                    state = s;
+                }
+            } finally {
+                refreshLock.unlock();
+            }
+        }
+        return s;
+    }
+
+    private State refresh(State old) {
+        long version = registry.getVersion();
+        Map<Key, Integer> fingerprints = new HashMap<>(old.fingerprints.size());
+        List<SearchSegment.Doc> changed = new ArrayList<>();
+        for (RoleType role : RoleType.values()) {
+            for (QuestionModel question : registry.getQuestions(role)) {
+                Key key = new Key(role, question.getId());
+                int fingerprint = SearchSegment.Doc.fingerprint(question);
+                fingerprints.put(key, fingerprint);
+                Integer previous = old.fingerprints.get(key);
+                if (previous == null || previous != fingerprint) {
+                    changed.add(SearchSegment.Doc.of(role, question));
+                }
+            }
+        }
+        Set<Key> stale = new HashSet<>();
+        for (SearchSegment.Doc doc : changed) {
+            stale.add(new Key(doc.role(), doc.id()));
+        }
+        for (Key key : old.fingerprints.keySet()) {
+            if (!fingerprints.containsKey(key)) {
+                stale.add(key);
+            }
+        }
+        if (stale.isEmpty()) {
+            return old.withVersion(version);
+        }
+
+        BitSet deleted = (BitSet) old.deleted.clone();
+        long deletedLength = old.deletedLength;
+        for (Key key : stale) {
+            Integer position = old.basePositions.get(key);
+            if (position != null && !deleted.get(position)) {
+                deleted.set(position);
+                deletedLength += old.base.length(position);
+            }
+        }
+        List<SearchSegment.Doc> deltaDocs = new ArrayList<>();
+        for (SearchSegment.Doc doc : old.deltaDocs) {
+            if (!stale.contains(new Key(doc.role(), doc.id()))) {
+                deltaDocs.add(doc);
+            }
+        }
+        deltaDocs.addAll(changed);
+        if (deleted.cardinality() + deltaDocs.size() > Math.max(MIN_MERGE, old.base.size() * MERGE_RATIO)) {
+            return build(version);
+        }
+        return new State(version, old.base, deleted, deletedLength, old.basePositions, new SearchSegment(deltaDocs),
+                deltaDocs, fingerprints);
+    }
+
+    private State build(long version) {
+        List<SearchSegment.Doc> docs = new ArrayList<>();
+        Map<Key, Integer> positions = new HashMap<>();
+        Map<Key, Integer> fingerprints = new HashMap<>();
+        for (RoleType role : RoleType.values()) {
+            for (QuestionModel question : registry.getQuestions(role)) {
+                SearchSegment.Doc doc = SearchSegment.Doc.of(role, question);
+                Key key = new Key(role, doc.id());
+                positions.put(key, docs.size());
+                fingerprints.put(key, doc.fingerprint());
+                docs.add(doc);
+            }
+        }
+        return new State(version, new SearchSegment(docs), new BitSet(), 0, positions, SearchSegment.empty(),
+                List.of(), fingerprints);
+    }
+
+    private record Key(RoleType role, String id) {
+    }
+
+    /**
+     * One version of the index. Never modified once published.
+     */
+    private static final class State {
+        private final long version;
+        private final SearchSegment base;
+        private final BitSet deleted;
+        private final long deletedLength;
+        private final Map<Key, Integer> basePositions;
+        private final SearchSegment delta;
+        private final List<SearchSegment.Doc> deltaDocs;
+        private final Map<Key, Integer> fingerprints;
+        private final int live;
+        private final long liveLength;
+
+        private State(long version, SearchSegment base, BitSet deleted, long deletedLength,
+                      Map<Key, Integer> basePositions, SearchSegment delta, List<SearchSegment.Doc> deltaDocs,
+                      Map<Key, Integer> fingerprints) {
+            this.version = version;
+            this.base = base;
+            this.deleted = deleted;
+            this.deletedLength = deletedLength;
+            this.basePositions = basePositions;
+            this.delta = delta;
+            this.deltaDocs = deltaDocs;
+            this.fingerprints = fingerprints;
+            this.live = base.size() - deleted.cardinality() + delta.size();
+            this.liveLength = base.totalLength() - deletedLength + delta.totalLength();
+        }
+
+        private State withVersion(long version) {
+            return new State(version, base, deleted, deletedLength, basePositions, delta, deltaDocs, fingerprints);
+        }
+    }
+
+    /**
+     * Role, difficulty and concept bitmasks; zero accepts everything.
+     */
+    private record Filter(int roleMask, int difficultyMask, long conceptMask) {
+
+        static Filter of(Collection<RoleType> roles, Collection<Difficulty> difficulties,
+                         Collection<Concepts> concepts) {
+            int roleMask = 0;
+            if (roles != null) {
+                for (RoleType role : roles) {
+                    roleMask |= 1 << role.ordinal();
+                }
+            }
+            int difficultyMask = 0;
+            if (difficulties != null) {
+                for (Difficulty difficulty : difficulties) {
+                    difficultyMask |= 1 << difficulty.ordinal();
+                }
+            }
+            return new Filter(roleMask, difficultyMask, QuestionIndex.maskOf(concepts));
+        }
+
+        boolean accepts(SearchSegment segment, int doc) {
+            if (roleMask != 0 && (roleMask & 1 << segment.role(doc).ordinal()) == 0) {
+                return false;
+            }
+            if (difficultyMask != 0) {
+                int difficulty = segment.difficulty(doc);
+                if (difficulty < 0 || (difficultyMask & 1 << difficulty) == 0) {
+                    return false;
+                }
+            }
+            return conceptMask == 0 || (segment.conceptMask(doc) & conceptMask) != 0;
+        }
+    }
+
+    /**
+     * Cursor over one term's postings in one segment, scoring the document it is on by BM25.
+     */
+    private static final class TermScorer {
+        static final int NO_MORE_DOCS = Integer.MAX_VALUE;
+
+        private final SearchSegment segment;
+        private final int[] docs;
+        private final int[] freqs;
+        private final double boost;
+        private final double averageLength;
+        private final double upperBound;
+        private int position;
+
+        private TermScorer(SearchSegment segment, int ord, double boost, double averageLength) {
+            this.segment = segment;
+            this.docs = segment.postingDocs(ord);
+            this.freqs = segment.postingFreqs(ord);
+            this.boost = boost;
+            this.averageLength = averageLength;
+            // Highest frequency in the shortest document, even if no one document has both
+            this.upperBound = bm25(segment.maxFreq(ord), segment.minLength(ord));
+        }
+
+        private int doc() {
+            return position < docs.length ? docs[position] : NO_MORE_DOCS;
+        }
+
+        private void next() {
+            position++;
+        }
+
+        /**
+         * Moves to the first document at or after {@code target}, galloping then bisecting.
+         */
+        private int advance(int target) {
+            if (position >= docs.length || docs[position] >= target) {
+                return doc();
+            }
+            int low = position;
+            int step = 1;
+            while (low + step < docs.length && docs[low + step] < target) {
+                low += step;
+                step <<= 1;
+            }
+            int high = Math.min(low + step, docs.length);
+            low++;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (docs[mid] < target) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            position = low;
+            return doc();
+        }
+
+        private float score() {
+            return (float) bm25(freqs[position], segment.length(docs[position]));
+        }
+
+        private double bm25(int freq, int length) {
+            return boost * freq / (freq + K1 * (1 - B + B * length / averageLength));
+        }
+    }
+
+    /**
+     * Bounded max-heap keeping the {@code capacity} smallest keys offered.
+     */
+    private static final class TopK {
+        private final long[] heap;
+        private int size;
+
+        private TopK(int capacity) {
+            this.heap = new long[capacity];
+        }
+
+        /**
+         * Returns false if the key was not among the smallest so far.
+         */
+        private boolean offer(long key) {
+            if (size < heap.length) {
+                heap[size] = key;
+                int i = size++;
+                while (i > 0 && heap[(i - 1) >>> 1] < heap[i]) {
+                    swap((i - 1) >>> 1, i);
+                    i = (i - 1) >>> 1;
+                }
+                return true;
+            }
+            if (key < heap[0]) {
+                heap[0] = key;
+                int i = 0;
+                while (true) {
+                    int left = 2 * i + 1;
+                    int largest = i;
+                    if (left < size && heap[left] > heap[largest]) {
+                        largest = left;
+                    }
+                    if (left + 1 < size && heap[left + 1] > heap[largest]) {
+                        largest = left + 1;
+                    }
+                    if (largest == i) {
+                        return true;
+                    }
+                    swap(i, largest);
+                    i = largest;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Score a document must beat to get in: that of the worst kept once full, else zero.
+         */
+        private float threshold() {
+            return size < heap.length ? 0f : scoreOf(heap[0]);
+        }
+
+        private long[] sorted() {
+            long[] keys = Arrays.copyOf(heap, size);
+            Arrays.sort(keys);
+            return keys;
+        }
+
+        private void swap(int a, int b) {
+            long tmp = heap[a];
+            heap[a] = heap[b];
+            heap[b] = tmp;
+        }
+    }
+}
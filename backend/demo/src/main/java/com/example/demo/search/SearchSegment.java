@@ -0,0 +1,281 @@
+package com.example.demo.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.example.demo.enums.Concepts;
+import com.example.demo.enums.Difficulty;
+import com.example.demo.enums.RoleType;
+import com.example.demo.model.QuestionModel;
+
+/**
+ * Immutable inverted index over a batch of analyzed questions. The term dictionary is a sorted
+ * array, so a prefix is one contiguous range found by binary search. Each term has a postings
+ * list of ascending document numbers with the term's frequency in each. Terms of
+ * {@link #FUZZY_MIN_LENGTH} or more characters are also filed under every single-character
+ * deletion of themselves, so two words one edit apart meet under a shared deletion (SymSpell).
+ */
+final class SearchSegment {
+
+    static final int FUZZY_MIN_LENGTH = 4;
+    // Title words count this many times, so a match in the title outranks one in a hint
+    static final int TITLE_WEIGHT = 3;
+
+    private static final int[] NONE = new int[0];
+    private static final SearchSegment EMPTY = new SearchSegment(List.of());
+
+    private final RoleType[] roles;
+    private final String[] ids;
+    private final int[] lengths;
+    private final byte[] difficulties;
+    private final long[] conceptMasks;
+    private final long totalLength;
+    private final String[] terms;
+    private final int[][] postingDocs;
+    private final int[][] postingFreqs;
+    private final int[] maxFreqs;
+    private final int[] minLengths;
+    private final Map<String, int[]> deletions = new HashMap<>();
+
+    SearchSegment(List<Doc> docs) {
+        int size = docs.size();
+        roles = new RoleType[size];
+        ids = new String[size];
+        lengths = new int[size];
+        difficulties = new byte[size];
+        conceptMasks = new long[size];
+
+        long total = 0;
+        Map<String, Postings> postings = new HashMap<>();
+        for (int d = 0; d < size; d++) {
+            Doc doc = docs.get(d);
+            roles[d] = doc.role();
+            ids[d] = doc.id();
+            lengths[d] = doc.length();
+            difficulties[d] = doc.difficulty() == null ? -1 : (byte) doc.difficulty().ordinal();
+            conceptMasks[d] = doc.conceptMask();
+            total += doc.length();
+            for (int t = 0; t < doc.terms().length; t++) {
+                postings.computeIfAbsent(doc.terms()[t], k -> new Postings()).add(d, doc.freqs()[t], doc.length());
+            }
+        }
+        totalLength = total;
+
+        terms = postings.keySet().toArray(String[]::new);
+        Arrays.sort(terms);
+        postingDocs = new int[terms.length][];
+        postingFreqs = new int[terms.length][];
+        maxFreqs = new int[terms.length];
+        minLengths = new int[terms.length];
+        Map<String, List<Integer>> byDeletion = new HashMap<>();
+        for (int ord = 0; ord < terms.length; ord++) {
+            Postings p = postings.get(terms[ord]);
+            postingDocs[ord] = Arrays.copyOf(p.docs, p.size);
+            postingFreqs[ord] = Arrays.copyOf(p.freqs, p.size);
+            maxFreqs[ord] = p.maxFreq;
+            minLengths[ord] = p.minLength;
+            String term = terms[ord];
+            if (term.length() >= FUZZY_MIN_LENGTH) {
+                for (int i = 0; i < term.length(); i++) {
+                    List<Integer> ords = byDeletion.computeIfAbsent(deletion(term, i), k -> new ArrayList<>(2));
+                    // "book" gives "bok" twice
+                    if (ords.isEmpty() || ords.get(ords.size() - 1) != ord) {
+                        ords.add(ord);
+                    }
+                }
+            }
+        }
+        byDeletion.forEach((variant, ords) -> deletions.put(variant, ords.stream().mapToInt(Integer::intValue).toArray()));
+    }
+
+    static SearchSegment empty() {
+        return EMPTY;
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    long totalLength() {
+        return totalLength;
+    }
+
+    RoleType role(int doc) {
+        return roles[doc];
+    }
+
+    String id(int doc) {
+        return ids[doc];
+    }
+
+    int length(int doc) {
+        return lengths[doc];
+    }
+
+    /**
+     * Returns the document's {@link Difficulty#ordinal()}, or -1 if it has none.
+     */
+    int difficulty(int doc) {
+        return difficulties[doc];
+    }
+
+    long conceptMask(int doc) {
+        return conceptMasks[doc];
+    }
+
+    int termCount() {
+        return terms.length;
+    }
+
+    String term(int ord) {
+        return terms[ord];
+    }
+
+    /**
+     * Returns the term's ordinal in the dictionary, or -1 if no document has it.
+     */
+    int ordinal(String term) {
+        int ord = Arrays.binarySearch(terms, term);
+        return ord >= 0 ? ord : -1;
+    }
+
+    /**
+     * First ordinal whose term starts with the prefix; {@link #prefixEnd} is one past the last.
+     */
+    int prefixStart(String prefix) {
+        return lowerBound(prefix);
+    }
+
+    int prefixEnd(String prefix) {
+        // Every term with the prefix sorts before prefix + the highest char
+        return lowerBound(prefix + Character.MAX_VALUE);
+    }
+
+    int docFreq(int ord) {
+        return postingDocs[ord].length;
+    }
+
+    int[] postingDocs(int ord) {
+        return postingDocs[ord];
+    }
+
+    int[] postingFreqs(int ord) {
+        return postingFreqs[ord];
+    }
+
+    /**
+     * Highest frequency of the term in any document; with {@link #minLength} it bounds the
+     * term's score.
+     */
+    int maxFreq(int ord) {
+        return maxFreqs[ord];
+    }
+
+    /**
+     * Length of the shortest document that has the term.
+     */
+    int minLength(int ord) {
+        return minLengths[ord];
+    }
+
+    /**
+     * Ordinals of the terms whose deletion of one character is {@code variant}.
+     */
+    int[] deletionsOf(String variant) {
+        return deletions.getOrDefault(variant, NONE);
+    }
+
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = terms.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (terms[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    static String deletion(String term, int at) {
+        return new StringBuilder(term.length() - 1).append(term, 0, at).append(term, at + 1, term.length()).toString();
+    }
+
+    /**
+     * One question as analyzed: its distinct terms with their frequencies, and the filterable
+     * fields. {@code fingerprint} identifies the indexed content so a reload can skip questions
+     * that did not change.
+     */
+    record Doc(RoleType role, String id, int fingerprint, Difficulty difficulty, long conceptMask,
+               String[] terms, int[] freqs, int length) {
+
+        static Doc of(RoleType role, QuestionModel question) {
+            Map<String, int[]> counts = new HashMap<>();
+            int[] length = {0};
+            for (int i = 0; i < TITLE_WEIGHT; i++) {
+                SearchTokenizer.tokens(question.getTitle(), term -> count(counts, term, length));
+            }
+            SearchTokenizer.tokens(question.getQuestion(), term -> count(counts, term, length));
+            SearchTokenizer.tokens(question.getHint1(), term -> count(counts, term, length));
+            SearchTokenizer.tokens(question.getHint2(), term -> count(counts, term, length));
+            SearchTokenizer.tokens(question.getHint3(), term -> count(counts, term, length));
+
+            String[] terms = counts.keySet().toArray(String[]::new);
+            int[] freqs = new int[terms.length];
+            for (int i = 0; i < terms.length; i++) {
+                freqs[i] = counts.get(terms[i])[0];
+            }
+            return new Doc(role, question.getId(), fingerprint(question), question.getDifficulty(),
+                    conceptMask(question.getConcepts()), terms, freqs, length[0]);
+        }
+
+        static int fingerprint(QuestionModel question) {
+            return Objects.hash(question.getTitle(), question.getQuestion(), question.getHint1(),
+                    question.getHint2(), question.getHint3(), question.getDifficulty(), question.getConcepts());
+        }
+
+        private static void count(Map<String, int[]> counts, String term, int[] length) {
+            counts.computeIfAbsent(term, k -> new int[1])[0]++;
+            length[0]++;
+        }
+
+        private static long conceptMask(List<Concepts> concepts) {
+            long mask = 0;
+            if (concepts != null) {
+                for (Concepts c : concepts) {
+                    mask |= 1L << c.ordinal();
+                }
+            }
+            return mask;
+        }
+    }
+
+    /**
+     * Growable postings list while the segment is built.
+     */
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int[] freqs = new int[4];
+        private int size;
+        private int maxFreq;
+        private int minLength = Integer.MAX_VALUE;
+
+        private void add(int doc, int freq, int length) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = freq;
+            size++;
+            maxFreq = Math.max(maxFreq, freq);
+            minLength = Math.min(minLength, length);
+        }
+    }
+}
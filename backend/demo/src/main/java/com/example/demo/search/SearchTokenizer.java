@@ -0,0 +1,74 @@
+package com.example.demo.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Splits text into lowercase runs of letters and digits. Indexing drops a short list of English
+ * stopwords; queries keep the last token even when it is one, since it may be the start of a
+ * longer word ("the" in "theory").
+ */
+final class SearchTokenizer {
+
+    // Longest token kept; anything longer is almost always an identifier or noise
+    static final int MAX_TOKEN_LENGTH = 32;
+
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "each", "for", "from", "if", "in", "into", "is",
+            "it", "its", "of", "on", "or", "that", "the", "this", "to", "with", "you", "your");
+
+    private SearchTokenizer() {
+    }
+
+    /**
+     * Feeds every indexable token of the text to the sink.
+     */
+    static void tokens(String text, Consumer<String> sink) {
+        if (text == null) {
+            return;
+        }
+        StringBuilder token = new StringBuilder(16);
+        for (int i = 0, n = text.length(); i <= n; i++) {
+            char c = i < n ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                token.append(Character.toLowerCase(c));
+                continue;
+            }
+            if (!token.isEmpty()) {
+                if (token.length() <= MAX_TOKEN_LENGTH) {
+                    String term = token.toString();
+                    if (!STOPWORDS.contains(term)) {
+                        sink.accept(term);
+                    }
+                }
+                token.setLength(0);
+            }
+        }
+    }
+
+    /**
+     * Query tokens in order, stopwords dropped except for a trailing one.
+     */
+    static List<String> query(String text) {
+        List<String> all = new ArrayList<>();
+        StringBuilder token = new StringBuilder(16);
+        for (int i = 0, n = text.length(); i <= n; i++) {
+            char c = i < n ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                token.append(Character.toLowerCase(c));
+            } else if (!token.isEmpty()) {
+                all.add(token.length() <= MAX_TOKEN_LENGTH ? token.toString() : token.substring(0, MAX_TOKEN_LENGTH));
+                token.setLength(0);
+            }
+        }
+        List<String> kept = new ArrayList<>(all.size());
+        for (int i = 0; i < all.size(); i++) {
+            if (i == all.size() - 1 || !STOPWORDS.contains(all.get(i))) {
+                kept.add(all.get(i));
+            }
+        }
+        return kept;
+    }
+}
@@ -0,0 +1,288 @@
+package com.example.demo.services;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.enums.RoleType;
+import com.example.demo.execution.ExecutionRejectedException;
+import com.example.demo.model.QuestionModel;
+import com.example.demo.model.ReportModel;
+import com.example.demo.model.SessionKey;
+import com.example.demo.model.SolutionModel;
+import com.example.demo.model.SubmissionResultModel;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Batch variants of submit and follow-up. Items are worked on in parallel in chunks on the
+ * request executor, a bounded window of chunks at a time, and written to a {@link Sink} as one
+ * JSON array in request order as soon as each chunk and every one before it is done.
+ */
+@Service
+public class BatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchService.class);
+    private static final byte[] OPEN = {'['};
+    private static final byte[] CLOSE = {']'};
+
+    private final QuestionService questionService;
+    private final QuestionFilterService filterService;
+    private final QuestionRegistry registry;
+    private final QuestionResponseCache responseCache;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor;
+    private final int gradingParallelism;
+    private final int followUpChunkSize;
+    private final int followUpParallelism = Runtime.getRuntime().availableProcessors();
+    private final Timer followUpTimer;
+    private final Timer submissionTimer;
+
+    public BatchService(QuestionService questionService, QuestionFilterService filterService,
+                        QuestionRegistry registry, QuestionResponseCache responseCache, ObjectMapper objectMapper,
+                        @Qualifier("requestExecutor") ExecutorService executor,
+                        @Value("${batch.grading-parallelism:4}") int gradingParallelism,
+                        @Value("${batch.follow-up-chunk-size:64}") int followUpChunkSize,
+                        MeterRegistry meterRegistry) {
+        this.questionService = questionService;
+        this.filterService = filterService;
+        this.registry = registry;
+        this.responseCache = responseCache;
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.gradingParallelism = Math.max(1, gradingParallelism);
+        this.followUpChunkSize = Math.max(1, followUpChunkSize);
+        this.followUpTimer = batchTimer("follow-up", meterRegistry);
+        this.submissionTimer = batchTimer("submission", meterRegistry);
+    }
+
+    /**
+     * Receives the response in pieces; each piece may be flushed to the client.
+     */
+    public interface Sink {
+
+        void write(byte[] bytes) throws IOException;
+    }
+
+    /**
+     * Writes one follow-up question list per report, in report order. Every report is matched
+     * against the same index snapshot per role, and questions are written from their cached
+     * serialized form.
+     *
+     * @throws IOException if the sink fails, e.g. because the client went away
+     */
+    public void followUps(List<ReportModel> reports, Sink sink) throws IOException {
+        Map<RoleType, QuestionIndex> indexes = new EnumMap<>(RoleType.class);
+        for (RoleType role : RoleType.values()) {
+            indexes.put(role, registry.getIndex(role));
+        }
+        long start = System.nanoTime();
+        try {
+            writeOrdered(reports.size(), followUpChunkSize, 2 * followUpParallelism, i -> {
+                ReportModel report = reports.get(i);
+                RoleType role = report != null && report.getRole() != null ? report.getRole() : RoleType.SWE;
+                List<QuestionModel> questions = report == null
+                        ? List.of()
+                        : filterService.getFollowUpQuestions(indexes.get(role), report);
+                return questionsJson(role, questions);
+            }, (i, json) -> json, sink);
+        } finally {
+            followUpTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Grades the submissions in parallel and records them in the session in request order,
+     * writing one {@link SubmissionResultModel} each. A submission is recorded just before its
+     * result is written, so if the client goes away it has seen exactly the recorded ones.
+     * Submissions without an id are 400, ones for unknown questions 404, and ones the execution
+     * queue turned away 503; none of those are recorded.
+     *
+     * @throws IOException if the sink fails, e.g. because the client went away
+     */
+    public void submissions(SessionKey session, RoleType role, List<SolutionModel> solutions, Sink sink)
+            throws IOException {
+        long start = System.nanoTime();
+        try {
+            writeOrdered(solutions.size(), 1, gradingParallelism, i -> grade(role, solutions.get(i)),
+                    (i, graded) -> {
+                        SubmissionResultModel item = new SubmissionResultModel();
+                        item.setIndex(i);
+                        item.setStatus(graded.status());
+                        item.setError(graded.error());
+                        if (graded.status() == HttpStatus.OK.value()) {
+                            SolutionModel solution = solutions.get(i);
+                            // Imported attempts keep the hint flags they were made with
+                            questionService.stampTime(session, solution.getId(), solution);
+                            questionService.recordAttempt(session, solution.getId(), solution);
+                            item.setSolution(solution);
+                        }
+                        return objectMapper.writeValueAsBytes(item);
+                    }, sink);
+        } finally {
+            submissionTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Graded grade(RoleType role, SolutionModel solution) {
+        if (solution == null || solution.getId() == null || solution.getId().isBlank()) {
+            return new Graded(HttpStatus.BAD_REQUEST.value(), "Missing question id");
+        }
+        if (solution.getRole() == null) {
+            solution.setRole(role);
+        }
+        if (questionService.getSubmittedQuestion(role, solution.getId(), solution) == null) {
+            return new Graded(HttpStatus.NOT_FOUND.value(), "Unknown question");
+        }
+        try {
+            questionService.gradeAttempt(solution.getId(), solution, null);
+            return new Graded(HttpStatus.OK.value(), null);
+        } catch (ExecutionRejectedException e) {
+            return new Graded(HttpStatus.SERVICE_UNAVAILABLE.value(), e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Grading batch submission for question {} failed", solution.getId(), e);
+            return new Graded(HttpStatus.INTERNAL_SERVER_ERROR.value(), "Grading failed");
+        }
+    }
+
+    private byte[] questionsJson(RoleType role, List<QuestionModel> questions) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(questions.size() * 512 + 2);
+        out.write('[');
+        for (int i = 0; i < questions.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            QuestionModel question = questions.get(i);
+            QuestionResponseCache.CachedResponse cached = responseCache.question(role, question.getId());
+            // Missing only if the question was removed by a reload since the index was taken
+            out.writeBytes(cached != null ? cached.body() : objectMapper.writeValueAsBytes(question));
+        }
+        out.write(']');
+        return out.toByteArray();
+    }
+
+    /**
+     * Computes items {@code 0..count-1} with {@code compute}, {@code chunkSize} to a task and at
+     * most {@code window} tasks in flight, then encodes them in order on the calling thread and
+     * writes them to the sink one chunk at a time as the elements of a JSON array. A chunk the
+     * executor has not started by the time it is needed is run on the calling thread, so a batch
+     * never waits for a pool thread: the batch itself may hold the last one.
+     */
+    private <T> void writeOrdered(int count, int chunkSize, int window, IntFunction<T> compute,
+                                  Encoder<T> encoder, Sink sink) throws IOException {
+        Deque<Chunk<T>> inFlight = new ArrayDeque<>();
+        try {
+            sink.write(OPEN);
+            int next = 0;
+            int written = 0;
+            while (written < count) {
+                while (next < count && inFlight.size() < window) {
+                    Chunk<T> chunk = new Chunk<>(next, Math.min(count, next + chunkSize), compute);
+                    inFlight.add(chunk);
+                    executor.execute(chunk);
+                    next = chunk.to;
+                }
+                Chunk<T> head = inFlight.poll();
+                head.run();
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                for (T value : join(head.result)) {
+                    if (written > 0) {
+                        out.write(',');
+                    }
+                    out.writeBytes(encoder.encode(written, value));
+                    written++;
+                }
+                sink.write(out.toByteArray());
+            }
+            sink.write(CLOSE);
+        } finally {
+            // Chunks not started yet are skipped; running ones finish and are dropped
+            for (Chunk<T> chunk : inFlight) {
+                chunk.claimed.set(true);
+            }
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static Timer batchTimer(String kind, MeterRegistry meterRegistry) {
+        return Timer.builder("batch.duration")
+                .description("Time to answer a batch request")
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Turns item {@code index}'s computed value into its JSON, on the writing thread.
+     */
+    private interface Encoder<T> {
+
+        byte[] encode(int index, T value);
+    }
+
+    private record Graded(int status, String error) {
+    }
+
+    /**
+     * Items {@code from..to-1}, computed by whichever thread claims the chunk first: a pool
+     * thread or the writer.
+     */
+    private static final class Chunk<T> implements Runnable {
+        private final int from;
+        private final int to;
+        private final IntFunction<T> compute;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private final CompletableFuture<List<T>> result = new CompletableFuture<>();
+
+        Chunk(int from, int to, IntFunction<T> compute) {
+            this.from = from;
+            this.to = to;
+            this.compute = compute;
+        }
+
+        @Override
+        public void run() {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                List<T> values = new ArrayList<>(to - from);
+                for (int i = from; i < to; i++) {
+                    values.add(compute.apply(i));
+                }
+                result.complete(values);
+            } catch (RuntimeException | Error e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.example.demo.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.stream.IntStream;
+
+import org.springframework.stereotype.Service;
+
+import com.example.demo.enums.Concepts;
+import com.example.demo.enums.RoleType;
+import com.example.demo.model.Attempt;
+import com.example.demo.model.AttemptExportModel;
+import com.example.demo.model.CohortStatsModel;
+import com.example.demo.model.ConceptStatsModel;
+import com.example.demo.model.QuestionModel;
+import com.example.demo.model.QuestionStatsModel;
+import com.example.demo.model.SessionKey;
+import com.example.demo.model.SolutionModel;
+import com.example.demo.persistence.AttemptLog;
+
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectWriter;
+
+/**
+ * Cohort-wide views over every stored attempt. Reads the attempt log when it is enabled (full
+ * history, one partition per segment) and otherwise the in-memory sessions (partitioned by key
+ * hash). Both the export and the statistics stream through the attempts once, so their memory
+ * does not grow with the number of attempts.
+ */
+@Service
+public class CohortAnalytics {
+
+    static final int HARDEST_QUESTIONS = 5;
+    private static final Concepts[] CONCEPTS = Concepts.values();
+    private static final byte[] NEWLINE = {'\n'};
+
+    private final QuestionRegistry registry;
+    private final SolutionStore solutionStore;
+    private final AttemptLog attemptLog;
+    private final ObjectWriter lineWriter;
+    private final int storePartitions = Runtime.getRuntime().availableProcessors();
+
+    public CohortAnalytics(QuestionRegistry registry, SolutionStore solutionStore, Optional<AttemptLog> attemptLog,
+                           ObjectMapper objectMapper) {
+        this.registry = registry;
+        this.solutionStore = solutionStore;
+        this.attemptLog = attemptLog.orElse(null);
+        this.lineWriter = objectMapper.writerFor(AttemptExportModel.class);
+    }
+
+    /**
+     * Writes every stored attempt, optionally only those of one role, as newline-delimited JSON.
+     */
+    public void export(RoleType role, OutputStream out) throws IOException {
+        try {
+            for (int p = 0; p < partitions(); p++) {
+                scanModels(p, (key, solution) -> {
+                    RoleType attemptRole = solution.getRole() != null ? solution.getRole() : RoleType.SWE;
+                    if (role == null || role == attemptRole) {
+                        try {
+                            out.write(lineWriter.writeValueAsBytes(exportLine(key, solution)));
+                            out.write(NEWLINE);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+                });
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Computes the role's cohort statistics in one parallel pass over the attempt partitions.
+     */
+    public CohortStatsModel stats(RoleType role) {
+        QuestionIndex index = registry.getIndex(role);
+        Tally tally = IntStream.range(0, partitions()).parallel().collect(
+                () -> new Tally(index.size()),
+                (t, p) -> scanAttempts(p, (key, attempt) -> t.add(index, role, attempt)),
+                Tally::merge);
+        return tally.toModel(index, role);
+    }
+
+    private int partitions() {
+        return attemptLog != null ? attemptLog.segmentCount() : storePartitions;
+    }
+
+    private void scanModels(int partition, BiConsumer<SessionKey, SolutionModel> consumer) {
+        if (attemptLog != null) {
+            attemptLog.scanSegment(partition, consumer);
+        } else {
+            solutionStore.forEachSession(partition, storePartitions, (key, attempts) -> {
+                for (Attempt attempt : attempts) {
+                    consumer.accept(key, attempt.toModel());
+                }
+            });
+        }
+    }
+
+    private void scanAttempts(int partition, BiConsumer<SessionKey, Attempt> consumer) {
+        if (attemptLog != null) {
+            attemptLog.scanSegment(partition, (key, solution) -> consumer.accept(key, Attempt.of(solution)));
+        } else {
+            solutionStore.forEachSession(partition, storePartitions, (key, attempts) -> {
+                for (Attempt attempt : attempts) {
+                    consumer.accept(key, attempt);
+                }
+            });
+        }
+    }
+
+    private static AttemptExportModel exportLine(SessionKey key, SolutionModel s) {
+        AttemptExportModel line = new AttemptExportModel();
+        line.setUserId(key.userId());
+        line.setSessionId(key.sessionId());
+        line.setId(s.getId());
+        line.setRole(s.getRole());
+        line.setTime(s.getTime());
+        line.setCorrect(s.getCorrect());
+        line.setHint1used(s.getHint1used());
+        line.setHint2used(s.getHint2used());
+        line.setHint3used(s.getHint3used());
+        line.setSolution(s.getSolution());
+        return line;
+    }
+
+    private static int pct(long part, long whole) {
+        return whole > 0 ? (int) Math.round((double) part / whole * 100) : 0;
+    }
+
+    private static double avg(double total, long count) {
+        return count > 0 ? Math.round(total / count * 10) / 10.0 : 0;
+    }
+
+    /**
+     * Running totals of one partition, indexed by concept ordinal and question position.
+     */
+    private static final class Tally {
+        long attempts;
+        long correct;
+        double time;
+        // Attempts that used hint 1, 2, 3, and any hint
+        final long[] hinted = new long[4];
+
+        final long[] conceptAttempts = new long[CONCEPTS.length];
+        final long[] conceptCorrect = new long[CONCEPTS.length];
+        final long[] conceptHinted = new long[CONCEPTS.length];
+        final double[] conceptTime = new double[CONCEPTS.length];
+
+        final long[] questionAttempts;
+        final long[] questionCorrect;
+        final double[] questionTime;
+
+        Tally(int questions) {
+            questionAttempts = new long[questions];
+            questionCorrect = new long[questions];
+            questionTime = new double[questions];
+        }
+
+        void add(QuestionIndex index, RoleType role, Attempt attempt) {
+            if (attempt.roleOrDefault() != role) {
+                return;
+            }
+            int correctBit = attempt.isCorrect() ? 1 : 0;
+            int hints = attempt.hintMask();
+            double sec = attempt.timeSec();
+            attempts++;
+            correct += correctBit;
+            time += sec;
+            for (int h = 0; h < 3; h++) {
+                hinted[h] += hints >> h & 1;
+            }
+            hinted[3] += hints != 0 ? 1 : 0;
+
+            int position = attempt.id() == null ? -1 : index.positionOf(attempt.id());
+            if (position < 0) {
+                return;
+            }
+            questionAttempts[position]++;
+            questionCorrect[position] += correctBit;
+            questionTime[position] += sec;
+            for (long bits = index.conceptMask(position); bits != 0L; bits &= bits - 1) {
+                int c = Long.numberOfTrailingZeros(bits);
+                conceptAttempts[c]++;
+                conceptCorrect[c] += correctBit;
+                conceptHinted[c] += hints != 0 ? 1 : 0;
+                conceptTime[c] += sec;
+            }
+        }
+
+        void merge(Tally other) {
+            attempts += other.attempts;
+            correct += other.correct;
+            time += other.time;
+            for (int i = 0; i < hinted.length; i++) {
+                hinted[i] += other.hinted[i];
+            }
+            for (int c = 0; c < CONCEPTS.length; c++) {
+                conceptAttempts[c] += other.conceptAttempts[c];
+                conceptCorrect[c] += other.conceptCorrect[c];
+                conceptHinted[c] += other.conceptHinted[c];
+                conceptTime[c] += other.conceptTime[c];
+            }
+            for (int q = 0; q < questionAttempts.length; q++) {
+                questionAttempts[q] += other.questionAttempts[q];
+                questionCorrect[q] += other.questionCorrect[q];
+                questionTime[q] += other.questionTime[q];
+            }
+        }
+
+        CohortStatsModel toModel(QuestionIndex index, RoleType role) {
+            Map<String, Integer> hintUsage = new LinkedHashMap<>();
+            hintUsage.put("hint1", pct(hinted[0], attempts));
+            hintUsage.put("hint2", pct(hinted[1], attempts));
+            hintUsage.put("hint3", pct(hinted[2], attempts));
+            hintUsage.put("any", pct(hinted[3], attempts));
+
+            List<ConceptStatsModel> byConcept = new ArrayList<>();
+            for (int c = 0; c < CONCEPTS.length; c++) {
+                if (conceptAttempts[c] == 0) {
+                    continue;
+                }
+                ConceptStatsModel concept = new ConceptStatsModel();
+                concept.setConcept(CONCEPTS[c]);
+                concept.setAttempts(conceptAttempts[c]);
+                concept.setAccuracyPct(pct(conceptCorrect[c], conceptAttempts[c]));
+                concept.setAvgTimeSec(avg(conceptTime[c], conceptAttempts[c]));
+                concept.setHintUsagePct(pct(conceptHinted[c], conceptAttempts[c]));
+                byConcept.add(concept);
+            }
+
+            // Lowest accuracy first; among equals, the most attempted
+            List<QuestionStatsModel> hardest = IntStream.range(0, questionAttempts.length)
+                    .filter(q -> questionAttempts[q] > 0)
+                    .boxed()
+                    .sorted(Comparator.<Integer>comparingDouble(q -> (double) questionCorrect[q] / questionAttempts[q])
+                            .thenComparing(q -> -questionAttempts[q]))
+                    .limit(HARDEST_QUESTIONS)
+                    .map(q -> questionStats(index.get(q), q))
+                    .toList();
+
+            CohortStatsModel stats = new CohortStatsModel();
+            stats.setRole(role);
+            stats.setAttempts(attempts);
+            stats.setAccuracyPct(pct(correct, attempts));
+            stats.setAvgTimeSec(avg(time, attempts));
+            stats.setHintUsagePct(hintUsage);
+            stats.setByConcept(byConcept);
+            stats.setHardestQuestions(hardest);
+            return stats;
+        }
+
+        private QuestionStatsModel questionStats(QuestionModel question, int position) {
+            QuestionStatsModel stats = new QuestionStatsModel();
+            stats.setId(question.getId());
+            stats.setTitle(question.getTitle());
+            stats.setDifficulty(question.getDifficulty());
+            stats.setAttempts(questionAttempts[position]);
+            stats.setAccuracyPct(pct(questionCorrect[position], questionAttempts[position]));
+            stats.setAvgTimeSec(avg(questionTime[position], questionAttempts[position]));
+            return stats;
+        }
+    }
+}
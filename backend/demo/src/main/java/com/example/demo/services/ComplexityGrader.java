@@ -0,0 +1,355 @@
+package com.example.demo.services;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.enums.ComplexityVerdict;
+import com.example.demo.enums.RoleType;
+import com.example.demo.enums.Verdict;
+import com.example.demo.execution.ExecutionRejectedException;
+import com.example.demo.execution.ExecutionService;
+import com.example.demo.execution.SizeTiming;
+import com.example.demo.model.ComplexityReportModel;
+import com.example.demo.model.InputGenerator;
+import com.example.demo.model.QuestionModel;
+import com.example.demo.model.TimingPointModel;
+
+/**
+ * Checks how an accepted solution's running time grows against the question's expected
+ * complexity. The solution is timed on generated inputs of doubling size until a size runs out
+ * of time, and the slope of log(time) over log(size) across the largest sizes is compared with
+ * the slope of the expected bound over the same sizes. Log factors are within the tolerance, so
+ * O(n log n) passes for O(n); a whole extra factor of n does not.
+ *
+ * <p>A slope needs three sizes, or two when the sweep was cut off by the time limit, since
+ * that is the curve growing too. A sweep that hits the time limit where the expected growth
+ * would still have been fast counts as slower than expected whatever the slope.
+ */
+@Service
+public class ComplexityGrader {
+
+    // Largest sizes the slope is fitted over; smaller ones are dominated by call overhead
+    static final int FIT_POINTS = 4;
+    static final int MIN_POINTS = 3;
+    static final double SLOPE_TOLERANCE = 0.4;
+
+    // Classes reported as the measured complexity, by effective slope over the measured sizes
+    private static final Growth[] CLASSES = {
+            new Growth(0, 0, false), new Growth(0, 1, false), new Growth(1, 0, false), new Growth(1, 1, false),
+            new Growth(2, 0, false), new Growth(2, 1, false), new Growth(3, 0, false)};
+
+    private final QuestionRegistry registry;
+    private final ExecutionService executionService;
+    private final boolean enabled;
+    private final Duration sizeTimeLimit;
+    private final int repeats;
+
+    public ComplexityGrader(QuestionRegistry registry, ExecutionService executionService,
+                            @Value("${execution.complexity.enabled:true}") boolean enabled,
+                            @Value("${execution.complexity.size-time-limit:1s}") Duration sizeTimeLimit,
+                            @Value("${execution.complexity.repeats:3}") int repeats) {
+        this.registry = registry;
+        this.executionService = executionService;
+        this.enabled = enabled;
+        this.sizeTimeLimit = sizeTimeLimit;
+        this.repeats = Math.max(1, repeats);
+    }
+
+    /**
+     * Profiles the source against the question's expected complexity. Returns null if profiling
+     * is off or unavailable, or the question has no generator or no polynomial expected bound.
+     */
+    public ComplexityReportModel profile(RoleType role, String id, String source) {
+        QuestionModel question = registry.getQuestion(role, id);
+        InputGenerator generator = registry.getInputGenerator(role, id);
+        if (!enabled || question == null || generator == null || !executionService.isAvailable()) {
+            return null;
+        }
+        Growth expected = parse(question.getExpectedComplexity());
+        if (expected == null || expected.exponential()) {
+            return null;
+        }
+        List<SizeTiming> timings;
+        try {
+            timings = executionService.profile(source == null ? "" : source, generator.source(), generator.sizes(),
+                    repeats, sizeTimeLimit);
+        } catch (ExecutionRejectedException e) {
+            // Profiling is extra feedback; a busy box skips it rather than failing the submission
+            return null;
+        }
+        return evaluate(question.getExpectedComplexity(), expected, timings, sizeTimeLimit.toNanos() / repeats);
+    }
+
+    /**
+     * Builds the report from a sweep. {@code runBudgetNanos} is the time one run of a size may
+     * take before the sweep stops.
+     */
+    static ComplexityReportModel evaluate(String expectedText, Growth expected, List<SizeTiming> timings,
+                                          long runBudgetNanos) {
+        List<TimingPointModel> points = new ArrayList<>(timings.size());
+        SizeTiming stop = null;
+        for (SizeTiming timing : timings) {
+            if (timing.verdict() != Verdict.ACCEPTED) {
+                stop = timing;
+                break;
+            }
+            TimingPointModel point = new TimingPointModel();
+            point.setSize(timing.size());
+            point.setTimeUs(Math.round(timing.nanos() / 100.0) / 10.0);
+            points.add(point);
+        }
+
+        ComplexityReportModel report = new ComplexityReportModel();
+        report.setExpected(expectedText);
+        report.setPoints(points);
+        report.setVerdict(ComplexityVerdict.INCONCLUSIVE);
+        if (stop != null) {
+            report.setStoppedAtSize(stop.size());
+            report.setStoppedBy(stop.verdict());
+        }
+
+        List<SizeTiming> fitted = timings.subList(Math.max(0, points.size() - FIT_POINTS), points.size());
+        boolean timedOut = stop != null && stop.verdict() == Verdict.TIME_LIMIT_EXCEEDED;
+        if (points.size() >= (timedOut ? MIN_POINTS - 1 : MIN_POINTS)) {
+            double from = fitted.get(0).size();
+            double to = fitted.get(fitted.size() - 1).size();
+            double exponent = slope(fitted);
+            report.setExponent(Math.round(exponent * 100) / 100.0);
+            report.setMeasured(closest(exponent, from, to).label());
+            report.setVerdict(exponent <= expected.slope(from, to) + SLOPE_TOLERANCE
+                    ? ComplexityVerdict.WITHIN_EXPECTED : ComplexityVerdict.SLOWER_THAN_EXPECTED);
+        }
+        if (timedOut && !points.isEmpty()) {
+            // What the last finished size would have taken at the next one, growing as expected
+            SizeTiming last = timings.get(points.size() - 1);
+            double predicted = last.nanos() * expected.value(stop.size()) / expected.value(last.size());
+            if (predicted < runBudgetNanos / 2.0) {
+                report.setVerdict(ComplexityVerdict.SLOWER_THAN_EXPECTED);
+            }
+        }
+        return report;
+    }
+
+    /**
+     * Least-squares slope of log(time) over log(size).
+     */
+    private static double slope(List<SizeTiming> timings) {
+        double sumX = 0, sumY = 0, sumXX = 0, sumXY = 0;
+        for (SizeTiming timing : timings) {
+            double x = Math.log(timing.size());
+            double y = Math.log(Math.max(1, timing.nanos()));
+            sumX += x;
+            sumY += y;
+            sumXX += x * x;
+            sumXY += x * y;
+        }
+        int n = timings.size();
+        return (n * sumXY - sumX * sumY) / (n * sumXX - sumX * sumX);
+    }
+
+    private static Growth closest(double exponent, double from, double to) {
+        Growth best = CLASSES[0];
+        for (Growth growth : CLASSES) {
+            if (Math.abs(growth.slope(from, to) - exponent) < Math.abs(best.slope(from, to) - exponent)) {
+                best = growth;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Reads the first {@code O(...)} in an authored complexity such as "O(n log n)",
+     * "O(amount * coins.length)", "O(V + E)" or "O(n * 2^n) worst case". Every variable counts
+     * as n, sums take their largest term, and a variable exponent is exponential. Returns null
+     * if there is no {@code O(...)} or it cannot be read.
+     */
+    static Growth parse(String complexity) {
+        int open = complexity == null ? -1 : complexity.indexOf("O(");
+        if (open < 0) {
+            return null;
+        }
+        int depth = 0;
+        for (int i = open + 1; i < complexity.length(); i++) {
+            char c = complexity.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                try {
+                    Parser parser = new Parser(complexity.substring(open + 2, i));
+                    Growth growth = parser.sum();
+                    return parser.atEnd() ? growth : null;
+                } catch (IllegalArgumentException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * n^degree * log(n)^logs, or exponential in n.
+     */
+    record Growth(int degree, int logs, boolean exponential) {
+
+        double value(double n) {
+            if (exponential) {
+                return Math.pow(2, n);
+            }
+            return Math.pow(n, degree) * Math.pow(Math.log(Math.max(2, n)), logs);
+        }
+
+        /**
+         * Slope of log(value) over log(n) between the two sizes.
+         */
+        double slope(double from, double to) {
+            if (exponential) {
+                return Double.POSITIVE_INFINITY;
+            }
+            return Math.log(value(to) / value(from)) / Math.log(to / from);
+        }
+
+        String label() {
+            if (exponential) {
+                return "O(2^n)";
+            }
+            List<String> parts = new ArrayList<>(2);
+            if (degree > 0) {
+                parts.add(degree == 1 ? "n" : "n^" + degree);
+            }
+            if (logs > 0) {
+                parts.add(logs == 1 ? "log n" : "log^" + logs + " n");
+            }
+            return parts.isEmpty() ? "O(1)" : "O(" + String.join(" ", parts) + ")";
+        }
+
+        private Growth times(Growth other) {
+            return new Growth(degree + other.degree, logs + other.logs, exponential || other.exponential);
+        }
+
+        private Growth max(Growth other) {
+            if (exponential != other.exponential) {
+                return exponential ? this : other;
+            }
+            if (degree != other.degree) {
+                return degree > other.degree ? this : other;
+            }
+            return logs >= other.logs ? this : other;
+        }
+    }
+
+    /**
+     * Recursive descent over: sum = product ('+' product)*; product = factor (['*'] factor)*;
+     * factor = 'log' (operand | '(' sum ')') | operand ['^' operand] | '(' sum ')' ['^' number].
+     */
+    private static final class Parser {
+
+        private static final Pattern TOKEN = Pattern.compile("\\s*([A-Za-z_][A-Za-z0-9_.]*|\\d+|[()*+^·])");
+        private static final Growth CONSTANT = new Growth(0, 0, false);
+
+        private final List<String> tokens = new ArrayList<>();
+        private int next;
+
+        private Parser(String expression) {
+            Matcher matcher = TOKEN.matcher(expression);
+            int end = 0;
+            while (matcher.lookingAt()) {
+                tokens.add(matcher.group(1));
+                end = matcher.end();
+                matcher.region(end, expression.length());
+            }
+            if (!expression.substring(end).isBlank()) {
+                throw new IllegalArgumentException("Unexpected input at " + end);
+            }
+        }
+
+        private boolean atEnd() {
+            return next == tokens.size();
+        }
+
+        private Growth sum() {
+            Growth growth = product();
+            while (accept("+")) {
+                growth = growth.max(product());
+            }
+            return growth;
+        }
+
+        private Growth product() {
+            Growth growth = factor();
+            while (accept("*") || accept("·") || startsFactor()) {
+                growth = growth.times(factor());
+            }
+            return growth;
+        }
+
+        private Growth factor() {
+            String token = take();
+            if (token.equals("log")) {
+                if (accept("(")) {
+                    sum();
+                    expect(")");
+                } else {
+                    take();
+                }
+                return new Growth(0, 1, false);
+            }
+            if (token.equals("(")) {
+                Growth inner = sum();
+                expect(")");
+                if (accept("^")) {
+                    int power = Integer.parseInt(take());
+                    return new Growth(inner.degree() * power, inner.logs() * power, inner.exponential());
+                }
+                return inner;
+            }
+            boolean number = Character.isDigit(token.charAt(0));
+            if (!number && !Character.isLetter(token.charAt(0)) && token.charAt(0) != '_') {
+                throw new IllegalArgumentException("Unexpected " + token);
+            }
+            if (!accept("^")) {
+                return number ? CONSTANT : new Growth(1, 0, false);
+            }
+            String power = take();
+            if (!Character.isDigit(power.charAt(0))) {
+                // 2^n grows exponentially, 1^n does not grow
+                return number && Integer.parseInt(token) <= 1 ? CONSTANT : new Growth(0, 0, true);
+            }
+            return number ? CONSTANT : new Growth(Integer.parseInt(power), 0, false);
+        }
+
+        private boolean startsFactor() {
+            if (atEnd()) {
+                return false;
+            }
+            String token = tokens.get(next);
+            return token.equals("(") || Character.isLetterOrDigit(token.charAt(0)) || token.charAt(0) == '_';
+        }
+
+        private boolean accept(String token) {
+            if (!atEnd() && tokens.get(next).equals(token)) {
+                next++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(String token) {
+            if (!accept(token)) {
+                throw new IllegalArgumentException("Expected " + token);
+            }
+        }
+
+        private String take() {
+            if (atEnd()) {
+                throw new IllegalArgumentException("Unexpected end");
+            }
+            return tokens.get(next++);
+        }
+    }
+}
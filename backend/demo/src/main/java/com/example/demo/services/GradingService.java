@@ -0,0 +1,82 @@
+package com.example.demo.services;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.stereotype.Service;
+
+import com.example.demo.enums.RoleType;
+import com.example.demo.enums.Verdict;
+import com.example.demo.execution.ExecutionService;
+import com.example.demo.execution.VerdictCache;
+import com.example.demo.model.CaseResultModel;
+import com.example.demo.model.ExecutionResultModel;
+import com.example.demo.model.TestCaseModel;
+
+@Service
+public class GradingService {
+
+    private final QuestionRegistry registry;
+    private final ExecutionService executionService;
+    private final VerdictCache verdictCache;
+
+    public GradingService(QuestionRegistry registry, ExecutionService executionService, VerdictCache verdictCache) {
+        this.registry = registry;
+        this.executionService = executionService;
+        this.verdictCache = verdictCache;
+    }
+
+    /**
+     * Whether submissions to this question are graded on the server rather than trusted.
+     */
+    public boolean canGrade(RoleType role, String id) {
+        return executionService.isAvailable() && !registry.getTestCases(role, id).isEmpty();
+    }
+
+    /**
+     * Runs the source against the question's test cases, or returns null if it has none.
+     * Submit mode ({@code stopOnFailure}) stops at the first failing case; Run mode reports all.
+     */
+    public ExecutionResultModel grade(RoleType role, String id, String source, boolean stopOnFailure) {
+        return grade(role, id, source, stopOnFailure, null);
+    }
+
+    /**
+     * Like {@link #grade(RoleType, String, String, boolean)}, handing each case's result to
+     * {@code progress} as it finishes (see {@link ExecutionService#execute}). A cached verdict
+     * reports all its cases at once.
+     */
+    public ExecutionResultModel grade(RoleType role, String id, String source, boolean stopOnFailure,
+                                      Consumer<CaseResultModel> progress) {
+        List<TestCaseModel> cases = registry.getTestCases(role, id);
+        if (cases.isEmpty()) {
+            return null;
+        }
+        String code = source == null ? "" : source;
+        String key = VerdictCache.key(role, id, cases, stopOnFailure, code);
+        ExecutionResultModel cached = verdictCache.get(key);
+        if (cached != null) {
+            if (progress != null) {
+                cached.getCases().forEach(progress);
+            }
+            return copyOf(cached);
+        }
+        ExecutionResultModel result = executionService.execute(id, code, cases, stopOnFailure, progress);
+        // A timeout may just mean the box was busy, so only deterministic verdicts are cached
+        if (result.getCases().stream().noneMatch(c -> c.getVerdict() == Verdict.TIME_LIMIT_EXCEEDED)) {
+            verdictCache.put(key, result);
+        }
+        return result;
+    }
+
+    private static ExecutionResultModel copyOf(ExecutionResultModel cached) {
+        ExecutionResultModel copy = new ExecutionResultModel();
+        copy.setQuestionId(cached.getQuestionId());
+        copy.setVerdict(cached.getVerdict());
+        copy.setPassed(cached.getPassed());
+        copy.setTotal(cached.getTotal());
+        copy.setCases(cached.getCases());
+        copy.setCached(true);
+        return copy;
+    }
+}
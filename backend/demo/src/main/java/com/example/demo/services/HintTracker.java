@@ -0,0 +1,44 @@
+package com.example.demo.services;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.stereotype.Service;
+
+import com.example.demo.enums.RoleType;
+import com.example.demo.model.SessionKey;
+
+/**
+ * Records which hints each session has fetched, per question, so submissions of a question whose
+ * hints came from the hint endpoint report what the server actually served rather than the
+ * client's claim.
+ */
+@Service
+public class HintTracker {
+
+    private final ConcurrentMap<SessionKey, ConcurrentMap<String, Integer>> usedBySession = new ConcurrentHashMap<>();
+
+    /**
+     * Marks hint {@code number} (1-3) of the question as used by the session.
+     */
+    public void record(SessionKey session, RoleType role, String id, int number) {
+        usedBySession.computeIfAbsent(session, k -> new ConcurrentHashMap<>())
+                .merge(key(role, id), 1 << (number - 1), (a, b) -> a | b);
+    }
+
+    /**
+     * Returns the used hints of the question as a bitmask (bit 0 is hint 1).
+     */
+    public int usedMask(SessionKey session, RoleType role, String id) {
+        ConcurrentMap<String, Integer> used = usedBySession.get(session);
+        return used == null ? 0 : used.getOrDefault(key(role, id), 0);
+    }
+
+    public void evict(SessionKey session) {
+        usedBySession.remove(session);
+    }
+
+    private static String key(RoleType role, String id) {
+        return role.name() + '/' + id;
+    }
+}
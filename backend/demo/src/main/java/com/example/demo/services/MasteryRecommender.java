@@ -0,0 +1,210 @@
+package com.example.demo.services;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.stereotype.Service;
+
+import com.example.demo.enums.Concepts;
+import com.example.demo.enums.RoleType;
+import com.example.demo.model.Attempt;
+import com.example.demo.model.QuestionModel;
+import com.example.demo.model.SessionKey;
+
+/**
+ * Per-user concept mastery, estimated Elo-style: each concept has a skill on the logit scale,
+ * a question's success probability is {@code sigmoid(mean skill of its concepts - difficulty)},
+ * and every attempt moves the skills of the question's concepts towards the observed outcome.
+ * The step size shrinks as a concept accumulates attempts, so {@code 1 / (1 + attempts)} doubles
+ * as the remaining uncertainty about that concept.
+ *
+ * <p>Recommendations maximise the expected information gain of the next answer, approximated by
+ * the Bernoulli Fisher information {@code p (1 - p)} times the mean uncertainty of the question's
+ * concepts: questions the user has an even chance on, in concepts we know little about, first.
+ *
+ * <p>A signed-in user's sessions all feed and read one model, which is dropped when the last of
+ * the sessions that used it is evicted; an anonymous session has a model of its own. So the
+ * resident models never outnumber the live sessions. State is two primitive
+ * arrays indexed by {@link Concepts#ordinal()} per model (about 300 bytes), and an update only
+ * touches the concepts of the attempted question.
+ */
+@Service
+public class MasteryRecommender {
+
+    private static final Concepts[] CONCEPTS = Concepts.values();
+    // Difficulty on the skill scale, by Difficulty ordinal
+    private static final float[] DIFFICULTY_LEVELS = {-1f, 0f, 1f};
+    private static final float BASE_STEP = 0.6f;
+    private static final float STEP_DECAY = 0.15f;
+    private static final double HINT_PENALTY = 0.15;
+    private static final double SLOW_PENALTY = 0.1;
+    private static final double SLOW_SECONDS = 180;
+
+    private final QuestionRegistry registry;
+    private final ConcurrentMap<SessionKey, Mastery> models = new ConcurrentHashMap<>();
+
+    public MasteryRecommender(QuestionRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Folds one attempt into the mastery estimate of the session's user. Attempts on unknown
+     * questions are ignored.
+     */
+    public void record(SessionKey key, Attempt attempt) {
+        QuestionIndex index = registry.getIndex(attempt.roleOrDefault());
+        int position = attempt.id() == null ? -1 : index.positionOf(attempt.id());
+        if (position < 0 || index.conceptMask(position) == 0L || index.difficultyOrdinal(position) < 0) {
+            return;
+        }
+        join(key).update(index.conceptMask(position), index.difficultyOrdinal(position), outcome(attempt));
+    }
+
+    /**
+     * Returns up to {@code limit} questions of the role, most informative first, skipping the
+     * positions set in {@code excluded}. Ties keep pool order.
+     */
+    public List<QuestionModel> recommend(SessionKey key, RoleType role, BitSet excluded, int limit) {
+        QuestionIndex index = registry.getIndex(role);
+        Mastery mastery = models.computeIfPresent(owner(key), (k, m) -> {
+            m.sessions.add(key.sessionId());
+            return m;
+        });
+        float[] skill;
+        short[] attempts;
+        if (mastery == null) {
+            skill = new float[CONCEPTS.length];
+            attempts = new short[CONCEPTS.length];
+        } else {
+            synchronized (mastery) {
+                skill = mastery.skill.clone();
+                attempts = mastery.attempts.clone();
+            }
+        }
+
+        // Bounded insertion sort over (gain desc, position asc); limit is small
+        double[] bestGain = new double[limit];
+        int[] bestPosition = new int[limit];
+        int size = 0;
+        for (int position = excluded.nextClearBit(0); position < index.size();
+             position = excluded.nextClearBit(position + 1)) {
+            long mask = index.conceptMask(position);
+            int difficulty = index.difficultyOrdinal(position);
+            if (mask == 0L || difficulty < 0) {
+                continue;
+            }
+            double gain = informationGain(skill, attempts, mask, difficulty);
+            if (size == limit && gain <= bestGain[size - 1]) {
+                continue;
+            }
+            int i = size < limit ? size++ : size - 1;
+            while (i > 0 && bestGain[i - 1] < gain) {
+                bestGain[i] = bestGain[i - 1];
+                bestPosition[i] = bestPosition[i - 1];
+                i--;
+            }
+            bestGain[i] = gain;
+            bestPosition[i] = position;
+        }
+
+        List<QuestionModel> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(index.get(bestPosition[i]));
+        }
+        return result;
+    }
+
+    /**
+     * Detaches an evicted session from its user's model, dropping the model once no live
+     * session uses it.
+     */
+    public void evict(SessionKey key) {
+        models.computeIfPresent(owner(key), (k, m) -> {
+            m.sessions.remove(key.sessionId());
+            return m.sessions.isEmpty() ? null : m;
+        });
+    }
+
+    public int modelCount() {
+        return models.size();
+    }
+
+    /**
+     * Returns the skill estimate of the session's user for the concept (0 when it has no attempts).
+     */
+    public float skill(SessionKey key, Concepts concept) {
+        Mastery mastery = models.get(owner(key));
+        if (mastery == null) {
+            return 0f;
+        }
+        synchronized (mastery) {
+            return mastery.skill[concept.ordinal()];
+        }
+    }
+
+    private Mastery join(SessionKey key) {
+        return models.compute(owner(key), (k, m) -> {
+            Mastery mastery = m != null ? m : new Mastery();
+            mastery.sessions.add(key.sessionId());
+            return mastery;
+        });
+    }
+
+    // Signed-in users share one model across sessions; SessionKey.of never makes a null session id
+    private static SessionKey owner(SessionKey key) {
+        return SessionKey.DEFAULT_USER.equals(key.userId()) ? key : new SessionKey(key.userId(), null);
+    }
+
+    /**
+     * Observed outcome in [0, 1]: 0 when wrong; when correct, 1 minus penalties for hints and
+     * for taking longer than the target time.
+     */
+    static double outcome(Attempt attempt) {
+        if (!attempt.isCorrect()) {
+            return 0;
+        }
+        double slow = attempt.timeSec() > SLOW_SECONDS ? SLOW_PENALTY : 0;
+        return 1 - Integer.bitCount(attempt.hintMask()) * HINT_PENALTY - slow;
+    }
+
+    static double probability(float[] skill, long mask, int difficulty) {
+        float sum = 0f;
+        for (long bits = mask; bits != 0L; bits &= bits - 1) {
+            sum += skill[Long.numberOfTrailingZeros(bits)];
+        }
+        double logit = sum / Long.bitCount(mask) - DIFFICULTY_LEVELS[difficulty];
+        return 1 / (1 + Math.exp(-logit));
+    }
+
+    private static double informationGain(float[] skill, short[] attempts, long mask, int difficulty) {
+        double p = probability(skill, mask, difficulty);
+        double uncertainty = 0;
+        for (long bits = mask; bits != 0L; bits &= bits - 1) {
+            uncertainty += 1.0 / (1 + attempts[Long.numberOfTrailingZeros(bits)]);
+        }
+        return p * (1 - p) * uncertainty / Long.bitCount(mask);
+    }
+
+    private static final class Mastery {
+        final float[] skill = new float[CONCEPTS.length];
+        final short[] attempts = new short[CONCEPTS.length];
+        // Live sessions using the model; only touched inside the map's compute functions
+        final Set<String> sessions = new HashSet<>();
+
+        synchronized void update(long mask, int difficulty, double outcome) {
+            double error = outcome - probability(skill, mask, difficulty);
+            for (long bits = mask; bits != 0L; bits &= bits - 1) {
+                int c = Long.numberOfTrailingZeros(bits);
+                skill[c] += (float) (BASE_STEP / (1 + STEP_DECAY * attempts[c]) * error);
+                if (attempts[c] < Short.MAX_VALUE) {
+                    attempts[c]++;
+                }
+            }
+        }
+    }
+}
@@ -1,16 +1,17 @@
 package com.example.demo.services;
 
-import java.util.Comparator;
+import java.util.BitSet;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
 
-import com.example.demo.enums.Difficulty;
-import com.example.demo.model.QuestionBank;
+import com.example.demo.enums.RoleType;
 import com.example.demo.model.QuestionModel;
 import com.example.demo.model.ReportModel;
+import com.example.demo.model.SolutionModel;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 @Service
 public class QuestionFilterService {
@@ -18,38 +19,41 @@ public class QuestionFilterService {
     private static final int MIN_QUESTIONS = 3;
     private static final int MAX_QUESTIONS = 5;
 
-    public List<QuestionModel> getFollowUpQuestions(ReportModel report) {
-        List<QuestionModel> pool = new QuestionBank(report.getRole()).getQuestions();
-        Difficulty target = report.getSuggestedDifficulty();
+    private final QuestionRegistry registry;
+    private final Timer selectionTimer;
 
-        // Exclude questions the user already answered
-        Set<String> answeredIds = report.getSolutions() != null
-                ? report.getSolutions().stream()
-                        .map(s -> s.getId())
-                        .collect(Collectors.toSet())
-                : Set.of();
-
-        // Keep only unanswered questions that overlap with weak concepts
-        List<QuestionModel> conceptMatches = pool.stream()
-                .filter(q -> !answeredIds.contains(q.getId()))
-                .filter(q -> q.getConcepts().stream()
-                        .anyMatch(c -> report.getWeakConcepts().contains(c)))
-                .collect(Collectors.toList());
-
-        // Sort: exact difficulty match first, then by number of overlapping concepts (desc)
-        conceptMatches.sort(Comparator
-                .comparing((QuestionModel q) -> q.getDifficulty() != target)
-                .thenComparing(q -> -countOverlap(q, report)));
-
-        return conceptMatches.stream()
-                .limit(MAX_QUESTIONS)
-                .collect(Collectors.toList());
+    public QuestionFilterService(QuestionRegistry registry, MeterRegistry meterRegistry) {
+        this.registry = registry;
+        this.selectionTimer = Timer.builder("followup.selection")
+                .description("Time to pick follow-up questions for a report")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public List<QuestionModel> getFollowUpQuestions(ReportModel report) {
+        RoleType role = report.getRole() != null ? report.getRole() : RoleType.SWE;
+        return selectionTimer.record(() -> getFollowUpQuestions(registry.getIndex(role), report));
     }
 
-    private long countOverlap(QuestionModel q, ReportModel report) {
-        return q.getConcepts().stream()
-                .filter(c -> report.getWeakConcepts().contains(c))
-                .count();
+    /**
+     * Picks follow-up questions from the given index: unanswered questions that overlap with the
+     * report's weak concepts, exact difficulty match first, then by number of overlapping concepts.
+     */
+    public List<QuestionModel> getFollowUpQuestions(QuestionIndex index, ReportModel report) {
+        long weakMask = QuestionIndex.maskOf(report.getWeakConcepts());
+
+        // Exclude questions the user already answered
+        BitSet answered = new BitSet(index.size());
+        if (report.getSolutions() != null) {
+            for (SolutionModel s : report.getSolutions()) {
+                int position = index.positionOf(s.getId());
+                if (position >= 0) {
+                    answered.set(position);
+                }
+            }
+        }
+
+        return index.topMatches(weakMask, report.getSuggestedDifficulty(), answered, MAX_QUESTIONS);
     }
 
 }
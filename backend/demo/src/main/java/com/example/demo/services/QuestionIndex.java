@@ -0,0 +1,245 @@
+package com.example.demo.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.demo.enums.Concepts;
+import com.example.demo.enums.Difficulty;
+import com.example.demo.model.QuestionModel;
+
+/**
+ * Read-only inverted index over a question pool. Each question's concepts are kept as a
+ * bitmask over {@link Concepts#ordinal()}, and postings lists map every concept and difficulty
+ * to the (ascending) positions of the questions that carry it.
+ */
+public class QuestionIndex {
+
+    private static final int[] NO_POSTINGS = new int[0];
+    private static final Concepts[] CONCEPTS = Concepts.values();
+
+    private final List<QuestionModel> questions;
+    private final long[] conceptMasks;
+    private final byte[] difficulties;
+    private final Map<Concepts, int[]> conceptPostings = new EnumMap<>(Concepts.class);
+    private final Map<Difficulty, int[]> difficultyPostings = new EnumMap<>(Difficulty.class);
+    private final Map<String, Integer> positionsById = new HashMap<>();
+
+    public QuestionIndex(List<QuestionModel> questions) {
+        this.questions = List.copyOf(questions);
+        int size = this.questions.size();
+        this.conceptMasks = new long[size];
+        this.difficulties = new byte[size];
+
+        Map<Concepts, List<Integer>> byConcept = new EnumMap<>(Concepts.class);
+        Map<Difficulty, List<Integer>> byDifficulty = new EnumMap<>(Difficulty.class);
+        for (int i = 0; i < size; i++) {
+            QuestionModel q = this.questions.get(i);
+            positionsById.putIfAbsent(q.getId(), i);
+            conceptMasks[i] = maskOf(q.getConcepts());
+            if (q.getConcepts() != null) {
+                for (Concepts c : q.getConcepts()) {
+                    List<Integer> postings = byConcept.computeIfAbsent(c, k -> new ArrayList<>());
+                    // A question tagged twice with the same concept still appears once
+                    if (postings.isEmpty() || postings.get(postings.size() - 1) != i) {
+                        postings.add(i);
+                    }
+                }
+            }
+            difficulties[i] = q.getDifficulty() == null ? -1 : (byte) q.getDifficulty().ordinal();
+            if (q.getDifficulty() != null) {
+                byDifficulty.computeIfAbsent(q.getDifficulty(), k -> new ArrayList<>()).add(i);
+            }
+        }
+        byConcept.forEach((c, postings) -> conceptPostings.put(c, toArray(postings)));
+        byDifficulty.forEach((d, postings) -> difficultyPostings.put(d, toArray(postings)));
+    }
+
+    public List<QuestionModel> getQuestions() {
+        return questions;
+    }
+
+    public int size() {
+        return questions.size();
+    }
+
+    public QuestionModel get(int position) {
+        return questions.get(position);
+    }
+
+    public long conceptMask(int position) {
+        return conceptMasks[position];
+    }
+
+    /**
+     * Returns the question's {@link Difficulty#ordinal()}, or -1 if it has none.
+     */
+    public int difficultyOrdinal(int position) {
+        return difficulties[position];
+    }
+
+    /**
+     * Returns the position of the question with the given id, or -1 if it is not indexed.
+     */
+    public int positionOf(String id) {
+        Integer position = positionsById.get(id);
+        return position == null ? -1 : position;
+    }
+
+    public int[] postings(Concepts concept) {
+        return conceptPostings.getOrDefault(concept, NO_POSTINGS);
+    }
+
+    public int[] postings(Difficulty difficulty) {
+        return difficultyPostings.getOrDefault(difficulty, NO_POSTINGS);
+    }
+
+    /**
+     * Returns the positions of the questions with any of the given difficulties and any of the
+     * given concepts; an empty (or null) filter matches everything.
+     */
+    public BitSet matching(Collection<Difficulty> difficulties, Collection<Concepts> concepts) {
+        BitSet result = new BitSet(questions.size());
+        result.set(0, questions.size());
+        if (difficulties != null && !difficulties.isEmpty()) {
+            BitSet byDifficulty = new BitSet(questions.size());
+            for (Difficulty d : difficulties) {
+                for (int position : postings(d)) {
+                    byDifficulty.set(position);
+                }
+            }
+            result.and(byDifficulty);
+        }
+        if (concepts != null && !concepts.isEmpty()) {
+            BitSet byConcept = new BitSet(questions.size());
+            for (Concepts c : concepts) {
+                for (int position : postings(c)) {
+                    byConcept.set(position);
+                }
+            }
+            result.and(byConcept);
+        }
+        return result;
+    }
+
+    /**
+     * Returns up to {@code limit} questions sharing at least one concept with {@code weakMask},
+     * skipping the positions set in {@code excluded}. Results are ordered by exact difficulty
+     * match first, then by number of overlapping concepts (desc), then by pool order.
+     */
+    public List<QuestionModel> topMatches(long weakMask, Difficulty target, BitSet excluded, int limit) {
+        if (weakMask == 0L || limit <= 0) {
+            return List.of();
+        }
+        int targetOrdinal = target == null ? -1 : target.ordinal();
+
+        // Union the postings of every weak concept so each candidate is visited once
+        BitSet candidates = new BitSet(questions.size());
+        for (long bits = weakMask; bits != 0L; bits &= bits - 1) {
+            for (int position : postings(CONCEPTS[Long.numberOfTrailingZeros(bits)])) {
+                candidates.set(position);
+            }
+        }
+        candidates.andNot(excluded);
+
+        TopK top = new TopK(limit);
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            long mismatch = difficulties[i] == targetOrdinal ? 0L : 1L;
+            long missing = Long.SIZE - Long.bitCount(conceptMasks[i] & weakMask);
+            top.offer(mismatch << 40 | missing << 32 | i);
+        }
+
+        long[] keys = top.sorted();
+        List<QuestionModel> result = new ArrayList<>(keys.length);
+        for (long key : keys) {
+            result.add(questions.get((int) key));
+        }
+        return result;
+    }
+
+    public static long maskOf(Collection<Concepts> concepts) {
+        long mask = 0L;
+        if (concepts != null) {
+            for (Concepts c : concepts) {
+                mask |= 1L << c.ordinal();
+            }
+        }
+        return mask;
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        int[] array = new int[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+
+    /**
+     * Bounded max-heap keeping the {@code capacity} smallest keys offered.
+     */
+    private static final class TopK {
+        private final long[] heap;
+        private int size;
+
+        TopK(int capacity) {
+            this.heap = new long[capacity];
+        }
+
+        void offer(long key) {
+            if (size < heap.length) {
+                heap[size] = key;
+                siftUp(size++);
+            } else if (key < heap[0]) {
+                heap[0] = key;
+                siftDown(0);
+            }
+        }
+
+        long[] sorted() {
+            long[] keys = Arrays.copyOf(heap, size);
+            Arrays.sort(keys);
+            return keys;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heap[parent] >= heap[i]) {
+                    return;
+                }
+                swap(parent, i);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int left = 2 * i + 1;
+                int largest = i;
+                if (left < size && heap[left] > heap[largest]) {
+                    largest = left;
+                }
+                if (left + 1 < size && heap[left + 1] > heap[largest]) {
+                    largest = left + 1;
+                }
+                if (largest == i) {
+                    return;
+                }
+                swap(i, largest);
+                i = largest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            long tmp = heap[a];
+            heap[a] = heap[b];
+            heap[b] = tmp;
+        }
+    }
+}
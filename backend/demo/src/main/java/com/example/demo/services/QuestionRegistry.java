@@ -0,0 +1,112 @@
+package com.example.demo.services;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.example.demo.content.QuestionPack;
+import com.example.demo.content.QuestionPackLoader;
+import com.example.demo.enums.RoleType;
+import com.example.demo.model.InputGenerator;
+import com.example.demo.model.QuestionModel;
+import com.example.demo.model.TestCaseModel;
+
+/**
+ * Holds every role's questions from the current question pack, shared by all requests.
+ * The returned lists and questions are immutable.
+ *
+ * <p>{@link #reload} swaps in a new pack atomically: each lookup sees either the old or the new
+ * questions, never a mix. Test cases and input generators come from the pack with their
+ * questions, so they are swapped together.
+ */
+public class QuestionRegistry {
+
+    private final AtomicLong versions = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    /**
+     * Registry over the pack bundled with the application.
+     */
+    public QuestionRegistry() {
+        this(QuestionPackLoader.loadBundled());
+    }
+
+    public QuestionRegistry(QuestionPack pack) {
+        snapshot = Snapshot.of(pack, versions.incrementAndGet());
+    }
+
+    /**
+     * Replaces every role's questions with the given pack's.
+     */
+    public void reload(QuestionPack pack) {
+        snapshot = Snapshot.of(pack, versions.incrementAndGet());
+    }
+
+    /**
+     * Returns the version of the current question set; it changes on every reload.
+     */
+    public long getVersion() {
+        return snapshot.version;
+    }
+
+    /**
+     * Returns all questions for the given role, in pack order.
+     */
+    public List<QuestionModel> getQuestions(RoleType role) {
+        return snapshot.questionsByRole.get(role);
+    }
+
+    /**
+     * Returns the question with the given id for the given role, or null if there is none.
+     */
+    public QuestionModel getQuestion(RoleType role, String id) {
+        return snapshot.questionsById.get(role).get(id);
+    }
+
+    /**
+     * Returns the test cases of the given question, or an empty list if it cannot be graded.
+     */
+    public List<TestCaseModel> getTestCases(RoleType role, String id) {
+        return id == null ? List.of() : snapshot.pack.getTestCases(role, id);
+    }
+
+    /**
+     * Returns the generator for timing the question's solutions, or null if it is not profiled.
+     */
+    public InputGenerator getInputGenerator(RoleType role, String id) {
+        return id == null ? null : snapshot.pack.getInputGenerator(role, id);
+    }
+
+    /**
+     * Returns the concept/difficulty index over the given role's questions.
+     */
+    public QuestionIndex getIndex(RoleType role) {
+        return snapshot.indexes.get(role);
+    }
+
+    private record Snapshot(QuestionPack pack, long version,
+                            Map<RoleType, List<QuestionModel>> questionsByRole,
+                            Map<RoleType, Map<String, QuestionModel>> questionsById,
+                            Map<RoleType, QuestionIndex> indexes) {
+
+        static Snapshot of(QuestionPack pack, long version) {
+            Map<RoleType, List<QuestionModel>> questionsByRole = new EnumMap<>(RoleType.class);
+            Map<RoleType, Map<String, QuestionModel>> questionsById = new EnumMap<>(RoleType.class);
+            Map<RoleType, QuestionIndex> indexes = new EnumMap<>(RoleType.class);
+            for (RoleType role : RoleType.values()) {
+                List<QuestionModel> questions = pack.getQuestions(role);
+                Map<String, QuestionModel> byId = new LinkedHashMap<>();
+                for (QuestionModel question : questions) {
+                    byId.put(question.getId(), question);
+                }
+                questionsByRole.put(role, questions);
+                questionsById.put(role, Collections.unmodifiableMap(byId));
+                indexes.put(role, new QuestionIndex(questions));
+            }
+            return new Snapshot(pack, version, questionsByRole, questionsById, indexes);
+        }
+    }
+}
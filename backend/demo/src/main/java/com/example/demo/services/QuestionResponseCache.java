@@ -0,0 +1,139 @@
+package com.example.demo.services;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.stereotype.Service;
+
+import com.example.demo.enums.RoleType;
+import com.example.demo.model.QuestionModel;
+
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Pre-serialized question responses with content-hash ETags and gzip variants. Entries are built
+ * on first request and kept until the registry's question set version changes.
+ */
+@Service
+public class QuestionResponseCache {
+
+    private final QuestionService questionService;
+    private final QuestionRegistry registry;
+    private final ObjectMapper objectMapper;
+    private volatile Generation generation = new Generation(-1);
+
+    public QuestionResponseCache(QuestionService questionService, QuestionRegistry registry, ObjectMapper objectMapper) {
+        this.questionService = questionService;
+        this.registry = registry;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * One serialized response. {@code gzip} is null when compressing does not make it smaller.
+     */
+    public record CachedResponse(byte[] body, byte[] gzip, String etag) {
+
+        public String gzipEtag() {
+            return etag.substring(0, etag.length() - 1) + "-gzip\"";
+        }
+
+        /**
+         * Whether an If-None-Match header matches either representation (weak comparison).
+         */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (String tag : ifNoneMatch.split(",")) {
+                tag = tag.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(etag) || tag.equals(gzipEtag())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Response of {@code GET /questions/by-role/{role}}.
+     */
+    public CachedResponse byRole(RoleType role) {
+        return current().byRole.computeIfAbsent(role, r -> serialize(questionService.getQuestionsByRole(r)));
+    }
+
+    /**
+     * Response of {@code GET /questions/{id}}, or null if the role has no such question.
+     */
+    public CachedResponse question(RoleType role, String id) {
+        ConcurrentMap<String, CachedResponse> byId = current().questions.get(role);
+        CachedResponse cached = byId.get(id);
+        if (cached == null) {
+            // Only real questions are cached, so unknown ids cannot grow the map
+            QuestionModel question = questionService.getQuestionById(role, id);
+            if (question == null) {
+                return null;
+            }
+            cached = byId.computeIfAbsent(id, k -> serialize(question));
+        }
+        return cached;
+    }
+
+    private Generation current() {
+        Generation g = generation;
+        long version = registry.getVersion();
+        if (g.version != version) {
+            g = new Generation(version);
+            generation = g;
+        }
+        return g;
+    }
+
+    private CachedResponse serialize(Object value) {
+        byte[] body = objectMapper.writeValueAsBytes(value);
+        byte[] gzip = gzip(body);
+        return new CachedResponse(body, gzip.length < body.length ? gzip : null, "\"" + hash(body) + "\"");
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length / 2);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String hash(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Generation {
+        final long version;
+        final ConcurrentMap<RoleType, CachedResponse> byRole = new ConcurrentHashMap<>();
+        final Map<RoleType, ConcurrentMap<String, CachedResponse>> questions = new EnumMap<>(RoleType.class);
+
+        Generation(long version) {
+            this.version = version;
+            for (RoleType role : RoleType.values()) {
+                questions.put(role, new ConcurrentHashMap<>());
+            }
+        }
+    }
+}
@@ -1,37 +1,316 @@
 package com.example.demo.services;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 import org.springframework.stereotype.Service;
 
+import com.example.demo.cluster.StateEvent;
+import com.example.demo.cluster.StateLayer;
+import com.example.demo.enums.Concepts;
+import com.example.demo.enums.Difficulty;
 import com.example.demo.enums.RoleType;
-import com.example.demo.model.QuestionBank;
+import com.example.demo.enums.Verdict;
+import com.example.demo.model.Attempt;
+import com.example.demo.model.CaseResultModel;
+import com.example.demo.model.ExecutionResultModel;
+import com.example.demo.model.HintModel;
 import com.example.demo.model.QuestionModel;
+import com.example.demo.model.QuestionPageModel;
+import com.example.demo.model.QuestionSummaryModel;
+import com.example.demo.model.ReportModel;
+import com.example.demo.model.SessionKey;
 import com.example.demo.model.SolutionModel;
+import com.example.demo.persistence.AttemptLog;
+import com.example.demo.similarity.SimilarityIndex;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Service
 public class QuestionService {
-    List<QuestionModel> questionList = new QuestionBank(RoleType.SWE).getQuestions();
-    List<SolutionModel> solutionList = new ArrayList<>();
+    private final QuestionRegistry registry;
+    private final SolutionStore solutionStore;
+    private final ReportEngine reportEngine;
+    private final GradingService gradingService;
+    private final ComplexityGrader complexityGrader;
+    private final HintTracker hintTracker;
+    private final MasteryRecommender recommender;
+    private final SessionManager sessionManager;
+    private final SimilarityIndex similarityIndex;
+    private final AttemptLog attemptLog;
+    private final StateLayer stateLayer;
+    private final MeterRegistry meterRegistry;
+
+    public QuestionService(QuestionRegistry registry, SolutionStore solutionStore, ReportEngine reportEngine,
+                           GradingService gradingService, ComplexityGrader complexityGrader, HintTracker hintTracker,
+                           MasteryRecommender recommender, SessionManager sessionManager,
+                           SimilarityIndex similarityIndex, Optional<AttemptLog> attemptLog, StateLayer stateLayer,
+                           MeterRegistry meterRegistry) {
+        this.registry = registry;
+        this.solutionStore = solutionStore;
+        this.reportEngine = reportEngine;
+        this.gradingService = gradingService;
+        this.complexityGrader = complexityGrader;
+        this.hintTracker = hintTracker;
+        this.recommender = recommender;
+        this.sessionManager = sessionManager;
+        this.similarityIndex = similarityIndex;
+        this.attemptLog = attemptLog.orElse(null);
+        this.stateLayer = stateLayer;
+        this.meterRegistry = meterRegistry;
+    }
 
     public List<QuestionModel> getQuestionsByRole(RoleType role) {
-        List<QuestionModel> all = new QuestionBank(role).getQuestions();
+        List<QuestionModel> all = registry.getQuestions(role);
         return all.subList(0, Math.min(5, all.size()));
     }
 
-    public QuestionModel getQuestionById(String id) {
-        return questionList.get(Integer.parseInt(id));
+    public QuestionModel getQuestionById(RoleType role, String id) {
+        return registry.getQuestion(role, id);
+    }
+
+    /**
+     * Returns one page of question summaries in pack order, filtered to any of the difficulties
+     * and any of the concepts. The cursor is the opaque {@code nextCursor} of the previous page.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed or its question no longer exists
+     */
+    public QuestionPageModel getSummaries(RoleType role, List<Difficulty> difficulties, List<Concepts> concepts,
+                                          String cursor, int limit) {
+        QuestionIndex index = registry.getIndex(role);
+        int start = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            int after = index.positionOf(decodeCursor(cursor));
+            if (after < 0) {
+                throw new IllegalArgumentException("Unknown cursor");
+            }
+            start = after + 1;
+        }
+
+        BitSet matching = index.matching(difficulties, concepts);
+        List<QuestionSummaryModel> items = new ArrayList<>(limit);
+        int position = matching.nextSetBit(start);
+        for (; position >= 0 && items.size() < limit; position = matching.nextSetBit(position + 1)) {
+            items.add(summaryOf(index.get(position)));
+        }
+
+        QuestionPageModel page = new QuestionPageModel();
+        page.setItems(items);
+        // A cursor only when there is at least one more match
+        if (position >= 0 && !items.isEmpty()) {
+            page.setNextCursor(encodeCursor(items.get(items.size() - 1).getId()));
+        }
+        return page;
+    }
+
+    /**
+     * Returns hint {@code number} (1-3) of the question and records that the session used it,
+     * or null if the question or hint does not exist.
+     */
+    public HintModel getHint(SessionKey session, RoleType role, String id, int number) {
+        QuestionModel question = registry.getQuestion(role, id);
+        if (question == null) {
+            return null;
+        }
+        String text = switch (number) {
+            case 1 -> question.getHint1();
+            case 2 -> question.getHint2();
+            case 3 -> question.getHint3();
+            default -> null;
+        };
+        if (text == null) {
+            return null;
+        }
+        sessionManager.touch(session);
+        hintTracker.record(session, role, id, number);
+        stateLayer.publish(new StateEvent.HintUsed(session, role, id, number));
+        HintModel hint = new HintModel();
+        hint.setId(id);
+        hint.setNumber(number);
+        hint.setHint(text);
+        return hint;
     }
 
-    public void submitAnswer(String id, SolutionModel solution){
-        solutionList.add(solution);
+    public void submitAnswer(SessionKey session, RoleType role, String id, SolutionModel solution){
+        submitAnswer(session, role, id, solution, null);
     }
 
-    public List<SolutionModel> getSolutions() {
-        return solutionList;
+    /**
+     * Returns the question a submission to {@code id} is for: the one in the solution's role
+     * when it names one, otherwise in {@code role}. Null if there is no such question.
+     */
+    public QuestionModel getSubmittedQuestion(RoleType role, String id, SolutionModel solution) {
+        return registry.getQuestion(solution.getRole() != null ? solution.getRole() : role, id);
     }
 
+    /**
+     * Records an attempt at question {@code id}, grading it on the server when the question has
+     * test cases and handing each case's result to {@code progress} as it finishes. Returns the
+     * grading result, or null if the attempt was not graded.
+     *
+     * @throws IllegalArgumentException if there is no such question; nothing is recorded
+     */
+    public ExecutionResultModel submitAnswer(SessionKey session, RoleType role, String id, SolutionModel solution,
+                                             Consumer<CaseResultModel> progress) {
+        if (getSubmittedQuestion(role, id, solution) == null) {
+            throw new IllegalArgumentException("Unknown question " + id);
+        }
+        if (solution.getRole() == null) {
+            solution.setRole(role);
+        }
+        // The attempt is stored under the question it was graded against, not an id in the body
+        solution.setId(id);
+        // Graded first, so a run the executor turns away leaves the session as it was
+        ExecutionResultModel result = gradeAttempt(id, solution, progress);
+        stampAttempt(session, id, solution);
+        recordAttempt(session, id, solution);
+        return result;
+    }
+
+    /**
+     * Sets the attempt's time and hint usage from what the session recorded on the server.
+     */
+    void stampAttempt(SessionKey session, String id, SolutionModel solution) {
+        stampTime(session, id, solution);
+        // The question payloads still carry every hint, so the client's flags stand unless this
+        // session fetched hints for the question from the hint endpoint
+        int hintsUsed = hintTracker.usedMask(session, solution.getRole(), id);
+        if (hintsUsed != 0) {
+            solution.setHint1used((hintsUsed & 0b001) != 0);
+            solution.setHint2used((hintsUsed & 0b010) != 0);
+            solution.setHint3used((hintsUsed & 0b100) != 0);
+        }
+    }
+
+    /**
+     * Sets the attempt's time from the server's start timestamp when the session started this
+     * question, and marks the question submitted.
+     */
+    void stampTime(SessionKey session, String id, SolutionModel solution) {
+        long elapsed = sessionManager.recordSubmit(session, id);
+        if (elapsed >= 0) {
+            // normalizeAttempt reads values above 1000 as milliseconds
+            solution.setTime(elapsed > 1000 ? Long.toString(elapsed) : Double.toString(elapsed / 1000.0));
+        }
+    }
 
+    /**
+     * Grades the attempt on the server when the question has test cases, setting its correctness
+     * and complexity. Touches no session state, so attempts can be graded concurrently.
+     */
+    ExecutionResultModel gradeAttempt(String id, SolutionModel solution, Consumer<CaseResultModel> progress) {
+        // Grade on the server when we can; otherwise keep the client's claim
+        solution.setComplexity(null);
+        ExecutionResultModel result = null;
+        if (gradingService.canGrade(solution.getRole(), id)) {
+            result = gradingService.grade(solution.getRole(), id, solution.getSolution(), true, progress);
+            solution.setCorrect(result.getVerdict() == Verdict.ACCEPTED);
+            if (result.getVerdict() == Verdict.ACCEPTED) {
+                solution.setComplexity(complexityGrader.profile(solution.getRole(), id, solution.getSolution()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Appends a stamped and graded attempt to the session's history and every derived view, and
+     * shares it with the other nodes.
+     */
+    void recordAttempt(SessionKey session, String id, SolutionModel solution) {
+        storeAttempt(session, solution);
+        stateLayer.publish(new StateEvent.AttemptRecorded(session, solution));
+
+        // Only known questions are recorded, so the tag values stay bounded
+        meterRegistry.counter("submissions",
+                "role", solution.getRole().name(),
+                "question", id,
+                "correct", solution.getCorrect() == null ? "unknown" : solution.getCorrect().toString()).increment();
+    }
 
+    /**
+     * Records an attempt made on another node of the cluster.
+     */
+    public void applyAttempt(SessionKey session, SolutionModel solution) {
+        // Marks the question submitted here too, which also keeps the session alive
+        sessionManager.recordSubmit(session, solution.getId());
+        storeAttempt(session, solution);
+    }
+
+    /**
+     * Records a hint fetched on another node of the cluster.
+     */
+    public void applyHint(SessionKey session, RoleType role, String id, int number) {
+        sessionManager.touch(session);
+        hintTracker.record(session, role, id, number);
+    }
+
+    private void storeAttempt(SessionKey session, SolutionModel solution) {
+        if (attemptLog != null) {
+            attemptLog.append(session, solution);
+        }
+        Attempt attempt = Attempt.of(solution);
+        solutionStore.append(session, attempt);
+        reportEngine.record(session, attempt);
+        recommender.record(session, attempt);
+        similarityIndex.add(session, attempt);
+    }
+
+    /**
+     * Returns up to {@code limit} unanswered questions of the role that would tell us the most
+     * about the session's concept mastery.
+     */
+    public List<QuestionSummaryModel> getRecommendations(SessionKey session, RoleType role, int limit) {
+        sessionManager.touch(session);
+        QuestionIndex index = registry.getIndex(role);
+        BitSet answered = new BitSet(index.size());
+        for (Attempt attempt : solutionStore.getAttempts(session)) {
+            int position = attempt.roleOrDefault() == role ? index.positionOf(attempt.id()) : -1;
+            if (position >= 0) {
+                answered.set(position);
+            }
+        }
+        return recommender.recommend(session, role, answered, limit).stream()
+                .map(QuestionService::summaryOf)
+                .toList();
+    }
+
+    public List<SolutionModel> getSolutions(SessionKey session) {
+        sessionManager.touch(session);
+        return solutionStore.getAttempts(session).stream().map(Attempt::toModel).toList();
+    }
+
+    /**
+     * Returns the session's report with all metrics filled in, plus its stored attempts.
+     */
+    public ReportModel getReport(SessionKey session, RoleType role) {
+        ReportModel report = reportEngine.report(session, role);
+        report.setSolutions(getSolutions(session));
+        return report;
+    }
+
+    private static QuestionSummaryModel summaryOf(QuestionModel question) {
+        QuestionSummaryModel summary = new QuestionSummaryModel();
+        summary.setId(question.getId());
+        summary.setTitle(question.getTitle());
+        summary.setDifficulty(question.getDifficulty());
+        summary.setConcepts(question.getConcepts());
+        return summary;
+    }
+
+    private static String encodeCursor(String id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
 }
@@ -0,0 +1,216 @@
+package com.example.demo.services;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.stereotype.Service;
+
+import com.example.demo.enums.Concepts;
+import com.example.demo.enums.Difficulty;
+import com.example.demo.enums.RoleType;
+import com.example.demo.model.Attempt;
+import com.example.demo.model.QuestionModel;
+import com.example.demo.model.ReportModel;
+import com.example.demo.model.ReportSummaryModel;
+import com.example.demo.model.SessionKey;
+import com.example.demo.model.TopicScoreModel;
+
+/**
+ * Server-side port of the scoring rules in {@code frontend/src/report/computeReport.js}.
+ *
+ * <p>Each session keeps running totals overall, per difficulty and per topic (a question's first
+ * concept, or "Unknown"), updated once per submitted attempt. Building a report only walks the
+ * fixed-size topic table, so it costs the same no matter how many attempts the session has.
+ */
+@Service
+public class ReportEngine {
+
+    static final String UNKNOWN_TOPIC = "Unknown";
+
+    private static final int[] DIFFICULTY_WEIGHTS = {1, 2, 3};
+    private static final String[] DIFFICULTY_LABELS = {"Easy", "Medium", "Hard"};
+    private static final double TARGET_SECONDS = 180;
+
+    private static final Concepts[] CONCEPTS = Concepts.values();
+    private static final int UNKNOWN = CONCEPTS.length;
+
+    private final QuestionRegistry registry;
+    private final ConcurrentMap<SessionKey, SessionAggregate> sessions = new ConcurrentHashMap<>();
+
+    public ReportEngine(QuestionRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Folds one attempt into its session's aggregates.
+     */
+    public void record(SessionKey key, Attempt attempt) {
+        QuestionModel question = attempt.id() == null ? null : registry.getQuestion(attempt.roleOrDefault(), attempt.id());
+
+        // Unknown questions count as Easy / "Unknown", as normalizeAttempt does
+        int difficulty = question != null && question.getDifficulty() != null ? question.getDifficulty().ordinal() : 0;
+        int topic = question != null && question.getConcepts() != null && !question.getConcepts().isEmpty()
+                ? question.getConcepts().get(0).ordinal()
+                : UNKNOWN;
+
+        sessions.computeIfAbsent(key, k -> new SessionAggregate())
+                .add(difficulty, topic, attempt.isCorrect(), attempt.timeSec());
+    }
+
+    public void evict(SessionKey key) {
+        sessions.remove(key);
+    }
+
+    /**
+     * Builds a fully populated report for the session.
+     */
+    public ReportModel report(SessionKey key, RoleType role) {
+        SessionAggregate aggregate = sessions.get(key);
+        ReportModel report = aggregate == null ? emptyReport() : aggregate.toReport();
+        report.setRole(role);
+        return report;
+    }
+
+    static int weightedScore(double correctWeight, double totalWeight) {
+        return totalWeight > 0 ? (int) Math.round(correctWeight / totalWeight * 100) : 0;
+    }
+
+    static double speedScore(double avgTimeSec) {
+        return Math.max(0, Math.min(1, 1 - avgTimeSec / TARGET_SECONDS));
+    }
+
+    static String tier(double composite) {
+        if (composite >= 0.85) return "Interview Ready";
+        if (composite >= 0.70) return "Advanced";
+        if (composite >= 0.55) return "Intermediate";
+        if (composite >= 0.40) return "Developing";
+        return "Beginner";
+    }
+
+    static Difficulty suggestedDifficulty(int weightedScore) {
+        if (weightedScore >= 80) return Difficulty.HARD;
+        if (weightedScore >= 60) return Difficulty.MEDIUM;
+        return Difficulty.EASY;
+    }
+
+    private static ReportModel emptyReport() {
+        ReportSummaryModel summary = new ReportSummaryModel();
+        summary.setDifficultyMix(difficultyMix(new int[DIFFICULTY_LABELS.length]));
+        summary.setTier("Beginner");
+        ReportModel report = new ReportModel();
+        report.setSummary(summary);
+        report.setByTopic(List.of());
+        report.setWeakestTopics(List.of());
+        report.setWeakConcepts(List.of());
+        report.setSuggestedDifficulty(Difficulty.EASY);
+        return report;
+    }
+
+    private static Map<String, Integer> difficultyMix(int[] counts) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (int d = 0; d < DIFFICULTY_LABELS.length; d++) {
+            mix.put(DIFFICULTY_LABELS[d], counts[d]);
+        }
+        return mix;
+    }
+
+    private static String topicName(int topic) {
+        return topic == UNKNOWN ? UNKNOWN_TOPIC : CONCEPTS[topic].name();
+    }
+
+    /**
+     * Running totals of one session, indexed by difficulty and topic ordinal.
+     */
+    private static final class SessionAggregate {
+        private int n;
+        private int correct;
+        private double totalTime;
+        private int totalWeight;
+        private int correctWeight;
+        private final int[] difficultyCounts = new int[DIFFICULTY_LABELS.length];
+
+        private final int[] topicAttempts = new int[UNKNOWN + 1];
+        private final int[] topicCorrect = new int[UNKNOWN + 1];
+        private final double[] topicTime = new double[UNKNOWN + 1];
+        private final int[] topicWeight = new int[UNKNOWN + 1];
+        private final int[] topicCorrectWeight = new int[UNKNOWN + 1];
+        // Topics in order of first appearance, which is how the report lists them
+        private final int[] topicOrder = new int[UNKNOWN + 1];
+        private int topicCount;
+
+        synchronized void add(int difficulty, int topic, boolean isCorrect, double timeSec) {
+            int weight = DIFFICULTY_WEIGHTS[difficulty];
+            n++;
+            totalTime += timeSec;
+            totalWeight += weight;
+            difficultyCounts[difficulty]++;
+            if (topicAttempts[topic]++ == 0) {
+                topicOrder[topicCount++] = topic;
+            }
+            topicTime[topic] += timeSec;
+            topicWeight[topic] += weight;
+            if (isCorrect) {
+                correct++;
+                correctWeight += weight;
+                topicCorrect[topic]++;
+                topicCorrectWeight[topic] += weight;
+            }
+        }
+
+        synchronized ReportModel toReport() {
+            int weightedScore = weightedScore(correctWeight, totalWeight);
+            double avgTimeSec = totalTime / n;
+            double composite = 0.65 * (weightedScore / 100.0)
+                    + 0.25 * speedScore(avgTimeSec)
+                    + 0.10 * ((double) difficultyCounts[Difficulty.HARD.ordinal()] / n);
+
+            ReportSummaryModel summary = new ReportSummaryModel();
+            summary.setN(n);
+            summary.setAccuracyPct((int) Math.round((double) correct / n * 100));
+            summary.setAvgTimeSec(Math.round(avgTimeSec * 10) / 10.0);
+            summary.setDifficultyMix(difficultyMix(difficultyCounts));
+            summary.setWeightedScore(weightedScore);
+            summary.setTier(tier(composite));
+
+            List<TopicScoreModel> byTopic = new ArrayList<>(topicCount);
+            for (int i = 0; i < topicCount; i++) {
+                int topic = topicOrder[i];
+                double topicAvgTime = topicTime[topic] / topicAttempts[topic];
+                int topicWeighted = weightedScore(topicCorrectWeight[topic], topicWeight[topic]);
+
+                TopicScoreModel score = new TopicScoreModel();
+                score.setTopic(topicName(topic));
+                score.setAttempts(topicAttempts[topic]);
+                score.setAccuracyPct((int) Math.round((double) topicCorrect[topic] / topicAttempts[topic] * 100));
+                score.setAvgTimeSec(topicAvgTime);
+                score.setWeightedScore(topicWeighted);
+                score.setRadarScore((int) Math.round(0.75 * topicWeighted + 0.25 * speedScore(topicAvgTime) * 100));
+                byTopic.add(score);
+            }
+
+            // Two lowest-accuracy topics; the sort is stable, so ties keep first-appearance order
+            List<String> weakestTopics = byTopic.stream()
+                    .sorted(Comparator.comparingInt(TopicScoreModel::getAccuracyPct))
+                    .limit(2)
+                    .map(TopicScoreModel::getTopic)
+                    .toList();
+            List<Concepts> weakConcepts = weakestTopics.stream()
+                    .filter(t -> !UNKNOWN_TOPIC.equals(t))
+                    .map(Concepts::valueOf)
+                    .toList();
+
+            ReportModel report = new ReportModel();
+            report.setSummary(summary);
+            report.setByTopic(byTopic);
+            report.setWeakestTopics(weakestTopics);
+            report.setWeakConcepts(weakConcepts);
+            report.setSuggestedDifficulty(suggestedDifficulty(weightedScore));
+            return report;
+        }
+    }
+}
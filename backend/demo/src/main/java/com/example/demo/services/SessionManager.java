@@ -0,0 +1,392 @@
+package com.example.demo.services;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.cluster.StateEvent;
+import com.example.demo.cluster.StateLayer;
+import com.example.demo.enums.RoleType;
+import com.example.demo.model.QuestionModel;
+import com.example.demo.model.SessionKey;
+import com.example.demo.model.SessionModel;
+import com.example.demo.model.SessionQuestionModel;
+
+/**
+ * Tracks practice sessions: the question set a session was created with, server-side start and
+ * submit timestamps per question, and idle expiry. Every session, whether created here or only
+ * named by a client header, gets one timer on a {@link TimingWheel}. Activity just records the
+ * access time; when the timer fires, a session that was active since is re-armed for the rest
+ * of its idle timeout, and one that was not is evicted together with its attempts, report
+ * totals, hint usage and mastery estimate. The attempt log keeps its durable copy.
+ */
+@Service
+public class SessionManager implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionManager.class);
+    private static final int WHEEL_BUCKETS = 4096;
+
+    private final QuestionRegistry registry;
+    private final SolutionStore solutionStore;
+    private final ReportEngine reportEngine;
+    private final HintTracker hintTracker;
+    private final MasteryRecommender recommender;
+    private final StateLayer stateLayer;
+    private final long idleTimeoutMillis;
+    private final LongSupplier clock;
+    private final TimingWheel<SessionKey> wheel;
+    private final ConcurrentMap<SessionKey, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong evicted = new AtomicLong();
+    private final List<Consumer<SessionKey>> evictListeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService ticker;
+
+    @Autowired
+    public SessionManager(QuestionRegistry registry, SolutionStore solutionStore, ReportEngine reportEngine,
+                          HintTracker hintTracker, MasteryRecommender recommender, StateLayer stateLayer,
+                          @Value("${sessions.idle-timeout:30m}") Duration idleTimeout,
+                          @Value("${sessions.tick:1s}") Duration tick) {
+        this(registry, solutionStore, reportEngine, hintTracker, recommender, stateLayer, idleTimeout, tick,
+                System::currentTimeMillis);
+        ticker.scheduleWithFixedDelay(this::expireIdle, tick.toMillis(), tick.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    SessionManager(QuestionRegistry registry, SolutionStore solutionStore, ReportEngine reportEngine,
+                   HintTracker hintTracker, MasteryRecommender recommender, StateLayer stateLayer,
+                   Duration idleTimeout, Duration tick, LongSupplier clock) {
+        if (idleTimeout.isNegative() || idleTimeout.isZero()) {
+            throw new IllegalArgumentException("sessions.idle-timeout must be positive");
+        }
+        this.registry = registry;
+        this.solutionStore = solutionStore;
+        this.reportEngine = reportEngine;
+        this.hintTracker = hintTracker;
+        this.recommender = recommender;
+        this.stateLayer = stateLayer;
+        this.idleTimeoutMillis = idleTimeout.toMillis();
+        this.clock = clock;
+        this.wheel = new TimingWheel<>(tick.toMillis(), WHEEL_BUCKETS, clock.getAsLong());
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "session-expiry");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Creates a session for the user with the first {@code count} questions of the role.
+     */
+    public SessionModel create(String userId, RoleType role, int count) {
+        SessionKey key = SessionKey.of(userId, UUID.randomUUID().toString());
+        List<QuestionModel> all = registry.getQuestions(role);
+        List<String> ids = new ArrayList<>();
+        for (QuestionModel question : all.subList(0, Math.min(count, all.size()))) {
+            ids.add(question.getId());
+        }
+        long now = clock.getAsLong();
+        Session session = new Session(key, role, ids.toArray(String[]::new), now);
+        session.timer = wheel.schedule(key, now + idleTimeoutMillis);
+        sessions.put(key, session);
+        stateLayer.publish(new StateEvent.SessionCreated(key, role, List.copyOf(ids), now));
+        return toModel(session);
+    }
+
+    /**
+     * Returns the session, or null if it is not tracked (never seen, ended or expired).
+     */
+    public SessionModel get(SessionKey key) {
+        Session session = sessions.get(key);
+        if (session == null) {
+            return null;
+        }
+        return toModel(active(key));
+    }
+
+    /**
+     * Records when the session first opened one of its questions. Returns null if the session
+     * is not tracked or the question is not in its set.
+     */
+    public SessionModel start(SessionKey key, String questionId) {
+        Session session = sessions.get(key);
+        if (session == null) {
+            return null;
+        }
+        session = active(key);
+        int slot = session.slotOf(questionId);
+        if (slot < 0) {
+            return null;
+        }
+        long startedAt = 0;
+        synchronized (session) {
+            if (session.startedAt[slot] == 0) {
+                session.startedAt[slot] = session.lastAccess;
+                startedAt = session.lastAccess;
+            }
+        }
+        if (startedAt != 0) {
+            stateLayer.publish(new StateEvent.QuestionStarted(key, questionId, startedAt));
+        }
+        return toModel(session);
+    }
+
+    /**
+     * Records a submission and returns the milliseconds since the question was started, or -1
+     * if the server has no start time for it.
+     */
+    public long recordSubmit(SessionKey key, String questionId) {
+        Session session = active(key);
+        int slot = session.slotOf(questionId);
+        if (slot < 0) {
+            return -1;
+        }
+        synchronized (session) {
+            if (session.startedAt[slot] == 0) {
+                return -1;
+            }
+            session.submittedAt[slot] = session.lastAccess;
+            return session.lastAccess - session.startedAt[slot];
+        }
+    }
+
+    /**
+     * Marks the session as active, starting to track it if it is new.
+     */
+    public void touch(SessionKey key) {
+        active(key);
+    }
+
+    /**
+     * Ends the session now, dropping everything held for it. Returns false if it was not tracked.
+     */
+    public boolean end(SessionKey key) {
+        if (!remove(key)) {
+            return false;
+        }
+        stateLayer.publish(new StateEvent.SessionEnded(key));
+        return true;
+    }
+
+    /**
+     * Tracks a session created on another node of the cluster, unless it is already tracked.
+     */
+    public void applyCreated(SessionKey key, RoleType role, List<String> questionIds, long createdAt) {
+        sessions.computeIfAbsent(key, k -> {
+            long now = clock.getAsLong();
+            Session created = new Session(k, role, questionIds.toArray(String[]::new), createdAt);
+            // Idle from when this node heard of it, as the clocks of the nodes may differ
+            created.lastAccess = now;
+            created.timer = wheel.schedule(k, now + idleTimeoutMillis);
+            return created;
+        });
+    }
+
+    /**
+     * Records a question start made on another node of the cluster, keeping that node's time.
+     */
+    public void applyStarted(SessionKey key, String questionId, long startedAt) {
+        Session session = sessions.get(key);
+        if (session == null) {
+            return;
+        }
+        session = active(key);
+        int slot = session.slotOf(questionId);
+        if (slot < 0) {
+            return;
+        }
+        synchronized (session) {
+            if (session.startedAt[slot] == 0) {
+                session.startedAt[slot] = startedAt;
+            }
+        }
+    }
+
+    /**
+     * Ends a session that was ended on another node of the cluster.
+     */
+    public void applyEnded(SessionKey key) {
+        remove(key);
+    }
+
+    /**
+     * Registers a callback run after a session is ended or evicted, for state kept outside the
+     * services this manager clears itself.
+     */
+    public void onEvict(Consumer<SessionKey> listener) {
+        evictListeners.add(listener);
+    }
+
+    public int sessionCount() {
+        return sessions.size();
+    }
+
+    public long evictedCount() {
+        return evicted.get();
+    }
+
+    /**
+     * Advances the timing wheel and evicts sessions idle for the full timeout.
+     */
+    void expireIdle() {
+        try {
+            long now = clock.getAsLong();
+            for (SessionKey key : wheel.advance(now)) {
+                Session session = sessions.get(key);
+                if (session == null) {
+                    continue;
+                }
+                long idleUntil;
+                boolean expired;
+                synchronized (session) {
+                    idleUntil = session.lastAccess + idleTimeoutMillis;
+                    if (session.evicted) {
+                        continue;
+                    }
+                    expired = idleUntil <= now;
+                    if (expired) {
+                        session.evicted = true;
+                        sessions.remove(key, session);
+                    }
+                }
+                if (expired) {
+                    evictData(key);
+                } else {
+                    wheel.reschedule(session.timer, idleUntil);
+                }
+            }
+        } catch (RuntimeException e) {
+            // Keep the ticker alive; the next tick retries
+            log.error("Session expiry failed", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+    }
+
+    private Session active(SessionKey key) {
+        long now = clock.getAsLong();
+        while (true) {
+            Session session = sessions.computeIfAbsent(key, k -> {
+                Session created = new Session(k, null, new String[0], now);
+                created.timer = wheel.schedule(k, now + idleTimeoutMillis);
+                return created;
+            });
+            synchronized (session) {
+                // An evicted session is already out of the map; the next pass tracks a fresh one
+                if (!session.evicted) {
+                    session.lastAccess = Math.max(session.lastAccess, now);
+                    return session;
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops tracking the session and drops its data. Returns false if it was not tracked.
+     */
+    private boolean remove(SessionKey key) {
+        Session session = sessions.get(key);
+        if (session == null) {
+            return false;
+        }
+        synchronized (session) {
+            if (session.evicted) {
+                return false;
+            }
+            session.evicted = true;
+            sessions.remove(key, session);
+        }
+        wheel.cancel(session.timer);
+        evictData(key);
+        return true;
+    }
+
+    private void evictData(SessionKey key) {
+        solutionStore.evict(key);
+        reportEngine.evict(key);
+        hintTracker.evict(key);
+        recommender.evict(key);
+        for (Consumer<SessionKey> listener : evictListeners) {
+            listener.accept(key);
+        }
+        evicted.incrementAndGet();
+    }
+
+    private SessionModel toModel(Session session) {
+        SessionModel model = new SessionModel();
+        model.setUserId(session.key.userId());
+        model.setSessionId(session.key.sessionId());
+        model.setRole(session.role);
+        model.setCreatedAt(session.createdAt);
+        List<SessionQuestionModel> questions = new ArrayList<>(session.questionIds.length);
+        synchronized (session) {
+            model.setLastActiveAt(session.lastAccess);
+            for (int i = 0; i < session.questionIds.length; i++) {
+                QuestionModel question = registry.getQuestion(session.role, session.questionIds[i]);
+                SessionQuestionModel item = new SessionQuestionModel();
+                item.setId(session.questionIds[i]);
+                if (question != null) {
+                    item.setTitle(question.getTitle());
+                    item.setDifficulty(question.getDifficulty());
+                    item.setConcepts(question.getConcepts());
+                }
+                item.setStartedAt(session.startedAt[i] == 0 ? null : session.startedAt[i]);
+                item.setSubmittedAt(session.submittedAt[i] == 0 ? null : session.submittedAt[i]);
+                questions.add(item);
+            }
+        }
+        model.setQuestions(questions);
+        return model;
+    }
+
+    /**
+     * One tracked session. Sessions only named by a header have no role and no question set.
+     * Guarded by its own monitor.
+     */
+    private static final class Session {
+        private final SessionKey key;
+        private final RoleType role;
+        private final String[] questionIds;
+        private final long[] startedAt;
+        private final long[] submittedAt;
+        private final long createdAt;
+        private long lastAccess;
+        private boolean evicted;
+        private TimingWheel.Timer<SessionKey> timer;
+
+        private Session(SessionKey key, RoleType role, String[] questionIds, long now) {
+            this.key = key;
+            this.role = role;
+            this.questionIds = questionIds;
+            this.startedAt = new long[questionIds.length];
+            this.submittedAt = new long[questionIds.length];
+            this.createdAt = now;
+            this.lastAccess = now;
+        }
+
+        private int slotOf(String questionId) {
+            for (int i = 0; i < questionIds.length; i++) {
+                if (questionIds[i].equals(questionId)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
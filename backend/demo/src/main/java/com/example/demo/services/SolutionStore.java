@@ -0,0 +1,130 @@
+package com.example.demo.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.model.Attempt;
+import com.example.demo.model.SessionKey;
+
+/**
+ * Concurrent attempt store partitioned by user and session. Each session keeps its own
+ * bounded ring buffer guarded by its own lock, so submissions to different sessions never
+ * contend and a report only reads the caller's session.
+ */
+@Service
+public class SolutionStore {
+
+    private final ConcurrentMap<SessionKey, SessionAttempts> sessions = new ConcurrentHashMap<>();
+    private final int maxAttemptsPerSession;
+    private final AtomicLong attemptCount = new AtomicLong();
+
+    public SolutionStore(@Value("${attempts.session.max-attempts:200}") int maxAttemptsPerSession) {
+        if (maxAttemptsPerSession <= 0) {
+            throw new IllegalArgumentException("attempts.session.max-attempts must be positive");
+        }
+        this.maxAttemptsPerSession = maxAttemptsPerSession;
+    }
+
+    /**
+     * Appends an attempt to the session, dropping the oldest one once the session is full.
+     */
+    public void append(SessionKey key, Attempt attempt) {
+        // Appending inside compute orders it with evict, so an attempt never lands in a dropped ring
+        boolean[] grew = new boolean[1];
+        sessions.compute(key, (k, attempts) -> {
+            SessionAttempts target = attempts != null ? attempts : new SessionAttempts(maxAttemptsPerSession);
+            grew[0] = target.append(attempt);
+            return target;
+        });
+        if (grew[0]) {
+            attemptCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Returns a snapshot of the session's attempts, oldest first.
+     */
+    public List<Attempt> getAttempts(SessionKey key) {
+        SessionAttempts attempts = sessions.get(key);
+        return attempts == null ? List.of() : attempts.snapshot();
+    }
+
+    /**
+     * Drops the session and all of its attempts.
+     */
+    public void evict(SessionKey key) {
+        SessionAttempts removed = sessions.remove(key);
+        if (removed != null) {
+            attemptCount.addAndGet(-removed.size());
+        }
+    }
+
+    /**
+     * Hands a snapshot of each session whose key falls in {@code partition} (of {@code partitions},
+     * by key hash) to the consumer, one session at a time.
+     */
+    public void forEachSession(int partition, int partitions, BiConsumer<SessionKey, List<Attempt>> consumer) {
+        sessions.forEach((key, attempts) -> {
+            if (Math.floorMod(key.hashCode(), partitions) == partition) {
+                consumer.accept(key, attempts.snapshot());
+            }
+        });
+    }
+
+    public int sessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Attempts currently held across all sessions.
+     */
+    public long attemptCount() {
+        return attemptCount.get();
+    }
+
+    /**
+     * Fixed-capacity ring buffer of one session's attempts.
+     */
+    private static final class SessionAttempts {
+        private final Attempt[] ring;
+        private int next;
+        private int size;
+
+        SessionAttempts(int capacity) {
+            this.ring = new Attempt[capacity];
+        }
+
+        /**
+         * Returns true if the session grew, false if the oldest attempt was overwritten.
+         */
+        synchronized boolean append(Attempt attempt) {
+            ring[next] = attempt;
+            next = (next + 1) % ring.length;
+            if (size < ring.length) {
+                size++;
+                return true;
+            }
+            return false;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized List<Attempt> snapshot() {
+            List<Attempt> copy = new ArrayList<>(size);
+            int start = (next - size + ring.length) % ring.length;
+            for (int i = 0; i < size; i++) {
+                copy.add(ring[(start + i) % ring.length]);
+            }
+            return copy;
+        }
+    }
+}
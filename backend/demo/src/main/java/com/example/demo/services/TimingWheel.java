@@ -0,0 +1,131 @@
+package com.example.demo.services;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hashed timing wheel (Varghese and Lauck): a ring of buckets, each a doubly linked list of
+ * timers, so scheduling and cancelling are O(1) no matter how many timers are pending. Every
+ * {@link #advance} moves the cursor one bucket per elapsed tick and collects the timers that are
+ * due. A deadline further away than one turn of the wheel waits for its remaining rounds.
+ *
+ * <p>The wheel does not own a thread; its owner calls {@link #advance} periodically.
+ */
+final class TimingWheel<T> {
+
+    /**
+     * A pending timer; {@link #cancel} it or let it expire.
+     */
+    static final class Timer<T> {
+        final T value;
+        private long rounds;
+        private int bucket = -1;
+        private Timer<T> prev;
+        private Timer<T> next;
+
+        private Timer(T value) {
+            this.value = value;
+        }
+
+        boolean isPending() {
+            return bucket >= 0;
+        }
+    }
+
+    private final long tickMillis;
+    private final Timer<T>[] heads;
+    private final int mask;
+    private long tick;
+    private int pending;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickMillis, int buckets, long startMillis) {
+        if (tickMillis <= 0 || Integer.bitCount(buckets) != 1) {
+            throw new IllegalArgumentException("tick must be positive and buckets a power of two");
+        }
+        this.tickMillis = tickMillis;
+        this.heads = (Timer<T>[]) new Timer<?>[buckets];
+        for (int i = 0; i < buckets; i++) {
+            Timer<T> head = new Timer<>(null);
+            head.prev = head;
+            head.next = head;
+            heads[i] = head;
+        }
+        this.mask = buckets - 1;
+        this.tick = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedules {@code value} to expire at {@code deadlineMillis} (rounded up to the next tick).
+     */
+    synchronized Timer<T> schedule(T value, long deadlineMillis) {
+        Timer<T> timer = new Timer<>(value);
+        link(timer, deadlineMillis);
+        return timer;
+    }
+
+    /**
+     * Moves a pending or expired timer to a new deadline.
+     */
+    synchronized void reschedule(Timer<T> timer, long deadlineMillis) {
+        if (timer.isPending()) {
+            unlink(timer);
+        }
+        link(timer, deadlineMillis);
+    }
+
+    synchronized void cancel(Timer<T> timer) {
+        if (timer.isPending()) {
+            unlink(timer);
+        }
+    }
+
+    /**
+     * Advances the wheel to {@code nowMillis} and returns the values whose deadline has passed.
+     */
+    synchronized List<T> advance(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        long target = nowMillis / tickMillis;
+        while (tick < target) {
+            tick++;
+            Timer<T> head = heads[(int) tick & mask];
+            for (Timer<T> timer = head.next; timer != head; ) {
+                Timer<T> next = timer.next;
+                if (timer.rounds == 0) {
+                    unlink(timer);
+                    expired.add(timer.value);
+                } else {
+                    timer.rounds--;
+                }
+                timer = next;
+            }
+        }
+        return expired;
+    }
+
+    synchronized int size() {
+        return pending;
+    }
+
+    private void link(Timer<T> timer, long deadlineMillis) {
+        long deadlineTick = Math.max(tick + 1, Math.ceilDiv(deadlineMillis, tickMillis));
+        long ticks = deadlineTick - tick;
+        timer.rounds = (ticks - 1) / heads.length;
+        timer.bucket = (int) deadlineTick & mask;
+        Timer<T> head = heads[timer.bucket];
+        timer.prev = head.prev;
+        timer.next = head;
+        head.prev.next = timer;
+        head.prev = timer;
+        pending++;
+    }
+
+    private void unlink(Timer<T> timer) {
+        timer.prev.next = timer.next;
+        timer.next.prev = timer.prev;
+        timer.prev = null;
+        timer.next = null;
+        timer.bucket = -1;
+        pending--;
+    }
+}
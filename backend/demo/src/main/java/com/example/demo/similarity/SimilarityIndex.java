@@ -0,0 +1,213 @@
+package com.example.demo.similarity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.enums.RoleType;
+import com.example.demo.model.Attempt;
+import com.example.demo.model.SessionKey;
+import com.example.demo.model.SimilarSubmissionModel;
+
+/**
+ * Incremental near-duplicate index over submitted sources. Each submission is reduced to a
+ * MinHash signature ({@link SourceFingerprint}) and filed under one LSH bucket per band of the
+ * signature, keyed by role and question, so a lookup only compares against submissions that
+ * share at least one band: with 16 bands of 4 rows, pairs above ~0.6 similarity almost always
+ * collide and pairs below ~0.3 rarely do.
+ *
+ * <p>Memory is bounded: the newest {@code maxEntries} submissions are kept in a ring, an entry's
+ * buckets are cleaned up when it is overwritten, and each bucket keeps at most
+ * {@code bucketSize} of its newest submissions so trivially common solutions stay cheap to query.
+ */
+@Component
+public class SimilarityIndex {
+
+    static final int SIGNATURE_SIZE = 64;
+    static final int BANDS = 16;
+    static final int ROWS = SIGNATURE_SIZE / BANDS;
+
+    private final Entry[] ring;
+    private final int bucketSize;
+    private final LongSupplier clock;
+    private final Map<Long, long[]> buckets = new HashMap<>();
+    // Latest submission of each (session, role, question)
+    private final Map<Submitter, Long> latest = new HashMap<>();
+    private long nextSeq;
+
+    @Autowired
+    public SimilarityIndex(@Value("${similarity.max-entries:100000}") int maxEntries,
+                           @Value("${similarity.bucket-size:64}") int bucketSize) {
+        this(maxEntries, bucketSize, System::currentTimeMillis);
+    }
+
+    SimilarityIndex(int maxEntries, int bucketSize, LongSupplier clock) {
+        if (maxEntries <= 0 || bucketSize <= 0) {
+            throw new IllegalArgumentException("similarity.max-entries and similarity.bucket-size must be positive");
+        }
+        this.ring = new Entry[maxEntries];
+        this.bucketSize = bucketSize;
+        this.clock = clock;
+    }
+
+    /**
+     * Indexes the attempt's source. Attempts without source are skipped.
+     */
+    public void add(SessionKey key, Attempt attempt) {
+        if (attempt.id() == null || attempt.solution() == null || attempt.solution().isBlank()) {
+            return;
+        }
+        int[] fingerprints = SourceFingerprint.winnow(SourceFingerprint.tokens(attempt.solution()));
+        if (fingerprints.length == 0) {
+            return;
+        }
+        int[] signature = SourceFingerprint.minHash(fingerprints, SIGNATURE_SIZE);
+        Submitter submitter = new Submitter(key, attempt.roleOrDefault(), attempt.id());
+        long now = clock.getAsLong();
+
+        synchronized (this) {
+            long seq = nextSeq++;
+            int slot = (int) (seq % ring.length);
+            if (ring[slot] != null) {
+                remove(ring[slot]);
+            }
+            Entry entry = new Entry(seq, submitter, now, signature);
+            ring[slot] = entry;
+            latest.put(submitter, seq);
+            for (int band = 0; band < BANDS; band++) {
+                long bucket = bucketKey(submitter.role(), submitter.questionId(), signature, band);
+                long[] postings = buckets.get(bucket);
+                if (postings == null) {
+                    buckets.put(bucket, new long[] {seq});
+                } else if (postings.length < bucketSize) {
+                    long[] grown = Arrays.copyOf(postings, postings.length + 1);
+                    grown[postings.length] = seq;
+                    buckets.put(bucket, grown);
+                } else {
+                    // Full: drop the oldest posting
+                    System.arraycopy(postings, 1, postings, 0, postings.length - 1);
+                    postings[postings.length - 1] = seq;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns submissions of other users (other sessions, for anonymous ones) to the same
+     * question that are at least {@code threshold} similar to the session's latest submission,
+     * most similar first (one per session), or null if the session has no indexed submission for
+     * the question.
+     */
+    public List<SimilarSubmissionModel> similarTo(SessionKey key, RoleType role, String questionId,
+                                                  double threshold, int limit) {
+        List<Match> matches = new ArrayList<>();
+        synchronized (this) {
+            Long seq = latest.get(new Submitter(key, role, questionId));
+            Entry probe = seq == null ? null : entryAt(seq);
+            if (probe == null) {
+                return null;
+            }
+            Set<Long> seen = new HashSet<>();
+            for (int band = 0; band < BANDS; band++) {
+                long[] postings = buckets.get(bucketKey(role, questionId, probe.signature, band));
+                if (postings == null) {
+                    continue;
+                }
+                for (long candidateSeq : postings) {
+                    Entry candidate = entryAt(candidateSeq);
+                    if (candidate == null || !seen.add(candidateSeq)
+                            || sameSubmitter(candidate.submitter.key(), key)
+                            || !candidate.submitter.questionId().equals(questionId)
+                            || candidate.submitter.role() != role) {
+                        continue;
+                    }
+                    double similarity = SourceFingerprint.similarity(probe.signature, candidate.signature);
+                    if (similarity >= threshold) {
+                        matches.add(new Match(candidate, similarity));
+                    }
+                }
+            }
+        }
+
+        Map<SessionKey, SimilarSubmissionModel> bestBySession = new LinkedHashMap<>();
+        matches.sort(Comparator.comparingDouble(Match::similarity).reversed());
+        for (Match match : matches) {
+            bestBySession.computeIfAbsent(match.entry.submitter.key(), k -> toModel(match));
+        }
+        return bestBySession.values().stream().limit(limit).toList();
+    }
+
+    /**
+     * A user's own submissions are not copies. Anonymous submitters share one user id, so they
+     * are told apart by session.
+     */
+    private static boolean sameSubmitter(SessionKey a, SessionKey b) {
+        return SessionKey.DEFAULT_USER.equals(b.userId()) ? a.equals(b) : a.userId().equals(b.userId());
+    }
+
+    public synchronized int size() {
+        return (int) Math.min(nextSeq, ring.length);
+    }
+
+    private Entry entryAt(long seq) {
+        Entry entry = ring[(int) (seq % ring.length)];
+        return entry != null && entry.seq == seq ? entry : null;
+    }
+
+    private void remove(Entry entry) {
+        latest.remove(entry.submitter, entry.seq);
+        for (int band = 0; band < BANDS; band++) {
+            long bucket = bucketKey(entry.submitter.role(), entry.submitter.questionId(), entry.signature, band);
+            long[] postings = buckets.get(bucket);
+            if (postings == null) {
+                continue;
+            }
+            long[] kept = Arrays.stream(postings).filter(s -> s != entry.seq).toArray();
+            if (kept.length == 0) {
+                buckets.remove(bucket);
+            } else if (kept.length != postings.length) {
+                buckets.put(bucket, kept);
+            }
+        }
+    }
+
+    private static long bucketKey(RoleType role, String questionId, int[] signature, int band) {
+        long h = 31L * (31L * role.ordinal() + questionId.hashCode()) + band;
+        for (int r = band * ROWS; r < (band + 1) * ROWS; r++) {
+            h = h * 0x9E3779B97F4A7C15L + signature[r];
+        }
+        return h;
+    }
+
+    private static SimilarSubmissionModel toModel(Match match) {
+        Submitter submitter = match.entry.submitter;
+        SimilarSubmissionModel model = new SimilarSubmissionModel();
+        model.setUserId(submitter.key().userId());
+        model.setSessionId(submitter.key().sessionId());
+        model.setRole(submitter.role());
+        model.setId(submitter.questionId());
+        model.setSimilarity(Math.round(match.similarity * 100) / 100.0);
+        model.setSubmittedAt(match.entry.submittedAt);
+        return model;
+    }
+
+    private record Submitter(SessionKey key, RoleType role, String questionId) {
+    }
+
+    private record Entry(long seq, Submitter submitter, long submittedAt, int[] signature) {
+    }
+
+    private record Match(Entry entry, double similarity) {
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.demo.similarity;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Fingerprinting of Python submissions for near-duplicate detection.
+ *
+ * <ol>
+ * <li>{@link #tokens}: a token stream that ignores layout, comments, identifier names and
+ * literal values, so renaming variables or reformatting does not hide a copy;</li>
+ * <li>{@link #winnow}: hashes of every k-gram of tokens, thinned by winnowing (the minimum hash
+ * of each window of w consecutive k-grams), which guarantees that any shared run of at least
+ * {@code w + k - 1} tokens contributes a shared fingerprint;</li>
+ * <li>{@link #minHash}: a fixed-size MinHash signature of the fingerprint set, whose
+ * per-position agreement estimates the Jaccard similarity of two sets.</li>
+ * </ol>
+ */
+public final class SourceFingerprint {
+
+    static final int K = 5;
+    static final int WINDOW = 4;
+
+    private static final int IDENTIFIER = 1;
+    private static final int NUMBER = 2;
+    private static final int STRING = 3;
+
+    // Kept verbatim: they carry the structure of the solution, unlike the user's own names
+    private static final Set<String> KEYWORDS = Set.of(
+            "False", "None", "True", "and", "as", "assert", "break", "class", "continue", "def", "del", "elif",
+            "else", "except", "finally", "for", "from", "global", "if", "import", "in", "is", "lambda",
+            "nonlocal", "not", "or", "pass", "raise", "return", "try", "while", "with", "yield",
+            "range", "len", "enumerate", "zip", "min", "max", "sum", "sorted", "reversed", "list", "dict", "set",
+            "tuple", "append", "pop", "get", "heapq", "collections", "deque", "defaultdict", "Counter");
+
+    private SourceFingerprint() {
+    }
+
+    /**
+     * Tokenizes Python source into token codes: keywords and common builtins by name, every other
+     * identifier, number and string as one code each, and operators by character.
+     */
+    public static int[] tokens(String source) {
+        int[] tokens = new int[Math.max(16, source.length() / 3)];
+        int count = 0;
+        int i = 0;
+        int n = source.length();
+        while (i < n) {
+            char c = source.charAt(i);
+            int token;
+            if (Character.isWhitespace(c) || c == '\\') {
+                i++;
+                continue;
+            } else if (c == '#') {
+                while (i < n && source.charAt(i) != '\n') {
+                    i++;
+                }
+                continue;
+            } else if (c == '"' || c == '\'') {
+                i = skipString(source, i);
+                token = STRING;
+            } else if (Character.isDigit(c)) {
+                while (i < n && (Character.isLetterOrDigit(source.charAt(i)) || source.charAt(i) == '.'
+                        || source.charAt(i) == '_')) {
+                    i++;
+                }
+                token = NUMBER;
+            } else if (Character.isLetter(c) || c == '_') {
+                int start = i;
+                while (i < n && (Character.isLetterOrDigit(source.charAt(i)) || source.charAt(i) == '_')) {
+                    i++;
+                }
+                String word = source.substring(start, i);
+                // String prefixes such as f"..." or rb'...'
+                if (i < n && (source.charAt(i) == '"' || source.charAt(i) == '\'') && word.length() <= 2) {
+                    i = skipString(source, i);
+                    token = STRING;
+                } else {
+                    token = KEYWORDS.contains(word) ? word.hashCode() : IDENTIFIER;
+                }
+            } else {
+                i++;
+                token = c;
+            }
+            if (count == tokens.length) {
+                tokens = Arrays.copyOf(tokens, count * 2);
+            }
+            tokens[count++] = token;
+        }
+        return Arrays.copyOf(tokens, count);
+    }
+
+    /**
+     * Returns the sorted, distinct winnowed hashes of the token k-grams. Sources shorter than
+     * one k-gram hash as a whole.
+     */
+    public static int[] winnow(int[] tokens) {
+        if (tokens.length == 0) {
+            return new int[0];
+        }
+        int grams = Math.max(1, tokens.length - K + 1);
+        int[] hashes = new int[grams];
+        for (int g = 0; g < grams; g++) {
+            int h = 0;
+            for (int t = g; t < Math.min(tokens.length, g + K); t++) {
+                h = 31 * h + tokens[t];
+            }
+            hashes[g] = mix(h);
+        }
+        if (grams <= WINDOW) {
+            return distinctSorted(new int[] {min(hashes, 0, grams)});
+        }
+
+        int[] selected = new int[grams];
+        int count = 0;
+        int lastPosition = -1;
+        for (int start = 0; start + WINDOW <= grams; start++) {
+            // Rightmost minimum, so a window that keeps its minimum does not select it again
+            int position = start;
+            for (int p = start + 1; p < start + WINDOW; p++) {
+                if (hashes[p] <= hashes[position]) {
+                    position = p;
+                }
+            }
+            if (position != lastPosition) {
+                selected[count++] = hashes[position];
+                lastPosition = position;
+            }
+        }
+        return distinctSorted(Arrays.copyOf(selected, count));
+    }
+
+    /**
+     * MinHash signature of a fingerprint set under {@code size} seeded hash functions.
+     */
+    public static int[] minHash(int[] fingerprints, int size) {
+        int[] signature = new int[size];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (int f : fingerprints) {
+            for (int i = 0; i < size; i++) {
+                int h = mix(f * (2 * i + 1) + 0x9E3779B9 * (i + 1));
+                if (h < signature[i]) {
+                    signature[i] = h;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Fraction of positions on which two signatures agree, an estimate of Jaccard similarity.
+     */
+    public static double similarity(int[] a, int[] b) {
+        int same = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                same++;
+            }
+        }
+        return (double) same / a.length;
+    }
+
+    private static int skipString(String source, int i) {
+        char quote = source.charAt(i);
+        boolean triple = source.startsWith(String.valueOf(quote).repeat(3), i);
+        i += triple ? 3 : 1;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if (c == '\\') {
+                i += 2;
+            } else if (c == quote && (!triple || source.startsWith(String.valueOf(quote).repeat(3), i))) {
+                return i + (triple ? 3 : 1);
+            } else if (c == '\n' && !triple) {
+                return i;
+            } else {
+                i++;
+            }
+        }
+        return i;
+    }
+
+    private static int min(int[] values, int from, int to) {
+        int min = values[from];
+        for (int i = from + 1; i < to; i++) {
+            min = Math.min(min, values[i]);
+        }
+        return min;
+    }
+
+    private static int[] distinctSorted(int[] values) {
+        return Arrays.stream(values).sorted().distinct().toArray();
+    }
+
+    /**
+     * MurmurHash3 finalizer.
+     */
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
@@ -0,0 +1,414 @@
+"""Warm Python worker for the backend execution service.
+
+Reads one JSON job per line on stdin and answers with one JSON line on stdout. A job carries
+the source and a batch of test-case inputs; the answer holds one result per case that was run,
+with the solution's return value as JSON. Expected answers never reach the runner: the backend
+compares them, so nothing a solution can find in memory tells it the answer.
+A profiling job carries a "generator" instead, and each of its cases is an input size to time.
+A job with "progress" set also gets a {"progress": result} line as each case finishes, before
+the answer.
+
+Every job runs in a forked harness, which forks the solution into its own process with CPU,
+memory, process, file-size and open-file limits. The harness hands the solution one case at a
+time over a private pipe, enforces the time limit and writes every result line itself, so user
+code cannot reach the result channel or report more, fewer or reordered results. On startup the
+worker moves into an empty network namespace when the kernel allows it, and says whether it
+did in a {"ready": true, "networkIsolated": ...} line before reading any job.
+"""
+import gc
+import json
+import os
+import random
+import resource
+import select
+import signal
+import sys
+import time
+import traceback
+
+# Pre-import the modules solutions commonly use so forked children start warm
+import bisect  # noqa: F401
+import collections  # noqa: F401
+import functools  # noqa: F401
+import heapq  # noqa: F401
+import itertools  # noqa: F401
+import math  # noqa: F401
+import re  # noqa: F401
+import typing  # noqa: F401
+
+MAX_OUTPUT_CHARS = 2000
+# A solution's answer line; anything longer cannot be a test-case answer
+MAX_ANSWER_BYTES = 4 * 1024 * 1024
+
+CLONE_NEWUSER = 0x10000000
+CLONE_NEWNET = 0x40000000
+
+# What the solution process may report for a case; the harness rebuilds every line from these
+ANSWER_STATUSES = {"OK", "WRONG_ANSWER", "RUNTIME_ERROR", "MEMORY_LIMIT_EXCEEDED"}
+ANSWER_FIELDS = {"status": str, "actual": str, "error": str, "timeNs": int}
+
+
+def main():
+    send(sys.stdout, {"ready": True, "networkIsolated": isolate_network()})
+    for line in sys.stdin:
+        if not line.strip():
+            continue
+        job = json.loads(line)
+        send(sys.stdout, run_isolated(job))
+
+
+def send(stream, message):
+    stream.write(json.dumps(message) + "\n")
+    stream.flush()
+
+
+def isolate_network():
+    """Moves the worker, and every process later forked from it, into an empty network namespace.
+
+    Root can unshare the namespace directly; anyone else also needs a user namespace, which some
+    kernels do not allow. Returns whether the worker is isolated.
+    """
+    try:
+        import ctypes
+        libc = ctypes.CDLL(None, use_errno=True)
+    except (ImportError, OSError):
+        return False
+    return any(libc.unshare(flags) == 0 for flags in (CLONE_NEWNET, CLONE_NEWUSER | CLONE_NEWNET))
+
+
+def run_isolated(job):
+    """Runs the job in a forked harness and returns {"results": [...]} in case order.
+
+    The harness enforces every limit itself; the deadline here only guards against the harness
+    going wrong, in which case the current case is reported as out of time.
+    """
+    read_fd, write_fd = os.pipe()
+    pid = os.fork()
+    if pid == 0:
+        try:
+            os.close(read_fd)
+            harness(job, write_fd)
+        finally:
+            os._exit(0)
+
+    os.close(write_fd)
+    cases = job["cases"]
+    deadline = time.monotonic() + (job["timeLimitMs"] / 1000.0 + 1) * (len(cases) + 1)
+    lines = LineReader(read_fd)
+    results = []
+    while True:
+        line = lines.read(deadline)
+        if line is None:
+            break
+        results.append(json.loads(line))
+        report_progress(job, results[-1])
+    os.close(read_fd)
+    if lines.timed_out:
+        os.kill(pid, signal.SIGKILL)
+    os.waitpid(pid, 0)
+    if lines.timed_out and len(results) < len(cases):
+        results.append({"status": "TIME_LIMIT_EXCEEDED", "timeMs": job["timeLimitMs"]})
+        report_progress(job, results[-1])
+    return {"results": results}
+
+
+def report_progress(job, result):
+    if job.get("progress"):
+        send(sys.stdout, {"progress": result})
+
+
+def harness(job, out_fd):
+    """Runs the job's cases in a solution process and writes one result line per case run.
+
+    If the solution hangs, dies or answers with anything but one well-formed line, it is
+    killed, the current case gets its verdict and, unless the job stops on failure, a new
+    solution process picks up from the next case. A compile error applies to every case, so it
+    is reported once. Cases after an early stop are left out.
+    """
+    cases = job["cases"]
+    stop_on_failure = job.get("stopOnFailure", False)
+    time_limit = job["timeLimitMs"] / 1000.0
+    index = 0
+    while index < len(cases):
+        solution = SolutionProcess(job, index)
+        # Loading the source gets the first case's time limit of its own
+        result = solution.receive(time_limit)
+        if result["status"] != "READY":
+            # The source itself failed to load, so the case it was loaded for takes the verdict
+            write_line(out_fd, result)
+            index += 1
+            solution.kill(result)
+        while solution.alive and index < len(cases):
+            solution.request(index)
+            result = solution.receive(time_limit)
+            write_line(out_fd, result)
+            index += 1
+            if stop_on_failure and result["status"] != "OK":
+                break
+        solution.close()
+        if result["status"] == "COMPILE_ERROR" or (stop_on_failure and result["status"] != "OK"):
+            return
+
+
+class SolutionProcess:
+    """The forked process running user code, driven one case at a time by the harness."""
+
+    def __init__(self, job, first_case):
+        request_read, self.requests = os.pipe()
+        self.answers, answer_write = os.pipe()
+        self.pid = os.fork()
+        if self.pid == 0:
+            try:
+                os.close(self.requests)
+                os.close(self.answers)
+                # Drops the harness's result pipe and the worker's stdin/stdout with everything else
+                keep_only_fds(request_read, answer_write)
+                limit(job, len(job["cases"]) - first_case)
+                serve(job, request_read, answer_write)
+            finally:
+                os._exit(0)
+        os.close(request_read)
+        os.close(answer_write)
+        self.lines = LineReader(self.answers, MAX_ANSWER_BYTES)
+        self.alive = True
+        self.requested = False
+        self.sent_at = time.monotonic()
+
+    def request(self, index):
+        self.sent_at = time.monotonic()
+        self.requested = True
+        try:
+            write_line(self.requests, index)
+        except BrokenPipeError:
+            pass  # The process is gone; receive() reports how it ended
+
+    def receive(self, time_limit):
+        """Returns the solution's checked answer to the last request, or the reason there is none."""
+        try:
+            line = self.lines.read(self.sent_at + time_limit)
+        except ValueError as e:
+            return self.kill({"status": "RUNTIME_ERROR", "error": str(e)})
+        elapsed_ms = int((time.monotonic() - self.sent_at) * 1000)
+        if self.lines.timed_out:
+            return self.kill({"status": "TIME_LIMIT_EXCEEDED", "timeMs": elapsed_ms})
+        if line is None:
+            status = self.kill(None)
+            if os.WIFSIGNALED(status) and os.WTERMSIG(status) in (signal.SIGXCPU, signal.SIGKILL):
+                return {"status": "TIME_LIMIT_EXCEEDED", "timeMs": elapsed_ms}
+            return {"status": "RUNTIME_ERROR", "error": "Process exited with status %d" % status,
+                    "timeMs": elapsed_ms}
+        answer = checked(line, self.requested)
+        if answer is None or self.lines.pending():
+            return self.kill({"status": "RUNTIME_ERROR", "error": "Solution wrote an invalid result",
+                              "timeMs": elapsed_ms})
+        if "timeNs" not in answer:
+            answer["timeMs"] = elapsed_ms
+        return answer
+
+    def kill(self, result):
+        """Stops the process and returns result, or the exit status when result is None."""
+        if self.alive:
+            try:
+                os.kill(self.pid, signal.SIGKILL)
+            except ProcessLookupError:
+                pass
+            _, self.status = os.waitpid(self.pid, 0)
+            self.alive = False
+        return self.status if result is None else result
+
+    def close(self):
+        self.kill({})
+        os.close(self.requests)
+        os.close(self.answers)
+
+
+def checked(line, requested):
+    """Rebuilds an answer line from the fields a solution process may report, or returns None."""
+    try:
+        answer = json.loads(line)
+    except ValueError:
+        return None
+    if not isinstance(answer, dict):
+        return None
+    allowed = ANSWER_STATUSES if requested else {"READY", "COMPILE_ERROR", "RUNTIME_ERROR", "MEMORY_LIMIT_EXCEEDED"}
+    if answer.get("status") not in allowed:
+        return None
+    result = {}
+    for key, value in answer.items():
+        if key not in ANSWER_FIELDS or type(value) is not ANSWER_FIELDS[key]:
+            return None
+        result[key] = value
+    if "timeNs" in result:
+        result["timeMs"] = result["timeNs"] // 1000000
+    return result
+
+
+class LineReader:
+    """Reads newline-terminated lines from a pipe with a deadline."""
+
+    def __init__(self, fd, max_bytes=None):
+        self.fd = fd
+        self.max_bytes = max_bytes
+        self.buffer = b""
+        self.timed_out = False
+
+    def read(self, deadline):
+        """Returns the next line, or None at end of file or once the deadline passes."""
+        while b"\n" not in self.buffer:
+            if self.max_bytes is not None and len(self.buffer) > self.max_bytes:
+                raise ValueError("Answer is larger than %d MB" % (self.max_bytes // (1024 * 1024)))
+            remaining = deadline - time.monotonic()
+            if remaining <= 0:
+                self.timed_out = True
+                return None
+            ready, _, _ = select.select([self.fd], [], [], remaining)
+            if not ready:
+                continue
+            chunk = os.read(self.fd, 65536)
+            if not chunk:
+                return None
+            self.buffer += chunk
+        line, self.buffer = self.buffer.split(b"\n", 1)
+        return line
+
+    def pending(self):
+        return bool(self.buffer)
+
+
+def write_line(fd, message):
+    data = (json.dumps(message) + "\n").encode()
+    while data:
+        written = os.write(fd, data)
+        data = data[written:]
+
+
+def keep_only_fds(*keep):
+    low = 3
+    for fd in sorted(keep):
+        os.closerange(low, fd)
+        low = fd + 1
+    os.closerange(low, resource.getrlimit(resource.RLIMIT_NOFILE)[0])
+
+
+def limit(job, case_count):
+    memory = job["memoryLimitMb"] * 1024 * 1024
+    cpu = max(1, -(-job["timeLimitMs"] * (case_count + 1) // 1000))
+    resource.setrlimit(resource.RLIMIT_AS, (memory, memory))
+    resource.setrlimit(resource.RLIMIT_CPU, (cpu, cpu + 1))
+    resource.setrlimit(resource.RLIMIT_FSIZE, (0, 0))
+    resource.setrlimit(resource.RLIMIT_NOFILE, (32, 32))
+    # No forking: the solution can neither escape the harness's kill nor start other programs
+    resource.setrlimit(resource.RLIMIT_NPROC, (0, 0))
+    # User output must not corrupt the protocol
+    devnull = os.open(os.devnull, os.O_RDWR)
+    os.dup2(devnull, 0)
+    os.dup2(devnull, 1)
+    os.dup2(devnull, 2)
+    os.close(devnull)
+
+
+def serve(job, request_fd, answer_fd):
+    """Loads the source, says READY, then answers each case index the harness sends."""
+    try:
+        fn, generate = load(job)
+        write_line(answer_fd, {"status": "READY"})
+        for line in os.fdopen(request_fd, "rb"):
+            case = job["cases"][int(line)]
+            if generate is not None:
+                write_line(answer_fd, time_size(fn, generate, case["size"], job.get("repeats", 1)))
+            else:
+                write_line(answer_fd, evaluate_case(fn, case))
+    except CompileError as e:
+        write_line(answer_fd, {"status": "COMPILE_ERROR", "error": str(e)})
+    except MemoryError:
+        write_line(answer_fd, {"status": "MEMORY_LIMIT_EXCEEDED"})
+    except BaseException:  # noqa: B902 - anything user code raises is a runtime error
+        write_line(answer_fd, {"status": "RUNTIME_ERROR", "error": truncate(traceback.format_exc(limit=-3))})
+
+
+class CompileError(Exception):
+    pass
+
+
+def load(job):
+    """Returns the solution's entry point and, for a profiling job, the input generator."""
+    namespace = {"__name__": "__solution__"}
+    try:
+        code = compile(job["source"], "<solution>", "exec")
+    except SyntaxError:
+        raise CompileError(truncate(traceback.format_exc(limit=0)))
+    exec(code, namespace)
+    fn = entry_point(namespace)
+    if fn is None:
+        raise CompileError("Define a function named solution or a Solution class")
+    return fn, load_generator(job["generator"]) if "generator" in job else None
+
+
+def evaluate_case(fn, case):
+    """Calls the solution on one case and returns its answer as JSON, unchecked."""
+    args = json.loads(case["input"])
+    try:
+        actual = fn(*args)
+    except MemoryError:
+        return {"status": "MEMORY_LIMIT_EXCEEDED"}
+    except BaseException:  # noqa: B902 - a failing case, even sys.exit(), must not stop the others
+        return {"status": "RUNTIME_ERROR", "error": truncate(traceback.format_exc(limit=-3))}
+    try:
+        return {"status": "OK", "actual": json.dumps(actual, allow_nan=False)}
+    except (TypeError, ValueError):
+        return {"status": "WRONG_ANSWER", "actual": truncate(repr(actual))}
+
+
+def load_generator(source):
+    """Returns generate(n, rng) from the question's generator, which builds the arguments."""
+    namespace = {"__name__": "__generator__"}
+    exec(compile(source, "<generator>", "exec"), namespace)
+    return namespace["generate"]
+
+
+def time_size(fn, generate, size, repeats):
+    """Best-of-repeats time of one call on a generated input of the given size.
+
+    Every repeat gets a fresh copy of the same input, since solutions may modify their
+    arguments. Generating it is not timed, and the collector stays off while the call runs.
+    The answer is not checked; the solution already passed the test cases. The timing is the
+    solution process's own, so it is only as honest as the solution.
+    """
+    best = None
+    for _ in range(repeats):
+        args = generate(size, random.Random(size))
+        gc.collect()
+        gc.disable()
+        start = time.perf_counter_ns()
+        try:
+            fn(*args)
+        except MemoryError:
+            return {"status": "MEMORY_LIMIT_EXCEEDED"}
+        except Exception:  # noqa: B902 - e.g. recursion too deep for a large input
+            return {"status": "RUNTIME_ERROR", "error": truncate(traceback.format_exc(limit=-3))}
+        finally:
+            gc.enable()
+        elapsed = time.perf_counter_ns() - start
+        best = elapsed if best is None else min(best, elapsed)
+    return {"status": "OK", "timeNs": best}
+
+
+def entry_point(namespace):
+    fn = namespace.get("solution")
+    if callable(fn):
+        return fn
+    # LeetCode style: class Solution with a single public method
+    cls = namespace.get("Solution")
+    if isinstance(cls, type):
+        methods = [name for name, value in vars(cls).items() if callable(value) and not name.startswith("_")]
+        if methods:
+            return getattr(cls(), methods[0])
+    return None
+
+
+def truncate(text):
+    return text if len(text) <= MAX_OUTPUT_CHARS else text[:MAX_OUTPUT_CHARS] + "..."
+
+
+if __name__ == "__main__":
+    main()
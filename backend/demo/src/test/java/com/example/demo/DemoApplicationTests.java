@@ -3,7 +3,10 @@ package com.example.demo;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = {
+        "attempts.log.dir=target/test-data/attempts",
+        "questions.pack.compiled-dir=target/test-data/questions"
+})
 class DemoApplicationTests {
 
     @Test
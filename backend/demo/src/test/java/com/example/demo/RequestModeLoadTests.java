@@ -0,0 +1,150 @@
+package com.example.demo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.demo.execution.ExecutionService;
+
+/**
+ * Compares the request models under a submission burst: every submission is graded by the
+ * Python workers, so it blocks its request thread while it waits for one, and reads are issued
+ * alongside to see whether they get stuck behind the burst.
+ *
+ * <p>Excluded from the default build; run with {@code mvn test -Pload}.
+ */
+@Tag("load")
+class RequestModeLoadTests {
+
+    private static final int SUBMISSIONS = 400;
+    private static final int READS = 400;
+    private static final String COIN_CHANGE = """
+            def solution(coins, amount):
+                best = [0] + [amount + 1] * amount
+                for a in range(1, amount + 1):
+                    for c in coins:
+                        if c <= a:
+                            best[a] = min(best[a], best[a - c] + 1)
+                return best[amount] if best[amount] <= amount else -1
+            """;
+
+    private final AtomicInteger nonce = new AtomicInteger();
+
+    @Test
+    void compareRequestModes() throws Exception {
+        List<String> rows = new ArrayList<>();
+        rows.add(run("platform, sync", false, "/questions/6"));
+        rows.add(run("platform, async", false, "/questions/6/async"));
+        rows.add(run("virtual, sync", true, "/questions/6"));
+        rows.add(run("virtual, async", true, "/questions/6/async"));
+
+        System.out.printf("%n%-18s %12s %12s %12s %12s %12s%n",
+                "mode", "submit rps", "submit p50", "submit p99", "read p50", "read p99");
+        rows.forEach(System.out::println);
+    }
+
+    private String run(String label, boolean virtual, String submitPath) throws Exception {
+        // Passed as arguments so they override application.properties
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class).run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtual,
+                "--server.tomcat.threads.max=200",
+                "--requests.async.pool-size=200",
+                "--attempts.log.enabled=false",
+                "--admission.enabled=false",
+                "--execution.complexity.enabled=false",
+                "--execution.workers=4",
+                "--execution.queue-capacity=10000",
+                "--logging.level.root=WARN");
+        try (context; HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+             ExecutorService load = Executors.newVirtualThreadPerTaskExecutor()) {
+            assumeTrue(context.getBean(ExecutionService.class).isAvailable(), "python3 is not installed");
+            String base = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            // Warm up the JIT and the connection path before measuring
+            for (int i = 0; i < 50; i++) {
+                send(client, submit(base + submitPath));
+                send(client, read(base));
+            }
+
+            long start = System.nanoTime();
+            List<Future<Long>> submits = new ArrayList<>();
+            List<Future<Long>> reads = new ArrayList<>();
+            for (int i = 0; i < SUBMISSIONS; i++) {
+                submits.add(load.submit(() -> send(client, submit(base + submitPath))));
+            }
+            for (int i = 0; i < READS; i++) {
+                reads.add(load.submit(() -> send(client, read(base))));
+            }
+            long[] submitNanos = collect(submits);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            long[] readNanos = collect(reads);
+
+            return String.format("%-18s %12.1f %10.1fms %10.1fms %10.1fms %10.1fms", label,
+                    SUBMISSIONS / seconds,
+                    percentile(submitNanos, 0.50), percentile(submitNanos, 0.99),
+                    percentile(readNanos, 0.50), percentile(readNanos, 0.99));
+        }
+    }
+
+    private HttpRequest submit(String url) {
+        // A unique comment per attempt keeps the verdict cache out of the measurement
+        String source = COIN_CHANGE + "# attempt " + nonce.incrementAndGet() + "\n";
+        String body = "{\"id\":\"6\",\"time\":\"60\",\"solution\":" + quote(source) + "}";
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .header("X-User-Id", "load")
+                .header("X-Session-Id", "s" + nonce.get() % 16)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static HttpRequest read(String base) {
+        return HttpRequest.newBuilder(URI.create(base + "/questions/0")).GET().build();
+    }
+
+    private static long send(HttpClient client, HttpRequest request) throws Exception {
+        long start = System.nanoTime();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        assertEquals(200, response.statusCode(), request.uri().toString());
+        return System.nanoTime() - start;
+    }
+
+    private static long[] collect(List<Future<Long>> futures) throws Exception {
+        long[] nanos = new long[futures.size()];
+        for (int i = 0; i < nanos.length; i++) {
+            nanos[i] = futures.get(i).get();
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)] / 1e6;
+    }
+
+    private static String quote(String s) {
+        return "\"" + s.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n") + "\"";
+    }
+}
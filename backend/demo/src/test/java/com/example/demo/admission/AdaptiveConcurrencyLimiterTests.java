@@ -0,0 +1,55 @@
+package com.example.demo.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTests {
+
+    private static final long MILLIS = 1_000_000;
+
+    @Test
+    void rejectsBeyondTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        limiter.release(10 * MILLIS);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void growsWhileFastAndBacksOffWhenLatencyClimbs() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 50);
+
+        // Steady latency with the limit in use: additive increase
+        for (int i = 0; i < 20; i++) {
+            fill(limiter);
+            drain(limiter, 10 * MILLIS);
+        }
+        int grown = limiter.getLimit();
+        assertTrue(grown > 10, "limit: " + grown);
+
+        // Latency jumps: multiplicative decrease down to the floor
+        for (int i = 0; i < 50; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(100 * MILLIS);
+        }
+        assertEquals(2, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    private static void fill(AdaptiveConcurrencyLimiter limiter) {
+        while (limiter.tryAcquire()) {
+        }
+    }
+
+    private static void drain(AdaptiveConcurrencyLimiter limiter, long latencyNanos) {
+        while (limiter.getInFlight() > 0) {
+            limiter.release(latencyNanos);
+        }
+    }
+}
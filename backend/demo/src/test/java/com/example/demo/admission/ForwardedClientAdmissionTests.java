@@ -0,0 +1,46 @@
+package com.example.demo.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "attempts.log.enabled=false",
+        "questions.pack.compiled-dir=target/test-data/questions",
+        "admission.burst=1",
+        "admission.rate-per-second=0.01",
+        "server.tomcat.remoteip.internal-proxies=127\\.0\\.0\\.1"
+})
+class ForwardedClientAdmissionTests {
+
+    @LocalServerPort
+    int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void clientsBehindATrustedProxyGetBucketsOfTheirOwn() throws Exception {
+        assertEquals(201, createSession("203.0.113.1"));
+        assertEquals(429, createSession("203.0.113.1"));
+        assertEquals(201, createSession("203.0.113.2"));
+        // The proxy's own hop is skipped, the client's is kept
+        assertEquals(429, createSession("203.0.113.2, 127.0.0.1"));
+    }
+
+    private int createSession(String forwardedFor) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/sessions?role=SWE&count=1"))
+                .header("X-Forwarded-For", forwardedFor)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{}"))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.demo.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketLimiterTests {
+
+    private final AtomicLong now = new AtomicLong(5_000_000_000L);
+
+    @Test
+    void allowsBurstThenRefillsAtRate() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, 3, 100, now::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("alice"));
+        }
+        assertEquals(500_000_000L, limiter.tryAcquire("alice"));
+        // Other clients have their own bucket
+        assertEquals(0, limiter.tryAcquire("bob"));
+
+        now.addAndGet(500_000_000L);
+        assertEquals(0, limiter.tryAcquire("alice"));
+        assertTrue(limiter.tryAcquire("alice") > 0);
+    }
+
+    @Test
+    void chargesSeveralPermitsAtOnce() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(10, 100, 100, now::get);
+
+        assertEquals(0, limiter.tryAcquire("alice", 60));
+        // 40 left, so 50 more is 10 tokens short
+        assertEquals(1_000_000_000L, limiter.tryAcquire("alice", 50));
+        assertEquals(0, limiter.tryAcquire("alice", 40));
+        // More than the burst never fits
+        assertTrue(limiter.tryAcquire("bob", 101) > 0);
+    }
+
+    @Test
+    void boundsTheNumberOfBuckets() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 1, 10, now::get);
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire("client-" + i);
+        }
+        assertTrue(limiter.clientCount() <= 10, "clients: " + limiter.clientCount());
+
+        // Refilled buckets are dropped first and come back full
+        now.addAndGet(2_000_000_000L);
+        for (int i = 100; i < 110; i++) {
+            assertEquals(0, limiter.tryAcquire("client-" + i));
+        }
+        assertTrue(limiter.clientCount() <= 10);
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.demo.cluster;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.enums.RoleType;
+import com.example.demo.model.SessionKey;
+import com.example.demo.model.SolutionModel;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
+
+class ClusterStateLayerTests {
+
+    private static final String SECRET = "test-secret";
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final List<ClusterStateLayer> nodes = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(ClusterStateLayer::close);
+    }
+
+    @Test
+    void eventsRoundTripThroughJson() {
+        SolutionModel solution = new SolutionModel();
+        solution.setId("7");
+        solution.setCorrect(true);
+        List<StateEvent> events = List.of(
+                new StateEvent.AttemptRecorded(SessionKey.of("alice", "s1"), solution),
+                new StateEvent.HintUsed(SessionKey.of("alice", "s1"), RoleType.SWE, "7", 2),
+                new StateEvent.SessionCreated(SessionKey.of("alice", "s1"), RoleType.ML, List.of("1", "2"), 42),
+                new StateEvent.QuestionsChanged("pack-3.bin"));
+        for (StateEvent event : events) {
+            byte[] json = jsonMapper.writeValueAsBytes(new ClusterStateLayer.Envelope("a:1", true, event));
+            assertEquals(event, jsonMapper.readValue(json, ClusterStateLayer.Envelope.class).event());
+        }
+    }
+
+    @Test
+    void everyOtherNodeAppliesEachEventOnceInTheOwnersOrder() throws Exception {
+        List<String> members = List.of("127.0.0.1:" + freePort(), "127.0.0.1:" + freePort(),
+                "127.0.0.1:" + freePort());
+        List<List<StateEvent>> applied = new ArrayList<>();
+        for (String self : members) {
+            applied.add(start(self, members, SECRET));
+        }
+        await(() -> nodes.stream().allMatch(node -> node.connectedPeers() == 2));
+
+        // Each session's events come from every node in turn, owner or not
+        List<SessionKey> sessions = List.of(SessionKey.of("alice", "s1"), SessionKey.of("bob", "s1"),
+                SessionKey.of("carol", "s2"), SessionKey.of("dave", "s3"));
+        int perSession = 30;
+        for (int i = 0; i < perSession; i++) {
+            for (SessionKey session : sessions) {
+                nodes.get(i % 3).publish(new StateEvent.QuestionStarted(session, "q", i));
+            }
+        }
+        nodes.get(1).publish(new StateEvent.QuestionsChanged("pack.bin"));
+
+        // Every event reaches the two nodes that did not publish it
+        int expected = 2 * (sessions.size() * perSession + 1);
+        await(() -> applied.stream().mapToInt(List::size).sum() >= expected);
+        Thread.sleep(100);
+        assertEquals(expected, applied.stream().mapToInt(List::size).sum());
+        for (int n = 0; n < 3; n++) {
+            for (SessionKey session : sessions) {
+                List<Long> times = applied.get(n).stream()
+                        .filter(e -> session.equals(e.session()))
+                        .map(e -> ((StateEvent.QuestionStarted) e).startedAt())
+                        .toList();
+                assertEquals(2 * perSession / 3, times.size());
+                for (int origin = 0; origin < 3; origin++) {
+                    long from = origin;
+                    List<Long> fromOrigin = times.stream().filter(t -> t % 3 == from).toList();
+                    // None of its own events, and each other node's in the order it made them
+                    assertEquals(origin == n ? List.of() : fromOrigin.stream().sorted().toList(), fromOrigin);
+                }
+            }
+        }
+    }
+
+    @Test
+    void ignoresConnectionsThatDoNotKnowTheSecret() throws Exception {
+        List<String> members = List.of("127.0.0.1:" + freePort(), "127.0.0.1:" + freePort());
+        List<StateEvent> received = start(members.get(0), members, SECRET);
+        start(members.get(1), members, "wrong secret");
+
+        // A process that skips the handshake and writes a frame straight away
+        byte[] frame = jsonMapper.writeValueAsBytes(new ClusterStateLayer.Envelope(members.get(1), true,
+                new StateEvent.SessionEnded(SessionKey.of("alice", "s1"))));
+        String[] hostPort = members.get(0).split(":");
+        try (Socket socket = new Socket(hostPort[0], Integer.parseInt(hostPort[1]))) {
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            out.writeInt(frame.length);
+            out.write(frame);
+            out.flush();
+            // The listener hangs up once the bytes fail as an answer to its challenge
+            assertEquals(-1, readUntilClosed(socket));
+        }
+        nodes.get(1).publish(new StateEvent.QuestionsChanged("pack.bin"));
+
+        Thread.sleep(300);
+        assertTrue(received.isEmpty());
+        assertEquals(0, nodes.get(1).connectedPeers());
+    }
+
+    @Test
+    void refusesAListenerThatDoesNotKnowTheSecret() throws Exception {
+        List<String> members = List.of("127.0.0.1:" + freePort(), "127.0.0.1:" + freePort());
+        try (ServerSocket impostor = new ServerSocket(Integer.parseInt(members.get(0).split(":")[1]))) {
+            start(members.get(1), members, SECRET);
+            nodes.get(0).publish(new StateEvent.QuestionsChanged("pack.bin"));
+
+            // Accepts whatever the node answers, then proves nothing
+            try (Socket socket = impostor.accept()) {
+                socket.setSoTimeout(5_000);
+                DataInputStream in = new DataInputStream(socket.getInputStream());
+                DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+                out.write(new byte[32]);
+                out.flush();
+                in.readUTF();
+                in.readNBytes(64);
+                out.write(1);
+                out.write(new byte[32]);
+                out.flush();
+                // The node hangs up instead of sending its event
+                assertEquals(-1, in.read());
+            }
+            assertEquals(0, nodes.get(0).connectedPeers());
+        }
+    }
+
+    @Test
+    void dropsTheConnectionOnAReplayedFrame() throws Exception {
+        List<String> members = List.of("127.0.0.1:" + freePort(), "127.0.0.1:" + freePort());
+        List<StateEvent> received = start(members.get(0), members, SECRET);
+        SecretKeySpec key = new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+
+        String[] hostPort = members.get(0).split(":");
+        try (Socket socket = new Socket(hostPort[0], Integer.parseInt(hostPort[1]))) {
+            socket.setSoTimeout(5_000);
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            byte[] challenge = in.readNBytes(32);
+            byte[] ownChallenge = new byte[32];
+            new SecureRandom().nextBytes(ownChallenge);
+            out.writeUTF(members.get(1));
+            out.write(ownChallenge);
+            out.write(ClusterStateLayer.sign(key, ClusterStateLayer.CONNECT, challenge, ownChallenge, members.get(1)));
+            out.flush();
+            assertEquals(1, in.read());
+            assertArrayEquals(ClusterStateLayer.sign(key, ClusterStateLayer.ACCEPT, challenge, ownChallenge,
+                    members.get(0)), in.readNBytes(32));
+
+            Mac frameMac = ClusterStateLayer.mac(new SecretKeySpec(
+                    ClusterStateLayer.sign(key, ClusterStateLayer.FRAMES, challenge, ownChallenge, ""), "HmacSHA256"));
+            byte[] frame = jsonMapper.writeValueAsBytes(new ClusterStateLayer.Envelope(members.get(1), true,
+                    new StateEvent.QuestionsChanged("pack.bin")));
+            byte[] tag = ClusterStateLayer.tag(frameMac, 0, frame);
+            // The same frame twice: the second is out of sequence
+            for (int i = 0; i < 2; i++) {
+                out.writeInt(frame.length);
+                out.write(frame);
+                out.write(tag);
+            }
+            out.flush();
+            assertEquals(-1, in.read());
+        }
+        assertEquals(List.of(new StateEvent.QuestionsChanged("pack.bin")), received);
+    }
+
+    private List<StateEvent> start(String self, List<String> members, String secret) {
+        ClusterStateLayer node = new ClusterStateLayer(self, members, secret, 64, 1_000, Duration.ofMillis(50),
+                jsonMapper, new SimpleMeterRegistry());
+        List<StateEvent> received = new CopyOnWriteArrayList<>();
+        node.onRemoteEvent(received::add);
+        nodes.add(node);
+        return received;
+    }
+
+    private static int readUntilClosed(Socket socket) throws IOException {
+        socket.setSoTimeout(5_000);
+        InputStream in = socket.getInputStream();
+        // Skip the challenge
+        in.readNBytes(32);
+        return in.read();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.demo.cluster;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class ConsistentHashRingTests {
+
+    private static final List<String> MEMBERS = List.of("10.0.0.1:7400", "10.0.0.2:7400", "10.0.0.3:7400");
+
+    @Test
+    void spreadsKeysEvenlyAndAgreesRegardlessOfMemberOrder() {
+        ConsistentHashRing ring = new ConsistentHashRing(MEMBERS, 128);
+        ConsistentHashRing reversed = new ConsistentHashRing(MEMBERS.reversed(), 128);
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 30_000; i++) {
+            String key = "user-" + i + "\nsession";
+            assertEquals(ring.owner(key), reversed.owner(key));
+            counts.merge(ring.owner(key), 1, Integer::sum);
+        }
+        assertEquals(3, counts.size());
+        // Within 20% of an even share
+        counts.values().forEach(count -> assertTrue(Math.abs(count - 10_000) < 2_000, counts.toString()));
+    }
+
+    @Test
+    void removingAMemberOnlyMovesItsKeys() {
+        ConsistentHashRing ring = new ConsistentHashRing(MEMBERS, 128);
+        ConsistentHashRing shrunk = new ConsistentHashRing(MEMBERS.subList(0, 2), 128);
+        for (int i = 0; i < 10_000; i++) {
+            String key = "user-" + i;
+            String owner = ring.owner(key);
+            if (!owner.equals(MEMBERS.get(2))) {
+                assertEquals(owner, shrunk.owner(key));
+            }
+            // Skipping a member that is down gives the owner the ring would have without it
+            assertEquals(shrunk.owner(key), ring.owner(key, member -> !member.equals(MEMBERS.get(2))));
+        }
+        assertNull(ring.owner("user-1", member -> false));
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.demo.content;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+
+import com.example.demo.enums.Concepts;
+import com.example.demo.enums.Difficulty;
+import com.example.demo.enums.RoleType;
+import com.example.demo.model.InputGenerator;
+import com.example.demo.model.QuestionModel;
+import com.example.demo.model.TestCaseModel;
+import com.example.demo.services.QuestionRegistry;
+
+import tools.jackson.databind.json.JsonMapper;
+
+class QuestionPackTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripsSummariesAndLazyDetails() {
+        byte[] compiled = QuestionPackCompiler.compile(List.of(
+                entry(RoleType.SWE, "0", "Two Sum", "Find two numbers."),
+                new QuestionPackCompiler.Entry(RoleType.ML, "7", "No Statement", Difficulty.HARD,
+                        List.of(Concepts.GRAPH), null, List.of("only hint"), null)));
+
+        QuestionPack pack = QuestionPack.open(ByteBuffer.wrap(compiled));
+
+        assertEquals(2, pack.size());
+        QuestionModel swe = pack.getQuestions(RoleType.SWE).get(0);
+        assertEquals("0", swe.getId());
+        assertEquals(Difficulty.EASY, swe.getDifficulty());
+        assertEquals(List.of(Concepts.ARRAYS, Concepts.HASH_TABLE), swe.getConcepts());
+        assertEquals("Two Sum: Find two numbers.", swe.getQuestion());
+        assertEquals("h3", swe.getHint3());
+        assertEquals("O(n)", swe.getExpectedComplexity());
+
+        QuestionModel ml = pack.getQuestions(RoleType.ML).get(0);
+        assertEquals("No Statement", ml.getQuestion());
+        assertEquals("only hint", ml.getHint1());
+        assertNull(ml.getHint2());
+        assertTrue(pack.getQuestions(RoleType.CLOUD).isEmpty());
+    }
+
+    @Test
+    void reloadSwapsTestCasesAndGeneratorsWithTheirQuestions() {
+        TestCaseModel testCase = new TestCaseModel();
+        testCase.setInput("[[1, 2]]");
+        testCase.setExpected("3");
+        InputGenerator generator = new InputGenerator("def generate(n, rng):\n    return [list(range(n))]\n", 100, 4);
+        QuestionRegistry registry = new QuestionRegistry(QuestionPack.open(ByteBuffer.wrap(QuestionPackCompiler.compile(List.of(
+                new QuestionPackCompiler.Entry(RoleType.SWE, "0", "Sum", Difficulty.EASY, List.of(Concepts.ARRAYS),
+                        "Add them.", List.of(), "O(n)", List.of(testCase), generator))))));
+
+        assertEquals("3", registry.getTestCases(RoleType.SWE, "0").get(0).getExpected());
+        assertEquals(generator, registry.getInputGenerator(RoleType.SWE, "0"));
+        // Question payloads never carry the expected answers
+        assertFalse(JsonMapper.builder().build().writeValueAsString(registry.getQuestion(RoleType.SWE, "0"))
+                .contains("\"expected\""));
+
+        // Question 0 is now a different question with no cases, and the old cases moved with theirs to 1
+        registry.reload(QuestionPack.open(ByteBuffer.wrap(QuestionPackCompiler.compile(List.of(
+                entry(RoleType.SWE, "0", "New", "Something else."),
+                new QuestionPackCompiler.Entry(RoleType.SWE, "1", "Sum", Difficulty.EASY, List.of(Concepts.ARRAYS),
+                        "Add them.", List.of(), "O(n)", List.of(testCase), generator))))));
+
+        assertTrue(registry.getTestCases(RoleType.SWE, "0").isEmpty());
+        assertNull(registry.getInputGenerator(RoleType.SWE, "0"));
+        assertEquals("[[1, 2]]", registry.getTestCases(RoleType.SWE, "1").get(0).getInput());
+        assertEquals(generator, registry.getInputGenerator(RoleType.SWE, "1"));
+    }
+
+    @Test
+    void rejectsInvalidPacks() {
+        assertThrows(IllegalArgumentException.class, () -> QuestionPackCompiler.compile(List.of(
+                entry(RoleType.SWE, "0", "A", "a"), entry(RoleType.SWE, "0", "B", "b"))));
+        assertThrows(IllegalArgumentException.class, () -> QuestionPackCompiler.compile(
+                "{\"questions\": [{\"role\": \"NOPE\"}]}".getBytes(StandardCharsets.UTF_8)));
+        assertThrows(IllegalArgumentException.class, () -> QuestionPack.open(ByteBuffer.wrap(new byte[16])));
+    }
+
+    @Test
+    void bundledPackHasEveryRole() {
+        QuestionPack pack = QuestionPackLoader.loadBundled();
+        for (RoleType role : RoleType.values()) {
+            assertEquals(12, pack.getQuestions(role).size());
+        }
+    }
+
+    @Test
+    void buildPrebuildsTheBundledPack() throws Exception {
+        ClassPathResource source = new ClassPathResource(QuestionPackLoader.BUNDLED_PACK);
+        byte[] json = source.getContentAsByteArray();
+        String name = QuestionPackLoader.compiledName(json);
+        ClassPathResource prebuilt = new ClassPathResource(QuestionPackLoader.PREBUILT_DIR + name);
+
+        assertTrue(prebuilt.exists(), "the build did not compile " + name);
+        assertArrayEquals(QuestionPackCompiler.compile(json), prebuilt.getContentAsByteArray());
+        // Loading the bundled pack copies the prebuilt one out
+        QuestionPackLoader loader = new QuestionPackLoader(source, dir);
+        assertEquals(12 * RoleType.values().length, loader.load().size());
+        assertArrayEquals(prebuilt.getContentAsByteArray(), Files.readAllBytes(dir.resolve(name)));
+    }
+
+    @Test
+    void reloadsWhenTheSourceChanges() throws Exception {
+        Path source = dir.resolve("pack.json");
+        Files.writeString(source, json("First"));
+        QuestionPackLoader loader = new QuestionPackLoader(new FileSystemResource(source), dir.resolve("compiled"));
+        QuestionRegistry registry = new QuestionRegistry(loader.load());
+
+        try (QuestionPackWatcher watcher = new QuestionPackWatcher(loader.getSourceFile(), Duration.ofMillis(50), () -> {
+            try {
+                registry.reload(loader.load());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        })) {
+            assertTrue(watcher.isWatching());
+            Files.writeString(source, json("Second"));
+
+            long deadline = System.nanoTime() + 20_000_000_000L;
+            while (registry.getQuestion(RoleType.SWE, "0").getQuestion().startsWith("First")
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+        }
+        assertEquals("Second: statement", registry.getQuestion(RoleType.SWE, "0").getQuestion());
+    }
+
+    private static QuestionPackCompiler.Entry entry(RoleType role, String id, String title, String statement) {
+        return new QuestionPackCompiler.Entry(role, id, title, Difficulty.EASY,
+                List.of(Concepts.ARRAYS, Concepts.HASH_TABLE), statement, List.of("h1", "h2", "h3"), "O(n)");
+    }
+
+    private static String json(String title) {
+        return """
+                {"questions": [{"role": "SWE", "id": "0", "title": "%s", "difficulty": "EASY",
+                  "concepts": ["ARRAYS"], "statement": "statement", "hints": [], "expectedComplexity": "O(1)"}]}
+                """.formatted(title);
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.demo.execution;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import com.example.demo.enums.RoleType;
+import com.example.demo.enums.Verdict;
+import com.example.demo.model.ExecutionResultModel;
+import com.example.demo.model.TestCaseModel;
+import com.example.demo.services.QuestionRegistry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
+
+class ExecutionServiceTests {
+
+    private static final String TWO_SUM = """
+            def solution(nums, target):
+                seen = {}
+                for i, x in enumerate(nums):
+                    if target - x in seen:
+                        return [seen[target - x], i]
+                    seen[x] = i
+            """;
+
+    private final List<TestCaseModel> twoSumCases = new QuestionRegistry().getTestCases(RoleType.SWE, "0");
+    private ExecutionService executionService;
+
+    @BeforeEach
+    void startWorkers() {
+        executionService = new ExecutionService(true, "python3", 2, 0, Duration.ofSeconds(1), DataSize.ofMegabytes(256),
+                2, JsonMapper.builder().build(), new SimpleMeterRegistry());
+        assumeTrue(executionService.isAvailable(), "python3 is not installed");
+    }
+
+    @AfterEach
+    void stopWorkers() {
+        executionService.close();
+    }
+
+    @Test
+    void acceptsCorrectSolution() {
+        ExecutionResultModel result = executionService.execute("0", TWO_SUM, twoSumCases, true);
+
+        assertEquals(Verdict.ACCEPTED, result.getVerdict());
+        assertEquals(twoSumCases.size(), result.getPassed());
+    }
+
+    @Test
+    void runReportsEveryCaseAcrossShards() {
+        ExecutionResultModel result = executionService.execute("0", "def solution(nums, target):\n    return [0, 1]\n", twoSumCases, false);
+
+        assertEquals(Verdict.WRONG_ANSWER, result.getVerdict());
+        assertEquals(2, result.getPassed());
+        assertEquals(List.of(0, 1, 2, 3), result.getCases().stream().map(c -> c.getIndex()).toList());
+    }
+
+    @Test
+    void submitStopsAtFirstFailure() {
+        ExecutionResultModel result = executionService.execute("0", "def solution(nums, target):\n    return [0, 1]\n", twoSumCases, true);
+
+        assertEquals(Verdict.WRONG_ANSWER, result.getVerdict());
+        assertEquals(Verdict.WRONG_ANSWER, result.getCases().get(result.getCases().size() - 1).getVerdict());
+        assertEquals(4, result.getTotal());
+    }
+
+    @Test
+    void enforcesTimeAndMemoryLimits() {
+        List<TestCaseModel> oneCase = twoSumCases.subList(0, 1);
+
+        assertEquals(Verdict.TIME_LIMIT_EXCEEDED,
+                executionService.execute("0", "def solution(*args):\n    while True:\n        pass\n", oneCase, false).getVerdict());
+        assertEquals(Verdict.MEMORY_LIMIT_EXCEEDED,
+                executionService.execute("0", "def solution(*args):\n    return [0] * 10**9\n", oneCase, false).getVerdict());
+        assertEquals(Verdict.COMPILE_ERROR,
+                executionService.execute("0", "def solution(:\n", oneCase, false).getVerdict());
+        // The workers survive all of the above
+        assertEquals(Verdict.ACCEPTED, executionService.execute("0", TWO_SUM, oneCase, false).getVerdict());
+    }
+
+    @Test
+    void solutionsCannotReadExpectedAnswersOrReportTheirOwnVerdicts() {
+        String cheat = """
+                import gc, json, os
+                def solution(*args):
+                    for obj in gc.get_objects():
+                        if isinstance(obj, dict) and "expected" in obj:
+                            return json.loads(obj["expected"])
+                    for fd in range(3, 64):
+                        try:
+                            os.write(fd, b'{"status": "ACCEPTED", "timeMs": 0}\\n' * 8)
+                        except OSError:
+                            pass
+                """;
+
+        ExecutionResultModel result = executionService.execute("0", cheat, twoSumCases, false);
+
+        assertEquals(0, result.getPassed());
+        assertEquals(twoSumCases.size(), result.getCases().size());
+        assertTrue(result.getCases().stream().allMatch(c -> c.getVerdict() == Verdict.RUNTIME_ERROR));
+    }
+
+    @Test
+    void comparesUnorderedAnswersAsMultisets() {
+        TestCaseModel unordered = new TestCaseModel();
+        unordered.setInput("[[3, 1, 2]]");
+        unordered.setExpected("[[1], [2.0], [3]]");
+        unordered.setUnordered(true);
+        String source = "def solution(nums):\n    return [[x] for x in nums]\n";
+
+        assertEquals(Verdict.ACCEPTED, executionService.execute("0", source, List.of(unordered), false).getVerdict());
+        unordered.setUnordered(false);
+        assertEquals(Verdict.WRONG_ANSWER, executionService.execute("0", source, List.of(unordered), false).getVerdict());
+    }
+
+    @Test
+    void queueDepthCountsRunsWaitingForTheOnlyWorker() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        try (ExecutionService single = new ExecutionService(true, "python3", 1, 4, Duration.ofSeconds(2),
+                DataSize.ofMegabytes(256), 2, JsonMapper.builder().build(), registry)) {
+            String slow = "import time\ndef solution(*args):\n    time.sleep(0.5)\n";
+            List<TestCaseModel> oneCase = twoSumCases.subList(0, 1);
+            CompletableFuture<?> first = CompletableFuture.runAsync(() -> single.execute("0", slow, oneCase, false));
+            while (registry.get("execution.workers.busy").gauge().value() < 1) {
+                Thread.sleep(5);
+            }
+            CompletableFuture<?> second = CompletableFuture.runAsync(() -> single.execute("0", slow, oneCase, false));
+            long deadline = System.nanoTime() + Duration.ofSeconds(1).toNanos();
+            while (registry.get("execution.queue.depth").gauge().value() < 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+
+            assertEquals(1, registry.get("execution.queue.depth").gauge().value());
+            CompletableFuture.allOf(first, second).get();
+            assertEquals(0, registry.get("execution.queue.depth").gauge().value());
+        }
+    }
+}
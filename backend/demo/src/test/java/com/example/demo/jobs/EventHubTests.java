@@ -0,0 +1,130 @@
+package com.example.demo.jobs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class EventHubTests {
+
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+
+    @AfterEach
+    void tearDown() {
+        sender.shutdownNow();
+    }
+
+    @Test
+    void replaysEventsAfterTheLastIdThenFollowsNewOnes() throws InterruptedException {
+        EventHub hub = new EventHub(16, 16, sender);
+        hub.open("job");
+        for (int i = 1; i <= 3; i++) {
+            hub.publish("job", "case", i);
+        }
+        RecordingSink sink = new RecordingSink();
+        hub.subscribe("job", 1, sink);
+        hub.publish("job", "done", 4);
+        hub.close("job");
+
+        assertTrue(sink.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(2L, 3L, 4L), sink.ids());
+        assertEquals(0, hub.subscriberCount());
+        assertNull(hub.subscribe("missing", 0, new RecordingSink()));
+    }
+
+    @Test
+    void lateSubscriberToAClosedTopicGetsTheHistoryAndCompletes() throws InterruptedException {
+        EventHub hub = new EventHub(16, 2, sender);
+        hub.open("job");
+        for (int i = 1; i <= 3; i++) {
+            hub.publish("job", "case", i);
+        }
+        hub.close("job");
+        assertEquals(false, hub.publish("job", "case", 4));
+
+        RecordingSink sink = new RecordingSink();
+        hub.subscribe("job", 0, sink);
+        assertTrue(sink.completed.await(5, TimeUnit.SECONDS));
+        // Only the newest history-size events are kept
+        assertEquals(List.of(2L, 3L), sink.ids());
+
+        hub.remove("job");
+        assertNull(hub.subscribe("job", 0, new RecordingSink()));
+    }
+
+    @Test
+    void slowSubscriberIsCompletedWithoutHoldingBackTheOthers() throws InterruptedException {
+        EventHub hub = new EventHub(4, 64, sender);
+        hub.open("job");
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink slow = new RecordingSink() {
+            @Override
+            public void send(EventHub.Event event) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.send(event);
+            }
+        };
+        RecordingSink fast = new RecordingSink();
+        hub.subscribe("job", 0, slow);
+        hub.subscribe("job", 0, fast);
+        for (int i = 1; i <= 20; i++) {
+            hub.publish("job", "case", i);
+            // Let the fast subscriber keep up with the publisher
+            fast.awaitCount(i);
+        }
+        hub.close("job");
+        release.countDown();
+
+        assertTrue(fast.completed.await(5, TimeUnit.SECONDS));
+        assertTrue(slow.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(20, fast.ids().size());
+        assertTrue(slow.ids().size() < 20);
+        assertEquals(1, hub.overflowCount());
+
+        // Reconnecting from the last id it got catches the slow subscriber up
+        RecordingSink resumed = new RecordingSink();
+        List<Long> seen = slow.ids();
+        hub.subscribe("job", seen.isEmpty() ? 0 : seen.getLast(), resumed);
+        assertTrue(resumed.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(20, seen.size() + resumed.ids().size());
+    }
+
+    private static class RecordingSink implements EventHub.Sink {
+        private final List<EventHub.Event> events = new CopyOnWriteArrayList<>();
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        @Override
+        public void send(EventHub.Event event) {
+            events.add(event);
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+
+        List<Long> ids() {
+            return events.stream().map(EventHub.Event::id).toList();
+        }
+
+        void awaitCount(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (events.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+        }
+    }
+}
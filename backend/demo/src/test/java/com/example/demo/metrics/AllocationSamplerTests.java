@@ -0,0 +1,40 @@
+package com.example.demo.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AllocationSamplerTests {
+
+    private static volatile Object sink;
+
+    @Test
+    void chargesAllocationsToTheHotPathOnTheStack() throws InterruptedException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        Map<String, String> hotPaths = Map.of(AllocationSamplerTests.class.getName() + "#allocate", "test");
+        try (AllocationSampler sampler = new AllocationSampler(meterRegistry, "1000/s", hotPaths)) {
+            long deadline = System.nanoTime() + 20_000_000_000L;
+            while (allocatedBytes(meterRegistry) == 0 && System.nanoTime() < deadline) {
+                allocate();
+                Thread.sleep(10);
+            }
+        }
+        assertTrue(allocatedBytes(meterRegistry) > 0, "no allocation samples were attributed");
+        assertEquals(1, meterRegistry.find("hotpath.allocated").counters().size());
+    }
+
+    private static void allocate() {
+        for (int i = 0; i < 1_000; i++) {
+            sink = new byte[1024];
+        }
+    }
+
+    private static double allocatedBytes(SimpleMeterRegistry meterRegistry) {
+        return meterRegistry.get("hotpath.allocated").tag("operation", "test").counter().count();
+    }
+}
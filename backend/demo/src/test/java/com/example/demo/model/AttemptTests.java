@@ -0,0 +1,55 @@
+package com.example.demo.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.enums.RoleType;
+
+class AttemptTests {
+
+    @Test
+    void roundTripsTheWireModel() {
+        SolutionModel s = new SolutionModel();
+        s.setId("7");
+        s.setRole(RoleType.ML);
+        s.setSolution("def solution(): pass");
+        s.setTime("95");
+        s.setCorrect(false);
+        s.setHint2used(true);
+        s.setHint3used(false);
+
+        assertEquals(s, Attempt.of(s).toModel());
+
+        s.setTime("1.5");
+        s.setCorrect(null);
+        assertEquals(s, Attempt.of(s).toModel());
+    }
+
+    @Test
+    void packsFlagsAndParsesTime() {
+        SolutionModel s = new SolutionModel();
+        s.setCorrect(true);
+        s.setHint1used(true);
+        s.setHint3used(true);
+        s.setTime("2500");
+
+        Attempt attempt = Attempt.of(s);
+
+        assertTrue(attempt.isCorrect());
+        assertEquals(0b101, attempt.hintMask());
+        assertEquals(2.5, attempt.timeSec());
+        assertEquals(RoleType.SWE, attempt.roleOrDefault());
+
+        s.setCorrect(null);
+        s.setTime("soon");
+        attempt = Attempt.of(s);
+        assertNull(attempt.correct());
+        assertFalse(attempt.isCorrect());
+        assertEquals(0, attempt.timeSec());
+        assertNull(attempt.toModel().getTime());
+    }
+}
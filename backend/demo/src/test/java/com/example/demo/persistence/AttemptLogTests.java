@@ -0,0 +1,100 @@
+package com.example.demo.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.demo.model.SessionKey;
+import com.example.demo.model.SolutionModel;
+
+class AttemptLogTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replaysAttemptsAcrossSegmentsAfterReopen() throws IOException {
+        SessionKey alice = SessionKey.of("alice", "s1");
+        SessionKey bob = SessionKey.of("bob", "s1");
+        try (AttemptLog log = new AttemptLog(dir, 256, 10, (k, s) -> { })) {
+            for (int i = 0; i < 20; i++) {
+                log.append(i % 2 == 0 ? alice : bob, solution(String.valueOf(i), i % 3 == 0));
+            }
+            assertEquals(10, read(log, alice).size());
+            assertEquals("18", read(log, alice).get(9).getId());
+        }
+
+        List<String> replayed = new ArrayList<>();
+        try (AttemptLog log = new AttemptLog(dir, 256, 10, (k, s) -> replayed.add(k.userId() + ":" + s.getId()))) {
+            assertEquals(20, replayed.size());
+            assertEquals("alice:0", replayed.get(0));
+            assertEquals("bob:19", replayed.get(19));
+
+            List<SolutionModel> bobs = read(log, bob);
+            assertEquals(10, bobs.size());
+            assertEquals("print(3)", bobs.get(1).getSolution());
+            assertEquals(Boolean.TRUE, bobs.get(1).getCorrect());
+            assertNull(bobs.get(1).getHint2used());
+        }
+    }
+
+    @Test
+    void ignoresCorruptTailAndKeepsAppending() throws IOException {
+        SessionKey key = SessionKey.of("alice", "s1");
+        try (AttemptLog log = new AttemptLog(dir, 4096, 10, (k, s) -> { })) {
+            log.append(key, solution("0", true));
+            log.append(key, solution("1", false));
+        }
+        // Flip a payload byte of the second record
+        Path segment;
+        try (var files = Files.list(dir)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        int secondRecord = 8 + AttemptLog.AttemptRecord.encode(key, solution("0", true)).length;
+        try (RandomAccessFile raf = new RandomAccessFile(segment.toFile(), "rw")) {
+            raf.seek(secondRecord + 12);
+            raf.write(raf.read() ^ 0xFF);
+        }
+
+        List<String> replayed = new ArrayList<>();
+        try (AttemptLog log = new AttemptLog(dir, 4096, 10, (k, s) -> replayed.add(s.getId()))) {
+            assertEquals(List.of("0"), replayed);
+            log.append(key, solution("2", true));
+        }
+        replayed.clear();
+        try (AttemptLog log = new AttemptLog(dir, 4096, 10, (k, s) -> replayed.add(s.getId()))) {
+            assertEquals(List.of("0", "2"), replayed);
+        }
+    }
+
+    private static List<SolutionModel> read(AttemptLog log, SessionKey key) {
+        List<SolutionModel> attempts = new ArrayList<>();
+        for (int i = 0; i < log.segmentCount(); i++) {
+            log.scanSegment(i, (k, s) -> {
+                if (k.equals(key)) {
+                    attempts.add(s);
+                }
+            });
+        }
+        return attempts;
+    }
+
+    private static SolutionModel solution(String id, boolean correct) {
+        SolutionModel s = new SolutionModel();
+        s.setId(id);
+        s.setSolution("print(" + id + ")");
+        s.setTime("42");
+        s.setCorrect(correct);
+        s.setHint1used(false);
+        return s;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.demo.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.content.QuestionPack;
+import com.example.demo.content.QuestionPackCompiler;
+import com.example.demo.enums.Concepts;
+import com.example.demo.enums.Difficulty;
+import com.example.demo.enums.RoleType;
+import com.example.demo.model.SearchHitModel;
+import com.example.demo.services.QuestionRegistry;
+
+class QuestionSearchTests {
+
+    private static final List<QuestionPackCompiler.Entry> QUESTIONS = List.of(
+            entry(RoleType.SWE, "0", "Two Sum", Difficulty.EASY, Concepts.HASH_TABLE,
+                    "Find two numbers in the array that add up to the target."),
+            entry(RoleType.SWE, "1", "Longest Substring Without Repeating Characters", Difficulty.MEDIUM,
+                    Concepts.SLIDING_WINDOW, "Given a string, return the length of its longest substring."),
+            entry(RoleType.SWE, "2", "Merge Intervals", Difficulty.MEDIUM, Concepts.ARRAYS,
+                    "Merge all overlapping intervals in the array."),
+            entry(RoleType.ML, "0", "Gradient Descent", Difficulty.HARD, Concepts.ARRAYS,
+                    "Minimize the loss over an array of samples."));
+
+    private final QuestionRegistry registry = new QuestionRegistry(pack(QUESTIONS));
+    private final QuestionSearch search = new QuestionSearch(registry);
+
+    @Test
+    void ranksTitleMatchesFirstAndCompletesTheLastWord() {
+        assertEquals(List.of("SWE/2", "ML/0", "SWE/0"), keys(search.search("array intervals", null, null, null, 10)));
+        assertEquals(List.of("SWE/1"), keys(search.search("longest subs", null, null, null, 10)));
+        // A trailing space ends the word, so it no longer matches as a prefix
+        assertEquals(List.of(), keys(search.search("subs ", null, null, null, 10)));
+        assertEquals(List.of("SWE/2"), keys(search.search("array", null, null, null, 1)));
+    }
+
+    @Test
+    void matchesWordsOneEditAway() {
+        assertEquals(List.of("SWE/2"), keys(search.search("intervls ", null, null, null, 10)));
+        assertEquals(List.of("ML/0"), keys(search.search("gradeint", null, null, null, 10)));
+        assertEquals(List.of("SWE/1"), keys(search.search("substrings", null, null, null, 10)));
+        assertEquals(List.of(), keys(search.search("xyzzy", null, null, null, 10)));
+        assertTrue(QuestionSearch.sameLengthOneEdit("merge", "mrege"));
+        assertFalse(QuestionSearch.sameLengthOneEdit("merge", "mxrgx"));
+    }
+
+    @Test
+    void filtersByRoleDifficultyAndConcept() {
+        assertEquals(List.of("SWE/2", "SWE/0"), keys(search.search("array", List.of(RoleType.SWE), null, null, 10)));
+        assertEquals(List.of("ML/0"), keys(search.search("array", null, List.of(Difficulty.HARD), null, 10)));
+        assertEquals(List.of("SWE/0"), keys(search.search("array", null, null, List.of(Concepts.HASH_TABLE), 10)));
+    }
+
+    @Test
+    void prunedTopResultsMatchTheFullRanking() {
+        Random random = new Random(7);
+        String[] words = {"array", "sum", "tree", "path", "graph", "node", "window", "string", "heap", "sort"};
+        List<QuestionPackCompiler.Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            StringBuilder text = new StringBuilder();
+            for (int w = 1 + random.nextInt(12); w > 0; w--) {
+                // Skewed so some words are in most questions
+                double u = random.nextDouble();
+                text.append(words[(int) (u * u * words.length)]).append(' ');
+            }
+            entries.add(entry(RoleType.SWE, String.valueOf(i), "Question " + i, Difficulty.EASY, Concepts.ARRAYS,
+                    text.toString()));
+        }
+        QuestionSearch large = new QuestionSearch(new QuestionRegistry(pack(entries)));
+
+        for (String query : List.of("array sum", "tree path graph", "heap sort string window", "no")) {
+            List<SearchHitModel> all = large.search(query, null, null, null, 500);
+            assertEquals(keys(all.subList(0, Math.min(5, all.size()))), keys(large.search(query, null, null, null, 5)));
+        }
+    }
+
+    @Test
+    void reindexesOnlyChangedQuestionsUntilTheDeltaGrowsLarge() {
+        List<QuestionPackCompiler.Entry> edited = new ArrayList<>(QUESTIONS);
+        edited.set(2, entry(RoleType.SWE, "2", "Insert Interval", Difficulty.MEDIUM, Concepts.ARRAYS,
+                "Insert a new interval into sorted intervals."));
+        edited.remove(1);
+        edited.add(entry(RoleType.SWE, "3", "Valid Parentheses", Difficulty.EASY, Concepts.STACK,
+                "Check that every bracket is closed."));
+        registry.reload(pack(edited));
+
+        assertEquals(List.of(), keys(search.search("merge", null, null, null, 10)));
+        assertEquals(List.of("SWE/2"), keys(search.search("insert", null, null, null, 10)));
+        assertEquals(List.of("SWE/3"), keys(search.search("bracket", null, null, null, 10)));
+        assertEquals(List.of(), keys(search.search("longest", null, null, null, 10)));
+        assertEquals(List.of("SWE/0"), keys(search.search("two sum", null, null, null, 10)));
+        // The edited and the new question; removals only mark base documents deleted
+        assertEquals(2, search.pendingCount());
+
+        List<QuestionPackCompiler.Entry> many = new ArrayList<>(edited);
+        for (int i = 0; i < 100; i++) {
+            many.add(entry(RoleType.CLOUD, String.valueOf(i), "Load Balancer " + i, Difficulty.EASY, Concepts.ARRAYS,
+                    "Spread traffic over servers."));
+        }
+        registry.reload(pack(many));
+
+        assertEquals(0, search.pendingCount());
+        assertEquals(3, search.search("balancer", List.of(RoleType.CLOUD), null, null, 3).size());
+        assertEquals(List.of("SWE/2"), keys(search.search("insert", null, null, null, 10)));
+    }
+
+    private static List<String> keys(List<SearchHitModel> hits) {
+        return hits.stream().map(hit -> hit.getRole() + "/" + hit.getId()).toList();
+    }
+
+    private static QuestionPack pack(List<QuestionPackCompiler.Entry> entries) {
+        return QuestionPack.open(ByteBuffer.wrap(QuestionPackCompiler.compile(entries)));
+    }
+
+    private static QuestionPackCompiler.Entry entry(RoleType role, String id, String title, Difficulty difficulty,
+                                                    Concepts concept, String statement) {
+        return new QuestionPackCompiler.Entry(role, id, title, difficulty, List.of(concept), statement,
+                List.of("Think about it.", "Think harder.", "Look at the answer."), "O(n)");
+    }
+}
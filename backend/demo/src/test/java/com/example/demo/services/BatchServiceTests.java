@@ -0,0 +1,161 @@
+package com.example.demo.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import com.example.demo.cluster.LocalStateLayer;
+import com.example.demo.enums.Concepts;
+import com.example.demo.enums.Difficulty;
+import com.example.demo.enums.RoleType;
+import com.example.demo.execution.ExecutionService;
+import com.example.demo.execution.VerdictCache;
+import com.example.demo.model.QuestionModel;
+import com.example.demo.model.ReportModel;
+import com.example.demo.model.SessionKey;
+import com.example.demo.model.SolutionModel;
+import com.example.demo.model.SubmissionResultModel;
+import com.example.demo.similarity.SimilarityIndex;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+class BatchServiceTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final QuestionRegistry registry = new QuestionRegistry();
+    private final ExecutionService executionService = new ExecutionService(false, "python3", 1, 0,
+            Duration.ofSeconds(1), DataSize.ofMegabytes(64), 16, jsonMapper, meterRegistry);
+    private final SolutionStore solutionStore = new SolutionStore(10_000);
+    private final ReportEngine reportEngine = new ReportEngine(registry);
+    private final HintTracker hintTracker = new HintTracker();
+    private final MasteryRecommender recommender = new MasteryRecommender(registry);
+    private final QuestionService questionService = new QuestionService(registry, solutionStore, reportEngine,
+            new GradingService(registry, executionService, new VerdictCache(1, meterRegistry)),
+            new ComplexityGrader(registry, executionService, false, Duration.ofSeconds(1), 1), hintTracker, recommender,
+            new SessionManager(registry, solutionStore, reportEngine, hintTracker, recommender,
+                    new LocalStateLayer(), Duration.ofMinutes(30), Duration.ofSeconds(1), System::currentTimeMillis),
+            new SimilarityIndex(100, 8), Optional.empty(), new LocalStateLayer(), meterRegistry);
+    private final QuestionFilterService filterService = new QuestionFilterService(registry, meterRegistry);
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    // Small chunks so even these batches are split across tasks
+    private final BatchService batchService = new BatchService(questionService, filterService, registry,
+            new QuestionResponseCache(questionService, registry, jsonMapper), jsonMapper, executor, 3, 7,
+            meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        executionService.close();
+    }
+
+    @Test
+    void followUpsMatchSingleCallsInRequestOrder() throws IOException {
+        Random random = new Random(3);
+        List<ReportModel> reports = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            RoleType role = RoleType.values()[random.nextInt(RoleType.values().length)];
+            ReportModel report = new ReportModel();
+            report.setRole(role);
+            report.setWeakConcepts(List.of(Concepts.values()[random.nextInt(Concepts.values().length)],
+                    Concepts.values()[random.nextInt(Concepts.values().length)]));
+            report.setSuggestedDifficulty(Difficulty.values()[random.nextInt(Difficulty.values().length)]);
+            SolutionModel answered = new SolutionModel();
+            answered.setId(registry.getQuestions(role).get(random.nextInt(registry.getQuestions(role).size())).getId());
+            report.setSolutions(List.of(answered));
+            reports.add(report);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        batchService.followUps(reports, out::writeBytes);
+        List<List<QuestionModel>> batch = jsonMapper.readValue(out.toByteArray(), new TypeReference<>() {
+        });
+
+        assertEquals(reports.size(), batch.size());
+        for (int i = 0; i < reports.size(); i++) {
+            assertEquals(filterService.getFollowUpQuestions(reports.get(i)), batch.get(i));
+        }
+    }
+
+    @Test
+    void recordsSubmissionsInRequestOrderAndReportsEachStatus() throws IOException {
+        SessionKey session = SessionKey.of("teacher", "import");
+        List<SolutionModel> solutions = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            SolutionModel solution = new SolutionModel();
+            solution.setId(i == 10 ? null : i == 20 ? "no-such-question" : String.valueOf(i % 3));
+            solution.setCorrect(i % 2 == 0);
+            solution.setHint1used(i % 4 == 0);
+            solutions.add(solution);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        batchService.submissions(session, RoleType.ML, solutions, out::writeBytes);
+        List<SubmissionResultModel> results = jsonMapper.readValue(out.toByteArray(), new TypeReference<>() {
+        });
+
+        assertEquals(25, results.size());
+        for (int i = 0; i < 25; i++) {
+            assertEquals(i, results.get(i).getIndex());
+            assertEquals(i == 10 ? 400 : i == 20 ? 404 : 200, results.get(i).getStatus());
+        }
+        List<SolutionModel> stored = questionService.getSolutions(session);
+        assertEquals(23, stored.size());
+        List<SolutionModel> recorded = solutions.stream()
+                .filter(s -> s.getId() != null && !s.getId().equals("no-such-question")).toList();
+        assertEquals(recorded.stream().map(SolutionModel::getId).toList(),
+                stored.stream().map(SolutionModel::getId).toList());
+        // Imported attempts keep their own hint flags
+        assertEquals(recorded.stream().map(SolutionModel::getHint1used).toList(),
+                stored.stream().map(SolutionModel::getHint1used).toList());
+        assertTrue(stored.stream().allMatch(s -> s.getRole() == RoleType.ML));
+    }
+
+    @Test
+    void finishesWhenTheBatchHoldsTheExecutorsOnlyThread() throws Exception {
+        ExecutorService single = Executors.newFixedThreadPool(1);
+        try {
+            BatchService singleThreaded = new BatchService(questionService, filterService, registry,
+                    new QuestionResponseCache(questionService, registry, jsonMapper), jsonMapper, single, 3, 7,
+                    meterRegistry);
+            ReportModel report = new ReportModel();
+            report.setRole(RoleType.SWE);
+            List<ReportModel> reports = Collections.nCopies(50, report);
+
+            // Run the batch on the pool it hands its chunks to, as the controller does
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            single.submit(() -> {
+                singleThreaded.followUps(reports, out::writeBytes);
+                return null;
+            }).get(10, TimeUnit.SECONDS);
+
+            assertEquals(50, jsonMapper.readValue(out.toByteArray(), List.class).size());
+        } finally {
+            single.shutdownNow();
+        }
+    }
+
+    @Test
+    void emptyBatchIsAnEmptyArray() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        batchService.followUps(List.of(), out::writeBytes);
+        assertEquals("[]", out.toString());
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.demo.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.demo.enums.Concepts;
+import com.example.demo.enums.RoleType;
+import com.example.demo.model.Attempt;
+import com.example.demo.model.CohortStatsModel;
+import com.example.demo.model.ConceptStatsModel;
+import com.example.demo.model.SessionKey;
+import com.example.demo.model.SolutionModel;
+import com.example.demo.persistence.AttemptLog;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+class CohortAnalyticsTests {
+
+    private final QuestionRegistry registry = new QuestionRegistry();
+    private final JsonMapper mapper = JsonMapper.builder().build();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void aggregatesInMemorySessionsPerConceptAndQuestion() {
+        SolutionStore store = new SolutionStore(10);
+        // Question 0 is ARRAYS + HASH_TABLE, question 1 is not HASH_TABLE
+        for (int user = 0; user < 50; user++) {
+            SessionKey key = SessionKey.of("u" + user, "s");
+            store.append(key, Attempt.of(solution("0", user % 2 == 0, user % 5 == 0, "30")));
+            store.append(key, Attempt.of(solution("1", false, false, "90")));
+        }
+        store.append(SessionKey.of("ml", "s"), Attempt.of(solution("0", true, false, "10", RoleType.ML)));
+        CohortAnalytics analytics = new CohortAnalytics(registry, store, Optional.empty(), mapper);
+
+        CohortStatsModel stats = analytics.stats(RoleType.SWE);
+
+        assertEquals(100, stats.getAttempts());
+        assertEquals(25, stats.getAccuracyPct());
+        assertEquals(60.0, stats.getAvgTimeSec());
+        assertEquals(10, stats.getHintUsagePct().get("hint1"));
+        assertEquals(10, stats.getHintUsagePct().get("any"));
+        ConceptStatsModel hashTable = stats.getByConcept().stream()
+                .filter(c -> c.getConcept() == Concepts.HASH_TABLE)
+                .findFirst().orElseThrow();
+        assertEquals(50, hashTable.getAttempts());
+        assertEquals(50, hashTable.getAccuracyPct());
+        assertEquals(20, hashTable.getHintUsagePct());
+        assertEquals(List.of("1", "0"), stats.getHardestQuestions().stream().map(q -> q.getId()).toList());
+        assertEquals(0, stats.getHardestQuestions().get(0).getAccuracyPct());
+    }
+
+    @Test
+    void exportsTheAttemptLogAsNdjson() throws IOException {
+        try (AttemptLog log = new AttemptLog(dir, 512, 10, (k, s) -> { })) {
+            for (int i = 0; i < 30; i++) {
+                log.append(SessionKey.of("u" + i % 3, "s"), solution(String.valueOf(i % 4), i % 2 == 0, false, "45",
+                        i < 20 ? RoleType.SWE : RoleType.CLOUD));
+            }
+            CohortAnalytics analytics = new CohortAnalytics(registry, new SolutionStore(10), Optional.of(log), mapper);
+            assertTrue(log.segmentCount() > 1);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            analytics.export(RoleType.SWE, out);
+            List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+
+            assertEquals(20, lines.size());
+            JsonNode first = mapper.readTree(lines.get(0));
+            assertEquals("u0", first.get("userId").asString());
+            assertEquals("0", first.get("id").asString());
+            assertEquals("45", first.get("time").asString());
+            assertEquals(20, analytics.stats(RoleType.SWE).getAttempts());
+            assertEquals(10, analytics.stats(RoleType.CLOUD).getAttempts());
+        }
+    }
+
+    private static SolutionModel solution(String id, boolean correct, boolean hinted, String time) {
+        return solution(id, correct, hinted, time, RoleType.SWE);
+    }
+
+    private static SolutionModel solution(String id, boolean correct, boolean hinted, String time, RoleType role) {
+        SolutionModel s = new SolutionModel();
+        s.setId(id);
+        s.setRole(role);
+        s.setSolution("def solution(): pass");
+        s.setTime(time);
+        s.setCorrect(correct);
+        s.setHint1used(hinted);
+        return s;
+    }
+}
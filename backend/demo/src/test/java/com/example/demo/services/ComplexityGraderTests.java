@@ -0,0 +1,135 @@
+package com.example.demo.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntToDoubleFunction;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import com.example.demo.enums.ComplexityVerdict;
+import com.example.demo.enums.RoleType;
+import com.example.demo.enums.Verdict;
+import com.example.demo.execution.ExecutionService;
+import com.example.demo.execution.SizeTiming;
+import com.example.demo.model.ComplexityReportModel;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
+
+class ComplexityGraderTests {
+
+    private static final long BUDGET = 300_000_000L;
+
+    @Test
+    void parsesAuthoredComplexities() {
+        assertEquals("O(n)", ComplexityGrader.parse("O(n)").label());
+        assertEquals("O(n^2)", ComplexityGrader.parse("O(m * n)").label());
+        assertEquals("O(n^2)", ComplexityGrader.parse("O(amount * coins.length)").label());
+        assertEquals("O(n)", ComplexityGrader.parse("O(V + E)").label());
+        assertEquals("O(n log n)", ComplexityGrader.parse("O(n log k)").label());
+        assertEquals("O(log n)", ComplexityGrader.parse("O(log(m*n))").label());
+        assertEquals("O(n^3)", ComplexityGrader.parse("O(n^3)").label());
+        assertEquals("O(1)", ComplexityGrader.parse("O(1) average per operation").label());
+        assertEquals(true, ComplexityGrader.parse("O(n * 2^n) worst case").exponential());
+        assertNull(ComplexityGrader.parse("linear"));
+        assertNull(ComplexityGrader.parse("O(n"));
+    }
+
+    @Test
+    void fitsTheGrowthOfTheLargestSizes() {
+        ComplexityGrader.Growth linear = ComplexityGrader.parse("O(n)");
+
+        // Call overhead flattens the small sizes; n log n is within the tolerance of O(n)
+        ComplexityReportModel nLogN = ComplexityGrader.evaluate("O(n)", linear,
+                sweep(8, n -> 50_000 + 40.0 * n * Math.log(n), -1), BUDGET);
+        assertEquals(ComplexityVerdict.WITHIN_EXPECTED, nLogN.getVerdict());
+        assertEquals("O(n log n)", nLogN.getMeasured());
+        assertEquals(8, nLogN.getPoints().size());
+
+        ComplexityReportModel quadratic = ComplexityGrader.evaluate("O(n)", linear,
+                sweep(5, n -> 2.0 * n * n, -1), BUDGET);
+        assertEquals(ComplexityVerdict.SLOWER_THAN_EXPECTED, quadratic.getVerdict());
+        assertEquals("O(n^2)", quadratic.getMeasured());
+        assertEquals(2.0, quadratic.getExponent(), 0.05);
+    }
+
+    @Test
+    void timingOutWhereTheExpectedGrowthWouldBeFastIsSlower() {
+        ComplexityGrader.Growth linear = ComplexityGrader.parse("O(n)");
+
+        // Two sizes finish linearly, then the third times out although O(n) would take ~4ms there
+        ComplexityReportModel report = ComplexityGrader.evaluate("O(n)", linear,
+                sweep(3, n -> 1_000.0 * n, 2), BUDGET);
+        assertEquals(ComplexityVerdict.SLOWER_THAN_EXPECTED, report.getVerdict());
+        assertEquals("O(n)", report.getMeasured());
+        assertEquals(4000, report.getStoppedAtSize());
+        assertEquals(Verdict.TIME_LIMIT_EXCEEDED, report.getStoppedBy());
+
+        // Near the budget already, so timing out next is what O(n) would do too
+        ComplexityReportModel close = ComplexityGrader.evaluate("O(n)", linear,
+                sweep(3, n -> 100_000.0 * n, 2), BUDGET);
+        assertEquals(ComplexityVerdict.WITHIN_EXPECTED, close.getVerdict());
+
+        // One size is not a curve
+        ComplexityReportModel single = ComplexityGrader.evaluate("O(n)", linear,
+                sweep(2, n -> 100_000.0 * n, 1), BUDGET);
+        assertEquals(ComplexityVerdict.INCONCLUSIVE, single.getVerdict());
+        assertNull(single.getExponent());
+    }
+
+    @Test
+    void profilesRealSolutions() {
+        QuestionRegistry registry = new QuestionRegistry();
+        ExecutionService executionService = new ExecutionService(true, "python3", 1, 0, Duration.ofSeconds(2),
+                DataSize.ofMegabytes(256), 16, JsonMapper.builder().build(), new SimpleMeterRegistry());
+        try (executionService) {
+            assumeTrue(executionService.isAvailable(), "python3 is not installed");
+            ComplexityGrader grader = new ComplexityGrader(registry, executionService, true,
+                    Duration.ofMillis(500), 2);
+
+            ComplexityReportModel hashing = grader.profile(RoleType.SWE, "0", """
+                    def solution(nums, target):
+                        seen = {}
+                        for i, x in enumerate(nums):
+                            if target - x in seen:
+                                return [seen[target - x], i]
+                            seen[x] = i
+                    """);
+            ComplexityReportModel bruteForce = grader.profile(RoleType.SWE, "0", """
+                    def solution(nums, target):
+                        for i in range(len(nums)):
+                            for j in range(i + 1, len(nums)):
+                                if nums[i] + nums[j] == target:
+                                    return [i, j]
+                    """);
+
+            assertEquals(ComplexityVerdict.WITHIN_EXPECTED, hashing.getVerdict(), hashing.toString());
+            assertEquals(ComplexityVerdict.SLOWER_THAN_EXPECTED, bruteForce.getVerdict(), bruteForce.toString());
+            // Design questions have no generator
+            assertNull(grader.profile(RoleType.SWE, "11", "class MedianFinder: pass"));
+        }
+    }
+
+    /**
+     * Doubling sizes from 1000 timed by {@code nanos}; {@code timeoutAt} is the index of a size
+     * that runs out of time, or -1.
+     */
+    private static List<SizeTiming> sweep(int sizes, IntToDoubleFunction nanos, int timeoutAt) {
+        List<SizeTiming> timings = new ArrayList<>();
+        for (int i = 0; i < sizes; i++) {
+            int n = 1000 << i;
+            if (i == timeoutAt) {
+                timings.add(new SizeTiming(n, Verdict.TIME_LIMIT_EXCEEDED, 0));
+                break;
+            }
+            timings.add(new SizeTiming(n, Verdict.ACCEPTED, (long) nanos.applyAsDouble(n)));
+        }
+        return timings;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.demo.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.BitSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.enums.Concepts;
+import com.example.demo.enums.Difficulty;
+import com.example.demo.enums.RoleType;
+import com.example.demo.model.Attempt;
+import com.example.demo.model.QuestionModel;
+import com.example.demo.model.SessionKey;
+import com.example.demo.model.SolutionModel;
+
+class MasteryRecommenderTests {
+
+    private final QuestionRegistry registry = new QuestionRegistry();
+    private final MasteryRecommender recommender = new MasteryRecommender(registry);
+
+    @Test
+    void hintsAndMistakesMoveMasteryLess() {
+        SessionKey clean = SessionKey.of("clean", "s");
+        SessionKey hinted = SessionKey.of("hinted", "s");
+        SessionKey wrong = SessionKey.of("wrong", "s");
+
+        recommender.record(clean, attempt("0", true, false));
+        recommender.record(hinted, attempt("0", true, true));
+        recommender.record(wrong, attempt("0", false, false));
+
+        // Question 0 is an easy ARRAYS + HASH_TABLE question
+        float cleanSkill = recommender.skill(clean, Concepts.HASH_TABLE);
+        float hintedSkill = recommender.skill(hinted, Concepts.HASH_TABLE);
+        assertTrue(cleanSkill > hintedSkill, cleanSkill + " vs " + hintedSkill);
+        assertTrue(hintedSkill > 0);
+        assertTrue(recommender.skill(wrong, Concepts.HASH_TABLE) < 0);
+        assertEquals(0f, recommender.skill(clean, Concepts.GRAPH));
+    }
+
+    @Test
+    void usersShareOneModelUntilTheirLastSessionIsEvicted() {
+        SessionKey monday = SessionKey.of("u", "monday");
+        SessionKey tuesday = SessionKey.of("u", "tuesday");
+        SessionKey anonymous = SessionKey.of(null, "monday");
+        recommender.record(monday, attempt("0", true, false));
+        recommender.recommend(tuesday, RoleType.SWE, new BitSet(), 1);
+        recommender.record(anonymous, attempt("0", true, false));
+        assertEquals(2, recommender.modelCount());
+
+        recommender.evict(monday);
+        recommender.evict(anonymous);
+        assertTrue(recommender.skill(tuesday, Concepts.HASH_TABLE) > 0);
+        assertEquals(0f, recommender.skill(anonymous, Concepts.HASH_TABLE));
+
+        recommender.evict(tuesday);
+        assertEquals(0, recommender.modelCount());
+    }
+
+    @Test
+    void recommendsEvenOddsQuestionsAndSkipsExcluded() {
+        SessionKey session = SessionKey.of("u", "fresh");
+        QuestionIndex index = registry.getIndex(RoleType.SWE);
+        BitSet excluded = new BitSet();
+        excluded.set(index.positionOf("2"));
+
+        List<QuestionModel> picks = recommender.recommend(session, RoleType.SWE, excluded, 5);
+
+        // With no history every skill is 0, so medium questions have the most uncertain outcome
+        assertEquals(5, picks.size());
+        assertTrue(picks.stream().allMatch(q -> q.getDifficulty() == Difficulty.MEDIUM));
+        assertFalse(picks.stream().anyMatch(q -> q.getId().equals("2")));
+    }
+
+    @Test
+    void masteredConceptsDropOutOfRecommendations() {
+        SessionKey session = SessionKey.of("u", "strong");
+        QuestionModel first = recommender.recommend(session, RoleType.SWE, new BitSet(), 1).get(0);
+        for (int i = 0; i < 20; i++) {
+            recommender.record(session, attempt(first.getId(), true, false));
+        }
+
+        List<QuestionModel> picks = recommender.recommend(session, RoleType.SWE, new BitSet(), 5);
+
+        assertFalse(picks.stream().anyMatch(q -> q.getId().equals(first.getId())));
+    }
+
+    private static Attempt attempt(String id, boolean correct, boolean hinted) {
+        SolutionModel solution = new SolutionModel();
+        solution.setId(id);
+        solution.setRole(RoleType.SWE);
+        solution.setCorrect(correct);
+        solution.setHint1used(hinted);
+        solution.setTime("60");
+        return Attempt.of(solution);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.demo.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.enums.Concepts;
+import com.example.demo.enums.Difficulty;
+import com.example.demo.enums.RoleType;
+import com.example.demo.model.QuestionModel;
+import com.example.demo.model.ReportModel;
+import com.example.demo.model.SolutionModel;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Differential tests: the indexed follow-up selection must return exactly what the original
+ * scan-and-sort implementation returned.
+ */
+class QuestionFilterServiceTests {
+
+    private final QuestionRegistry registry = new QuestionRegistry();
+    private final QuestionFilterService filterService = new QuestionFilterService(registry, new SimpleMeterRegistry());
+
+    @Test
+    void matchesLegacySelectionOnBuiltInBanks() {
+        Random random = new Random(42);
+        for (RoleType role : RoleType.values()) {
+            List<QuestionModel> pool = registry.getQuestions(role);
+            for (int i = 0; i < 500; i++) {
+                ReportModel report = randomReport(random, role, pool);
+                assertEquals(ids(legacyFollowUp(pool, report)), ids(filterService.getFollowUpQuestions(report)));
+            }
+        }
+    }
+
+    @Test
+    void matchesLegacySelectionOnSyntheticBank() {
+        Random random = new Random(7);
+        List<QuestionModel> pool = syntheticBank(random, 2_000);
+        QuestionIndex index = new QuestionIndex(pool);
+        for (int i = 0; i < 500; i++) {
+            ReportModel report = randomReport(random, RoleType.SWE, pool);
+            assertEquals(ids(legacyFollowUp(pool, report)), ids(filterService.getFollowUpQuestions(index, report)));
+        }
+    }
+
+    // Original implementation, kept verbatim as the reference ordering
+    private static List<QuestionModel> legacyFollowUp(List<QuestionModel> pool, ReportModel report) {
+        Difficulty target = report.getSuggestedDifficulty();
+        Set<String> answeredIds = report.getSolutions() != null
+                ? report.getSolutions().stream()
+                        .map(s -> s.getId())
+                        .collect(Collectors.toSet())
+                : Set.of();
+        List<QuestionModel> conceptMatches = pool.stream()
+                .filter(q -> !answeredIds.contains(q.getId()))
+                .filter(q -> q.getConcepts().stream()
+                        .anyMatch(c -> report.getWeakConcepts().contains(c)))
+                .collect(Collectors.toList());
+        conceptMatches.sort(Comparator
+                .comparing((QuestionModel q) -> q.getDifficulty() != target)
+                .thenComparing(q -> -q.getConcepts().stream()
+                        .filter(c -> report.getWeakConcepts().contains(c))
+                        .count()));
+        return conceptMatches.stream().limit(5).collect(Collectors.toList());
+    }
+
+    private static ReportModel randomReport(Random random, RoleType role, List<QuestionModel> pool) {
+        Concepts[] concepts = Concepts.values();
+        List<Concepts> weak = new ArrayList<>();
+        int weakCount = random.nextInt(4);
+        for (int i = 0; i < weakCount; i++) {
+            Concepts c = concepts[random.nextInt(concepts.length)];
+            if (!weak.contains(c)) {
+                weak.add(c);
+            }
+        }
+        List<SolutionModel> solutions = new ArrayList<>();
+        int answered = random.nextInt(6);
+        for (int i = 0; i < answered; i++) {
+            SolutionModel s = new SolutionModel();
+            s.setId(pool.get(random.nextInt(pool.size())).getId());
+            solutions.add(s);
+        }
+        Difficulty[] difficulties = Difficulty.values();
+        ReportModel report = new ReportModel();
+        report.setRole(role);
+        report.setWeakConcepts(weak);
+        report.setSuggestedDifficulty(difficulties[random.nextInt(difficulties.length)]);
+        report.setSolutions(solutions);
+        return report;
+    }
+
+    private static List<QuestionModel> syntheticBank(Random random, int size) {
+        Concepts[] concepts = Concepts.values();
+        Difficulty[] difficulties = Difficulty.values();
+        List<QuestionModel> pool = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            List<Concepts> tags = new ArrayList<>();
+            int tagCount = 1 + random.nextInt(3);
+            while (tags.size() < tagCount) {
+                Concepts c = concepts[random.nextInt(concepts.length)];
+                if (!tags.contains(c)) {
+                    tags.add(c);
+                }
+            }
+            pool.add(QuestionModel.builder()
+                    .id(String.valueOf(i))
+                    .question("Question " + i)
+                    .difficulty(difficulties[random.nextInt(difficulties.length)])
+                    .concepts(tags)
+                    .build());
+        }
+        return pool;
+    }
+
+    private static List<String> ids(List<QuestionModel> questions) {
+        return questions.stream().map(QuestionModel::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.demo.services;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.cluster.LocalStateLayer;
+import com.example.demo.content.QuestionPackLoader;
+import com.example.demo.enums.RoleType;
+import com.example.demo.model.QuestionModel;
+import com.example.demo.similarity.SimilarityIndex;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+class QuestionResponseCacheTests {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+    private final QuestionRegistry registry = new QuestionRegistry();
+    private final SolutionStore solutionStore = new SolutionStore(10);
+    private final ReportEngine reportEngine = new ReportEngine(registry);
+    private final HintTracker hintTracker = new HintTracker();
+    private final MasteryRecommender recommender = new MasteryRecommender(registry);
+    private final QuestionService questionService = new QuestionService(registry, solutionStore, reportEngine, null,
+            null, hintTracker, recommender, new SessionManager(registry, solutionStore, reportEngine, hintTracker, recommender,
+                    new LocalStateLayer(), Duration.ofMinutes(30), Duration.ofSeconds(1), System::currentTimeMillis),
+            new SimilarityIndex(100, 8), Optional.empty(), new LocalStateLayer(), new SimpleMeterRegistry());
+    private final QuestionResponseCache cache = new QuestionResponseCache(questionService, registry, objectMapper);
+
+    @Test
+    void servesSerializedBytesWithStableEtag() throws IOException {
+        QuestionResponseCache.CachedResponse first = cache.byRole(RoleType.SWE);
+
+        assertSame(first, cache.byRole(RoleType.SWE));
+        assertArrayEquals(objectMapper.writeValueAsBytes(questionService.getQuestionsByRole(RoleType.SWE)), first.body());
+        assertNotNull(first.gzip());
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(first.gzip()))) {
+            assertArrayEquals(first.body(), in.readAllBytes());
+        }
+        assertNotEquals(first.etag(), cache.byRole(RoleType.ML).etag());
+    }
+
+    @Test
+    void matchesEitherRepresentationAndWildcards() {
+        QuestionResponseCache.CachedResponse cached = cache.question(RoleType.SWE, "0");
+
+        assertTrue(cached.matches(cached.etag()));
+        assertTrue(cached.matches("\"other\", W/" + cached.gzipEtag()));
+        assertTrue(cached.matches("*"));
+        assertFalse(cached.matches("\"other\""));
+        assertFalse(cached.matches(null));
+        assertNull(cache.question(RoleType.SWE, "no-such-question"));
+    }
+
+    @Test
+    void rebuildsAfterReload() {
+        QuestionResponseCache.CachedResponse before = cache.question(RoleType.SWE, "0");
+
+        registry.reload(QuestionPackLoader.loadBundled());
+
+        QuestionResponseCache.CachedResponse after = cache.question(RoleType.SWE, "0");
+        assertNotSame(before, after);
+        // Same content, so clients holding the old ETag still get a 304
+        assertTrue(after.matches(before.etag()));
+        QuestionModel question = registry.getQuestion(RoleType.SWE, "0");
+        assertArrayEquals(objectMapper.writeValueAsBytes(question), after.body());
+    }
+}
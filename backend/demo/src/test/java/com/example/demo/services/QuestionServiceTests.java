@@ -0,0 +1,178 @@
+package com.example.demo.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import com.example.demo.cluster.LocalStateLayer;
+import com.example.demo.enums.Concepts;
+import com.example.demo.enums.Difficulty;
+import com.example.demo.enums.RoleType;
+import com.example.demo.execution.ExecutionRejectedException;
+import com.example.demo.execution.ExecutionService;
+import com.example.demo.execution.VerdictCache;
+import com.example.demo.model.CaseResultModel;
+import com.example.demo.model.ExecutionResultModel;
+import com.example.demo.model.QuestionModel;
+import com.example.demo.model.QuestionPageModel;
+import com.example.demo.model.QuestionSummaryModel;
+import com.example.demo.model.SessionKey;
+import com.example.demo.model.SessionModel;
+import com.example.demo.model.SolutionModel;
+import com.example.demo.model.TestCaseModel;
+import com.example.demo.similarity.SimilarityIndex;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
+
+class QuestionServiceTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final QuestionRegistry registry = new QuestionRegistry();
+    private final ExecutionService executionService = new ExecutionService(false, "python3", 1, 0,
+            Duration.ofSeconds(1), DataSize.ofMegabytes(64), 16, JsonMapper.builder().build(), meterRegistry);
+    private final SolutionStore solutionStore = new SolutionStore(10);
+    private final ReportEngine reportEngine = new ReportEngine(registry);
+    private final HintTracker hintTracker = new HintTracker();
+    private final MasteryRecommender recommender = new MasteryRecommender(registry);
+    private final SessionManager sessionManager = new SessionManager(registry, solutionStore, reportEngine, hintTracker,
+            recommender, new LocalStateLayer(), Duration.ofMinutes(30), Duration.ofSeconds(1), System::currentTimeMillis);
+    private final QuestionService questionService = questionService(executionService);
+
+    @AfterEach
+    void stopExecution() {
+        executionService.close();
+        sessionManager.close();
+    }
+
+    private QuestionService questionService(ExecutionService execution) {
+        return new QuestionService(registry, solutionStore, reportEngine,
+                new GradingService(registry, execution, new VerdictCache(1, meterRegistry)),
+                new ComplexityGrader(registry, execution, false, Duration.ofSeconds(1), 1), hintTracker, recommender,
+                sessionManager, new SimilarityIndex(100, 8), Optional.empty(), new LocalStateLayer(), meterRegistry);
+    }
+
+    @Test
+    void pagesThroughFilteredSummariesInPackOrder() {
+        List<Difficulty> difficulties = List.of(Difficulty.MEDIUM, Difficulty.HARD);
+        List<Concepts> concepts = List.of(Concepts.ARRAYS, Concepts.DYNAMIC_PROGRAMMING);
+        List<String> expected = registry.getQuestions(RoleType.ML).stream()
+                .filter(q -> difficulties.contains(q.getDifficulty()))
+                .filter(q -> q.getConcepts().stream().anyMatch(concepts::contains))
+                .map(QuestionModel::getId)
+                .toList();
+
+        List<String> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            QuestionPageModel page = questionService.getSummaries(RoleType.ML, difficulties, concepts, cursor, 2);
+            assertTrue(page.getItems().size() <= 2);
+            page.getItems().stream().map(QuestionSummaryModel::getId).forEach(paged::add);
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, paged);
+    }
+
+    @Test
+    void unfilteredPageCarriesTitlesOnly() {
+        QuestionPageModel page = questionService.getSummaries(RoleType.SWE, null, null, null, 100);
+
+        assertEquals(registry.getQuestions(RoleType.SWE).size(), page.getItems().size());
+        assertEquals("Two Sum", page.getItems().get(0).getTitle());
+        assertNull(page.getNextCursor());
+        assertThrows(IllegalArgumentException.class,
+                () -> questionService.getSummaries(RoleType.SWE, null, null, "%%%", 10));
+    }
+
+    @Test
+    void submissionReportsHintsTheSessionFetched() {
+        SessionKey session = SessionKey.of("user", "session");
+        assertEquals("Consider processing nodes one level at a time.",
+                questionService.getHint(session, RoleType.SWE, "2", 1).getHint());
+        questionService.getHint(session, RoleType.SWE, "2", 3);
+        assertNull(questionService.getHint(session, RoleType.SWE, "2", 4));
+
+        SolutionModel solution = new SolutionModel();
+        solution.setId("2");
+        solution.setHint2used(true);
+        questionService.submitAnswer(session, RoleType.SWE, "2", solution);
+
+        SolutionModel stored = questionService.getSolutions(session).get(0);
+        assertEquals(List.of(true, false, true), List.of(stored.getHint1used(), stored.getHint2used(), stored.getHint3used()));
+    }
+
+    @Test
+    void submissionKeepsClaimedHintsWhenTheSessionFetchedNone() {
+        SessionKey session = SessionKey.of("user", "session");
+        // Hints fetched for another question do not count for this one
+        questionService.getHint(session, RoleType.SWE, "2", 1);
+
+        SolutionModel solution = new SolutionModel();
+        solution.setHint1used(false);
+        solution.setHint2used(true);
+        solution.setHint3used(false);
+        questionService.submitAnswer(session, RoleType.SWE, "0", solution);
+
+        SolutionModel stored = questionService.getSolutions(session).get(0);
+        assertEquals(List.of(false, true, false), List.of(stored.getHint1used(), stored.getHint2used(), stored.getHint3used()));
+    }
+
+    @Test
+    void recordsAttemptsUnderThePathIdAndOnlyForKnownQuestions() {
+        SessionKey session = SessionKey.of("user", "session");
+        SolutionModel solution = new SolutionModel();
+        // Claims another question than the one it is submitted to
+        solution.setId("5");
+        solution.setCorrect(true);
+        questionService.submitAnswer(session, RoleType.SWE, "0", solution);
+
+        SolutionModel unknown = new SolutionModel();
+        unknown.setId("no-such-question");
+        assertThrows(IllegalArgumentException.class,
+                () -> questionService.submitAnswer(session, RoleType.SWE, "no-such-question", unknown));
+
+        assertEquals(List.of("0"), questionService.getSolutions(session).stream().map(SolutionModel::getId).toList());
+    }
+
+    @Test
+    void rejectedGradingLeavesTheQuestionUnsubmitted() {
+        ExecutionService busy = new ExecutionService(false, "python3", 1, 0, Duration.ofSeconds(1),
+                DataSize.ofMegabytes(64), 16, JsonMapper.builder().build(), meterRegistry) {
+            @Override
+            public boolean isAvailable() {
+                return true;
+            }
+
+            @Override
+            public ExecutionResultModel execute(String questionId, String source, List<TestCaseModel> cases,
+                                                boolean stopOnFailure, Consumer<CaseResultModel> progress) {
+                throw new ExecutionRejectedException("Execution queue is full");
+            }
+        };
+        QuestionService rejecting = questionService(busy);
+        SessionModel created = sessionManager.create("user", RoleType.SWE, 1);
+        SessionKey session = SessionKey.of(created.getUserId(), created.getSessionId());
+        sessionManager.start(session, "0");
+
+        SolutionModel solution = new SolutionModel();
+        solution.setSolution("def solution(nums, target):\n    return [0, 1]\n");
+        assertThrows(ExecutionRejectedException.class, () -> rejecting.submitAnswer(session, RoleType.SWE, "0", solution));
+
+        assertNull(sessionManager.get(session).getQuestions().get(0).getSubmittedAt());
+        assertTrue(rejecting.getSolutions(session).isEmpty());
+    }
+}
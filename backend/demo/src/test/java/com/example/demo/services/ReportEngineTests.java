@@ -0,0 +1,99 @@
+package com.example.demo.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.enums.Concepts;
+import com.example.demo.enums.Difficulty;
+import com.example.demo.enums.RoleType;
+import com.example.demo.model.Attempt;
+import com.example.demo.model.ReportModel;
+import com.example.demo.model.SessionKey;
+import com.example.demo.model.SolutionModel;
+import com.example.demo.model.TopicScoreModel;
+
+/**
+ * Parity tests against frontend/src/report/computeReport.js. The expected values were produced
+ * by running computeReport over the same attempts after normalizeAttempt.
+ */
+class ReportEngineTests {
+
+    private final ReportEngine engine = new ReportEngine(new QuestionRegistry());
+    private final SessionKey session = SessionKey.of("alice", "s1");
+
+    @Test
+    void matchesFrontendScoringForMixedSession() {
+        submit("0", true, "45");         // EASY, ARRAYS
+        submit("5", true, "120");        // MEDIUM, INTERVALS
+        submit("4", false, "300000");    // HARD, DYNAMIC_PROGRAMMING, in milliseconds
+        submit("3", false, "200");       // MEDIUM, GRAPH
+        submit("6", true, "90");         // MEDIUM, DYNAMIC_PROGRAMMING
+        submit("99", true, "10");        // not in the bank: Easy / Unknown
+
+        ReportModel report = engine.report(session, RoleType.SWE);
+
+        assertEquals(6, report.getSummary().getN());
+        assertEquals(67, report.getSummary().getAccuracyPct());
+        assertEquals(127.5, report.getSummary().getAvgTimeSec());
+        assertEquals(Map.of("Easy", 2, "Medium", 3, "Hard", 1), report.getSummary().getDifficultyMix());
+        assertEquals(55, report.getSummary().getWeightedScore());
+        assertEquals("Developing", report.getSummary().getTier());
+
+        assertEquals(List.of("ARRAYS", "INTERVALS", "DYNAMIC_PROGRAMMING", "GRAPH", "Unknown"),
+                report.getByTopic().stream().map(TopicScoreModel::getTopic).toList());
+        assertEquals(List.of(100, 100, 50, 0, 100),
+                report.getByTopic().stream().map(TopicScoreModel::getAccuracyPct).toList());
+        assertEquals(List.of(45.0, 120.0, 195.0, 200.0, 10.0),
+                report.getByTopic().stream().map(TopicScoreModel::getAvgTimeSec).toList());
+        assertEquals(List.of(100, 100, 40, 0, 100),
+                report.getByTopic().stream().map(TopicScoreModel::getWeightedScore).toList());
+        assertEquals(List.of(94, 83, 30, 0, 99),
+                report.getByTopic().stream().map(TopicScoreModel::getRadarScore).toList());
+
+        assertEquals(List.of("GRAPH", "DYNAMIC_PROGRAMMING"), report.getWeakestTopics());
+        assertEquals(List.of(Concepts.GRAPH, Concepts.DYNAMIC_PROGRAMMING), report.getWeakConcepts());
+        assertEquals(Difficulty.EASY, report.getSuggestedDifficulty());
+        assertEquals(RoleType.SWE, report.getRole());
+    }
+
+    @Test
+    void matchesFrontendScoringForStrongSession() {
+        submit("0", true, "30");         // EASY, ARRAYS
+        submit("10", true, "60");        // HARD, BINARY_TREE
+        submit("11", true, "75.5");      // HARD, HEAP_PRIORITY_QUEUE
+
+        ReportModel report = engine.report(session, RoleType.SWE);
+
+        assertEquals(100, report.getSummary().getWeightedScore());
+        assertEquals(55.2, report.getSummary().getAvgTimeSec());
+        assertEquals("Interview Ready", report.getSummary().getTier());
+        assertEquals(List.of(96, 92, 90),
+                report.getByTopic().stream().map(TopicScoreModel::getRadarScore).toList());
+        // All topics tie at 100%, so the first two seen are the weakest
+        assertEquals(List.of(Concepts.ARRAYS, Concepts.BINARY_TREE), report.getWeakConcepts());
+        assertEquals(Difficulty.HARD, report.getSuggestedDifficulty());
+    }
+
+    @Test
+    void emptySessionMatchesFrontendDefaults() {
+        ReportModel report = engine.report(session, RoleType.ML);
+
+        assertEquals(0, report.getSummary().getN());
+        assertEquals("Beginner", report.getSummary().getTier());
+        assertEquals(List.of(), report.getWeakConcepts());
+        assertEquals(Difficulty.EASY, report.getSuggestedDifficulty());
+    }
+
+    private void submit(String id, boolean correct, String time) {
+        SolutionModel s = new SolutionModel();
+        s.setId(id);
+        s.setRole(RoleType.SWE);
+        s.setCorrect(correct);
+        s.setTime(time);
+        engine.record(session, Attempt.of(s));
+    }
+}
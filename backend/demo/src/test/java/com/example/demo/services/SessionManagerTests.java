@@ -0,0 +1,118 @@
+package com.example.demo.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.cluster.LocalStateLayer;
+import com.example.demo.enums.RoleType;
+import com.example.demo.model.Attempt;
+import com.example.demo.model.SessionKey;
+import com.example.demo.model.SessionModel;
+import com.example.demo.model.SolutionModel;
+
+class SessionManagerTests {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final QuestionRegistry registry = new QuestionRegistry();
+    private final SolutionStore solutionStore = new SolutionStore(10);
+    private final ReportEngine reportEngine = new ReportEngine(registry);
+    private final SessionManager sessions = new SessionManager(registry, solutionStore, reportEngine,
+            new HintTracker(), new MasteryRecommender(registry), new LocalStateLayer(), Duration.ofMinutes(30),
+            Duration.ofSeconds(1), now::get);
+
+    @Test
+    void timesQuestionsFromServerTimestamps() {
+        SessionModel created = sessions.create("alice", RoleType.SWE, 3);
+        SessionKey key = SessionKey.of("alice", created.getSessionId());
+        String first = created.getQuestions().get(0).getId();
+        assertEquals(3, created.getQuestions().size());
+
+        assertNotNull(sessions.start(key, first));
+        now.addAndGet(42_000);
+        sessions.start(key, first);
+        now.addAndGet(3_000);
+
+        assertEquals(45_000, sessions.recordSubmit(key, first));
+        assertEquals(-1, sessions.recordSubmit(key, created.getQuestions().get(1).getId()));
+        assertNull(sessions.start(key, "not-in-session"));
+        assertEquals(now.get(), sessions.get(key).getQuestions().get(0).getSubmittedAt());
+    }
+
+    @Test
+    void evictsIdleSessionsAndTheirAttempts() {
+        SessionKey idle = SessionKey.of("bob", "idle");
+        SessionKey busy = SessionKey.of("bob", "busy");
+        for (SessionKey key : List.of(idle, busy)) {
+            sessions.touch(key);
+            solutionStore.append(key, Attempt.of(solution("0")));
+            reportEngine.record(key, Attempt.of(solution("0")));
+        }
+
+        // Activity half-way through keeps the busy session alive past the first deadline
+        advance(Duration.ofMinutes(20));
+        sessions.touch(busy);
+        advance(Duration.ofMinutes(15));
+
+        assertNull(sessions.get(idle));
+        assertTrue(solutionStore.getAttempts(idle).isEmpty());
+        assertEquals(0, reportEngine.report(idle, RoleType.SWE).getSummary().getN());
+        assertNotNull(sessions.get(busy));
+        assertEquals(1, solutionStore.getAttempts(busy).size());
+        assertEquals(1, sessions.evictedCount());
+
+        advance(Duration.ofMinutes(31));
+        assertEquals(0, sessions.sessionCount());
+        assertEquals(0, solutionStore.attemptCount());
+    }
+
+    @Test
+    void endDropsTheSessionImmediately() {
+        SessionModel created = sessions.create(null, RoleType.ML, 5);
+        SessionKey key = SessionKey.of(null, created.getSessionId());
+
+        assertTrue(sessions.end(key));
+        assertFalse(sessions.end(key));
+        assertNull(sessions.get(key));
+    }
+
+    @Test
+    void timingWheelFiresAfterFullRounds() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 4, 0);
+        wheel.schedule("soon", 25);
+        wheel.schedule("later", 95);
+        TimingWheel.Timer<String> cancelled = wheel.schedule("cancelled", 50);
+        wheel.cancel(cancelled);
+
+        assertEquals(List.of(), wheel.advance(20));
+        assertEquals(List.of("soon"), wheel.advance(30));
+        assertEquals(List.of(), wheel.advance(90));
+        assertEquals(List.of("later"), wheel.advance(100));
+        assertEquals(0, wheel.size());
+    }
+
+    private void advance(Duration duration) {
+        // Tick by tick, like the ticker thread
+        long end = now.get() + duration.toMillis();
+        while (now.get() < end) {
+            now.addAndGet(1_000);
+            sessions.expireIdle();
+        }
+    }
+
+    private static SolutionModel solution(String id) {
+        SolutionModel s = new SolutionModel();
+        s.setId(id);
+        s.setCorrect(true);
+        s.setTime("30");
+        return s;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.demo.similarity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.enums.RoleType;
+import com.example.demo.model.Attempt;
+import com.example.demo.model.SessionKey;
+import com.example.demo.model.SimilarSubmissionModel;
+import com.example.demo.model.SolutionModel;
+
+class SimilarityIndexTests {
+
+    private static final String COIN_CHANGE = """
+            def solution(coins, amount):
+                best = [0] + [amount + 1] * amount
+                for a in range(1, amount + 1):
+                    for c in coins:
+                        if c <= a:
+                            best[a] = min(best[a], best[a - c] + 1)
+                return best[amount] if best[amount] <= amount else -1
+            """;
+    // Same solution with renamed variables, a comment and different spacing
+    private static final String RENAMED_COPY = """
+            def solution(denoms, target):
+                # bottom-up table
+                dp = [0] + [target + 1] * target
+                for x in range(1, target + 1):
+                    for d in denoms:
+                        if d <= x:  dp[x] = min(dp[x], dp[x - d] + 1)
+                return dp[target] if dp[target] <= target else -1
+            """;
+    private static final String GREEDY = """
+            def solution(coins, amount):
+                count = 0
+                for c in sorted(coins, reverse=True):
+                    while amount >= c:
+                        amount -= c
+                        count += 1
+                return count if amount == 0 else -1
+            """;
+
+    @Test
+    void findsRenamedCopiesButNotDifferentSolutions() {
+        SimilarityIndex index = new SimilarityIndex(100, 16);
+        index.add(SessionKey.of("alice", "s"), attempt("6", COIN_CHANGE));
+        index.add(SessionKey.of("bob", "s"), attempt("6", RENAMED_COPY));
+        index.add(SessionKey.of("carol", "s"), attempt("6", GREEDY));
+        index.add(SessionKey.of("dave", "s"), attempt("7", COIN_CHANGE));
+        // The same user resubmitting is not a copy
+        index.add(SessionKey.of("alice", "other"), attempt("6", COIN_CHANGE));
+
+        List<SimilarSubmissionModel> similar = index.similarTo(SessionKey.of("alice", "s"), RoleType.SWE, "6", 0.6, 10);
+
+        assertEquals(List.of("bob"), similar.stream().map(SimilarSubmissionModel::getUserId).toList());
+        assertTrue(similar.get(0).getSimilarity() >= 0.9, "similarity: " + similar.get(0).getSimilarity());
+        assertNull(index.similarTo(SessionKey.of("erin", "s"), RoleType.SWE, "6", 0.6, 10));
+    }
+
+    @Test
+    void comparesAnonymousSubmittersBySession() {
+        SimilarityIndex index = new SimilarityIndex(100, 16);
+        // What the frontend sends: a session id and no user id
+        SessionKey first = SessionKey.of(null, "tab-1");
+        SessionKey second = SessionKey.of(null, "tab-2");
+        index.add(first, attempt("6", COIN_CHANGE));
+        index.add(first, attempt("6", GREEDY));
+        index.add(second, attempt("6", RENAMED_COPY));
+
+        List<SimilarSubmissionModel> similar = index.similarTo(second, RoleType.SWE, "6", 0.6, 10);
+
+        assertEquals(List.of("tab-1"), similar.stream().map(SimilarSubmissionModel::getSessionId).toList());
+        // The session's own earlier submission is not a match for its latest one
+        assertTrue(index.similarTo(first, RoleType.SWE, "6", 0.6, 10).isEmpty());
+    }
+
+    @Test
+    void keepsOnlyTheNewestEntries() {
+        SimilarityIndex index = new SimilarityIndex(10, 4);
+        for (int i = 0; i < 50; i++) {
+            index.add(SessionKey.of("user-" + i, "s"), attempt("6", COIN_CHANGE));
+        }
+
+        assertEquals(10, index.size());
+        // Evicted submissions can no longer be looked up or returned
+        assertNull(index.similarTo(SessionKey.of("user-0", "s"), RoleType.SWE, "6", 0.6, 100));
+        List<SimilarSubmissionModel> similar = index.similarTo(SessionKey.of("user-49", "s"), RoleType.SWE, "6", 0.6, 100);
+        assertTrue(similar.size() <= 4 && !similar.isEmpty(), "matches: " + similar.size());
+        assertTrue(similar.stream().allMatch(s -> Integer.parseInt(s.getUserId().substring(5)) >= 40));
+    }
+
+    private static Attempt attempt(String id, String source) {
+        SolutionModel s = new SolutionModel();
+        s.setId(id);
+        s.setRole(RoleType.SWE);
+        s.setSolution(source);
+        return Attempt.of(s);
+    }
+}
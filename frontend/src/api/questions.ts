@@ -3,6 +3,18 @@ import type { QuestionDifficulty, SessionQuestion } from "../data/sessionQuestio
 
 const API_BASE = import.meta.env.VITE_API_URL ?? "http://localhost:8080";
 
+const SESSION_ID_KEY = "sessionId";
+
+/** Headers identifying this browser session; the backend scopes attempts and reports by them. */
+export function sessionHeaders(): Record<string, string> {
+  let sessionId = sessionStorage.getItem(SESSION_ID_KEY);
+  if (!sessionId) {
+    sessionId = crypto.randomUUID();
+    sessionStorage.setItem(SESSION_ID_KEY, sessionId);
+  }
+  return { "X-Session-Id": sessionId };
+}
+
 /** Backend QuestionModel shape */
 export type QuestionModelDto = {
   id: string;
@@ -86,6 +98,7 @@ export async function fetchQuestionsByPath(path: TechPath): Promise<SessionQuest
 /** Request body for submitting a solution (matches backend SolutionModel). */
 export type SubmitSolutionBody = {
   id?: string;
+  role?: string;
   solution: string;
   time?: string;
   correct?: boolean;
@@ -101,7 +114,7 @@ export async function submitSolution(
 ): Promise<void> {
   const res = await fetch(`${API_BASE}/questions/${questionId}`, {
     method: "POST",
-    headers: { "Content-Type": "application/json" },
+    headers: { "Content-Type": "application/json", ...sessionHeaders() },
     body: JSON.stringify({ ...body, id: body.id ?? questionId }),
   });
   if (!res.ok) throw new Error(`Failed to submit solution: ${res.status}`);
@@ -3,7 +3,7 @@ import { Link, useNavigate } from "react-router-dom";
 import Editor from "@monaco-editor/react";
 import type { TechPath } from "./PathSelect";
 import { type QuestionDifficulty, type SessionQuestion } from "../data/sessionQuestions";
-import { fetchQuestionsByPath, submitSolution, mapQuestionToSession } from "../api/questions";
+import { fetchQuestionsByPath, submitSolution, mapQuestionToSession, techPathToRole } from "../api/questions";
 import type { QuestionModelDto } from "../api/questions";
 import styles from "./Session.module.css";
 
@@ -160,6 +160,7 @@ export default function Session() {
       await submitSolution(currentQuestion.id, {
         solution: code,
         time: String(currentElapsed),
+        role: selectedPath ? techPathToRole(selectedPath) : undefined,
       });
       setSubmittedIndices((prev) => new Set(prev).add(questionIndex));
       if (isLastQuestion) {
@@ -174,7 +175,7 @@ export default function Session() {
     } finally {
       setSubmitting(false);
     }
-  }, [currentQuestion, questionIndex, code, currentElapsed, isLastQuestion, navigate, questions.length]);
+  }, [currentQuestion, questionIndex, code, currentElapsed, isLastQuestion, navigate, questions.length, selectedPath]);
 
   const handleRun = useCallback(() => {
     console.log("Run", { questionId: currentQuestion?.id, code });
@@ -9,6 +9,7 @@
 import { useState, useEffect } from "react";
 import { normalizeAttempt } from "./normalizeAttempt";
 import { mockAttempts } from "./mockAttempts";
+import { sessionHeaders } from "../api/questions";
 
 const API_BASE = import.meta.env.VITE_API_URL ?? "http://localhost:8080";
 
@@ -38,7 +39,9 @@ export function useReportData() {
         const role = roleMap[selectedPath] || "SWE";
 
         // Fetch report from backend with role query param
-        const reportResponse = await fetch(`${API_BASE}/questions/report?role=${role}`);
+        const reportResponse = await fetch(`${API_BASE}/questions/report?role=${role}`, {
+          headers: sessionHeaders(),
+        });
 
         if (!reportResponse.ok) {
           throw new Error(`HTTP error! status: ${reportResponse.status}`);